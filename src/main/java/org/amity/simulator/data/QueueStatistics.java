@@ -17,58 +17,476 @@
  */
 package org.amity.simulator.data;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
- * Implements data store for queue information
+ * Time weighted statistics of queue depth over a sample period, updated as
+ * the depth changes rather than kept as a history. Each period the queue
+ * stays at one depth is taken in when the depth next changes, if it ends
+ * inside the sample, with any part before the sample start cut off. The
+ * period still open at the end of the simulation is left out. For the median,
+ * the latest end of a period at each depth is kept, and the median is the
+ * smallest depth with a period ending after half the length of the sample.
+ * Simulations written to checkpoints also keep a second sample with no end,
+ * so a simulation resumed from one can carry on with the same start and any
+ * end after the last depth change. Not thread safe.
  *
  * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
  */
 public class QueueStatistics
 {
+    private double start;
+    private double end;
     private int depth;
     private double time;
-    private double span;
+    private int changes;
+    private final Sample sample;
+    private Sample open;
 
+    /**
+     * Construct statistics over all time
+     */
     public QueueStatistics()
+    {
+        this.start = 0;
+        this.end = Double.POSITIVE_INFINITY;
+        this.sample = new Sample();
+        this.open = null;
+        this.clear();
+    }
+
+    /**
+     * Set the sample period, forgetting any depth changes taken in
+     *
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     */
+    public void setWindow(final double start, final double end)
+    {
+        this.start = start;
+        this.end = end;
+        this.clear();
+    }
+
+    /**
+     * Move the end of the sample period of statistics read from a checkpoint,
+     * which is only possible while no depth change taken in so far would have
+     * been cut off, or the start as well if there have been no changes
+     *
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return <code>false</code> if the statistics cannot be taken over the
+     * new sample period
+     */
+    public boolean resample(final double start, final double end)
+    {
+        boolean possible = this.changes == 0 || start == this.start;
+        if (possible && !(end > this.time && this.end > this.time))
+        {
+            // Changes past the old end are only in the sample with no end
+            possible = this.open != null && end > this.time;
+            if (possible)
+            {
+                this.sample.copy(this.open);
+            }
+        }
+        if (possible)
+        {
+            this.start = start;
+            this.end = end;
+        }
+        return possible;
+    }
+
+    /**
+     * Keep a sample with no end as well from now on, so the end of the sample
+     * period can still be moved
+     *
+     * @param kept <code>true</code> to keep the sample with no end
+     */
+    public void setKept(final boolean kept)
+    {
+        this.open = kept ? new Sample() : null;
+    }
+
+    /**
+     * Cut the sample period short once the simulation has stopped, so no
+     * later depth change can be taken in
+     *
+     * @param end point in ticks the statistics sample ended
+     */
+    public void setEnd(final double end)
+    {
+        this.end = Math.min(this.end, end);
+    }
+
+    /**
+     * Forget all depth changes and start again at an empty queue
+     */
+    public final void clear()
     {
         this.depth = 0;
-        this.time = 0.0;
-        this.span = 0.0;
+        this.time = 0;
+        this.changes = 0;
+        this.sample.clear();
+        if (this.open != null)
+        {
+            this.open.clear();
+        }
     }
 
-    public QueueStatistics(final int depth, final double time, final double span)
+    /**
+     * Take in a change of queue depth, closing the period at the depth before
+     *
+     * @param depth number of events queued from now
+     * @param time point in ticks the depth changed
+     */
+    public void change(final int depth, final double time)
     {
+        this.sample.take(this.depth, this.time, time, this.start, this.end);
+        if (this.open != null)
+        {
+            this.open.take(this.depth, this.time, time, this.start,
+                    Double.POSITIVE_INFINITY);
+        }
         this.depth = depth;
         this.time = time;
-        this.span = span;
+        this.changes++;
     }
 
-    public void setDepth(final int depth)
+    /**
+     *
+     * @return number of events queued at the last change
+     */
+    public int getDepth()
     {
-        this.depth = depth;
+        return this.depth;
     }
 
-    public void setTime(final double time)
+    /**
+     *
+     * @return number of depth changes taken in
+     */
+    public int getChanges()
     {
-        this.time = time;
+        return this.changes;
     }
 
-    public void setSpan(final double span)
+    /**
+     *
+     * @return time weighted mean depth over the sample
+     */
+    public double getMean()
     {
-        this.span = span;
+        return this.sample.periods == 0 ? 0
+                : this.sample.area / (this.end - this.start);
     }
 
-    public int getDepth()
+    /**
+     *
+     * @return time weighted standard deviation of depth over the sample
+     */
+    public double getStandardDeviation()
     {
-        return this.depth;
+        final double mean = this.getMean();
+        // Same as summing the squared difference from the mean over periods
+        final double variance = this.sample.periods == 0 ? 0
+                : (this.sample.squares - 2 * mean * this.sample.area
+                + mean * mean * this.sample.weight) / (this.end - this.start);
+        return variance > 0.0 ? Math.sqrt(variance) : 0.0;
+    }
+
+    /**
+     *
+     * @return smallest depth with a period ending after half the length of
+     * the sample
+     */
+    public int getMedian()
+    {
+        final double half = (this.end - this.start) / 2.0;
+        int median = 0;
+        for (int value = 0; value < this.sample.latest.length; value++)
+        {
+            if (half < this.sample.latest[value])
+            {
+                median = value;
+                break;
+            }
+        }
+        return median;
+    }
+
+    /**
+     *
+     * @return deepest the queue was in the sample
+     */
+    public int getMaximum()
+    {
+        return this.sample.maximum;
+    }
+
+    /**
+     *
+     * @return shallowest the queue was in the sample
+     */
+    public int getMinimum()
+    {
+        return this.sample.periods == 0 ? 0 : this.sample.minimum;
+    }
+
+    /**
+     * Save what the next depth change can alter, so it can be undone
+     *
+     * @return saved state
+     */
+    public Object save()
+    {
+        final double[] state = new double[this.open == null ? 10 : 17];
+        state[0] = this.depth;
+        state[1] = this.time;
+        state[2] = this.changes;
+        this.sample.save(state, 3, this.depth);
+        if (this.open != null)
+        {
+            this.open.save(state, 10, this.depth);
+        }
+        return state;
+    }
+
+    /**
+     * Undo depth changes back to a saved state
+     *
+     * @param state state from an earlier save
+     */
+    public void restore(final Object state)
+    {
+        final double[] values = (double[]) state;
+        this.depth = (int) values[0];
+        this.time = values[1];
+        this.changes = (int) values[2];
+        this.sample.restore(values, 3, this.depth);
+        if (this.open != null && values.length > 10)
+        {
+            this.open.restore(values, 10, this.depth);
+        }
+    }
+
+    /**
+     * Write the statistics to a checkpoint
+     *
+     * @param output stream the statistics are written to
+     * @throws IOException if the statistics cannot be written
+     */
+    public void write(final DataOutput output) throws IOException
+    {
+        output.writeDouble(this.start);
+        output.writeDouble(this.end);
+        output.writeInt(this.depth);
+        output.writeDouble(this.time);
+        output.writeInt(this.changes);
+        this.sample.write(output);
+        output.writeBoolean(this.open != null);
+        if (this.open != null)
+        {
+            this.open.write(output);
+        }
     }
 
-    public double getTime()
+    /**
+     * Replace the statistics with those read from a checkpoint
+     *
+     * @param input stream the statistics are read from
+     * @throws IOException if the statistics cannot be read
+     */
+    public void read(final DataInput input) throws IOException
     {
-        return this.time;
+        this.start = input.readDouble();
+        this.end = input.readDouble();
+        this.depth = input.readInt();
+        this.time = input.readDouble();
+        this.changes = input.readInt();
+        this.sample.read(input);
+        this.open = input.readBoolean() ? new Sample() : null;
+        if (this.open != null)
+        {
+            this.open.read(input);
+        }
     }
 
-    public double getSpan()
+    /**
+     * Running time weighted sums of the periods taken in over one sample
+     */
+    private static final class Sample
     {
-        return this.span;
+        private int periods;
+        private double weight;
+        private double area;
+        private double squares;
+        private int minimum;
+        private int maximum;
+        private double[] latest;
+
+        /**
+         * Construct empty sample
+         */
+        private Sample()
+        {
+            this.latest = new double[0];
+            this.clear();
+        }
+
+        /**
+         * Forget all periods taken in
+         */
+        private void clear()
+        {
+            this.periods = 0;
+            this.weight = 0;
+            this.area = 0;
+            this.squares = 0;
+            this.minimum = Integer.MAX_VALUE;
+            this.maximum = 0;
+            Arrays.fill(this.latest, Double.NEGATIVE_INFINITY);
+        }
+
+        /**
+         * Take in a period at one depth if it ends inside the sample, with
+         * any part before the sample start cut off
+         *
+         * @param depth number of events queued over the period
+         * @param from point in ticks the period began
+         * @param to point in ticks the period ended
+         * @param start beginning of statistics sample in ticks
+         * @param end final point in ticks for statistics sample
+         */
+        private void take(final int depth, final double from, final double to,
+                final double start, final double end)
+        {
+            final double span = to - from;
+            final double complete = from + span;
+            if (complete > start && complete < end)
+            {
+                final double part = from < start
+                        ? span - (start - from) : span;
+                this.weight += part;
+                this.area += part * depth;
+                this.squares += part * depth * depth;
+                this.minimum = Math.min(this.minimum, depth);
+                this.maximum = Math.max(this.maximum, depth);
+                if (depth >= this.latest.length)
+                {
+                    final int size = this.latest.length;
+                    this.latest = Arrays.copyOf(this.latest,
+                            Math.max(8, Math.max(depth + 1, size * 2)));
+                    Arrays.fill(this.latest, size, this.latest.length,
+                            Double.NEGATIVE_INFINITY);
+                }
+                this.latest[depth] = Math.max(this.latest[depth], complete);
+                this.periods++;
+            }
+        }
+
+        /**
+         * Take over the periods of another sample
+         *
+         * @param other sample copied
+         */
+        private void copy(final Sample other)
+        {
+            this.periods = other.periods;
+            this.weight = other.weight;
+            this.area = other.area;
+            this.squares = other.squares;
+            this.minimum = other.minimum;
+            this.maximum = other.maximum;
+            this.latest = other.latest.clone();
+        }
+
+        /**
+         * Save what the next period can alter
+         *
+         * @param state saved values
+         * @param offset position of the first value of this sample
+         * @param depth depth of the next period
+         */
+        private void save(final double[] state, final int offset,
+                final int depth)
+        {
+            state[offset] = this.periods;
+            state[offset + 1] = this.area;
+            state[offset + 2] = this.squares;
+            state[offset + 3] = this.minimum;
+            state[offset + 4] = this.maximum;
+            state[offset + 5] = depth < this.latest.length
+                    ? this.latest[depth] : Double.NEGATIVE_INFINITY;
+            state[offset + 6] = this.weight;
+        }
+
+        /**
+         * Undo periods back to a saved state
+         *
+         * @param state saved values
+         * @param offset position of the first value of this sample
+         * @param depth depth of the next period when saved
+         */
+        private void restore(final double[] state, final int offset,
+                final int depth)
+        {
+            this.periods = (int) state[offset];
+            this.area = state[offset + 1];
+            this.squares = state[offset + 2];
+            this.minimum = (int) state[offset + 3];
+            this.maximum = (int) state[offset + 4];
+            if (depth < this.latest.length)
+            {
+                this.latest[depth] = state[offset + 5];
+            }
+            this.weight = state[offset + 6];
+        }
+
+        /**
+         * Write the sample to a checkpoint
+         *
+         * @param output stream the sample is written to
+         * @throws IOException if the sample cannot be written
+         */
+        private void write(final DataOutput output) throws IOException
+        {
+            output.writeInt(this.periods);
+            output.writeDouble(this.weight);
+            output.writeDouble(this.area);
+            output.writeDouble(this.squares);
+            output.writeInt(this.minimum);
+            output.writeInt(this.maximum);
+            output.writeInt(this.latest.length);
+            for (final double value : this.latest)
+            {
+                output.writeDouble(value);
+            }
+        }
+
+        /**
+         * Replace the sample with one read from a checkpoint
+         *
+         * @param input stream the sample is read from
+         * @throws IOException if the sample cannot be read
+         */
+        private void read(final DataInput input) throws IOException
+        {
+            this.periods = input.readInt();
+            this.weight = input.readDouble();
+            this.area = input.readDouble();
+            this.squares = input.readDouble();
+            this.minimum = input.readInt();
+            this.maximum = input.readInt();
+            this.latest = new double[input.readInt()];
+            for (int index = 0; index < this.latest.length; index++)
+            {
+                this.latest[index] = input.readDouble();
+            }
+        }
     }
 }
@@ -20,14 +20,17 @@
 
 package org.amity.simulator.distributors;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.amity.simulator.elements.Event;
+import org.amity.simulator.generators.Replayable;
 import org.amity.simulator.elements.Sequencer;
 import org.amity.simulator.language.NameValue;
 import org.amity.simulator.language.Vocabulary;
-import org.apache.commons.math3.random.JDKRandomGenerator;
-import org.apache.commons.math3.random.RandomGenerator;
+import org.amity.simulator.generators.Engines;
 import org.amity.simulator.elements.Component;
 
 /**
@@ -41,7 +44,7 @@ public class Random implements Distributor
     private final List<String> references;
     private final int modulus;
     private final Component[] next;
-    private final RandomGenerator generator;
+    private final Replayable generator;
     private int peek;
 
     /**
@@ -66,7 +69,7 @@ public class Random implements Distributor
         this.references = references;
         this.modulus = references != null ? references.size() : 0;
         this.next = new Component[this.modulus];
-        this.generator = new JDKRandomGenerator();
+        this.generator = new Replayable(Engines.create());
         this.peek = UNKNOWN;
     }
 
@@ -155,6 +158,51 @@ public class Random implements Distributor
         return string.toString();
     }
 
+    @Override
+    public Object save()
+    {
+        return new long[]
+        {
+            this.peek, this.generator.mark()
+        };
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        final long[] values = (long[]) state;
+        this.peek = (int) values[0];
+        this.generator.rewind(values[1]);
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        this.generator.release(((long[]) state)[1]);
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException
+    {
+        output.writeInt(this.peek);
+        this.generator.write(output);
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException
+    {
+        // Targets may have been changed since the state was written
+        final int value = input.readInt();
+        this.peek = value < this.modulus ? value : UNKNOWN;
+        this.generator.read(input);
+    }
+
+    @Override
+    public void seed(final String engine, final long seed)
+    {
+        this.generator.replace(Engines.create(engine, seed));
+    }
+
     /**
      * Create algorithm object given raw name-value pairs
      * 
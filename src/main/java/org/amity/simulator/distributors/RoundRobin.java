@@ -19,6 +19,9 @@
  */
 package org.amity.simulator.distributors;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.amity.simulator.elements.Event;
@@ -114,6 +117,42 @@ public class RoundRobin implements Distributor
         return string.toString();
     }
 
+    @Override
+    public Object save()
+    {
+        return this.current;
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        this.current = (Integer) state;
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException
+    {
+        output.writeInt(this.current);
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException
+    {
+        // Targets may have been changed since the state was written
+        this.current = input.readInt() % Math.max(1, this.modulus);
+    }
+
+    @Override
+    public void seed(final String engine, final long seed)
+    {
+        // Nothing random to seed
+    }
+
     @Override
     public void reset()
     {
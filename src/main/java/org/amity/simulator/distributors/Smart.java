@@ -19,6 +19,9 @@
  */
 package org.amity.simulator.distributors;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.amity.simulator.elements.Event;
@@ -141,6 +144,43 @@ public class Smart implements Distributor
         return string.toString();
     }
 
+    @Override
+    public Object save()
+    {
+        return this.peek;
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        this.peek = (Integer) state;
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException
+    {
+        output.writeInt(this.peek);
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException
+    {
+        // Targets may have been changed since the state was written
+        final int value = input.readInt();
+        this.peek = value < this.next.length ? value : UNKNOWN;
+    }
+
+    @Override
+    public void seed(final String engine, final long seed)
+    {
+        // Nothing random to seed
+    }
+
     @Override
     public Component[] connections()
     {
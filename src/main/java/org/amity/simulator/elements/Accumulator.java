@@ -0,0 +1,419 @@
+/*
+ * Accumulator.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Streaming statistics for one measurement - count, mean and variance by
+ * Welford's method, minimum, maximum and a KLL sketch for percentiles, so the
+ * memory used does not grow with the number of values. The sketch keeps
+ * values in levels where each value at level h stands for 2^h of the values
+ * added, and halves a level into the one above when it is full. Until the
+ * first level is halved every value is kept and percentiles are exact.
+ * Compaction alternates between keeping the odd and even values rather than
+ * choosing at random, so results are repeatable. Accumulators can be merged,
+ * copied and written to checkpoints. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Accumulator
+{
+
+    private final static int K = 1024;
+    private final static int SMALLEST = 8;
+    private final static double SHRINK = 2.0 / 3.0;
+    private long count;
+    private double mean;
+    private double squares;
+    private double minimum;
+    private double maximum;
+    private double[][] levels;
+    private int[] sizes;
+    private int[] capacities;
+    private int height;
+    private int retained;
+    private int capacity;
+    private boolean odd;
+
+    /**
+     * Construct empty accumulator
+     */
+    Accumulator()
+    {
+        this.levels = new double[1][];
+        this.sizes = new int[1];
+        this.capacities = new int[1];
+        this.clear();
+    }
+
+    /**
+     * Forget every value added
+     */
+    void clear()
+    {
+        this.count = 0;
+        this.mean = 0;
+        this.squares = 0;
+        this.minimum = Double.NaN;
+        this.maximum = Double.NaN;
+        this.levels = new double[1][];
+        this.levels[0] = new double[SMALLEST];
+        this.sizes = new int[1];
+        this.capacities = new int[1];
+        this.height = 1;
+        this.retained = 0;
+        this.odd = false;
+        this.resize();
+    }
+
+    /**
+     * Add a value
+     *
+     * @param value observed value
+     */
+    void add(final double value)
+    {
+        this.count++;
+        final double difference = value - this.mean;
+        this.mean += difference / this.count;
+        this.squares += difference * (value - this.mean);
+        this.minimum = this.count == 1 ? value
+                : FastMath.min(this.minimum, value);
+        this.maximum = this.count == 1 ? value
+                : FastMath.max(this.maximum, value);
+        this.append(0, value);
+        this.compress();
+    }
+
+    /**
+     * Take in all the values added to another accumulator
+     *
+     * @param other accumulator to merge
+     */
+    void merge(final Accumulator other)
+    {
+        // Nothing to combine with, so take the other as it is
+        if (this.count == 0)
+        {
+            this.copy(other);
+        }
+        else if (other.count > 0)
+        {
+            final long total = this.count + other.count;
+            final double difference = other.mean - this.mean;
+            this.squares += other.squares + difference * difference
+                    * this.count * other.count / total;
+            this.mean += difference * other.count / total;
+            this.minimum = this.count == 0 ? other.minimum
+                    : FastMath.min(this.minimum, other.minimum);
+            this.maximum = this.count == 0 ? other.maximum
+                    : FastMath.max(this.maximum, other.maximum);
+            this.count = total;
+            for (int level = 0; level < other.height; level++)
+            {
+                for (int index = 0; index < other.sizes[level]; index++)
+                {
+                    this.append(level, other.levels[level][index]);
+                }
+            }
+            this.compress();
+        }
+    }
+
+    /**
+     * Replace the values added with those of another accumulator
+     *
+     * @param other accumulator copied
+     */
+    void copy(final Accumulator other)
+    {
+        this.count = other.count;
+        this.mean = other.mean;
+        this.squares = other.squares;
+        this.minimum = other.minimum;
+        this.maximum = other.maximum;
+        this.levels = new double[other.levels.length][];
+        for (int level = 0; level < other.height; level++)
+        {
+            this.levels[level] = other.levels[level].clone();
+        }
+        this.sizes = other.sizes.clone();
+        this.capacities = other.capacities.clone();
+        this.height = other.height;
+        this.retained = other.retained;
+        this.capacity = other.capacity;
+        this.odd = other.odd;
+    }
+
+    /**
+     * Write the moments and the sketch to a checkpoint
+     *
+     * @param output stream the accumulator is written to
+     * @throws IOException if the accumulator cannot be written
+     */
+    void write(final DataOutput output) throws IOException
+    {
+        output.writeLong(this.count);
+        output.writeDouble(this.mean);
+        output.writeDouble(this.squares);
+        output.writeDouble(this.minimum);
+        output.writeDouble(this.maximum);
+        output.writeBoolean(this.odd);
+        output.writeInt(this.height);
+        for (int level = 0; level < this.height; level++)
+        {
+            output.writeInt(this.sizes[level]);
+            for (int index = 0; index < this.sizes[level]; index++)
+            {
+                output.writeDouble(this.levels[level][index]);
+            }
+        }
+    }
+
+    /**
+     * Replace the values added with those read from a checkpoint
+     *
+     * @param input stream the accumulator is read from
+     * @throws IOException if the accumulator cannot be read
+     */
+    void read(final DataInput input) throws IOException
+    {
+        this.count = input.readLong();
+        this.mean = input.readDouble();
+        this.squares = input.readDouble();
+        this.minimum = input.readDouble();
+        this.maximum = input.readDouble();
+        this.odd = input.readBoolean();
+        this.height = input.readInt();
+        if (this.height < 1)
+        {
+            throw new IOException("Checkpoint has an empty sketch");
+        }
+        this.levels = new double[this.height][];
+        this.sizes = new int[this.height];
+        this.capacities = new int[this.height];
+        this.retained = 0;
+        for (int level = 0; level < this.height; level++)
+        {
+            this.sizes[level] = input.readInt();
+            this.levels[level]
+                    = new double[Math.max(SMALLEST, this.sizes[level])];
+            for (int index = 0; index < this.sizes[level]; index++)
+            {
+                this.levels[level][index] = input.readDouble();
+            }
+            this.retained += this.sizes[level];
+        }
+        this.resize();
+    }
+
+    /**
+     *
+     * @return number of values added
+     */
+    long getN()
+    {
+        return this.count;
+    }
+
+    /**
+     *
+     * @return mean of the values, or NaN if there are none
+     */
+    double getMean()
+    {
+        return this.count == 0 ? Double.NaN : this.mean;
+    }
+
+    /**
+     *
+     * @return sample standard deviation of the values, zero for one value or
+     * NaN if there are none
+     */
+    double getStandardDeviation()
+    {
+        final double deviation;
+        if (this.count == 0)
+        {
+            deviation = Double.NaN;
+        }
+        else if (this.count == 1)
+        {
+            deviation = 0;
+        }
+        else
+        {
+            deviation = FastMath.sqrt(this.squares / (this.count - 1));
+        }
+        return deviation;
+    }
+
+    /**
+     *
+     * @return smallest value, or NaN if there are none
+     */
+    double getMin()
+    {
+        return this.minimum;
+    }
+
+    /**
+     *
+     * @return largest value, or NaN if there are none
+     */
+    double getMax()
+    {
+        return this.maximum;
+    }
+
+    /**
+     * Estimate a percentile - exact while every value is still kept
+     *
+     * @param percentile percentile wanted, above 0 and up to 100
+     * @return estimate of the percentile, or NaN if there are no values
+     */
+    double getPercentile(final double percentile)
+    {
+        final double value;
+        if (this.count == 0)
+        {
+            value = Double.NaN;
+        }
+        else if (this.height == 1)
+        {
+            value = new Percentile().evaluate(this.levels[0], 0,
+                    this.sizes[0], percentile);
+        }
+        else
+        {
+            // Walk the levels in value order until enough weight is passed
+            final int[] positions = new int[this.height];
+            for (int level = 0; level < this.height; level++)
+            {
+                Arrays.sort(this.levels[level], 0, this.sizes[level]);
+            }
+            final double target = percentile / 100 * this.count;
+            double passed = 0;
+            double found = this.maximum;
+            while (passed < target)
+            {
+                int lowest = -1;
+                for (int level = 0; level < this.height; level++)
+                {
+                    if (positions[level] < this.sizes[level] && (lowest < 0
+                            || this.levels[level][positions[level]]
+                            < this.levels[lowest][positions[lowest]]))
+                    {
+                        lowest = level;
+                    }
+                }
+                if (lowest < 0)
+                {
+                    break;
+                }
+                found = this.levels[lowest][positions[lowest]++];
+                passed += 1L << lowest;
+            }
+            value = found;
+        }
+        return value;
+    }
+
+    /**
+     * Add a value to a level, making room if needed
+     *
+     * @param level level the value is added to
+     * @param value value to add
+     */
+    private void append(final int level, final double value)
+    {
+        // Merging a taller sketch can add more than one level
+        while (level >= this.height)
+        {
+            if (this.height == this.levels.length)
+            {
+                this.levels = Arrays.copyOf(this.levels, this.height * 2);
+                this.sizes = Arrays.copyOf(this.sizes, this.height * 2);
+                this.capacities = Arrays.copyOf(this.capacities,
+                        this.height * 2);
+            }
+            this.levels[this.height] = new double[SMALLEST];
+            this.sizes[this.height] = 0;
+            this.height++;
+            this.resize();
+        }
+        if (this.sizes[level] == this.levels[level].length)
+        {
+            this.levels[level] = Arrays.copyOf(this.levels[level],
+                    this.levels[level].length * 2);
+        }
+        this.levels[level][this.sizes[level]++] = value;
+        this.retained++;
+    }
+
+    /**
+     * Halve full levels until the sketch is within its capacity
+     */
+    private void compress()
+    {
+        while (this.retained > this.capacity)
+        {
+            int level = 0;
+            while (this.sizes[level] < this.capacities[level])
+            {
+                level++;
+            }
+            final double[] values = this.levels[level];
+            final int size = this.sizes[level];
+            Arrays.sort(values, 0, size);
+            // An odd one out stays behind at its level
+            final int first = size % 2;
+            final int offset = this.odd ? 1 : 0;
+            this.odd = !this.odd;
+            for (int index = first + offset; index < size; index += 2)
+            {
+                this.append(level + 1, values[index]);
+            }
+            this.retained -= size - first;
+            this.sizes[level] = first;
+        }
+    }
+
+    /**
+     * Work out how many values each level can hold before it is halved -
+     * lower levels hold fewer as the sketch grows taller
+     */
+    private void resize()
+    {
+        this.capacity = 0;
+        for (int level = 0; level < this.height; level++)
+        {
+            this.capacities[level] = Math.max(SMALLEST, (int) FastMath.ceil(K
+                    * FastMath.pow(SHRINK, this.height - 1 - level)));
+            this.capacity += this.capacities[level];
+        }
+    }
+}
@@ -19,7 +19,10 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,9 +42,13 @@ public class Balancer implements Component
 {
     private final String label;
     private final Distributor distributor;
-    private final List<Event> local;
+    private final Visits local;
     private final boolean monitor;
+    private boolean recording;
     private final boolean intelligent;
+    private boolean flattened;
+    BitSet leads;
+    boolean chained;
 
     /**
      * Hidden default constructor to avoid implicit creation
@@ -50,9 +57,13 @@ public class Balancer implements Component
     {
         this.label = "dummy";
         this.distributor = null;
+        this.leads = null;
+        this.chained = false;
+        this.flattened = false;
         this.monitor = false;
+        this.recording = true;
         this.intelligent = false;
-        this.local = new ArrayList<>();
+        this.local = new Visits();
     }
 
     /**
@@ -68,16 +79,32 @@ public class Balancer implements Component
         this.label = label;
         this.distributor = distributor;
         this.intelligent = distributor instanceof Smart;
+        this.leads = null;
+        this.chained = false;
+        this.flattened = false;
         this.monitor = monitor;
-        this.local = new ArrayList<>();
+        this.recording = true;
+        this.local = new Visits();
     }
 
     @Override
-    public List<Event> getLocalEvents()
+    public Visits getLocalEvents()
     {
         return this.local;
     }
 
+    @Override
+    public void setRecording(final boolean all)
+    {
+        this.recording = all || this.monitor;
+    }
+
+    @Override
+    public boolean isRecording()
+    {
+        return this.recording;
+    }
+
     @Override
     public void reset()
     {
@@ -106,12 +133,61 @@ public class Balancer implements Component
             final double arrived = event.getArrived();
             // Non-delay component so no associated wait time
             event.setValues(arrived, arrived, arrived);
-            // Copy current event to local records
-            final Event current = new Event(event);
-            current.setComponent(null);
-            this.local.add(current);
+            // Record values of current event locally
+            if (this.recording)
+            {
+                this.local.add(event);
+            }
+        }
+        Event result = event == null ? event : distributor.assign(event);
+        // Carry straight on through the balancers after this one so the
+        // whole chain is one routing step
+        if (this.flattened && result != null
+                && result.getComponent() instanceof Balancer next)
+        {
+            result = next.simulate(result);
+        }
+        return result;
+    }
+
+    /**
+     * Choose whether an event passes on through any balancers after this one
+     * in the same transition
+     *
+     * @param flattened <code>true</code> to route through a chain of
+     * balancers in one transition, <code>false</code> for a transition at
+     * each balancer
+     */
+    void setFlattened(final boolean flattened)
+    {
+        this.flattened = flattened && this.chained;
+    }
+
+    /**
+     * Find the balancers of a compiled model that choose between other
+     * balancers, so each chain of balancers can be routed through as one
+     * step - each balancer in the chain still makes its own choice and
+     * keeps its own records
+     *
+     * @param components all the components of a model
+     */
+    static void flatten(final Collection<Component> components)
+    {
+        for (final Component component : components)
+        {
+            if (component instanceof Balancer balancer
+                    && balancer.distributor != null)
+            {
+                boolean chained = false;
+                for (final Component next
+                        : balancer.distributor.connections())
+                {
+                    chained |= next instanceof Balancer;
+                }
+                balancer.chained = chained;
+                balancer.flattened = false;
+            }
         }
-        return event == null ? event : distributor.assign(event);
     }
 
     @Override
@@ -137,9 +213,20 @@ public class Balancer implements Component
     }
 
     @Override
-    public List<QueueStatistics> getQueueStatistics()
+    public List<Function> getFunctions()
     {
-        return new ArrayList<>();
+        final List<Function> functions = new ArrayList<>();
+        if (this.distributor != null)
+        {
+            functions.add(this.distributor);
+        }
+        return functions;
+    }
+
+    @Override
+    public QueueStatistics getQueueStatistics()
+    {
+        return new QueueStatistics();
     }
 
     @Override
@@ -212,6 +299,40 @@ public class Balancer implements Component
         }
     }
 
+    @Override
+    public Object save(final Event event)
+    {
+        return new Memento(0, 0, this.local, null, event, null,
+                List.of(this.distributor));
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        ((Memento) state).restore(this.local, null, null,
+                List.of(this.distributor));
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        ((Memento) state).commit(List.of(this.distributor));
+    }
+
+    @Override
+    public void write(final Checkpoint checkpoint) throws IOException
+    {
+        checkpoint.writeRecords(this.local);
+        checkpoint.writeState(this.distributor);
+    }
+
+    @Override
+    public void read(final Checkpoint checkpoint) throws IOException
+    {
+        checkpoint.readRecords(this.local);
+        checkpoint.readState(this.distributor);
+    }
+
     @Override
     public double getAvailable()
     {
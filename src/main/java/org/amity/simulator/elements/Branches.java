@@ -0,0 +1,217 @@
+/*
+ * Branches.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs what-if variants of a model from the state the model reaches after
+ * warm-up, so the warm-up is only simulated once. The model is simulated up
+ * to the start of the statistics sample and its state is copied into each
+ * variant, then the model and all the variants carry on in parallel on a pool
+ * of worker threads. A variant is a separately compiled model that has all
+ * the components of the original - it can change their generators and
+ * distributors, or add new components.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class Branches
+{
+
+    public final static String BASE = "base";
+    private final Model model;
+    private final int threads;
+    private final String schedule;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Branches()
+    {
+        this.model = null;
+        this.threads = 0;
+        this.schedule = Schedule.HEAP;
+    }
+
+    /**
+     * Constructs branch runner
+     *
+     * @param model compiled model that is warmed up
+     * @param threads number of worker threads
+     * @param schedule future event list implementation for each branch
+     */
+    public Branches(final Model model, final int threads,
+            final String schedule)
+    {
+        this.model = model;
+        this.threads = threads;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Run all the branches and display their statistics side by side
+     *
+     * @param variants compiled variants of the model by name
+     * @param generate end point in ticks for the simulation
+     * @param start end of warm-up and beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return simulation and sampling successful if <code>true</code>
+     */
+    public boolean execute(final Map<String, Model> variants,
+            final double generate, final double start, final double end)
+    {
+        final Map<String, Monitor> monitors
+                = this.branch(variants, generate, start, end);
+        final boolean run = monitors != null;
+        if (run)
+        {
+            System.out.println("Statistics for events that occurred between "
+                    + start + " and " + end);
+            new Monitor(start, end).displayComparison(monitors);
+        }
+        return run;
+    }
+
+    /**
+     * Warm up the model, then run it and all the variants on from its state
+     * and collect the statistics of each
+     *
+     * @param variants compiled variants of the model by name
+     * @param generate end point in ticks for the simulation
+     * @param start end of warm-up and beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return statistics of the model under {@link #BASE} followed by each
+     * variant in order, or <code>null</code> if any branch could not be run
+     */
+    public Map<String, Monitor> branch(final Map<String, Model> variants,
+            final double generate, final double start, final double end)
+    {
+        if (this.threads < 1 || !this.model.isCompiled()
+                || Schedule.instance(this.schedule) == null
+                || !(generate > end && end > start && start >= 0))
+        {
+            return null;
+        }
+        this.model.prepare(start, end);
+        final Simulator warm = new Simulator(this.model.sources, generate,
+                Schedule.instance(this.schedule), false);
+        warm.advance(start);
+        final ExecutorService executor
+                = Executors.newFixedThreadPool(this.threads);
+        final Map<String, Future<Monitor>> futures = new LinkedHashMap<>();
+        Map<String, Monitor> monitors = new LinkedHashMap<>();
+        try
+        {
+            // Snapshot holds only the state - each variant has its own graph
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new Checkpoint(this.model.components, null, 0).write(bytes, warm);
+            final byte[] state = bytes.toByteArray();
+            System.out.println("Warmed up to " + start + " in "
+                    + warm.getTransitions() + " transitions - starting "
+                    + (variants.size() + 1) + " branches on " + this.threads
+                    + " threads");
+            futures.put(BASE, executor.submit(()
+                    -> Branches.finish(this.model, warm, start, end)));
+            // Variants are loaded on this thread and only simulated on workers
+            for (final Map.Entry<String, Model> entry : variants.entrySet())
+            {
+                final Model variant = entry.getValue();
+                if (variant == null || !variant.isCompiled())
+                {
+                    monitors = null;
+                    break;
+                }
+                variant.prepare(start, end);
+                final Simulator simulator = new Simulator(variant.sources,
+                        generate, Schedule.instance(this.schedule), false);
+                new Checkpoint(variant.components, null, 0).read(
+                        new ByteArrayInputStream(state), simulator);
+                futures.put(entry.getKey(), executor.submit(()
+                        -> Branches.finish(variant, simulator, start, end)));
+            }
+            for (final Map.Entry<String, Future<Monitor>> entry
+                    : futures.entrySet())
+            {
+                final Monitor monitor = entry.getValue().get();
+                if (monitors != null)
+                {
+                    monitors.put(entry.getKey(), monitor);
+                }
+            }
+            if (monitors != null)
+            {
+                System.out.println("Completed " + monitors.size()
+                        + " branches");
+            }
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Unable to branch model: "
+                    + exception.getMessage());
+            monitors = null;
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            System.err.println("Branches interrupted");
+            monitors = null;
+        }
+        catch (ExecutionException exception)
+        {
+            System.err.println("Branch failed: " + exception.getCause());
+            monitors = null;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return monitors;
+    }
+
+    /**
+     * Run a branch to the end and record its statistics
+     *
+     * @param model model simulated by the branch
+     * @param simulator event loop holding the state of the branch
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return recorded statistics
+     */
+    private static Monitor finish(final Model model, final Simulator simulator,
+            final double start, final double end)
+    {
+        final Completions completions = new Completions(start, end,
+                model.names);
+        simulator.setCompletions(completions);
+        simulator.execute();
+        completions.consume(simulator.completed);
+        final Monitor monitor = new Monitor(start, end, false);
+        model.report(completions, monitor);
+        return monitor;
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * CalendarSchedule.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Calendar queue future event list (R. Brown, 1988) - events are hashed by
+ * start time into "day" buckets of a "year" that is resized as the number of
+ * events changes, giving close to constant insertion and removal cost for
+ * very large numbers of pending events. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class CalendarSchedule implements Schedule
+{
+
+    private final static int MINIMUM_BUCKETS = 2;
+    private final static int SAMPLE = 25;
+    private final Deque<Event> head;
+    private Bucket[] buckets;
+    private double width;
+    private long day;
+    private int size;
+    private long first;
+    private long last;
+    private boolean resizable;
+    private int[] cursors;
+    private final List<Integer> touched;
+
+    /**
+     * Default constructor
+     */
+    public CalendarSchedule()
+    {
+        this.head = new ArrayDeque<>();
+        this.width = 1.0;
+        this.day = 0;
+        this.size = 0;
+        this.first = 0;
+        this.last = 0;
+        this.resizable = true;
+        this.touched = new ArrayList<>();
+        this.buckets = this.create(MINIMUM_BUCKETS);
+        this.cursors = new int[MINIMUM_BUCKETS];
+    }
+
+    @Override
+    public void add(final Event event)
+    {
+        // Events forced to the head are merged back into time order as
+        // preceding anything of equal time
+        if (!this.head.isEmpty())
+        {
+            long sequence = this.first - this.head.size();
+            this.first = sequence;
+            while (!this.head.isEmpty())
+            {
+                final Event forced = this.head.removeFirst();
+                forced.sequence = sequence++;
+                this.insert(forced);
+            }
+        }
+        event.sequence = ++this.last;
+        this.insert(event);
+    }
+
+    @Override
+    public void addFirst(final Event event)
+    {
+        event.schedule = null;
+        this.head.addFirst(event);
+    }
+
+    @Override
+    public Event poll()
+    {
+        final Event event;
+        if (!this.head.isEmpty())
+        {
+            event = this.head.removeFirst();
+        }
+        else if (this.size > 0)
+        {
+            final int bucket = this.locate();
+            event = this.buckets[bucket].remove(0);
+            event.schedule = null;
+            this.size--;
+            this.shrink();
+        }
+        else
+        {
+            event = null;
+        }
+        return event;
+    }
+
+    @Override
+    public Event peek()
+    {
+        final Event event;
+        if (!this.head.isEmpty())
+        {
+            event = this.head.peekFirst();
+        }
+        else if (this.size > 0)
+        {
+            event = this.buckets[this.locate()].get(0);
+        }
+        else
+        {
+            event = null;
+        }
+        return event;
+    }
+
+    @Override
+    public boolean remove(final Event event)
+    {
+        boolean removed = false;
+        if (event.schedule == this)
+        {
+            removed = this.extract(event, event.getStarted());
+            this.shrink();
+        }
+        else if (!this.head.isEmpty())
+        {
+            removed = this.head.remove(event);
+        }
+        return removed;
+    }
+
+    @Override
+    public void reorder(final Event event, final double started)
+    {
+        if (event.schedule == this && this.extract(event, started))
+        {
+            this.place(event);
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return this.head.size() + this.size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.head.isEmpty() && this.size == 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (final List<Event> bucket : this.buckets)
+        {
+            for (final Event event : bucket)
+            {
+                event.schedule = null;
+            }
+        }
+        this.head.clear();
+        this.buckets = this.create(MINIMUM_BUCKETS);
+        this.cursors = new int[MINIMUM_BUCKETS];
+        this.touched.clear();
+        this.width = 1.0;
+        this.day = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public Iterator<Event> iterator()
+    {
+        return new Traversal();
+    }
+
+    /**
+     * Add event to calendar, growing the calendar if it is getting crowded
+     *
+     * @param event entity to be placed in calendar
+     */
+    private void insert(final Event event)
+    {
+        this.place(event);
+        if (this.resizable && this.size > 2 * this.buckets.length)
+        {
+            this.resize(2 * this.buckets.length);
+        }
+    }
+
+    /**
+     * Put event into its day bucket in execution order
+     *
+     * @param event entity to be placed in calendar
+     */
+    private void place(final Event event)
+    {
+        final long eventDay = this.dayOf(event.getStarted());
+        final List<Event> bucket
+                = this.buckets[this.bucketOf(eventDay)];
+        // Most insertions are at the end of the day so search backwards
+        int index = bucket.size();
+        while (index > 0 && Event.compare(bucket.get(index - 1), event) > 0)
+        {
+            index--;
+        }
+        bucket.add(index, event);
+        event.schedule = this;
+        this.size++;
+        // Don't let current position pass events scheduled before it
+        if (eventDay < this.day)
+        {
+            this.day = eventDay;
+        }
+    }
+
+    /**
+     * Take event out of the bucket it was filed in
+     *
+     * @param event entity to be removed
+     * @param started start time the event was filed with
+     * @return <code>true</code> if event was found
+     */
+    private boolean extract(final Event event, final double started)
+    {
+        final List<Event> bucket
+                = this.buckets[this.bucketOf(this.dayOf(started))];
+        boolean removed = false;
+        for (int index = 0; index < bucket.size(); index++)
+        {
+            if (bucket.get(index) == event)
+            {
+                bucket.remove(index);
+                event.schedule = null;
+                this.size--;
+                removed = true;
+                break;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Reduce calendar size if it has become sparse
+     */
+    private void shrink()
+    {
+        if (this.resizable && this.buckets.length > MINIMUM_BUCKETS
+                && this.size < this.buckets.length / 2)
+        {
+            this.resize(this.buckets.length / 2);
+        }
+    }
+
+    /**
+     * Find bucket holding the earliest event and advance the current day to
+     * it - must only be called on a non-empty calendar
+     *
+     * @return bucket index of earliest event
+     */
+    private int locate()
+    {
+        final int count = this.buckets.length;
+        // Search the year ahead day by day
+        for (int step = 0; step < count; step++)
+        {
+            final int bucket = this.bucketOf(this.day);
+            final List<Event> list = this.buckets[bucket];
+            if (!list.isEmpty()
+                    && this.dayOf(list.get(0).getStarted()) <= this.day)
+            {
+                return bucket;
+            }
+            this.day++;
+        }
+        // Sparse calendar so go directly to the earliest event
+        Event earliest = null;
+        int found = 0;
+        for (int bucket = 0; bucket < count; bucket++)
+        {
+            final List<Event> list = this.buckets[bucket];
+            if (!list.isEmpty() && (earliest == null
+                    || Event.compare(list.get(0), earliest) < 0))
+            {
+                earliest = list.get(0);
+                found = bucket;
+            }
+        }
+        assert earliest != null : "Calendar must not be empty";
+        this.day = this.dayOf(earliest.getStarted());
+        return found;
+    }
+
+    /**
+     * Rebuild calendar with new number of buckets and a day width estimated
+     * from the separation of the earliest events
+     *
+     * @param count new number of buckets
+     */
+    private void resize(final int count)
+    {
+        final List<Event> events = new ArrayList<>(this.size);
+        for (final List<Event> bucket : this.buckets)
+        {
+            events.addAll(bucket);
+        }
+        events.sort(Event::compare);
+        this.width = this.estimate(events);
+        this.buckets = this.create(count);
+        this.cursors = new int[count];
+        this.touched.clear();
+        this.size = 0;
+        this.day = events.isEmpty() ? 0
+                : this.dayOf(events.get(0).getStarted());
+        this.resizable = false;
+        for (final Event event : events)
+        {
+            this.place(event);
+        }
+        this.resizable = true;
+    }
+
+    /**
+     * Day width from the average separation of the earliest events, ignoring
+     * separations that are well above average
+     *
+     * @param events all events in execution order
+     * @return day width
+     */
+    private double estimate(final List<Event> events)
+    {
+        final int sample = Math.min(SAMPLE, events.size());
+        double width = this.width;
+        if (sample > 1)
+        {
+            final double span = events.get(sample - 1).getStarted()
+                    - events.get(0).getStarted();
+            final double average = span / (sample - 1);
+            double total = 0;
+            int count = 0;
+            for (int index = 1; index < sample; index++)
+            {
+                final double separation = events.get(index).getStarted()
+                        - events.get(index - 1).getStarted();
+                if (separation <= 2 * average)
+                {
+                    total += separation;
+                    count++;
+                }
+            }
+            if (count > 0 && total > 0)
+            {
+                width = 3 * total / count;
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Create empty buckets
+     *
+     * @param count number of buckets
+     * @return array of empty buckets
+     */
+    private Bucket[] create(final int count)
+    {
+        final Bucket[] array = new Bucket[count];
+        for (int index = 0; index < count; index++)
+        {
+            array[index] = new Bucket();
+        }
+        return array;
+    }
+
+    /**
+     *
+     * @param time start time of event
+     * @return day number for the time
+     */
+    private long dayOf(final double time)
+    {
+        return (long) Math.floor(time / this.width);
+    }
+
+    /**
+     *
+     * @param day day number
+     * @return bucket index for the day
+     */
+    private int bucketOf(final long day)
+    {
+        return (int) Math.floorMod(day, (long) this.buckets.length);
+    }
+
+    /**
+     * Ordered traversal of the calendar walking forward day by day, with a
+     * cursor per bucket so each event is visited once
+     */
+    private class Traversal implements Iterator<Event>
+    {
+
+        private final Iterator<Event> forced;
+        private int remaining;
+        private long current;
+
+        /**
+         * Start traversal at events forced to head and then current day
+         */
+        private Traversal()
+        {
+            final CalendarSchedule calendar = CalendarSchedule.this;
+            this.forced = calendar.head.iterator();
+            this.remaining = calendar.size;
+            this.current = calendar.day;
+            // Clear cursors left by earlier traversals
+            for (final Integer bucket : calendar.touched)
+            {
+                calendar.cursors[bucket] = 0;
+            }
+            calendar.touched.clear();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.forced.hasNext() || this.remaining > 0;
+        }
+
+        @Override
+        public Event next()
+        {
+            if (this.forced.hasNext())
+            {
+                return this.forced.next();
+            }
+            if (this.remaining == 0)
+            {
+                throw new NoSuchElementException();
+            }
+            final CalendarSchedule calendar = CalendarSchedule.this;
+            final int count = calendar.buckets.length;
+            int step = 0;
+            while (true)
+            {
+                final int bucket = calendar.bucketOf(this.current);
+                final List<Event> list = calendar.buckets[bucket];
+                final int cursor = calendar.cursors[bucket];
+                if (cursor < list.size() && calendar.dayOf(list.get(cursor)
+                        .getStarted()) <= this.current)
+                {
+                    if (cursor == 0)
+                    {
+                        calendar.touched.add(bucket);
+                    }
+                    calendar.cursors[bucket] = cursor + 1;
+                    this.remaining--;
+                    return list.get(cursor);
+                }
+                this.current++;
+                // Skip directly to next populated day if year is sparse
+                if (++step == count)
+                {
+                    this.current = this.skip();
+                    step = 0;
+                }
+            }
+        }
+
+        /**
+         *
+         * @return earliest day of events not yet traversed
+         */
+        private long skip()
+        {
+            final CalendarSchedule calendar = CalendarSchedule.this;
+            long earliest = Long.MAX_VALUE;
+            for (int bucket = 0; bucket < calendar.buckets.length; bucket++)
+            {
+                final List<Event> list = calendar.buckets[bucket];
+                final int cursor = calendar.cursors[bucket];
+                if (cursor < list.size())
+                {
+                    earliest = Math.min(earliest,
+                            calendar.dayOf(list.get(cursor).getStarted()));
+                }
+            }
+            return earliest;
+        }
+    }
+
+    /**
+     * Events of one day of the calendar, a concrete type so the calendar can
+     * be held in a typed array
+     */
+    private static class Bucket extends ArrayList<Event>
+    {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
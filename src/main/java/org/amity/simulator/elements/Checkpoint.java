@@ -0,0 +1,602 @@
+/*
+ * Checkpoint.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Binary snapshot of the full state of a sequential simulation - pending
+ * events, components and their random number generators, and the records the
+ * statistics are produced from - so that a long simulation can be resumed
+ * after a failure or continued to a later end time. The state is streamed
+ * straight to the file rather than built up in memory. Events that are held
+ * in more than one place are written once and referred to afterwards, and
+ * names are written once and referred to by number.
+ * <p>
+ * Checkpoints are written to a temporary file that replaces the previous
+ * checkpoint only once it is complete, so a failure while writing leaves the
+ * previous checkpoint in place.
+ * <p>
+ * State can be read into a changed version of the model, as long as it still
+ * has all the components of the original with the same types. Components
+ * that are new start empty, and generators and distributors that are new or
+ * of a different type start afresh.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class Checkpoint
+{
+
+    private final static int MAGIC = 0x53494d43;
+    private final static int VERSION = 1;
+    private final static int NONE = -1;
+    private final static int NEW = -2;
+    private final Map<String, Component> components;
+    private final File file;
+    private final int interval;
+    private final Map<Event, Integer> written;
+    private final List<Event> read;
+    private final Map<String, Integer> names;
+    private final List<String> labels;
+    private final Map<Function, Component> owners;
+    private DataOutputStream output;
+    private DataInputStream input;
+    private int last;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Checkpoint()
+    {
+        this.components = new TreeMap<>();
+        this.file = null;
+        this.interval = 0;
+        this.written = new IdentityHashMap<>();
+        this.read = new ArrayList<>();
+        this.names = new HashMap<>();
+        this.labels = new ArrayList<>();
+        this.owners = new IdentityHashMap<>();
+        this.output = null;
+        this.input = null;
+        this.last = 0;
+    }
+
+    /**
+     * Construct checkpoint for a model
+     *
+     * @param components all the components of the model by name
+     * @param file where checkpoints are written, or <code>null</code> if
+     * checkpoints are only read
+     * @param interval number of transitions between checkpoints
+     */
+    Checkpoint(final Map<String, Component> components, final File file,
+            final int interval)
+    {
+        this.components = new TreeMap<>(components);
+        this.file = file;
+        this.interval = interval;
+        this.written = new IdentityHashMap<>();
+        this.read = new ArrayList<>();
+        this.names = new HashMap<>();
+        this.labels = new ArrayList<>();
+        this.owners = new IdentityHashMap<>();
+        this.output = null;
+        this.input = null;
+        this.last = 0;
+    }
+
+    /**
+     *
+     * @param transitions number of transitions simulated
+     * @return <code>true</code> if a checkpoint should be written
+     */
+    boolean due(final int transitions)
+    {
+        return this.file != null && this.interval > 0
+                && transitions - this.last >= this.interval;
+    }
+
+    /**
+     * Write the state of the simulation and its model
+     *
+     * @param simulator event loop for the simulation
+     * @return <code>true</code> if the checkpoint was written
+     */
+    boolean save(final Simulator simulator)
+    {
+        boolean saved = false;
+        this.last = simulator.getTransitions();
+        final File temporary = new File(this.file.getPath() + ".tmp");
+        try
+        {
+            try (FileOutputStream stream = new FileOutputStream(temporary))
+            {
+                this.write(new BufferedOutputStream(stream), simulator);
+                // Make sure it is on disk before it replaces the last one
+                stream.getFD().sync();
+            }
+            Files.move(temporary.toPath(), this.file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            saved = true;
+        }
+        catch (IOException exception)
+        {
+            System.err.println("Unable to write checkpoint: "
+                    + exception.getMessage());
+        }
+        return saved;
+    }
+
+    /**
+     * Write the state of the simulation and its model to a stream
+     *
+     * @param stream destination of the state, flushed but left open
+     * @param simulator event loop for the simulation
+     * @throws IOException if the state cannot be written
+     */
+    void write(final OutputStream stream, final Simulator simulator)
+            throws IOException
+    {
+        try
+        {
+            this.output = new DataOutputStream(stream);
+            this.output.writeInt(MAGIC);
+            this.output.writeInt(VERSION);
+            this.output.writeInt(this.components.size());
+            for (final Component component : this.components.values())
+            {
+                this.output.writeUTF(component.getLabel());
+                this.output.writeUTF(component.getClass().getSimpleName());
+                component.write(this);
+            }
+            simulator.write(this);
+            this.output.flush();
+        }
+        finally
+        {
+            this.output = null;
+            this.written.clear();
+            this.names.clear();
+        }
+    }
+
+    /**
+     * Replace the state of the simulation and its model with state read from
+     * a checkpoint
+     *
+     * @param source checkpoint file
+     * @param simulator event loop for the simulation
+     * @throws IOException if the checkpoint cannot be read or is not for
+     * this model
+     */
+    void load(final File source, final Simulator simulator) throws IOException
+    {
+        try (InputStream stream
+                = new BufferedInputStream(new FileInputStream(source)))
+        {
+            this.read(stream, simulator);
+        }
+    }
+
+    /**
+     * Replace the state of the simulation and its model with state read from
+     * a stream
+     *
+     * @param stream source of the state, left open
+     * @param simulator event loop for the simulation
+     * @throws IOException if the state cannot be read or is not for this
+     * model
+     */
+    void read(final InputStream stream, final Simulator simulator)
+            throws IOException
+    {
+        try
+        {
+            this.input = new DataInputStream(stream);
+            if (this.input.readInt() != MAGIC
+                    || this.input.readInt() != VERSION)
+            {
+                throw new IOException("Not a checkpoint file");
+            }
+            final int size = this.input.readInt();
+            for (int index = 0; index < size; index++)
+            {
+                final Component component = this.lookup(this.input.readUTF());
+                if (!component.getClass().getSimpleName()
+                        .equals(this.input.readUTF()))
+                {
+                    throw new IOException("Component "
+                            + component.getLabel() + " has changed type");
+                }
+                component.read(this);
+            }
+            simulator.read(this);
+            this.last = simulator.getTransitions();
+        }
+        finally
+        {
+            this.input = null;
+            this.read.clear();
+            this.labels.clear();
+        }
+    }
+
+    /**
+     *
+     * @return stream checkpoint is being written to
+     */
+    DataOutput getOutput()
+    {
+        return this.output;
+    }
+
+    /**
+     *
+     * @return stream checkpoint is being read from
+     */
+    DataInput getInput()
+    {
+        return this.input;
+    }
+
+    /**
+     * Write name, or its number if it has been written before
+     *
+     * @param name name to write, or <code>null</code>
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeName(final String name) throws IOException
+    {
+        if (name == null)
+        {
+            this.output.writeInt(NONE);
+        }
+        else if (this.names.containsKey(name))
+        {
+            this.output.writeInt(this.names.get(name));
+        }
+        else
+        {
+            this.names.put(name, this.names.size());
+            this.output.writeInt(NEW);
+            this.output.writeUTF(name);
+        }
+    }
+
+    /**
+     *
+     * @return name read, or <code>null</code>
+     * @throws IOException if the checkpoint cannot be read
+     */
+    String readName() throws IOException
+    {
+        final int number = this.input.readInt();
+        final String name;
+        if (number == NONE)
+        {
+            name = null;
+        }
+        else if (number == NEW)
+        {
+            name = this.input.readUTF();
+            this.labels.add(name);
+        }
+        else
+        {
+            name = this.labels.get(number);
+        }
+        return name;
+    }
+
+    /**
+     * Write reference to a component of the model
+     *
+     * @param component component to refer to, or <code>null</code>
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeComponent(final Component component) throws IOException
+    {
+        this.writeName(component == null ? null : component.getLabel());
+    }
+
+    /**
+     *
+     * @return component referred to, or <code>null</code>
+     * @throws IOException if the checkpoint cannot be read
+     */
+    Component readComponent() throws IOException
+    {
+        final String name = this.readName();
+        return name == null ? null : this.lookup(name);
+    }
+
+    /**
+     * Write reference to a generator or distributor of the model
+     *
+     * @param function generator or distributor to refer to
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeFunction(final Function function) throws IOException
+    {
+        if (this.owners.isEmpty())
+        {
+            for (final Component component : this.components.values())
+            {
+                for (final Function item : component.getFunctions())
+                {
+                    this.owners.putIfAbsent(item, component);
+                }
+            }
+        }
+        final Component owner = this.owners.get(function);
+        if (owner == null)
+        {
+            throw new IOException("Function is not part of the model");
+        }
+        // Functions are identified by their position in their component
+        this.writeComponent(owner);
+        this.output.writeInt(owner.getFunctions().indexOf(function));
+    }
+
+    /**
+     *
+     * @return generator or distributor referred to, or <code>null</code> if
+     * the model no longer has it
+     * @throws IOException if the checkpoint cannot be read
+     */
+    Function readFunction() throws IOException
+    {
+        final Component component = this.readComponent();
+        final int index = this.input.readInt();
+        final List<Function> list = component == null ? new ArrayList<>()
+                : component.getFunctions();
+        return index < 0 || index >= list.size() ? null : list.get(index);
+    }
+
+    /**
+     * Write the state of a generator or distributor as a block that can be
+     * passed over if the function has changed when it is read
+     *
+     * @param function generator or distributor
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeState(final Function function) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream stream = new DataOutputStream(bytes);
+        function.write(stream);
+        stream.flush();
+        this.writeName(function.getClass().getName());
+        this.output.writeInt(bytes.size());
+        bytes.writeTo(this.output);
+    }
+
+    /**
+     * Replace the state of a generator or distributor, unless it is not the
+     * same type as the function the state was written from
+     *
+     * @param function generator or distributor, or <code>null</code> to pass
+     * over the state
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void readState(final Function function) throws IOException
+    {
+        final String type = this.readName();
+        final byte[] bytes = new byte[this.input.readInt()];
+        this.input.readFully(bytes);
+        if (function != null && function.getClass().getName().equals(type))
+        {
+            function.read(new DataInputStream(
+                    new ByteArrayInputStream(bytes)));
+        }
+    }
+
+    /**
+     * Write event that may be held in more than one place, so that it is
+     * only written the first time
+     *
+     * @param event entity to write, or <code>null</code>
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeEvent(final Event event) throws IOException
+    {
+        if (event == null)
+        {
+            this.output.writeInt(NONE);
+        }
+        else if (this.written.containsKey(event))
+        {
+            this.output.writeInt(this.written.get(event));
+        }
+        else
+        {
+            this.written.put(event, this.written.size());
+            this.output.writeInt(NEW);
+            event.write(this, true);
+        }
+    }
+
+    /**
+     *
+     * @return event read, the same entity each time it is referred to, or
+     * <code>null</code>
+     * @throws IOException if the checkpoint cannot be read
+     */
+    Event readEvent() throws IOException
+    {
+        final int number = this.input.readInt();
+        final Event event;
+        if (number == NONE)
+        {
+            event = null;
+        }
+        else if (number == NEW)
+        {
+            event = Event.read(this, true);
+            this.read.add(event);
+        }
+        else if (number >= 0 && number < this.read.size())
+        {
+            event = this.read.get(number);
+        }
+        else
+        {
+            throw new IOException("Checkpoint refers to unknown event");
+        }
+        return event;
+    }
+
+    /**
+     * Write list of events that may be held in more than one place
+     *
+     * @param events entities to write
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeEvents(final List<Event> events) throws IOException
+    {
+        this.output.writeInt(events.size());
+        for (final Event event : events)
+        {
+            this.writeEvent(event);
+        }
+    }
+
+    /**
+     * Replace contents of a list with events that may be held in more than
+     * one place
+     *
+     * @param events list to fill
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void readEvents(final List<Event> events) throws IOException
+    {
+        events.clear();
+        final int size = this.input.readInt();
+        for (int index = 0; index < size; index++)
+        {
+            events.add(this.readEvent());
+        }
+    }
+
+    /**
+     * Write list of event records kept by a single component
+     *
+     * @param records copies of events that passed through the component
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeRecords(final List<Event> records) throws IOException
+    {
+        this.output.writeInt(records.size());
+        for (final Event record : records)
+        {
+            record.write(this, false);
+        }
+    }
+
+    /**
+     * Replace contents of a list with event records kept by a single
+     * component
+     *
+     * @param records list to fill
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void readRecords(final List<Event> records) throws IOException
+    {
+        records.clear();
+        final int size = this.input.readInt();
+        for (int index = 0; index < size; index++)
+        {
+            records.add(Event.read(this, false));
+        }
+    }
+
+    /**
+     * Write state of functions looked up by event source
+     *
+     * @param functions generators or distributors by source name
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void writeFunctions(final Map<String, ? extends Function> functions)
+            throws IOException
+    {
+        this.output.writeInt(functions.size());
+        for (final Map.Entry<String, ? extends Function> entry
+                : functions.entrySet())
+        {
+            this.output.writeUTF(entry.getKey());
+            this.writeState(entry.getValue());
+        }
+    }
+
+    /**
+     * Replace state of functions looked up by event source - functions that
+     * are no longer there are passed over
+     *
+     * @param functions generators or distributors by source name
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void readFunctions(final Map<String, ? extends Function> functions)
+            throws IOException
+    {
+        final int size = this.input.readInt();
+        for (int index = 0; index < size; index++)
+        {
+            this.readState(functions.get(this.input.readUTF()));
+        }
+    }
+
+    /**
+     *
+     * @param name name of component
+     * @return component of the model with the name
+     * @throws IOException if the model has no such component
+     */
+    private Component lookup(final String name) throws IOException
+    {
+        final Component component = this.components.get(name);
+        if (component == null)
+        {
+            throw new IOException("Checkpoint does not match model");
+        }
+        return component;
+    }
+}
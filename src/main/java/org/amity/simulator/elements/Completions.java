@@ -0,0 +1,499 @@
+/*
+ * Completions.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Statistics of the events that reached the end of their life within the
+ * statistics sample, for all sources and for each source. Completed events
+ * can be taken in as the simulation runs, so only the events whose place in
+ * the sample is still open need to be held. The sample can only be cut short
+ * to the point the simulation has reached, so an event that completed by then
+ * or after the latest end of the sample is already decided. Simulations
+ * written to checkpoints also keep a second sample with no end, so a
+ * simulation resumed from one can carry on with the same start and any end
+ * after the point already reached. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Completions
+{
+
+    private double start;
+    private double end;
+    private final SourceNames names;
+    private final Sample sample;
+    private Sample open;
+    private double reached;
+    private long consumed;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Completions()
+    {
+        this.start = 0;
+        this.end = 0;
+        this.names = new SourceNames();
+        this.sample = new Sample();
+        this.open = null;
+        this.reached = Double.NEGATIVE_INFINITY;
+        this.consumed = 0;
+    }
+
+    /**
+     * Construct empty statistics for a sample
+     *
+     * @param start beginning of statistics sample in ticks
+     * @param end latest point in ticks the statistics sample can run to
+     * @param names source ids of the model the events come from
+     */
+    Completions(final double start, final double end,
+            final SourceNames names)
+    {
+        this.start = start;
+        this.end = end;
+        this.names = names;
+        this.sample = new Sample();
+        this.open = null;
+        this.reached = Double.NEGATIVE_INFINITY;
+        this.consumed = 0;
+    }
+
+    /**
+     * Cut the sample short - only events still to be taken in are affected
+     *
+     * @param end point in ticks the statistics sample ended
+     */
+    void setEnd(final double end)
+    {
+        this.end = FastMath.min(this.end, end);
+    }
+
+    /**
+     * Keep a sample with no end as well from now on, so the end of the sample
+     * can still be moved - events completed after the end are then held
+     * until the simulation reaches them
+     *
+     * @param kept <code>true</code> to keep the sample with no end
+     */
+    void setKept(final boolean kept)
+    {
+        this.open = kept ? new Sample() : null;
+    }
+
+    /**
+     * Move the sample of statistics read from a checkpoint, which is only
+     * possible while no event taken in so far would have been decided
+     * differently
+     *
+     * @param start beginning of statistics sample in ticks
+     * @param end latest point in ticks the statistics sample can run to
+     * @return <code>false</code> if the statistics cannot be taken over the
+     * new sample
+     */
+    boolean resample(final double start, final double end)
+    {
+        boolean possible = this.consumed == 0 || start == this.start;
+        if (possible && end != this.end && this.consumed > 0)
+        {
+            // Events past the old end are only in the sample with no end
+            possible = this.open != null && end >= this.reached;
+            if (possible)
+            {
+                this.sample.copy(this.open);
+            }
+        }
+        if (possible)
+        {
+            this.start = start;
+            this.end = end;
+        }
+        return possible;
+    }
+
+    /**
+     * Take in the completed events that are decided by the time the
+     * simulation has reached, from the front of the list up to the first that
+     * is not, and remove them from the list
+     *
+     * @param completed events that reached the end of their life, in the
+     * order they did
+     * @param time point in ticks the simulation has reached
+     * @return number of events removed from the front of the list
+     */
+    int consume(final List<Event> completed, final double time)
+    {
+        int index = 0;
+        for (; index < completed.size(); index++)
+        {
+            final Event event = completed.get(index);
+            if (event.getCompleted() > time && (this.open != null
+                    || event.getCompleted() <= this.end))
+            {
+                break;
+            }
+            // Can't guarantee events will finish in same order as creation
+            if (event.getCreated() >= this.start)
+            {
+                // Statistics for each source are kept at its id
+                final int origin = this.names.of(event);
+                if (event.getCompleted() <= this.end)
+                {
+                    this.sample.add(origin, event);
+                }
+                if (this.open != null)
+                {
+                    this.open.add(origin, event);
+                }
+            }
+        }
+        completed.subList(0, index).clear();
+        this.reached = FastMath.max(this.reached, time);
+        this.consumed += index;
+        return index;
+    }
+
+    /**
+     * Take in all the completed events once the simulation is over
+     *
+     * @param completed events that reached the end of their life
+     */
+    void consume(final List<Event> completed)
+    {
+        this.consume(completed, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Take in the statistics of another sample of events, such as those of
+     * a sub-network simulated apart - a source only in one of them keeps
+     * exactly the statistics it had
+     *
+     * @param other statistics of events taken in elsewhere
+     */
+    void merge(final Completions other)
+    {
+        this.sample.general.merge(other.sample.general);
+        for (int index = 0; index < other.sample.sources.length; index++)
+        {
+            final Lifetimes lifetimes = other.sample.sources[index];
+            if (lifetimes != null)
+            {
+                final int origin = this.names.id(other.names.name(index));
+                this.sample.lifetimes(origin).merge(lifetimes);
+            }
+        }
+        this.consumed += other.consumed;
+        this.reached = FastMath.max(this.reached, other.reached);
+    }
+
+    /**
+     *
+     * @return statistics of the events from all sources
+     */
+    Lifetimes getGeneral()
+    {
+        return this.sample.general;
+    }
+
+    /**
+     *
+     * @return statistics of the events from each source by name
+     */
+    Map<String, Lifetimes> getSources()
+    {
+        final Map<String, Lifetimes> sources = new TreeMap<>();
+        for (int id = 0; id < this.sample.sources.length; id++)
+        {
+            if (this.sample.sources[id] != null)
+            {
+                sources.put(this.names.name(id), this.sample.sources[id]);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Write the statistics taken in so far to a checkpoint, rather than the
+     * events they were taken from
+     *
+     * @param checkpoint stream the statistics are written to
+     * @throws IOException if the statistics cannot be written
+     */
+    void write(final Checkpoint checkpoint) throws IOException
+    {
+        final DataOutput output = checkpoint.getOutput();
+        output.writeDouble(this.start);
+        output.writeDouble(this.end);
+        output.writeDouble(this.reached);
+        output.writeLong(this.consumed);
+        this.sample.write(checkpoint, this.names);
+        output.writeBoolean(this.open != null);
+        if (this.open != null)
+        {
+            this.open.write(checkpoint, this.names);
+        }
+    }
+
+    /**
+     * Replace the statistics with those read from a checkpoint
+     *
+     * @param checkpoint stream the statistics are read from
+     * @throws IOException if the statistics cannot be read
+     */
+    void read(final Checkpoint checkpoint) throws IOException
+    {
+        final DataInput input = checkpoint.getInput();
+        this.start = input.readDouble();
+        this.end = input.readDouble();
+        this.reached = input.readDouble();
+        this.consumed = input.readLong();
+        this.sample.read(checkpoint, this.names);
+        this.open = input.readBoolean() ? new Sample() : null;
+        if (this.open != null)
+        {
+            this.open.read(checkpoint, this.names);
+        }
+    }
+
+    /**
+     * Statistics of the events taken in over one sample, for all sources and
+     * for each source at its id
+     */
+    private static final class Sample
+    {
+
+        private final Lifetimes general;
+        private Lifetimes[] sources;
+
+        /**
+         * Construct empty sample
+         */
+        private Sample()
+        {
+            this.general = new Lifetimes();
+            this.sources = new Lifetimes[0];
+        }
+
+        /**
+         * Take in an event
+         *
+         * @param origin id of the source of the event
+         * @param event event that reached the end of its life
+         */
+        private void add(final int origin, final Event event)
+        {
+            this.general.add(event);
+            this.lifetimes(origin).add(event);
+        }
+
+        /**
+         * Find the statistics of a source, adding them if there are none
+         *
+         * @param origin id of the source
+         * @return statistics of the events from the source
+         */
+        private Lifetimes lifetimes(final int origin)
+        {
+            if (origin >= this.sources.length)
+            {
+                this.sources = Arrays.copyOf(this.sources, origin + 1);
+            }
+            if (this.sources[origin] == null)
+            {
+                this.sources[origin] = new Lifetimes();
+            }
+            return this.sources[origin];
+        }
+
+        /**
+         * Take over the events of another sample
+         *
+         * @param other sample copied
+         */
+        private void copy(final Sample other)
+        {
+            this.general.copy(other.general);
+            this.sources = new Lifetimes[other.sources.length];
+            for (int id = 0; id < other.sources.length; id++)
+            {
+                if (other.sources[id] != null)
+                {
+                    this.sources[id] = new Lifetimes();
+                    this.sources[id].copy(other.sources[id]);
+                }
+            }
+        }
+
+        /**
+         * Write the sample to a checkpoint, with sources by name as ids are
+         * only those of this model
+         *
+         * @param checkpoint stream the sample is written to
+         * @param names source ids of the model
+         * @throws IOException if the sample cannot be written
+         */
+        private void write(final Checkpoint checkpoint,
+                final SourceNames names) throws IOException
+        {
+            this.general.write(checkpoint.getOutput());
+            int count = 0;
+            for (final Lifetimes lifetimes : this.sources)
+            {
+                count += lifetimes == null ? 0 : 1;
+            }
+            checkpoint.getOutput().writeInt(count);
+            for (int id = 0; id < this.sources.length; id++)
+            {
+                if (this.sources[id] != null)
+                {
+                    checkpoint.writeName(names.name(id));
+                    this.sources[id].write(checkpoint.getOutput());
+                }
+            }
+        }
+
+        /**
+         * Replace the sample with one read from a checkpoint
+         *
+         * @param checkpoint stream the sample is read from
+         * @param names source ids of the model
+         * @throws IOException if the sample cannot be read
+         */
+        private void read(final Checkpoint checkpoint,
+                final SourceNames names) throws IOException
+        {
+            this.general.read(checkpoint.getInput());
+            this.sources = new Lifetimes[0];
+            final int count = checkpoint.getInput().readInt();
+            for (int index = 0; index < count; index++)
+            {
+                this.lifetimes(names.id(checkpoint.readName()))
+                        .read(checkpoint.getInput());
+            }
+        }
+    }
+
+    /**
+     * Statistics of the events from one or all sources
+     */
+    static class Lifetimes
+    {
+
+        final Accumulator elapsed;
+        final Accumulator executed;
+        double first;
+        double last;
+
+        /**
+         * Construct empty statistics
+         */
+        Lifetimes()
+        {
+            this.elapsed = new Accumulator();
+            this.executed = new Accumulator();
+            this.first = 0;
+            this.last = 0;
+        }
+
+        /**
+         * Take in an event
+         *
+         * @param event event that reached the end of its life
+         */
+        void add(final Event event)
+        {
+            final double created = event.getCreated();
+            this.first = this.elapsed.getN() == 0 ? created
+                    : FastMath.min(this.first, created);
+            this.last = this.elapsed.getN() == 0 ? created
+                    : FastMath.max(this.last, created);
+            this.elapsed.add(event.getLifetime());
+            this.executed.add(event.getExecuted());
+        }
+
+        /**
+         * Take in the statistics of another set of events
+         *
+         * @param other statistics merged
+         */
+        void merge(final Lifetimes other)
+        {
+            if (other.elapsed.getN() > 0)
+            {
+                this.first = this.elapsed.getN() == 0 ? other.first
+                        : FastMath.min(this.first, other.first);
+                this.last = this.elapsed.getN() == 0 ? other.last
+                        : FastMath.max(this.last, other.last);
+                this.elapsed.merge(other.elapsed);
+                this.executed.merge(other.executed);
+            }
+        }
+
+        /**
+         * Replace the statistics with those of another
+         *
+         * @param other statistics copied
+         */
+        void copy(final Lifetimes other)
+        {
+            this.elapsed.copy(other.elapsed);
+            this.executed.copy(other.executed);
+            this.first = other.first;
+            this.last = other.last;
+        }
+
+        /**
+         * Write the statistics to a checkpoint
+         *
+         * @param output stream the statistics are written to
+         * @throws IOException if the statistics cannot be written
+         */
+        void write(final DataOutput output) throws IOException
+        {
+            this.elapsed.write(output);
+            this.executed.write(output);
+            output.writeDouble(this.first);
+            output.writeDouble(this.last);
+        }
+
+        /**
+         * Replace the statistics with those read from a checkpoint
+         *
+         * @param input stream the statistics are read from
+         * @throws IOException if the statistics cannot be read
+         */
+        void read(final DataInput input) throws IOException
+        {
+            this.elapsed.read(input);
+            this.executed.read(input);
+            this.first = input.readDouble();
+            this.last = input.readDouble();
+        }
+    }
+}
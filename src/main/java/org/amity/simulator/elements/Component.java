@@ -19,6 +19,7 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import org.amity.simulator.data.QueueStatistics;
@@ -33,10 +34,25 @@ public interface Component
     /**
      * Access event information for events that passed through component
      * 
-     * @return chronological list of events passing through, with global
+     * @return chronological record of events passing through, with global
      * information
      */
-    List<Event> getLocalEvents();
+    Visits getLocalEvents();
+
+    /**
+     * Choose which events passing through are recorded - a monitored
+     * component always records them, as its statistics come from the records
+     * 
+     * @param all <code>true</code> to record events even if the component is
+     * not monitored
+     */
+    void setRecording(boolean all);
+
+    /**
+     * 
+     * @return <code>true</code> if events passing through are recorded
+     */
+    boolean isRecording();
 
     /**
      * Clear persistent variables in the component model
@@ -68,9 +84,16 @@ public interface Component
 
     /**
      * 
-     * @return queue information
+     * @return every generator and distributor of the component, in the same
+     * order each time the model is compiled
      */
-    List<QueueStatistics> getQueueStatistics();
+    List<Function> getFunctions();
+
+    /**
+     * 
+     * @return queue depth statistics, taken in as the queue changes
+     */
+    QueueStatistics getQueueStatistics();
 
     /**
      * Produce display statistics on component
@@ -99,4 +122,45 @@ public interface Component
      * @param explore discovery mode if <code>true</code>
      */
     void prioritize(Sequencer sequencer, boolean explore);
+
+    /**
+     * Save the state that an event passing through the component can change,
+     * so that an optimistic simulation can be rolled back
+     *
+     * @param event entity about to pass through the component, or
+     * <code>null</code> if the state may only be changed as a side effect
+     * @return saved state
+     */
+    Object save(Event event);
+
+    /**
+     * Roll back to saved state
+     *
+     * @param state state from an earlier save
+     */
+    void restore(Object state);
+
+    /**
+     * Confirm saved state will never be rolled back to, so anything held for
+     * the roll back can be discarded
+     *
+     * @param state state from an earlier save
+     */
+    void commit(Object state);
+
+    /**
+     * Write the state of the component to a checkpoint
+     *
+     * @param checkpoint stream the state is written to
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void write(Checkpoint checkpoint) throws IOException;
+
+    /**
+     * Replace the state of the component with state read from a checkpoint
+     *
+     * @param checkpoint stream the state is read from
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void read(Checkpoint checkpoint) throws IOException;
 }
@@ -0,0 +1,227 @@
+/*
+ * Coordinator.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Conservative parallel simulation of a partitioned model. Each partition
+ * has its own simulator running on its own thread, and all partitions
+ * advance together in time windows as wide as the smallest delay of events
+ * passing between partitions, so no partition can receive an event earlier
+ * than the time it has already reached. Events that move between partitions
+ * are exchanged at the end of each window, together with the events each
+ * partition scheduled for after the window, and scheduled in the order one
+ * schedule for the whole model would have scheduled them, so ties are
+ * broken the same way.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Coordinator
+{
+
+    private final List<Simulator> partitions;
+    private final Map<Component, Simulator> owners;
+    private final List<Event> exchange;
+    private final double lookahead;
+    private final boolean verbose;
+    final List<Event> completed;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Coordinator()
+    {
+        this.partitions = new ArrayList<>();
+        this.owners = new HashMap<>();
+        this.exchange = new ArrayList<>();
+        this.lookahead = 0;
+        this.verbose = false;
+        this.completed = new ArrayList<>();
+    }
+
+    /**
+     * Construct partitioned simulation
+     *
+     * @param components all the components of the model
+     * @param sources event generation components in model order
+     * @param generate end-point in ticks for the simulation completion
+     * @param schedule future event list implementation for each partition
+     * @param count number of partitions wanted
+     * @param verbose show simulation progress if <code>true</code>
+     */
+    Coordinator(final Collection<Component> components,
+            final List<Source> sources, final double generate,
+            final String schedule, final int count, final boolean verbose)
+    {
+        final Partitioner partitioner = new Partitioner(components);
+        final Map<Component, Integer> assignment = partitioner.assign(count);
+        int size = 0;
+        for (final Integer index : assignment.values())
+        {
+            size = Math.max(size, index + 1);
+        }
+        // Sources feed the partition they belong to
+        final List<List<Source>> feeds = new ArrayList<>();
+        for (int index = 0; index < size; index++)
+        {
+            feeds.add(new ArrayList<>());
+        }
+        for (final Source source : sources)
+        {
+            feeds.get(assignment.get(source)).add(source);
+        }
+        this.owners = new HashMap<>();
+        this.partitions = new ArrayList<>();
+        for (int index = 0; index < size; index++)
+        {
+            this.partitions.add(new Simulator(feeds.get(index), generate,
+                    Schedule.instance(schedule), false, this.owners,
+                    partitioner.isPrioritized()));
+        }
+        for (final Map.Entry<Component, Integer> entry : assignment.entrySet())
+        {
+            this.owners.put(entry.getKey(),
+                    this.partitions.get(entry.getValue()));
+        }
+        this.exchange = new ArrayList<>();
+        this.lookahead = partitioner.lookahead(assignment);
+        this.verbose = verbose;
+        this.completed = new ArrayList<>();
+    }
+
+    /**
+     *
+     * @return number of partitions being simulated
+     */
+    int size()
+    {
+        return this.partitions.size();
+    }
+
+    /**
+     *
+     * @return smallest delay of events passing between partitions
+     */
+    double getLookahead()
+    {
+        return this.lookahead;
+    }
+
+    /**
+     * Run the simulation
+     *
+     * @return <code>true</code> if simulation completed
+     */
+    boolean execute()
+    {
+        if (this.verbose)
+        {
+            System.out.println("  Start simulation of " + this.partitions.size()
+                    + " partitions with lookahead " + this.lookahead);
+        }
+        final ExecutorService executor
+                = Executors.newFixedThreadPool(this.partitions.size());
+        boolean success = true;
+        long windows = 0;
+        try
+        {
+            while (true)
+            {
+                double floor = Double.POSITIVE_INFINITY;
+                for (final Simulator partition : this.partitions)
+                {
+                    floor = Math.min(floor, partition.next());
+                }
+                if (floor == Double.POSITIVE_INFINITY)
+                {
+                    break;
+                }
+                final double limit = floor + this.lookahead;
+                final List<Callable<Void>> tasks = new ArrayList<>();
+                for (final Simulator partition : this.partitions)
+                {
+                    tasks.add(() ->
+                    {
+                        partition.advance(limit);
+                        return null;
+                    });
+                }
+                for (final Future<Void> future : executor.invokeAll(tasks))
+                {
+                    future.get();
+                }
+                windows++;
+                // Exchange events between partitions in the order one
+                // schedule would have scheduled them
+                for (final Simulator partition : this.partitions)
+                {
+                    this.exchange.addAll(partition.outgoing);
+                    partition.outgoing.clear();
+                }
+                this.exchange.sort(Stamp::compare);
+                for (final Event event : this.exchange)
+                {
+                    this.owners.get(event.getComponent()).receive(event);
+                }
+                this.exchange.clear();
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            System.err.println("Partitioned simulation interrupted");
+            success = false;
+        }
+        catch (ExecutionException exception)
+        {
+            System.err.println("Partitioned simulation failed: "
+                    + exception.getCause());
+            success = false;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        int transitions = 0;
+        for (final Simulator partition : this.partitions)
+        {
+            partition.finish();
+            transitions += partition.getTransitions();
+            this.completed.addAll(partition.completed);
+        }
+        Stamp.sort(this.completed);
+        if (this.verbose)
+        {
+            System.out.println("  Simulation transitions to complete: "
+                    + transitions + " in " + windows + " windows");
+        }
+        return success;
+    }
+}
@@ -19,7 +19,12 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import org.amity.simulator.distributors.Distributor;
 
 /**
  * Element that interacts with system components
@@ -28,7 +33,10 @@ import java.util.List;
  */
 public class Event
 {
+    final static Distributor[] NONE = new Distributor[0];
     private String source;
+    SourceNames names;
+    int origin;
     private String label;
     private final double created;
     private double arrived;
@@ -39,7 +47,13 @@ public class Event
     private boolean calculated;
     private String last;
     private Component component;
-    private final Sequencer sequencer;
+    private Distributor[] intelligent;
+    Schedule schedule;
+    int slot;
+    long sequence;
+    Stamp stamp;
+    EventQueue queue;
+    long deferral;
 
     /**
      * Hidden default constructor to avoid implicit creation
@@ -47,6 +61,8 @@ public class Event
     private Event()
     {
         this.source = null;
+        this.names = null;
+        this.origin = -1;
         this.label = null;
         this.created = 0;
         this.arrived = 0;
@@ -57,7 +73,7 @@ public class Event
         this.component = null;
         this.calculated = false;
         this.last = null;
-        this.sequencer = new Sequencer();
+        this.intelligent = NONE;
     }
 
     /**
@@ -69,7 +85,24 @@ public class Event
      */
     public Event(final String source, final String label, final double created)
     {
+        this(null, -1, label, created);
         this.source = source;
+    }
+
+    /**
+     * Construct labeled event from a source whose name is already interned
+     *
+     * @param names source ids of the model the event is simulated in
+     * @param origin id of the source name
+     * @param label distinguishing name of event
+     * @param created time event was created
+     */
+    Event(final SourceNames names, final int origin, final String label,
+            final double created)
+    {
+        this.source = origin < 0 ? null : names.name(origin);
+        this.names = names;
+        this.origin = origin;
         this.label = label;
         this.created = created;
         this.arrived = 0;
@@ -80,7 +113,7 @@ public class Event
         this.component = null;
         this.calculated = false;
         this.last = null;
-        this.sequencer = new Sequencer();
+        this.intelligent = NONE;
     }
 
     /**
@@ -91,6 +124,8 @@ public class Event
     public Event(Event copy)
     {
         this.source = copy.source;
+        this.names = copy.names;
+        this.origin = copy.origin;
         this.label = copy.label;
         this.created = copy.created;
         this.arrived = copy.arrived;
@@ -99,10 +134,43 @@ public class Event
         this.executed = copy.executed;
         this.lifetime = copy.lifetime;
         this.component = copy.component;
-        this.sequencer = copy.sequencer;
+        this.intelligent = copy.intelligent;
         this.calculated = copy.calculated;
     }
 
+    /**
+     * Construct detached record of an event passing through a component - it
+     * is never simulated
+     *
+     * @param names source ids of the model the event was recorded in
+     * @param origin id of the source name
+     * @param label distinguishing name of event
+     * @param created time event was created
+     * @param arrived time arrived at component for processing
+     * @param started time began processing by component
+     * @param completed time finished at component
+     * @param executed time actively processed
+     */
+    Event(final SourceNames names, final int origin, final String label,
+            final double created, final double arrived, final double started,
+            final double completed, final double executed)
+    {
+        this.source = origin < 0 ? null : names.name(origin);
+        this.names = names;
+        this.origin = origin;
+        this.label = label;
+        this.created = created;
+        this.arrived = arrived;
+        this.started = started;
+        this.completed = completed;
+        this.executed = executed;
+        this.lifetime = 0;
+        this.component = null;
+        this.calculated = false;
+        this.last = null;
+        this.intelligent = NONE;
+    }
+
     /**
      * Convenience method for updating event information
      *
@@ -113,9 +181,11 @@ public class Event
     public void setValues(final double arrival, final double start,
             final double complete)
     {
+        final double previous = this.started;
         this.arrived = arrival;
         this.started = start;
         this.completed = complete;
+        this.reschedule(previous);
     }
 
     /**
@@ -125,6 +195,8 @@ public class Event
     public void setSource(final String source)
     {
         this.source = source;
+        this.names = null;
+        this.origin = -1;
     }
 
     /**
@@ -170,6 +242,7 @@ public class Event
     public void setArrived(final double arrived)
     {
         this.arrived = arrived;
+        this.reschedule(this.started);
     }
 
     /**
@@ -187,7 +260,9 @@ public class Event
      */
     public void setStarted(final double started)
     {
+        final double previous = this.started;
         this.started = started;
+        this.reschedule(previous);
     }
 
     /**
@@ -271,6 +346,154 @@ public class Event
         return this.last;
     }
 
+    /**
+     *
+     * @param intelligent distributors whose predictions are cleared when the
+     * event leaves the next active component
+     */
+    void setIntelligent(final Distributor[] intelligent)
+    {
+        this.intelligent = intelligent;
+    }
+
+    /**
+     * Put event back to the values of an earlier copy
+     *
+     * @param saved copy of event taken before the values changed
+     */
+    void restore(final Event saved)
+    {
+        final double previous = this.started;
+        this.arrived = saved.arrived;
+        this.started = saved.started;
+        this.completed = saved.completed;
+        this.executed = saved.executed;
+        this.lifetime = saved.lifetime;
+        this.calculated = saved.calculated;
+        this.last = saved.last;
+        this.component = saved.component;
+        this.reschedule(previous);
+    }
+
+    /**
+     * Write event values to a checkpoint
+     *
+     * @param checkpoint stream the values are written to
+     * @param sequenced <code>true</code> to include the distributors whose
+     * predictions are cleared when the event leaves an active component
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void write(final Checkpoint checkpoint, final boolean sequenced)
+            throws IOException
+    {
+        final DataOutput output = checkpoint.getOutput();
+        checkpoint.writeName(this.source);
+        output.writeUTF(this.label);
+        output.writeDouble(this.created);
+        output.writeDouble(this.arrived);
+        output.writeDouble(this.started);
+        output.writeDouble(this.completed);
+        output.writeDouble(this.executed);
+        output.writeDouble(this.lifetime);
+        output.writeBoolean(this.calculated);
+        checkpoint.writeName(this.last);
+        checkpoint.writeComponent(this.component);
+        if (sequenced)
+        {
+            output.writeInt(this.intelligent.length);
+            for (final Distributor distributor : this.intelligent)
+            {
+                checkpoint.writeFunction(distributor);
+            }
+        }
+    }
+
+    /**
+     * Create event from values read from a checkpoint
+     *
+     * @param checkpoint stream the values are read from
+     * @param sequenced <code>true</code> if the distributors whose predictions
+     * are cleared when the event leaves an active component were included
+     * @return event with the values written
+     * @throws IOException if the checkpoint cannot be read
+     */
+    static Event read(final Checkpoint checkpoint, final boolean sequenced)
+            throws IOException
+    {
+        final DataInput input = checkpoint.getInput();
+        final String source = checkpoint.readName();
+        final String label = input.readUTF();
+        final Event event = new Event(source, label, input.readDouble());
+        event.arrived = input.readDouble();
+        event.started = input.readDouble();
+        event.completed = input.readDouble();
+        event.executed = input.readDouble();
+        event.lifetime = input.readDouble();
+        event.calculated = input.readBoolean();
+        event.last = checkpoint.readName();
+        event.component = checkpoint.readComponent();
+        if (sequenced)
+        {
+            final int size = input.readInt();
+            final List<Distributor> intelligent = new ArrayList<>();
+            for (int index = 0; index < size; index++)
+            {
+                // Distributor may have been changed
+                final Function function = checkpoint.readFunction();
+                if (function instanceof Distributor)
+                {
+                    intelligent.add((Distributor) function);
+                }
+            }
+            event.intelligent = intelligent.isEmpty() ? NONE
+                    : intelligent.toArray(new Distributor[0]);
+        }
+        return event;
+    }
+
+    /**
+     * Let the holding schedule know the ordering of this event has changed
+     *
+     * @param previous start time the event was scheduled with
+     */
+    private void reschedule(final double previous)
+    {
+        if (this.schedule != null)
+        {
+            this.schedule.reorder(this, previous);
+        }
+    }
+
+    /**
+     * Execution order of events in a schedule - by start time, then by
+     * arrival time and then by order of scheduling, which for stamped events
+     * is the order one schedule for the whole model would have scheduled
+     * them. Events forced to the head and merged back keep their place
+     * before any others
+     *
+     * @param first event to compare
+     * @param second event to compare against
+     * @return negative, zero or positive as first is before, same as or after
+     * second
+     */
+    static int compare(final Event first, final Event second)
+    {
+        int result = Double.compare(first.started, second.started);
+        if (result == 0)
+        {
+            result = Double.compare(first.arrived, second.arrived);
+            if (result == 0 && first.sequence > 0 && second.sequence > 0)
+            {
+                result = Stamp.compare(first, second);
+            }
+            if (result == 0)
+            {
+                result = Long.compare(first.sequence, second.sequence);
+            }
+        }
+        return result;
+    }
+
     /**
      * Simulate event passing through component
      */
@@ -284,7 +507,10 @@ public class Event
             // Clear all predicted availability paths if active component
             if (current instanceof Processor)
             {
-                this.sequencer.clear();
+                for (final Distributor distributor : this.intelligent)
+                {
+                    distributor.reset();
+                }
             }
             // Define the component executed to reach end of life
             if (this.component == null)
@@ -299,13 +525,16 @@ public class Event
      * Select event for simulation based on current conditions and priority
      * information as may exist
      * 
+     * @param sequencer working space for re-prioritization shared by all the
+     * events of a simulation
      * @param buffer ordered schedule of events not including self
      * @param locked <code>true</code> if traversing non-active components
      * @return this event if locked into execution or a higher priority event
      */
-    public Event prioritize(final List<Event> buffer, final boolean locked)
+    public Event prioritize(final Sequencer sequencer, final Schedule buffer,
+            final boolean locked)
     {
-        return locked ? this : this.sequencer.prioritize(this, buffer);
+        return locked ? this : sequencer.prioritize(this, buffer);
     }
 
     @Override
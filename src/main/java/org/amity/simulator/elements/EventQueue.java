@@ -0,0 +1,235 @@
+/*
+ * EventQueue.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * Events waiting at a component, in the order they joined. Each event is
+ * marked with the queue holding it, so checking membership takes constant
+ * time however deep the queue grows. Events are kept in a ring so the one at
+ * the front leaves in constant time, and finding the position of an event
+ * searches from the front where events usually leave. An event can wait in
+ * only one queue at a time. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class EventQueue extends AbstractList<Event>
+{
+
+    private final static int SMALLEST = 16;
+    private Event[] events;
+    private int head;
+    private int size;
+
+    /**
+     * Construct empty queue
+     */
+    EventQueue()
+    {
+        this.events = new Event[SMALLEST];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public Event get(final int index)
+    {
+        this.check(index, this.size);
+        return this.events[this.slot(index)];
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(final Object object)
+    {
+        return object instanceof Event event && event.queue == this;
+    }
+
+    @Override
+    public int indexOf(final Object object)
+    {
+        int index = -1;
+        if (this.contains(object))
+        {
+            for (int position = 0; position < this.size; position++)
+            {
+                if (this.events[this.slot(position)] == object)
+                {
+                    index = position;
+                    break;
+                }
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public int lastIndexOf(final Object object)
+    {
+        return this.indexOf(object);
+    }
+
+    @Override
+    public boolean add(final Event event)
+    {
+        this.add(this.size, event);
+        return true;
+    }
+
+    @Override
+    public void add(final int index, final Event event)
+    {
+        this.check(index, this.size + 1);
+        if (this.size == this.events.length)
+        {
+            this.grow();
+        }
+        if (index < this.size / 2)
+        {
+            // Move the events in front of the position forward
+            this.head = (this.head - 1) & (this.events.length - 1);
+            for (int position = 0; position < index; position++)
+            {
+                this.events[this.slot(position)]
+                        = this.events[this.slot(position + 1)];
+            }
+        }
+        else
+        {
+            // Move the events behind the position back
+            for (int position = this.size; position > index; position--)
+            {
+                this.events[this.slot(position)]
+                        = this.events[this.slot(position - 1)];
+            }
+        }
+        this.events[this.slot(index)] = event;
+        this.size++;
+        event.queue = this;
+        this.modCount++;
+    }
+
+    @Override
+    public Event remove(final int index)
+    {
+        this.check(index, this.size);
+        final Event event = this.events[this.slot(index)];
+        if (index < this.size / 2)
+        {
+            // Close the gap from the front
+            for (int position = index; position > 0; position--)
+            {
+                this.events[this.slot(position)]
+                        = this.events[this.slot(position - 1)];
+            }
+            this.events[this.head] = null;
+            this.head = this.slot(1);
+        }
+        else
+        {
+            // Close the gap from the back
+            for (int position = index; position < this.size - 1; position++)
+            {
+                this.events[this.slot(position)]
+                        = this.events[this.slot(position + 1)];
+            }
+            this.events[this.slot(this.size - 1)] = null;
+        }
+        this.size--;
+        event.queue = null;
+        this.modCount++;
+        return event;
+    }
+
+    @Override
+    public boolean remove(final Object object)
+    {
+        final int index = this.indexOf(object);
+        if (index >= 0)
+        {
+            this.remove(index);
+        }
+        return index >= 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (int position = 0; position < this.size; position++)
+        {
+            final int slot = this.slot(position);
+            this.events[slot].queue = null;
+            this.events[slot] = null;
+        }
+        this.head = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Map a position in the queue to where it is held in the ring
+     *
+     * @param position position counted from the front of the queue
+     * @return index in the ring
+     */
+    private int slot(final int position)
+    {
+        return (this.head + position) & (this.events.length - 1);
+    }
+
+    /**
+     * Double the ring, moving the front of the queue to the start
+     */
+    private void grow()
+    {
+        final Event[] larger = Arrays.copyOf(this.events,
+                this.events.length * 2);
+        // Events that wrapped around follow on from the end of the old ring
+        System.arraycopy(this.events, 0, larger, this.events.length,
+                this.head);
+        Arrays.fill(larger, 0, this.head, null);
+        System.arraycopy(larger, this.head, larger, 0, this.size);
+        Arrays.fill(larger, this.size, larger.length, null);
+        this.events = larger;
+        this.head = 0;
+    }
+
+    /**
+     * Check a position is within bounds
+     *
+     * @param index position counted from the front of the queue
+     * @param limit first position out of bounds
+     */
+    private void check(final int index, final int limit)
+    {
+        if (index < 0 || index >= limit)
+        {
+            throw new IndexOutOfBoundsException("Index " + index
+                    + " out of bounds for length " + this.size);
+        }
+    }
+}
@@ -19,6 +19,10 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Common interface for generators and distributors
  *
@@ -32,5 +36,53 @@ public interface Function
      * 
      * @return information on generator
      */
-    String characteristics();    
+    String characteristics();
+
+    /**
+     * Save the state that is changed by using the function, so that an
+     * optimistic simulation can be rolled back
+     *
+     * @return saved state, or <code>null</code> if the function keeps none
+     */
+    Object save();
+
+    /**
+     * Roll back to saved state
+     *
+     * @param state state from an earlier save
+     */
+    void restore(Object state);
+
+    /**
+     * Confirm saved state will never be rolled back to, so anything held for
+     * the roll back can be discarded
+     *
+     * @param state state from an earlier save
+     */
+    void commit(Object state);
+
+    /**
+     * Write the state that is changed by using the function to a checkpoint
+     *
+     * @param output checkpoint stream
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void write(DataOutput output) throws IOException;
+
+    /**
+     * Replace the state of the function with state read from a checkpoint
+     *
+     * @param input checkpoint stream
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void read(DataInput input) throws IOException;
+
+    /**
+     * Start the random values drawn by the function from a seed, so that a
+     * simulation can be repeated exactly
+     *
+     * @param engine name of the random number engine to draw from
+     * @param seed starting point for random values
+     */
+    void seed(String engine, long seed);
 }
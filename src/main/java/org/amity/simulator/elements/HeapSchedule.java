@@ -0,0 +1,406 @@
+/*
+ * HeapSchedule.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary heap future event list - logarithmic insertion and removal, with
+ * events tracking their own heap position so that arbitrary removal and
+ * re-ordering are also logarithmic. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class HeapSchedule implements Schedule
+{
+
+    private final static int CAPACITY = 64;
+    private final Deque<Event> head;
+    private Event[] heap;
+    private int size;
+    private long first;
+    private long last;
+
+    /**
+     * Default constructor
+     */
+    public HeapSchedule()
+    {
+        this.head = new ArrayDeque<>();
+        this.heap = new Event[CAPACITY];
+        this.size = 0;
+        this.first = 0;
+        this.last = 0;
+    }
+
+    @Override
+    public void add(final Event event)
+    {
+        // Events forced to the head are merged back into time order as
+        // preceding anything of equal time
+        this.merge();
+        event.sequence = ++this.last;
+        this.insert(event);
+    }
+
+    @Override
+    public void addFirst(final Event event)
+    {
+        event.schedule = null;
+        this.head.addFirst(event);
+    }
+
+    @Override
+    public Event poll()
+    {
+        final Event event;
+        if (!this.head.isEmpty())
+        {
+            event = this.head.removeFirst();
+        }
+        else if (this.size > 0)
+        {
+            event = this.heap[0];
+            this.delete(0);
+        }
+        else
+        {
+            event = null;
+        }
+        return event;
+    }
+
+    @Override
+    public Event peek()
+    {
+        return !this.head.isEmpty() ? this.head.peekFirst()
+                : this.size > 0 ? this.heap[0] : null;
+    }
+
+    @Override
+    public boolean remove(final Event event)
+    {
+        boolean removed = false;
+        if (event.schedule == this)
+        {
+            this.delete(event.slot);
+            removed = true;
+        }
+        else if (!this.head.isEmpty())
+        {
+            removed = this.head.remove(event);
+        }
+        return removed;
+    }
+
+    @Override
+    public void reorder(final Event event, final double started)
+    {
+        if (event.schedule == this)
+        {
+            final int slot = this.up(event.slot);
+            this.down(slot);
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return this.head.size() + this.size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.head.isEmpty() && this.size == 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        for (int index = 0; index < this.size; index++)
+        {
+            this.heap[index].schedule = null;
+            this.heap[index] = null;
+        }
+        this.size = 0;
+        this.head.clear();
+    }
+
+    @Override
+    public Iterator<Event> iterator()
+    {
+        return new Traversal();
+    }
+
+    @Override
+    public Iterable<Event> unordered()
+    {
+        // Events forced to the head come first whatever their times
+        return this.head.isEmpty()
+                ? Arrays.asList(this.heap).subList(0, this.size) : null;
+    }
+
+    /**
+     * Move any events forced to the head into the heap so they come before
+     * events of equal time, keeping their existing order
+     */
+    private void merge()
+    {
+        if (!this.head.isEmpty())
+        {
+            long sequence = this.first - this.head.size();
+            this.first = sequence;
+            while (!this.head.isEmpty())
+            {
+                final Event event = this.head.removeFirst();
+                event.sequence = sequence++;
+                this.insert(event);
+            }
+        }
+    }
+
+    /**
+     * Add event to the heap
+     *
+     * @param event entity to be placed in heap
+     */
+    private void insert(final Event event)
+    {
+        if (this.size == this.heap.length)
+        {
+            this.heap = Arrays.copyOf(this.heap, this.size * 2);
+        }
+        event.schedule = this;
+        this.heap[this.size] = event;
+        event.slot = this.size;
+        this.up(this.size++);
+    }
+
+    /**
+     * Take event at heap position out of the heap
+     *
+     * @param slot heap position
+     */
+    private void delete(final int slot)
+    {
+        final Event event = this.heap[slot];
+        event.schedule = null;
+        final int end = --this.size;
+        if (slot != end)
+        {
+            final Event moved = this.heap[end];
+            this.heap[slot] = moved;
+            moved.slot = slot;
+            this.heap[end] = null;
+            this.down(this.up(slot));
+        }
+        else
+        {
+            this.heap[end] = null;
+        }
+    }
+
+    /**
+     * Move event towards root of the heap until ordered
+     *
+     * @param slot starting heap position
+     * @return final heap position
+     */
+    private int up(final int slot)
+    {
+        int current = slot;
+        final Event event = this.heap[current];
+        while (current > 0)
+        {
+            final int parent = (current - 1) >>> 1;
+            final Event above = this.heap[parent];
+            if (Event.compare(event, above) >= 0)
+            {
+                break;
+            }
+            this.heap[current] = above;
+            above.slot = current;
+            current = parent;
+        }
+        this.heap[current] = event;
+        event.slot = current;
+        return current;
+    }
+
+    /**
+     * Move event towards leaves of the heap until ordered
+     *
+     * @param slot starting heap position
+     */
+    private void down(final int slot)
+    {
+        int current = slot;
+        final Event event = this.heap[current];
+        final int half = this.size >>> 1;
+        while (current < half)
+        {
+            int child = (current << 1) + 1;
+            final int right = child + 1;
+            if (right < this.size
+                    && Event.compare(this.heap[right], this.heap[child]) < 0)
+            {
+                child = right;
+            }
+            final Event below = this.heap[child];
+            if (Event.compare(event, below) <= 0)
+            {
+                break;
+            }
+            this.heap[current] = below;
+            below.slot = current;
+            current = child;
+        }
+        this.heap[current] = event;
+        event.slot = current;
+    }
+
+    /**
+     * Ordered traversal of the heap using a secondary heap of the frontier
+     * positions, so that visiting the first k events costs O(k log k)
+     */
+    private class Traversal implements Iterator<Event>
+    {
+
+        private final Iterator<Event> forced;
+        private int[] frontier;
+        private int count;
+
+        /**
+         * Start traversal at events forced to head and then heap root
+         */
+        private Traversal()
+        {
+            this.forced = HeapSchedule.this.head.iterator();
+            this.frontier = new int[16];
+            this.count = 0;
+            if (HeapSchedule.this.size > 0)
+            {
+                this.frontier[this.count++] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.forced.hasNext() || this.count > 0;
+        }
+
+        @Override
+        public Event next()
+        {
+            if (this.forced.hasNext())
+            {
+                return this.forced.next();
+            }
+            if (this.count == 0)
+            {
+                throw new NoSuchElementException();
+            }
+            final Event[] events = HeapSchedule.this.heap;
+            final int slot = this.frontier[0];
+            // Replace the visited position with the last frontier entry
+            this.frontier[0] = this.frontier[--this.count];
+            this.sink(events);
+            // Children of visited event are next candidates
+            final int left = (slot << 1) + 1;
+            if (left < HeapSchedule.this.size)
+            {
+                this.push(events, left);
+                if (left + 1 < HeapSchedule.this.size)
+                {
+                    this.push(events, left + 1);
+                }
+            }
+            return events[slot];
+        }
+
+        /**
+         * Add heap position to the frontier
+         *
+         * @param events heap storage
+         * @param slot heap position to add
+         */
+        private void push(final Event[] events, final int slot)
+        {
+            if (this.count == this.frontier.length)
+            {
+                this.frontier = Arrays.copyOf(this.frontier, this.count * 2);
+            }
+            int current = this.count++;
+            while (current > 0)
+            {
+                final int parent = (current - 1) >>> 1;
+                if (Event.compare(events[slot],
+                        events[this.frontier[parent]]) >= 0)
+                {
+                    break;
+                }
+                this.frontier[current] = this.frontier[parent];
+                current = parent;
+            }
+            this.frontier[current] = slot;
+        }
+
+        /**
+         * Restore frontier ordering from the root
+         *
+         * @param events heap storage
+         */
+        private void sink(final Event[] events)
+        {
+            if (this.count == 0)
+            {
+                return;
+            }
+            final int slot = this.frontier[0];
+            int current = 0;
+            final int half = this.count >>> 1;
+            while (current < half)
+            {
+                int child = (current << 1) + 1;
+                final int right = child + 1;
+                if (right < this.count
+                        && Event.compare(events[this.frontier[right]],
+                                events[this.frontier[child]]) < 0)
+                {
+                    child = right;
+                }
+                if (Event.compare(events[slot],
+                        events[this.frontier[child]]) <= 0)
+                {
+                    break;
+                }
+                this.frontier[current] = this.frontier[child];
+                current = child;
+            }
+            this.frontier[current] = slot;
+        }
+    }
+}
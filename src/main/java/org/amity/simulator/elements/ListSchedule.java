@@ -0,0 +1,123 @@
+/*
+ * ListSchedule.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Future event list kept as a list that is re-sorted on every insertion - the
+ * original simulation buffer, retained for comparison and as a view over
+ * externally managed lists of events. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class ListSchedule implements Schedule
+{
+
+    private final List<Event> events;
+
+    /**
+     * Default constructor
+     */
+    public ListSchedule()
+    {
+        this.events = new ArrayList<>();
+    }
+
+    /**
+     * Construct schedule operating directly on an existing list, which is
+     * assumed to already be in execution order
+     *
+     * @param events ordered list of events
+     */
+    public ListSchedule(final List<Event> events)
+    {
+        this.events = events;
+    }
+
+    @Override
+    public void add(final Event event)
+    {
+        // Add to end as we will reshuffle
+        this.events.add(event);
+        // Stable sort retains scheduling order for events of the same time
+        // that are not stamped with it
+        this.events.sort(Comparator.comparingDouble(Event::getStarted)
+                .thenComparingDouble(Event::getArrived)
+                .thenComparing(Stamp::compare));
+    }
+
+    @Override
+    public void addFirst(final Event event)
+    {
+        this.events.add(0, event);
+    }
+
+    @Override
+    public Event poll()
+    {
+        return this.events.isEmpty() ? null : this.events.remove(0);
+    }
+
+    @Override
+    public Event peek()
+    {
+        return this.events.isEmpty() ? null : this.events.get(0);
+    }
+
+    @Override
+    public boolean remove(final Event event)
+    {
+        return this.events.remove(event);
+    }
+
+    @Override
+    public void reorder(final Event event, final double started)
+    {
+        // Picked up on the next sort
+    }
+
+    @Override
+    public int size()
+    {
+        return this.events.size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.events.isEmpty();
+    }
+
+    @Override
+    public void clear()
+    {
+        this.events.clear();
+    }
+
+    @Override
+    public Iterator<Event> iterator()
+    {
+        return this.events.iterator();
+    }
+}
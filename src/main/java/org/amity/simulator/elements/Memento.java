@@ -0,0 +1,155 @@
+/*
+ * Memento.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.Collection;
+import java.util.List;
+import org.amity.simulator.data.QueueStatistics;
+
+/**
+ * Component state saved before an event passes through, holding only what
+ * one event can change - local records are only ever appended to, queue
+ * statistics change once at most, and the queue only gains or loses the
+ * event itself - so that saving is cheap enough to do on every transition.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Memento
+{
+
+    final double value;
+    final int count;
+    private final int local;
+    private final int queue;
+    private final int index;
+    private final Event event;
+    private final Object statistics;
+    private final Object[] functions;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Memento()
+    {
+        this.value = 0;
+        this.count = 0;
+        this.local = 0;
+        this.queue = 0;
+        this.index = -1;
+        this.event = null;
+        this.statistics = null;
+        this.functions = new Object[0];
+    }
+
+    /**
+     * Save component state
+     *
+     * @param value time kept by the component, such as its availability
+     * @param count counter kept by the component
+     * @param local records of events passed through the component
+     * @param queue events waiting at the component, or <code>null</code>
+     * @param event entity about to pass through the component
+     * @param statistics queue depth statistics, or <code>null</code>
+     * @param functions generators or distributors used by the component
+     */
+    Memento(final double value, final int count, final List<Event> local,
+            final List<Event> queue, final Event event,
+            final QueueStatistics statistics,
+            final Collection<? extends Function> functions)
+    {
+        this.value = value;
+        this.count = count;
+        this.local = local.size();
+        this.queue = queue == null ? 0 : queue.size();
+        this.index = queue == null ? -1 : queue.indexOf(event);
+        this.event = event;
+        this.statistics = statistics == null ? null : statistics.save();
+        this.functions = new Object[functions.size()];
+        int position = 0;
+        for (final Function function : functions)
+        {
+            this.functions[position++] = function.save();
+        }
+    }
+
+    /**
+     * Put component back to the saved state
+     *
+     * @param local records of events passed through the component
+     * @param queue events waiting at the component, or <code>null</code>
+     * @param statistics queue depth statistics, or <code>null</code>
+     * @param functions generators or distributors used by the component
+     */
+    void restore(final List<Event> local, final List<Event> queue,
+            final QueueStatistics statistics,
+            final Collection<? extends Function> functions)
+    {
+        Memento.truncate(local, this.local);
+        if (queue != null)
+        {
+            // Event either joined the end of the queue or left it
+            if (this.index < 0)
+            {
+                Memento.truncate(queue, this.queue);
+            }
+            else if (queue.size() < this.queue)
+            {
+                queue.add(this.index, this.event);
+            }
+        }
+        if (statistics != null && this.statistics != null)
+        {
+            statistics.restore(this.statistics);
+        }
+        int position = 0;
+        for (final Function function : functions)
+        {
+            function.restore(this.functions[position++]);
+        }
+    }
+
+    /**
+     * Let go of anything held to restore the saved state
+     *
+     * @param functions generators or distributors used by the component
+     */
+    void commit(final Collection<? extends Function> functions)
+    {
+        int position = 0;
+        for (final Function function : functions)
+        {
+            function.commit(this.functions[position++]);
+        }
+    }
+
+    /**
+     * Drop entries added to the end of a list
+     *
+     * @param list list to cut back
+     * @param size length to cut back to
+     */
+    private static void truncate(final List<?> list, final int size)
+    {
+        while (list.size() > size)
+        {
+            list.removeLast();
+        }
+    }
+}
@@ -19,14 +19,17 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.amity.simulator.generators.Engines;
 
 /**
  * Container for system components
@@ -38,8 +41,22 @@ public class Model
 
     private final List<String> errors;
     private boolean compiled;
+    private String schedule;
+    private int partitions;
+    private boolean optimistic;
+    private String checkpoint;
+    private int interval;
+    private String resume;
+    private double precision;
+    private String engine;
+    private boolean seeded;
+    private long seed;
+    private boolean split;
     final List<Source> sources;
     final Map<String, Component> components;
+    final SourceNames names;
+    final List<List<Component>> networks;
+    private Supplier<Model> blueprint;
 
     /**
      * Default constructor for the system model
@@ -48,8 +65,22 @@ public class Model
     {
         this.errors = new ArrayList<>();
         this.compiled = false;
+        this.schedule = Schedule.HEAP;
+        this.partitions = 1;
+        this.optimistic = false;
+        this.checkpoint = null;
+        this.interval = 0;
+        this.resume = null;
+        this.precision = 0;
+        this.engine = Engines.DEFAULT;
+        this.seeded = false;
+        this.seed = 0;
+        this.split = true;
         this.sources = new ArrayList<>();
         this.components = new HashMap<>();
+        this.names = new SourceNames();
+        this.networks = new ArrayList<>();
+        this.blueprint = null;
     }
 
     /**
@@ -65,7 +96,10 @@ public class Model
     }
 
     /**
-     * Load all the elements of the model into the container
+     * Load all the elements of the model into the container, number its
+     * sources, index the active components each balancer leads to and the
+     * chains of balancers that can be routed through in one step, find the
+     * sub-networks with sources that share no component
      *
      * @param sources convenience list of event sources
      * @param components objects that represent the connected system
@@ -77,9 +111,51 @@ public class Model
         {
             this.sources.addAll(sources);
             this.components.putAll(components);
+            this.names.bind(this.sources, this.components.values());
+            Sequencer.reachability(this.components.values());
+            Balancer.flatten(this.components.values());
+            this.networks.clear();
+            for (final List<Component> network
+                    : Partitioner.networks(this.components.values()))
+            {
+                // Components no source leads to never see an event
+                boolean fed = false;
+                for (final Source source : this.sources)
+                {
+                    fed |= network.contains(source);
+                }
+                if (fed)
+                {
+                    this.networks.add(network);
+                }
+            }
         }
     }
 
+    /**
+     * Note how to build copies of the compiled model
+     *
+     * @param blueprint builds a copy of the model with its own components
+     */
+    public void setBlueprint(final Supplier<Model> blueprint)
+    {
+        this.blueprint = blueprint;
+    }
+
+    /**
+     * Build a copy of the compiled model without compiling again - the copy
+     * has its own components, so it can be simulated alongside this model,
+     * but none of the simulation settings
+     *
+     * @return copy of the model, or <code>null</code> if the model was not
+     * compiled
+     */
+    public Model copy()
+    {
+        return this.compiled && this.blueprint != null
+                ? this.blueprint.get() : null;
+    }
+
     /**
      *
      * @return model compiled successfully
@@ -98,6 +174,208 @@ public class Model
         return this.errors;
     }
 
+    /**
+     * Select the future event list implementation used for simulation
+     *
+     * @param schedule name of implementation
+     * @return <code>true</code> if implementation is known
+     */
+    public boolean setSchedule(final String schedule)
+    {
+        final boolean known = Schedule.instance(schedule) != null;
+        if (known)
+        {
+            this.schedule = schedule;
+        }
+        return known;
+    }
+
+    /**
+     *
+     * @return name of future event list implementation
+     */
+    public String getSchedule()
+    {
+        return this.schedule;
+    }
+
+    /**
+     * Select the number of partitions of the model to simulate in parallel
+     *
+     * @param partitions number of partitions - 1 for sequential simulation
+     * @return <code>true</code> if number of partitions is acceptable
+     */
+    public boolean setPartitions(final int partitions)
+    {
+        final boolean acceptable = partitions > 0;
+        if (acceptable)
+        {
+            this.partitions = partitions;
+        }
+        return acceptable;
+    }
+
+    /**
+     *
+     * @return number of partitions of the model to simulate in parallel
+     */
+    public int getPartitions()
+    {
+        return this.partitions;
+    }
+
+    /**
+     * Select how partitions of the model are kept in step
+     *
+     * @param optimistic <code>true</code> for partitions to simulate ahead
+     * and roll back, <code>false</code> for partitions to wait for each other
+     */
+    public void setOptimistic(final boolean optimistic)
+    {
+        this.optimistic = optimistic;
+    }
+
+    /**
+     *
+     * @return <code>true</code> if partitions simulate ahead and roll back
+     */
+    public boolean isOptimistic()
+    {
+        return this.optimistic;
+    }
+
+    /**
+     * Write checkpoints of a sequential simulation as it runs, and when it
+     * ends, so that it can be resumed
+     *
+     * @param file where checkpoints are written, or <code>null</code> for
+     * no checkpoints
+     * @param interval number of transitions between checkpoints
+     * @return <code>true</code> if interval is acceptable
+     */
+    public boolean setCheckpoint(final String file, final int interval)
+    {
+        final boolean acceptable = interval > 0;
+        if (acceptable)
+        {
+            this.checkpoint = file;
+            this.interval = interval;
+        }
+        return acceptable;
+    }
+
+    /**
+     *
+     * @return where checkpoints are written, or <code>null</code> for no
+     * checkpoints
+     */
+    public String getCheckpoint()
+    {
+        return this.checkpoint;
+    }
+
+    /**
+     * Resume a sequential simulation from a checkpoint rather than starting
+     * from the beginning - the generation end point can differ from the one
+     * the checkpoint was written with
+     *
+     * @param file checkpoint to resume from, or <code>null</code> to start
+     * from the beginning
+     */
+    public void setResume(final String file)
+    {
+        this.resume = file;
+    }
+
+    /**
+     *
+     * @return checkpoint to resume from, or <code>null</code>
+     */
+    public String getResume()
+    {
+        return this.resume;
+    }
+
+    /**
+     * Stop a sequential simulation once the 95% confidence intervals of its
+     * key statistics are within a relative half width of their estimates -
+     * the statistics sample then ends at that point, or at the sample end
+     * time at the latest
+     *
+     * @param precision relative half width wanted, or zero to run to the
+     * generation end point
+     * @return <code>true</code> if precision is acceptable
+     */
+    public boolean setPrecision(final double precision)
+    {
+        final boolean acceptable = precision >= 0 && precision < 1;
+        if (acceptable)
+        {
+            this.precision = precision;
+        }
+        return acceptable;
+    }
+
+    /**
+     *
+     * @return relative half width wanted, or zero if the simulation runs to
+     * the generation end point
+     */
+    public double getPrecision()
+    {
+        return this.precision;
+    }
+
+    /**
+     * Choose the random number engine generators and distributors draw from
+     * - takes effect when the model is seeded
+     *
+     * @param engine name of the engine
+     * @return <code>true</code> if the engine can be used
+     */
+    public boolean setEngine(final String engine)
+    {
+        final boolean available = Engines.isAvailable(engine);
+        if (available)
+        {
+            this.engine = engine;
+        }
+        return available;
+    }
+
+    /**
+     *
+     * @return name of the random number engine
+     */
+    public String getEngine()
+    {
+        return this.engine;
+    }
+
+    /**
+     * Seed every generator and distributor of the model from one seed, so
+     * the simulation can be repeated exactly. Each gets its own stream, split
+     * from the seed by the label of its component and its position in the
+     * component, so the values drawn do not depend on the order components
+     * are simulated in or on how the model is partitioned.
+     *
+     * @param seed starting point for all random values of the model
+     */
+    public void setSeed(final long seed)
+    {
+        this.seeded = true;
+        this.seed = seed;
+        for (final Component component : this.components.values())
+        {
+            final List<Function> functions = component.getFunctions();
+            for (int index = 0; index < functions.size(); index++)
+            {
+                functions.get(index).seed(this.engine, Model.split(seed,
+                        component.getLabel(), index));
+            }
+        }
+    }
+
     /**
      * Main entry point for starting the simulation using the model
      *
@@ -109,214 +387,336 @@ public class Model
     public boolean execute(final double generate, final double start,
             final double end)
     {
-        final boolean run = this.compiled && generate > end
-                && end > start && start >= 0;
+        boolean run = this.runnable(generate, start, end);
         if (run)
         {
             System.out.println("Completed compilation");
-            final Monitor monitor = new Monitor(start, end);
-            final Simulator simulator = new Simulator(this.sources, generate);
-            simulator.execute(generate);
-            System.out.println("Statistics for events that occurred between "
-                    + start + " and " + end);
-            final boolean multisource = this.sources.size() > 1;
-            monitor.displayStatistics(simulator.completed, multisource);
-            final Set<Map.Entry<String, Component>> set
-                    = new TreeSet<>(Map.Entry.comparingByKey());
-            set.addAll(this.components.entrySet());
-            for (final Map.Entry<String, Component> entry : set)
-            {
-                final Component component = entry.getValue();
-                component.generateStatistics(monitor);
-            }
+            run = this.simulate(generate, start, end, true) != null;
         }
         return run;
     }
 
     /**
-     * Container for running simulation
+     * Run the simulation as one of a set of independent replications, with
+     * no output, recording the statistics for later combination
+     *
+     * @param generate end point in ticks for the simulation
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return recorded statistics or <code>null</code> if the simulation
+     * could not be run
      */
-    private class Simulator
+    public Monitor replicate(final double generate, final double start,
+            final double end)
     {
+        Monitor monitor = null;
+        if (this.runnable(generate, start, end))
+        {
+            monitor = this.simulate(generate, start, end, false);
+        }
+        return monitor;
+    }
 
-        private final static int FILL_SIZE = 2000;
-        private final static int CYCLES = 50000;
-        private final List<Event> primary;
-        private final List<Event> working;
-        private final List<Event> completed;
-        private double fillmark;
-        private double lowmark;
-        private double highmark;
-        private boolean overrun;
+    /**
+     *
+     * @param generate end point in ticks for the simulation
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return <code>true</code> if model and times allow a simulation
+     */
+    private boolean runnable(final double generate, final double start,
+            final double end)
+    {
+        return this.compiled && generate > end && end > start && start >= 0;
+    }
 
-        /**
-         * Default constructor - unused
-         */
-        private Simulator()
+    /**
+     * Run the simulation and pass the results to a monitor
+     *
+     * @param generate end point in ticks for the simulation
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @param verbose show simulation progress and statistics if
+     * <code>true</code>
+     * @return recorded statistics or <code>null</code> if the simulation did
+     * not complete
+     */
+    private Monitor simulate(final double generate, final double start,
+            final double end, final boolean verbose)
+    {
+        final List<Event> completed;
+        final Completions completions = new Completions(start, end, this.names);
+        Precision precision = null;
+        Model whole = null;
+        boolean success = true;
+        this.prepare(start, end);
+        // Partitions simulate each balancer on its own
+        final boolean flattened = !(this.partitions > 1);
+        for (final Component component : this.components.values())
         {
-            this.primary = new ArrayList<>();
-            this.working = new ArrayList<>();
-            this.completed = new ArrayList<>();
-            this.lowmark = 0;
-            this.highmark = 0;
-            this.fillmark = 0;
-            this.overrun = false;
+            if (component instanceof Balancer balancer)
+            {
+                balancer.setFlattened(flattened);
+            }
         }
-
-        /**
-         * Constructor for the simulation space
-         *
-         * @param sources event generation components
-         * @param generate end-point in ticks for the simulation completion
-         */
-        private Simulator(final List<Source> sources, final double generate)
+        if (this.partitions > 1 && this.optimistic)
+        {
+            final TimeWarp warp = new TimeWarp(this.components.values(),
+                    this.sources, generate, this.schedule, this.partitions,
+                    verbose);
+            success = warp.execute();
+            completed = warp.completed;
+        }
+        else if (this.partitions > 1)
+        {
+            final Coordinator coordinator = new Coordinator(
+                    this.components.values(), this.sources, generate,
+                    this.schedule, this.partitions, verbose);
+            success = coordinator.execute();
+            completed = coordinator.completed;
+        }
+        else if (this.independent())
         {
-            this.primary = new ArrayList<>();
-            this.working = new ArrayList<>();
-            this.completed = new ArrayList<>();
-            this.fillmark = 0;
-            this.lowmark = 0;
-            this.highmark = 0;
-            this.overrun = false;
-            // Generate all the events
-            for (final Source source : sources)
+            final Networks networks = new Networks(this.networks,
+                    this.sources, generate, this.schedule, start, end,
+                    this.names, verbose);
+            success = networks.execute(completions);
+            // Sub-networks have already taken in all their events
+            completed = new ArrayList<>();
+            // Order of one simulation is uncertain so simulate a fresh copy
+            // of the model as a whole
+            if (success && !networks.isExact())
             {
-                do
-                {
-                    final Event event = source.simulate(null);
-                    if (event == null || event.getStarted() > generate)
-                    {
-                        break;
-                    }
-                    // Only add event if it has a component to execute against
-                    if (event.getComponent() != null)
-                    {
-                        this.primary.add(event);
-                    }
-                }
-                while (true);
+                whole = this.whole();
             }
-            this.fill();
         }
-
-        /**
-         * Step through simulation
-         * 
-         * @param generate end-point in ticks for the simulation completion
-         */
-        void execute(final double generate)
+        else
         {
-            System.out.println("  Start simulation");
-            int transitions = 0;
-            boolean locked = false;
-            while (!this.working.isEmpty())
+            final Simulator simulator = new Simulator(this.sources, generate,
+                    Schedule.instance(this.schedule), verbose);
+            final Checkpoint state = new Checkpoint(this.components,
+                    this.checkpoint == null ? null : new File(this.checkpoint),
+                    this.interval);
+            completions.setKept(this.checkpoint != null);
+            simulator.setCompletions(completions);
+            if (this.resume != null)
             {
-                final Event event = this.working.remove(0);
-                // End of simulation time
-                if (event.getCompleted() > generate)
+                try
                 {
-                    break;
-                }
-                // Check there is no delay with execution
-                final boolean balancer
-                        = event.getComponent() instanceof Balancer;
-                final Event priority = event.prioritize(this.working,
-                        locked);
-                priority.simulate();
-                locked = false;
-                transitions++;
-                // Event has completed so move it to the completed queue
-                if (priority.getComponent() == null)
-                {
-                    this.completed.add(priority);
-                }
-                // Load balancer with no execution delay so
-                // continue moving through event system state
-                else if (balancer)
-                {
-                    // Put this back on to execute first again on the next
-                    // transition as availability may have been calculated
-                    // for this event so we need to do it first
-                    this.working.add(0, priority);
-                    // Don't re-check priority next iteration as we're
-                    // executing on this event
-                    locked = true;
-                }
-                // New completion time for current event so re-sort execution
-                // schedule
-                else
-                {
-                    // Add to end as we will reshuffle
-                    this.working.add(priority);
-                    // Refill working buffer if current event is higher than the
-                    // fill point
-                    if (!this.primary.isEmpty()
-                            && (priority.getStarted() > this.fillmark))
+                    state.load(new File(this.resume), simulator);
+                    if (!completions.resample(start, end))
+                    {
+                        throw new IOException("sample of completed events "
+                                + "cannot be moved to " + start + " - " + end);
+                    }
+                    // Sample of this run takes over from the one the
+                    // checkpoint was written with
+                    for (final Component component
+                            : this.components.values())
                     {
-                        System.out.println("        Refill working buffer");
-                        System.out.println("          Current time:"
-                                + priority.getStarted());
-                        this.fill();
+                        if (!component.getQueueStatistics()
+                                .resample(start, end))
+                        {
+                            throw new IOException("queue sample of "
+                                    + component.getLabel()
+                                    + " cannot be moved to " + start
+                                    + " - " + end);
+                        }
                     }
-                    else
+                    if (verbose)
                     {
-                        // Re-sort working buffer after we have modified the list
-                        this.working.sort(Comparator
-                                .comparingDouble(Event::getStarted)
-                                .thenComparingDouble(Event::getArrived));
+                        System.out.println("Resumed from checkpoint after "
+                                + simulator.getTransitions() + " transitions");
                     }
                 }
-                if (transitions % CYCLES == 0)
+                catch (IOException exception)
                 {
-                    System.out.println("    Transitions: " + transitions);
-                    System.out.println("      Time: "
-                            + priority.getCompleted());
-                    System.out.println("      Events completed: "
-                            + this.completed.size());
-                    final int remaining = this.primary.size()
-                            + this.working.size();
-                    System.out.println("      Events remaining: "
-                            + remaining);
+                    System.err.println("Unable to resume from checkpoint: "
+                            + exception.getMessage());
+                    success = false;
                 }
             }
-            System.out.println("  Simulation transitions to complete: "
-                    + transitions);
+            if (this.checkpoint != null)
+            {
+                simulator.setCheckpoint(state);
+            }
+            if (this.precision > 0)
+            {
+                precision = new Precision(this.components.values(), start,
+                        end, this.precision);
+                simulator.setPrecision(precision);
+            }
+            if (success)
+            {
+                simulator.execute();
+            }
+            completed = simulator.completed;
         }
-
-        /**
-         * Transfer events from the primary event storage to the working area
-         */
-        private void fill()
+        Monitor monitor = null;
+        if (whole != null)
         {
-            if (!this.primary.isEmpty())
+            if (verbose)
             {
-                this.primary.sort(Comparator
-                        .comparingDouble(Event::getStarted)
-                        .thenComparingDouble(Event::getArrived));
-                for (int index = 0; index < Simulator.FILL_SIZE; index++)
-                {
-                    final Event event = this.primary.remove(0);
-                    assert event.getArrived() > this.lowmark :
-                            "Below working time frame";
-                    this.working.add(event);
-                    if (this.primary.isEmpty())
-                    {
-                        break;
-                    }
-                }
-                this.working.sort(Comparator.comparingDouble(Event::getStarted)
-                            .thenComparingDouble(Event::getArrived));
-                this.lowmark = this.working.getFirst().getArrived();
-                this.highmark = this.working.getLast().getArrived();
-                this.fillmark = (this.highmark + this.lowmark)/2;
-                System.out.println("          Working event buffer: "
-                        + this.working.size());
-                System.out.println("          Primary event buffer: "
-                        + this.primary.size());
-                System.out.println("          High Watermark: " + this.highmark);
-                System.out.println("          Low Watermark: " + this.lowmark);
-                System.out.println("          Fill Watermark: " + this.fillmark);
-           }
+                System.out.println("Sub-networks reached the same time - "
+                        + "simulating the model as a whole");
+            }
+            monitor = whole.simulate(generate, start, end, verbose);
         }
+        else if (success)
+        {
+            monitor = new Monitor(start,
+                    precision == null ? end : precision.getEnd(), verbose);
+            if (verbose && precision != null)
+            {
+                System.out.println(precision.isConverged()
+                        ? "Statistics reached the precision wanted at "
+                        + precision.getEnd()
+                        : "Statistics did not reach the precision wanted by "
+                        + precision.getEnd());
+            }
+            if (verbose)
+            {
+                System.out.println("Statistics for events that occurred between "
+                        + monitor.getStart() + " and " + monitor.getEnd());
+            }
+            completions.setEnd(monitor.getEnd());
+            completions.consume(completed);
+            this.report(completions, monitor);
+            if (precision != null)
+            {
+                monitor.displayStatistics(precision);
+            }
+        }
+        return monitor;
+    }
+
+    /**
+     * Simulations that are not asked for are only used as long as the result
+     * can be exactly that of one simulation - the model must be seeded so it
+     * can be simulated again as a whole if the order of one simulation cannot
+     * be recovered, and the simulation must not be written to checkpoints,
+     * resumed or stopped early
+     *
+     * @return <code>true</code> if the model can be simulated again as a
+     * whole with the same result
+     */
+    private boolean repeatable()
+    {
+        return this.seeded && this.blueprint != null
+                && this.checkpoint == null && this.resume == null
+                && !(this.precision > 0);
+    }
+
+    /**
+     * Sub-networks that share no component are simulated in parallel without
+     * being asked for
+     *
+     * @return <code>true</code> if the sub-networks are simulated apart
+     */
+    private boolean independent()
+    {
+        return this.split && this.repeatable() && this.networks.size() > 1;
+    }
+
+    /**
+     *
+     * @return fresh copy of the model, seeded the same, that is always
+     * simulated as a whole with the general engine
+     */
+    private Model whole()
+    {
+        final Model whole = this.copy();
+        whole.schedule = this.schedule;
+        whole.engine = this.engine;
+        whole.setSeed(this.seed);
+        whole.split = false;
+        return whole;
+    }
+
+    /**
+     * Choose whether sub-networks that share no component may be simulated
+     * in parallel
+     *
+     * @param split <code>false</code> to always simulate the model as a whole
+     */
+    void setSplit(final boolean split)
+    {
+        this.split = split;
+    }
+
+    /**
+     * Get the components ready to take a statistics sample - only monitored
+     * components record the events passing through, and queue statistics are
+     * taken in over the sample as the queues change
+     *
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     */
+    void prepare(final double start, final double end)
+    {
+        for (final Component component : this.components.values())
+        {
+            component.setRecording(false);
+            // A run resumed from a checkpoint takes the depth changes in
+            // again over its own sample
+            component.getQueueStatistics().setKept(this.checkpoint != null);
+            component.getQueueStatistics().setWindow(start, end);
+        }
+    }
+
+    /**
+     * Pass the results of a simulation of the model to the monitor
+     *
+     * @param completions statistics of the events that reached the end of
+     * their life
+     * @param monitor collector for the statistics
+     */
+    void report(final Completions completions, final Monitor monitor)
+    {
+        final boolean multisource = this.sources.size() > 1;
+        monitor.displayStatistics(completions, multisource);
+        final Set<Map.Entry<String, Component>> set
+                = new TreeSet<>(Map.Entry.comparingByKey());
+        set.addAll(this.components.entrySet());
+        for (final Map.Entry<String, Component> entry : set)
+        {
+            final Component component = entry.getValue();
+            // Sample may have been cut short by the stopping rule
+            component.getQueueStatistics().setEnd(monitor.getEnd());
+            component.generateStatistics(monitor);
+        }
+    }
+
+    /**
+     * Derive the seed of a separate random stream from a parent seed
+     *
+     * @param seed parent seed
+     * @param name name distinguishing the stream
+     * @param index position distinguishing streams with the same name
+     * @return seed for the stream
+     */
+    static long split(final long seed, final String name, final long index)
+    {
+        long value = Model.mix(seed);
+        for (int position = 0; position < name.length(); position++)
+        {
+            value = Model.mix(value ^ name.charAt(position));
+        }
+        return Model.mix(value ^ index);
+    }
+
+    /**
+     * Scramble the bits of a value - the SplitMix64 finalizer, so that close
+     * inputs give unrelated outputs
+     *
+     * @param value bits to scramble
+     * @return scrambled bits
+     */
+    private static long mix(final long value)
+    {
+        long bits = value + 0x9e3779b97f4a7c15L;
+        bits = (bits ^ (bits >>> 30)) * 0xbf58476d1ce4e5b9L;
+        bits = (bits ^ (bits >>> 27)) * 0x94d049bb133111ebL;
+        return bits ^ (bits >>> 31);
     }
 }
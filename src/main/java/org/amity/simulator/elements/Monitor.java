@@ -20,33 +20,37 @@
 package org.amity.simulator.elements;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 import org.amity.simulator.data.QueueStatistics;
+import org.apache.commons.math3.distribution.TDistribution;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.util.FastMath;
 
 /**
- * Monitoring for simulated components in the system. Not thread safe.
+ * Monitoring for simulated components in the system. Reported values are
+ * also recorded by section so that the results of independent replications
+ * can be combined. Not thread safe.
  *
  * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
  */
 public class Monitor
 {
 
-    private final DescriptiveStatistics arrivals;
-    private final DescriptiveStatistics waiting;
-    private final DescriptiveStatistics processing;
-    private final DescriptiveStatistics visiting;
-    private final DescriptiveStatistics elapsed;
-    private final DescriptiveStatistics executed;
-    private final DescriptiveStatistics queue;
+    private final Accumulator arrivals;
+    private final Accumulator waiting;
+    private final Accumulator processing;
+    private final Accumulator visiting;
+    private final Accumulator elapsed;
+    private final Accumulator executed;
     private final double start;
     private final double end;
+    private final boolean display;
+    private final Map<String, Map<String, Double>> results;
+    private Map<String, Double> section;
+    private String heading;
 
     /**
      * Default constructor - hidden on purpose
@@ -55,13 +59,16 @@ public class Monitor
     {
         this.start = 0;
         this.end = 0;
-        this.arrivals = new DescriptiveStatistics();
-        this.waiting = new DescriptiveStatistics();
-        this.processing = new DescriptiveStatistics();
-        this.visiting = new DescriptiveStatistics();
-        this.elapsed = new DescriptiveStatistics();
-        this.executed = new DescriptiveStatistics();
-        this.queue = new DescriptiveStatistics();
+        this.display = true;
+        this.results = new LinkedHashMap<>();
+        this.section = null;
+        this.heading = "";
+        this.arrivals = new Accumulator();
+        this.waiting = new Accumulator();
+        this.processing = new Accumulator();
+        this.visiting = new Accumulator();
+        this.elapsed = new Accumulator();
+        this.executed = new Accumulator();
     }
 
     /**
@@ -71,6 +78,19 @@ public class Monitor
      * @param end upper bound of monitoring period
      */
     public Monitor(final double start, final double end)
+    {
+        this(start, end, true);
+    }
+
+    /**
+     * Constructor to initialize monitor
+     *
+     * @param start lower bound of monitoring period
+     * @param end upper bound of monitoring period
+     * @param display send statistics to standard output if <code>true</code>,
+     * otherwise only record them
+     */
+    public Monitor(final double start, final double end, final boolean display)
     {
         final double absoluteStart = FastMath.abs(start);
         final double absoluteEnd = FastMath.abs(end);
@@ -78,13 +98,43 @@ public class Monitor
         final double min = FastMath.min(absoluteStart, absoluteEnd);
         this.start = min;
         this.end = max;
-        this.arrivals = new DescriptiveStatistics();
-        this.waiting = new DescriptiveStatistics();
-        this.processing = new DescriptiveStatistics();
-        this.visiting = new DescriptiveStatistics();
-        this.elapsed = new DescriptiveStatistics();
-        this.executed = new DescriptiveStatistics();
-        this.queue = new DescriptiveStatistics();
+        this.arrivals = new Accumulator();
+        this.waiting = new Accumulator();
+        this.processing = new Accumulator();
+        this.visiting = new Accumulator();
+        this.elapsed = new Accumulator();
+        this.executed = new Accumulator();
+        this.display = display;
+        this.results = new LinkedHashMap<>();
+        this.section = null;
+        this.heading = "";
+    }
+
+    /**
+     *
+     * @return lower bound of monitoring period
+     */
+    public double getStart()
+    {
+        return this.start;
+    }
+
+    /**
+     *
+     * @return upper bound of monitoring period
+     */
+    public double getEnd()
+    {
+        return this.end;
+    }
+
+    /**
+     *
+     * @return recorded values keyed by report section and then by measurement
+     */
+    public Map<String, Map<String, Double>> getResults()
+    {
+        return this.results;
     }
 
     /**
@@ -113,21 +163,21 @@ public class Monitor
         this.arrivals.clear();
         // Collect data into statistical services
         assert component != null : "unexpected null component";
-        final List<Event> events = component.getLocalEvents();
+        final Visits events = component.getLocalEvents();
         // Sort by arrival time if we're at a processor
         if (processor || throttle || balancer)
         {
-            events.sort(Comparator.comparingDouble(Event::getArrived));
+            events.sortByArrival();
         }
         else
         {
-            events.sort(Comparator.comparingDouble(Event::getCreated));
+            events.sortByCreation();
         }
-        for (final Event event : component.getLocalEvents())
+        for (int index = 0; index < events.size(); index++)
         {
-            final double arrived = event.getArrived();
-            final double started = event.getStarted();
-            final double completed = event.getCompleted();
+            final double arrived = events.getArrived(index);
+            final double started = events.getStarted(index);
+            final double completed = events.getCompleted(index);
             if (completed > this.end)
             {
                 break;
@@ -136,7 +186,7 @@ public class Monitor
             {
                 if (arrival > 0)
                 {
-                    this.arrivals.addValue(arrived - arrival);
+                    this.arrivals.add(arrived - arrival);
                 }
                 if (!source && !sink)
                 {
@@ -145,9 +195,9 @@ public class Monitor
                         startPeriod = arrived;
                         counted = true;
                     }
-                    this.waiting.addValue(started - arrived);
-                    this.processing.addValue(completed - started);
-                    this.visiting.addValue(completed - arrived);
+                    this.waiting.add(started - arrived);
+                    this.processing.add(completed - started);
+                    this.visiting.add(completed - arrived);
                     // time from completion of last event or start of time to
                     // time execution begins for this event
                     idle += started - FastMath.max(this.start, last);
@@ -163,16 +213,17 @@ public class Monitor
         // throughput based on arrival of first event to completion of
         // last event
         final double throughput = this.arrivals.getN() / (last - startPeriod);
-        System.out.println("Component: " + component.getLabel());
-        System.out.println("  function: " + component.description());
+        this.section("Component: " + component.getLabel());
+        this.print("  function: " + component.description());
         if (source)
         {
-            System.out.println("  Events generated: " + this.arrivals.getN());
-            System.out.println("  Generation rate: " + throughput
-                    + " events per tick");
-            System.out.println("               Or: " + 1/throughput
+            this.measure("  Events generated: ", "Events generated",
+                    this.arrivals.getN(), "");
+            this.measure("  Generation rate: ", "Generation rate",
+                    throughput, " events per tick");
+            this.print("               Or: " + 1/throughput
                     + " ticks between events");
-            System.out.println("  Generation characteristics");
+            this.heading("  Generation characteristics", "Arrival");
         }
         else if (sink)
         {
@@ -180,177 +231,90 @@ public class Monitor
         }
         else
         {
-            System.out.println("  Events processed: " + this.waiting.getN());
+            this.measure("  Events processed: ", "Events processed",
+                    this.waiting.getN(), "");
             final double utilization = (timespan - idle) / timespan;
             if (processor)
             {
-                System.out.println("  Utilization: " + utilization * 100
-                        + " %");
+                this.measure("  Utilization: ", "Utilization",
+                        utilization * 100, " %");
             }
-            System.out.println("  Throughput: " + throughput
-                    + " events per tick");
-            System.out.println("          Or: " + 1/throughput
+            this.measure("  Throughput: ", "Throughput", throughput,
+                    " events per tick");
+            this.print("          Or: " + 1/throughput
                     + " ticks between events");
             if (processor || throttle)
             {
-                final List<QueueStatistics> elements =
-                        component.getQueueStatistics();
-                // Check if last measurement period has a valid value set
-                // otherwise set it to the end of the period
-                final QueueStatistics lastElement = elements.getLast();
-                if (lastElement.getSpan() < 0.00000000001)
-                {
-                    lastElement.setSpan(this.end - lastElement.getTime() +1.0);
-                }
-                final List<QueueStatistics> statistics = new ArrayList<>();
-                // Add elements within the measurement period
-                for (final QueueStatistics value : elements)
-                {
-                    final double time = value.getTime();
-                    final double complete = time + value.getSpan();
-                    if (complete > this.start && complete < this.end)
-                        statistics.add(value);
-                }
-                statistics.sort(Comparator
-                        .comparingDouble(QueueStatistics::getTime));
-                int min = Integer.MAX_VALUE;
-                int max = 0;
-                double variance = 0;
-                final double mean;
-                if (statistics.isEmpty())
-                {
-                    min = 0;
-                    mean = 0;
-                }
-                else
-                {
-                    double total = 0;
-                    // Calculate mean
-                    for (final QueueStatistics value : statistics)
-                    {
-                        final double span;
-                        final double time = value.getTime();
-                        final double complete = time + value.getSpan();
-                        // Adjust span for start and end measurement ppoints
-                        if (time < this.start)
-                        {
-                            span = value.getSpan() - (this.start - time);
-                        }
-                        else if (complete > this.end)
-                        {
-                            span = value.getSpan() - (complete - this.end);
-                        }
-                        else
-                        {
-                            span = value.getSpan();
-                        }
-                        final int depth = value.getDepth();
-                        total += span * depth;
-                        max = Math.max(max, depth);
-                        min = Math.min(min, depth);
-                    }
-                    mean = total/(this.end - this.start);
-                    // Calculate standard deviation
-                    total = 0;
-                    for (final QueueStatistics value : statistics)
-                    {
-                        final double span;
-                        final double time = value.getTime();
-                        final double complete = time + value.getSpan();
-                        // Adjust span for start and end measurement ppoints
-                        if (time < this.start)
-                        {
-                            span = value.getSpan() - (this.start - time);
-                        }
-                        else if (complete > this.end)
-                        {
-                            span = value.getSpan() - (complete - this.end);
-                        }
-                        else
-                        {
-                            span = value.getSpan();
-                        }
-                        final int depth = value.getDepth();
-                        final double difference = (mean - Double.valueOf(depth));
-                        total += difference * difference * span;
-                    }
-                    variance = total/(this.end - this.start);
-                }
-                final double half = (this.end - this.start)/ 2.0;
-                final double deviation = variance > 0.0 ? Math.sqrt(variance)
-                        : 0.0;
-                // Sort by queue depth to find median
-                statistics.sort(Comparator
-                        .comparingDouble(QueueStatistics::getDepth));
-                int median = 0;
-                for (final QueueStatistics value: statistics)
-                {
-                    final double complete = value.getTime() + value.getSpan();
-                    // Found median
-                    if (half < complete)
-                    {
-                        median = value.getDepth();
-                        break;
-                    }
-                }
-                System.out.println("  Queued events");
-                System.out.println("    Mean: " + mean);
-                System.out.println("    Standard Deviation: " + deviation);
-                System.out.println("    Median: " + median);
-                System.out.println("    Maximum: " + max);
-                System.out.println("    Minimum: " + min);
-                System.out.println("  Wait time");
-                System.out.println("    Mean: " + this.waiting.getMean()
-                        + " ticks");
-                System.out.println("    Standard deviation: "
-                        + this.waiting.getStandardDeviation());
-                System.out.println("    Median: "
-                        + this.waiting.getPercentile(50) + " ticks");
-                System.out.println("    Maximum: " + this.waiting.getMax()
-                        + " ticks");
-                System.out.println("    Minimum: " + this.waiting.getMin()
-                        + " ticks");
+                final QueueStatistics statistics
+                        = component.getQueueStatistics();
+                this.heading("  Queued events", "Queued events");
+                this.measure("    Mean: ", "mean", statistics.getMean(), "");
+                this.measure("    Standard Deviation: ", "deviation",
+                        statistics.getStandardDeviation(), "");
+                this.measure("    Median: ", "median",
+                        statistics.getMedian(), "");
+                this.measure("    Maximum: ", "maximum",
+                        statistics.getMaximum(), "");
+                this.measure("    Minimum: ", "minimum",
+                        statistics.getMinimum(), "");
+                this.heading("  Wait time", "Wait time");
+                this.measure("    Mean: ", "mean", this.waiting.getMean(),
+                        " ticks");
+                this.measure("    Standard deviation: ", "deviation",
+                        this.waiting.getStandardDeviation(), "");
+                this.measure("    Median: ", "median",
+                        this.waiting.getPercentile(50), " ticks");
+                this.percentiles("", this.waiting, " ticks");
+                this.measure("    Maximum: ", "maximum",
+                        this.waiting.getMax(), " ticks");
+                this.measure("    Minimum: ", "minimum",
+                        this.waiting.getMin(), " ticks");
                 assert this.waiting.getMin() >= 0
                         : "Obtained minimum below 0";
             }
             if (processor)
             {
-                System.out.println("  Process time");
-                System.out.println("    Mean: " + this.processing.getMean()
-                        + " ticks");
-                System.out.println("    Standard Deviation: "
-                        + this.processing.getStandardDeviation());
-                System.out.println("    Median: "
-                        + this.processing.getPercentile(50) + " ticks");
-                System.out.println("    Maximum: " + this.processing.getMax()
-                        + " ticks");
-                System.out.println("    Minimum: " + this.processing.getMin()
-                        + " ticks");
+                this.heading("  Process time", "Process time");
+                this.measure("    Mean: ", "mean", this.processing.getMean(),
+                        " ticks");
+                this.measure("    Standard Deviation: ", "deviation",
+                        this.processing.getStandardDeviation(), "");
+                this.measure("    Median: ", "median",
+                        this.processing.getPercentile(50), " ticks");
+                this.percentiles("", this.processing, " ticks");
+                this.measure("    Maximum: ", "maximum",
+                        this.processing.getMax(), " ticks");
+                this.measure("    Minimum: ", "minimum",
+                        this.processing.getMin(), " ticks");
                 assert this.processing.getMin() >= 0
                         : "Obtained minimum below 0";
-                System.out.println("  Visit time");
-                System.out.println("    Mean: " + this.visiting.getMean()
-                        + " ticks");
-                System.out.println("    Standard Deviation: "
-                        + this.visiting.getStandardDeviation());
-                System.out.println("    Median: "
-                        + this.visiting.getPercentile(50) + " ticks");
-                System.out.println("    Maximum: " + this.visiting.getMax()
-                        + " ticks");
-                System.out.println("    Minimum: " + this.visiting.getMin()
-                        + " ticks");
+                this.heading("  Visit time", "Visit time");
+                this.measure("    Mean: ", "mean", this.visiting.getMean(),
+                        " ticks");
+                this.measure("    Standard Deviation: ", "deviation",
+                        this.visiting.getStandardDeviation(), "");
+                this.measure("    Median: ", "median",
+                        this.visiting.getPercentile(50), " ticks");
+                this.percentiles("", this.visiting, " ticks");
+                this.measure("    Maximum: ", "maximum",
+                        this.visiting.getMax(), " ticks");
+                this.measure("    Minimum: ", "minimum",
+                        this.visiting.getMin(), " ticks");
                 assert this.visiting.getMin() >= 0
                         : "Obtained minimum below 0";
             }
-            System.out.println("  Arrival characteristics");
+            this.heading("  Arrival characteristics", "Arrival");
         }
-        System.out.println("    Mean: " + this.arrivals.getMean() + " ticks");
-        System.out.println("    Standard Deviation: "
-                + this.arrivals.getStandardDeviation());
-        System.out.println("    Median: " + this.arrivals.getPercentile(50)
-                + " ticks");
-        System.out.println("    Maximum: " + this.arrivals.getMax() + " ticks");
-        System.out.println("    Minimum: " + this.arrivals.getMin() + " ticks");
+        this.measure("    Mean: ", "mean", this.arrivals.getMean(), " ticks");
+        this.measure("    Standard Deviation: ", "deviation",
+                this.arrivals.getStandardDeviation(), "");
+        this.measure("    Median: ", "median", this.arrivals.getPercentile(50),
+                " ticks");
+        this.percentiles("", this.arrivals, " ticks");
+        this.measure("    Maximum: ", "maximum", this.arrivals.getMax(),
+                " ticks");
+        this.measure("    Minimum: ", "minimum", this.arrivals.getMin(),
+                " ticks");
         assert this.arrivals.getMin() >= 0 : "Obtained minimum below 0";
     }
 
@@ -363,115 +327,329 @@ public class Monitor
     public void displayStatistics(final List<Event> events,
             final boolean multisource)
     {
-        waiting.clear();
-        processing.clear();
-        visiting.clear();
-        arrivals.clear();
-        elapsed.clear();
-        executed.clear();
-        boolean counted = false;
-        // Collect data for statistical services
-        final Map<String, List<Event>> sources = new HashMap<>();
-        final List<Event> general = new ArrayList<>();
-        events.sort(Comparator.comparingDouble(Event::getCreated));
-        for (final Event event : events)
+        final Completions completions = new Completions(this.start, this.end,
+                new SourceNames());
+        completions.consume(new ArrayList<>(events));
+        this.displayStatistics(completions, multisource);
+    }
+
+    /**
+     * Display statistics for events already taken in as they completed
+     * processing in the system
+     * 
+     * @param completions statistics of the completed events
+     * @param multisource indication of many sources to report
+     */
+    void displayStatistics(final Completions completions,
+            final boolean multisource)
+    {
+        this.section("General event information");
+        this.generateStatistics(completions.getGeneral(), true);
+        if (multisource)
         {
-            // Can't guarantee events will finish in same order as creation
-            if (event.getCompleted() <= this.end
-                && (counted || event.getCreated() >= this.start))
+            for (final Map.Entry<String, Completions.Lifetimes> entry
+                    : completions.getSources().entrySet())
             {
-                if (!counted)
+                final String source = entry.getKey();
+                this.section("    '" + source + "' event information");
+                this.generateStatistics(entry.getValue(), false);
+            }
+        }
+    }
+
+    /**
+     * General routine for compiling the messages for display on event
+     * statistics
+     * 
+     * @param lifetimes accumulated statistics of the events
+     * @param general single source set if <code>true</code>
+     */
+    private void generateStatistics(final Completions.Lifetimes lifetimes,
+            final boolean general)
+    {
+        final Accumulator elapsed = lifetimes.elapsed;
+        final Accumulator executed = lifetimes.executed;
+        final double throughput = elapsed.getN()
+                / (lifetimes.last - lifetimes.first);
+        final double active = executed.getMean() / elapsed.getMean();
+        final String indent = general ? "" : "    ";
+        this.measure(indent + "  Events completed processing: ",
+                "Events completed", elapsed.getN(), "");
+        this.measure(indent + "  Throughput: ", "Throughput", throughput,
+                " events per tick");
+        this.print(indent + "          Or: " + 1/throughput
+                + " ticks between events");
+        this.measure(indent + "  Ratio of processing in lifetime: ",
+                "Processing ratio", active * 100, " %");
+        this.heading(indent + "  Event lifetime", "Event lifetime");
+        this.measure(indent + "    Mean: ", "mean", elapsed.getMean(),
+                " ticks");
+        this.measure(indent + "    Standard Deviation: ", "deviation",
+                elapsed.getStandardDeviation(), "");
+        this.measure(indent + "    Median: ", "median",
+                elapsed.getPercentile(50), " ticks");
+        this.percentiles(indent, elapsed, " ticks");
+        this.measure(indent + "    Maximum time in system: ", "maximum",
+                elapsed.getMax(), " ticks");
+        this.measure(indent + "    Minimum time in system: ", "minimum",
+                elapsed.getMin(), " ticks");
+        assert !(elapsed.getMin() < 0) : "Obtained minimum below 0";
+        this.heading(indent + "  Event in execution", "Event in execution");
+        this.measure(indent + "    Mean: ", "mean", executed.getMean(),
+                " ticks");
+        this.measure(indent + "    Standard Deviation: ", "deviation",
+                executed.getStandardDeviation(), "");
+        this.measure(indent + "    Median: ", "median",
+                executed.getPercentile(50), " ticks");
+        this.percentiles(indent, executed, " ticks");
+        this.measure(indent + "    Maximum time processing: ", "maximum",
+                executed.getMax(), " ticks");
+        this.measure(indent + "    Minimum time processing: ", "minimum",
+                executed.getMin(), " ticks");
+        assert !(executed.getMin() < 0) : "Obtained minimum below 0";
+    }
+
+    /**
+     * Report how precise the key statistics of a simulation that was stopped
+     * by the sequential stopping rule are
+     *
+     * @param precision stopping rule the simulation ran with
+     */
+    void displayStatistics(final Precision precision)
+    {
+        this.section("Precision of statistics");
+        this.measure("  Relative half width wanted: ", "Target",
+                precision.getTarget() * 100, " %");
+        this.print(precision.isConverged()
+                ? "  Precision wanted was reached"
+                : "  Precision wanted was not reached");
+        this.record("Converged", precision.isConverged() ? 1 : 0);
+        for (final Precision.Series series : precision.getSeries())
+        {
+            final double estimate = series.getMean();
+            final double width = series.getHalfWidth();
+            this.heading("  " + series.getName(), series.getName());
+            this.measure("    Estimate: ", "estimate", estimate, " ticks");
+            this.measure("    95% confidence half width: ", "half width",
+                    width, " ticks");
+            this.measure("    Relative half width: ", "relative half width",
+                    width == 0 ? 0 : width / FastMath.abs(estimate) * 100,
+                    " %");
+            this.measure("    Batches: ", "batches", series.getBatches(), "");
+            this.measure("    Batch size: ", "batch size", series.getSize(),
+                    "");
+        }
+    }
+
+    /**
+     * Combine the results of independent replications and send to standard
+     * output - for each recorded value, the mean, standard deviation, median,
+     * range and 95% confidence interval of the mean across replications
+     *
+     * @param replications monitors holding the results of each replication
+     */
+    public void displayStatistics(final Collection<Monitor> replications)
+    {
+        // Section and measurement order from first replication that has them
+        final Map<String, Map<String, DescriptiveStatistics>> merged
+                = new LinkedHashMap<>();
+        for (final Monitor replication : replications)
+        {
+            for (final Map.Entry<String, Map<String, Double>> section
+                    : replication.results.entrySet())
+            {
+                final Map<String, DescriptiveStatistics> values
+                        = merged.computeIfAbsent(section.getKey(),
+                                key -> new LinkedHashMap<>());
+                for (final Map.Entry<String, Double> entry
+                        : section.getValue().entrySet())
                 {
-                    counted = true;
+                    values.computeIfAbsent(entry.getKey(),
+                            key -> new DescriptiveStatistics())
+                            .addValue(entry.getValue());
                 }
-                general.add(event);
-                if (multisource)
+            }
+        }
+        System.out.println("Statistics across " + replications.size()
+                + " replications");
+        for (final Map.Entry<String, Map<String, DescriptiveStatistics>> section
+                : merged.entrySet())
+        {
+            System.out.println(section.getKey());
+            for (final Map.Entry<String, DescriptiveStatistics> entry
+                    : section.getValue().entrySet())
+            {
+                final DescriptiveStatistics values = entry.getValue();
+                final long count = values.getN();
+                final double mean = values.getMean();
+                final double deviation = values.getStandardDeviation();
+                System.out.println("  " + entry.getKey() + ": " + mean);
+                System.out.println("    Standard Deviation: " + deviation);
+                System.out.println("    Median: " + values.getPercentile(50));
+                System.out.println("    Range: " + values.getMin() + " - "
+                        + values.getMax());
+                // Need at least two replications for an interval
+                if (count > 1 && !Double.isNaN(deviation))
                 {
-                    final List<Event> list
-                            = sources.containsKey(event.getSource())
-                            ? sources.get(event.getSource())
-                            : new ArrayList<>();
-                    sources.putIfAbsent(event.getSource(), list);
-                    list.add(event);
+                    final TDistribution distribution
+                            = new TDistribution(count - 1);
+                    final double width
+                            = distribution.inverseCumulativeProbability(0.975)
+                            * deviation / FastMath.sqrt(count);
+                    System.out.println("    95% confidence interval: "
+                            + (mean - width) + " - " + (mean + width));
                 }
             }
         }
-        System.out.println("General event information");
-        generateStatistics(general, true);
-        if (multisource)
+    }
+
+    /**
+     * Show the results of branches of a simulation side by side - for each
+     * recorded value, the value reached in each branch
+     *
+     * @param branches monitors holding the results of each branch by name
+     */
+    public void displayComparison(final Map<String, Monitor> branches)
+    {
+        // Section and measurement order from first branch that has them
+        final Map<String, Map<String, Map<String, Double>>> merged
+                = new LinkedHashMap<>();
+        for (final Map.Entry<String, Monitor> branch : branches.entrySet())
         {
-            final Set<Map.Entry<String, List<Event>>> set
-                    = new TreeSet<>(Map.Entry.comparingByKey());
-            set.addAll(sources.entrySet());
-            for (final Map.Entry<String, List<Event>> entry : set)
+            for (final Map.Entry<String, Map<String, Double>> section
+                    : branch.getValue().results.entrySet())
             {
-                final String source = entry.getKey();
-                final List<Event> list = entry.getValue();
-                System.out.println("    '" + source + "' event information");
-                generateStatistics(list, false);
+                final Map<String, Map<String, Double>> values
+                        = merged.computeIfAbsent(section.getKey(),
+                                key -> new LinkedHashMap<>());
+                for (final Map.Entry<String, Double> entry
+                        : section.getValue().entrySet())
+                {
+                    values.computeIfAbsent(entry.getKey(),
+                            key -> new LinkedHashMap<>())
+                            .put(branch.getKey(), entry.getValue());
+                }
+            }
+        }
+        System.out.println("Statistics across " + branches.size()
+                + " branches");
+        for (final Map.Entry<String, Map<String, Map<String, Double>>> section
+                : merged.entrySet())
+        {
+            System.out.println(section.getKey());
+            for (final Map.Entry<String, Map<String, Double>> entry
+                    : section.getValue().entrySet())
+            {
+                System.out.println("  " + entry.getKey());
+                for (final Map.Entry<String, Double> value
+                        : entry.getValue().entrySet())
+                {
+                    System.out.println("    " + value.getKey() + ": "
+                            + value.getValue());
+                }
             }
         }
     }
 
     /**
-     * General routine for compiling the messages for display on event
-     * statistics
-     * 
-     * @param events set of events to be used in the calculation
-     * @param general single source set if <code>true</code>
+     * Display and record the upper percentiles of a measurement
+     *
+     * @param indent text to display before each line
+     * @param values accumulated values of the measurement
+     * @param units text to display after each value
      */
-    private void generateStatistics(final List<Event> events,
-            final boolean general)
+    private void percentiles(final String indent, final Accumulator values,
+            final String units)
     {
-        this.elapsed.clear();
-        this.executed.clear();
-        for (final Event event : events)
+        this.measure(indent + "    90th percentile: ", "90th percentile",
+                values.getPercentile(90), units);
+        this.measure(indent + "    99th percentile: ", "99th percentile",
+                values.getPercentile(99), units);
+        this.measure(indent + "    99.9th percentile: ", "99.9th percentile",
+                values.getPercentile(99.9), units);
+    }
+
+    /**
+     * Start a new section of the report
+     *
+     * @param title section heading
+     */
+    private void section(final String title)
+    {
+        this.print(title);
+        this.section = new LinkedHashMap<>();
+        this.results.put(title.trim(), this.section);
+        this.heading = "";
+    }
+
+    /**
+     * Start a group of measurements within a section
+     *
+     * @param line text to display
+     * @param name prefix for names of the measurements that follow
+     */
+    private void heading(final String line, final String name)
+    {
+        this.print(line);
+        this.heading = name;
+    }
+
+    /**
+     * Display and record a measurement
+     *
+     * @param prefix text to display before the value
+     * @param name measurement name within current heading
+     * @param value measured value
+     * @param units text to display after the value
+     */
+    private void measure(final String prefix, final String name,
+            final double value, final String units)
+    {
+        this.print(prefix + value + units);
+        this.record(name, value);
+    }
+
+    /**
+     * Record a measurement against the current section and heading
+     *
+     * @param name measurement name within current heading
+     * @param value measured value
+     */
+    private void record(final String name, final double value)
+    {
+        if (this.section != null)
         {
-            elapsed.addValue(event.getLifetime());
-            executed.addValue(event.getExecuted());
+            final String key = this.heading.isEmpty() ? name
+                    : this.heading + " " + name;
+            this.section.put(key, value);
         }
-        final double started = events.isEmpty() ? 0
-                : events.get(0).getCreated();
-        final double completed = events.isEmpty() ? 0
-                : events.get(events.size() - 1).getCreated();
-        final double throughput = this.elapsed.getN() / (completed - started);
-        final double active = this.executed.getMean() / this.elapsed.getMean();
-        List<String> messages = new ArrayList<>();
-        messages.add("  Events completed processing: "
-                + this.elapsed.getN());
-        messages.add("  Throughput: " + throughput  + " events per tick");
-        messages.add("          Or: " + 1/throughput
-                    + " ticks between events");
-        messages.add("  Ratio of processing in lifetime: " + active * 100
-                + " %");
-        messages.add("  Event lifetime");
-        messages.add("    Mean: " + this.elapsed.getMean() + " ticks");
-        messages.add("    Standard Deviation: "
-                + this.elapsed.getStandardDeviation());
-        messages.add("    Median: " + this.elapsed.getPercentile(50)
-                + " ticks");
-        messages.add("    Maximum time in system: "
-                + this.elapsed.getMax() + " ticks");
-        messages.add("    Minimum time in system: "
-                + this.elapsed.getMin() + " ticks");
-        assert this.elapsed.getMin() >= 0 : "Obtained minimum below 0";
-        messages.add("  Event in execution");
-        messages.add("    Mean: " + this.executed.getMean() + " ticks");
-        messages.add("    Standard Deviation: "
-                + this.executed.getStandardDeviation());
-        messages.add("    Median: " + this.executed.getPercentile(50)
-                + " ticks");
-        messages.add("    Maximum time processing: "
-                + this.executed.getMax() + " ticks");
-        messages.add("    Minimum time processing: "
-                + this.executed.getMin() + " ticks");
-        assert this.executed.getMin() >= 0 : "Obtained minimum below 0";
-        for(final String message : messages)
+    }
+
+    /**
+     * Display and record a count
+     *
+     * @param prefix text to display before the value
+     * @param name measurement name within current heading
+     * @param value measured count
+     * @param units text to display after the value
+     */
+    private void measure(final String prefix, final String name,
+            final long value, final String units)
+    {
+        this.print(prefix + value + units);
+        this.record(name, value);
+    }
+
+    /**
+     * Display information on standard output if monitor is displaying
+     *
+     * @param line text to display
+     */
+    private void print(final String line)
+    {
+        if (this.display)
         {
-            final StringBuilder string = general ? new StringBuilder()
-                    : new StringBuilder("    ");
-            string.append(message);
-            System.out.println(string.toString());
+            System.out.println(line);
         }
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Networks.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+/**
+ * Parallel simulation of the sub-networks of a model that share no
+ * component. Each sub-network has its own simulator running on its own
+ * thread with nothing exchanged between them, and takes its completed events
+ * into its own statistics as it goes. The statistics of the sub-networks are
+ * merged once they are all done - each source belongs to one sub-network, so
+ * the statistics for each source are exactly those of one simulation, and
+ * only those for all sources together are combined.
+ * <p>
+ * One simulation stops as soon as any sub-network reaches the end of
+ * simulation time, so every sub-network stops once it passes the earliest
+ * time that happened. The result is exactly that of one simulation unless a
+ * sub-network went past the end before it learned of it - then the model has
+ * to be simulated as a whole.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Networks
+{
+
+    private final List<Simulator> networks;
+    private final List<Completions> statistics;
+    private final DoubleAccumulator stop;
+    private final boolean verbose;
+    private boolean exact;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Networks()
+    {
+        this.networks = new ArrayList<>();
+        this.statistics = new ArrayList<>();
+        this.stop = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        this.verbose = false;
+        this.exact = false;
+    }
+
+    /**
+     * Construct simulation of the sub-networks of a model
+     *
+     * @param networks components of each sub-network that has sources
+     * @param sources event generation components in model order
+     * @param generate end-point in ticks for the simulation completion
+     * @param schedule future event list implementation for each sub-network
+     * @param start beginning of statistics sample in ticks
+     * @param end latest point in ticks the statistics sample can run to
+     * @param names source ids of the model
+     * @param verbose show simulation progress if <code>true</code>
+     */
+    Networks(final List<List<Component>> networks, final List<Source> sources,
+            final double generate, final String schedule, final double start,
+            final double end, final SourceNames names, final boolean verbose)
+    {
+        this.networks = new ArrayList<>();
+        this.statistics = new ArrayList<>();
+        this.stop = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        for (final Collection<Component> network : networks)
+        {
+            // Sources keep their model order within each sub-network
+            final Set<Component> members = new HashSet<>(network);
+            final List<Source> feeds = new ArrayList<>();
+            for (final Source source : sources)
+            {
+                if (members.contains(source))
+                {
+                    feeds.add(source);
+                }
+            }
+            final Simulator simulator = new Simulator(feeds, generate,
+                    Schedule.instance(schedule), false);
+            final Completions completions
+                    = new Completions(start, end, names);
+            simulator.setStop(this.stop);
+            simulator.setCompletions(completions);
+            this.networks.add(simulator);
+            this.statistics.add(completions);
+        }
+        this.verbose = verbose;
+        this.exact = false;
+    }
+
+    /**
+     * Run the simulation, merging the statistics of the sub-networks into
+     * those of the model
+     *
+     * @param completions statistics of the completed events of the model
+     * @return <code>true</code> if simulation completed
+     */
+    boolean execute(final Completions completions)
+    {
+        if (this.verbose)
+        {
+            System.out.println("  Start simulation of " + this.networks.size()
+                    + " independent sub-networks");
+        }
+        final ExecutorService executor
+                = Executors.newFixedThreadPool(this.networks.size());
+        boolean success = true;
+        try
+        {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (final Simulator network : this.networks)
+            {
+                tasks.add(() ->
+                {
+                    network.advance(Double.POSITIVE_INFINITY);
+                    return null;
+                });
+            }
+            for (final Future<Void> future : executor.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            System.err.println("Sub-network simulation interrupted");
+            success = false;
+        }
+        catch (ExecutionException exception)
+        {
+            System.err.println("Sub-network simulation failed: "
+                    + exception.getCause());
+            success = false;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        int transitions = 0;
+        for (int index = 0; index < this.networks.size(); index++)
+        {
+            final Simulator network = this.networks.get(index);
+            network.finish();
+            transitions += network.getTransitions();
+            this.statistics.get(index).consume(network.completed);
+            completions.merge(this.statistics.get(index));
+        }
+        this.exact = success && this.stopped();
+        if (this.verbose)
+        {
+            System.out.println("  Simulation transitions to complete: "
+                    + transitions);
+        }
+        return success;
+    }
+
+    /**
+     *
+     * @return <code>true</code> if the result is exactly that of one
+     * simulation of the whole model
+     */
+    boolean isExact()
+    {
+        return this.exact;
+    }
+
+    /**
+     * Check every sub-network stopped where one simulation would have - only
+     * the one that reached the end of simulation time first may have reached
+     * that time, and no other may have gone past it
+     *
+     * @return <code>true</code> if every sub-network stopped in place
+     */
+    private boolean stopped()
+    {
+        final double stop = this.stop.get();
+        int ended = 0;
+        boolean stopped = true;
+        for (final Simulator network : this.networks)
+        {
+            if (network.getEnded() == stop)
+            {
+                ended++;
+            }
+            else
+            {
+                stopped &= network.getReached() < stop;
+            }
+        }
+        return stopped && (ended <= 1 || stop == Double.POSITIVE_INFINITY);
+    }
+}
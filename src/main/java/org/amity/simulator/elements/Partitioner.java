@@ -0,0 +1,410 @@
+/*
+ * Partitioner.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.amity.simulator.distributors.Distributor;
+import org.amity.simulator.distributors.Smart;
+import org.amity.simulator.generators.Generator;
+
+/**
+ * Divides the component graph of a model into partitions that can be
+ * simulated in parallel. Components connected without a guaranteed delay -
+ * sources and their first component, balancers and their targets, throttles
+ * and their next component, and processors whose processing time can be zero
+ * - are always kept in the same partition, so every event passing between
+ * partitions is delayed by at least the minimum processing time of the
+ * processor that sent it.
+ * <p>
+ * For optimistic simulation, partitions roll back when an event arrives out
+ * of order, so only components that read each other's state have to stay
+ * together - sources and their first component, balancers that look at the
+ * availability of their targets, and anything re-prioritization looks
+ * through.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Partitioner
+{
+
+    private final List<Component> components;
+    private final List<Link> links;
+    private final Map<Component, Component> parents;
+    private final boolean prioritized;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Partitioner()
+    {
+        this.components = new ArrayList<>();
+        this.links = new ArrayList<>();
+        this.parents = new HashMap<>();
+        this.prioritized = false;
+    }
+
+    /**
+     * Construct partitioner for a set of connected components, for
+     * conservative simulation
+     *
+     * @param components all the components of a model
+     */
+    Partitioner(final Collection<Component> components)
+    {
+        this(components, false);
+    }
+
+    /**
+     * Construct partitioner for a set of connected components
+     *
+     * @param components all the components of a model
+     * @param optimistic <code>true</code> if partitions may receive events
+     * with no delay, and roll back when an event arrives out of order
+     */
+    Partitioner(final Collection<Component> components,
+            final boolean optimistic)
+    {
+        this.components = new ArrayList<>(components);
+        // Deterministic order regardless of model storage
+        this.components.sort(Comparator.comparing(Component::getLabel));
+        this.links = new ArrayList<>();
+        this.parents = new HashMap<>();
+        for (final Component component : this.components)
+        {
+            this.parents.put(component, component);
+        }
+        boolean priorities = false;
+        for (final Component component : this.components)
+        {
+            priorities |= Partitioner.prioritizes(component);
+        }
+        this.prioritized = priorities;
+        final Set<Component> read = Partitioner.read(this.components);
+        for (final Component component : this.components)
+        {
+            for (final List<Function> functions
+                    : component.getReferences().values())
+            {
+                for (final Function function : functions)
+                {
+                    if (function instanceof Generator)
+                    {
+                        final Generator generator = (Generator) function;
+                        final Component next = generator.getNext();
+                        final double delay = component instanceof Processor
+                                ? generator.minimum() : 0;
+                        // Re-prioritization must see every event that
+                        // could be put ahead
+                        final boolean joined = optimistic
+                                ? component instanceof Source
+                                || (this.prioritized
+                                && (next instanceof Balancer
+                                || Partitioner.prioritizes(next)))
+                                : !(delay > 0);
+                        this.connect(component, next, delay, joined);
+                    }
+                    else if (function instanceof Distributor)
+                    {
+                        // Balancers that look at the availability of their
+                        // targets must stay with them
+                        final boolean joined = !optimistic || this.prioritized
+                                || function instanceof Smart
+                                || read.contains(component);
+                        for (final Component next
+                                : ((Distributor) function).connections())
+                        {
+                            this.connect(component, next, 0, joined);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Assign components to partitions, keeping partition sizes balanced
+     *
+     * @param count number of partitions wanted
+     * @return partition index for each component - there may be fewer
+     * partitions than requested if the model cannot be divided that far
+     */
+    Map<Component, Integer> assign(final int count)
+    {
+        // Gather groups of components that cannot be separated
+        final Map<Component, List<Component>> groups = new LinkedHashMap<>();
+        for (final Component component : this.components)
+        {
+            groups.computeIfAbsent(this.find(component),
+                    key -> new ArrayList<>()).add(component);
+        }
+        final List<List<Component>> ordered = new ArrayList<>(groups.values());
+        ordered.sort(Comparator.comparingInt(
+                (List<Component> group) -> group.size()).reversed());
+        // Largest groups first into the least loaded partition
+        final int partitions = Math.max(1, Math.min(count, ordered.size()));
+        final int[] sizes = new int[partitions];
+        final Map<Component, Integer> assignment = new HashMap<>();
+        for (final List<Component> group : ordered)
+        {
+            int smallest = 0;
+            for (int index = 1; index < partitions; index++)
+            {
+                if (sizes[index] < sizes[smallest])
+                {
+                    smallest = index;
+                }
+            }
+            sizes[smallest] += group.size();
+            for (final Component component : group)
+            {
+                assignment.put(component, smallest);
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Smallest delay of events passing between partitions
+     *
+     * @param assignment partition index for each component
+     * @return minimum delay, or infinity if no events can pass between
+     * partitions
+     */
+    double lookahead(final Map<Component, Integer> assignment)
+    {
+        double lookahead = Double.POSITIVE_INFINITY;
+        for (final Link link : this.links)
+        {
+            if (!assignment.get(link.from).equals(assignment.get(link.to)))
+            {
+                lookahead = Math.min(lookahead, link.delay);
+            }
+        }
+        return lookahead;
+    }
+
+    /**
+     * Record connection between components, joining them if there is no
+     * guaranteed delay
+     *
+     * @param from upstream component
+     * @param to downstream component
+     * @param delay smallest time for an event to pass between them
+     * @param joined <code>true</code> if they must be in the same partition
+     */
+    private void connect(final Component from, final Component to,
+            final double delay, final boolean joined)
+    {
+        if (to != null && this.parents.containsKey(to))
+        {
+            this.links.add(new Link(from, to, delay));
+            if (joined)
+            {
+                final Component first = this.find(from);
+                final Component second = this.find(to);
+                if (first != second)
+                {
+                    this.parents.put(second, first);
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * @return <code>true</code> if any component re-prioritizes events by
+     * source
+     */
+    boolean isPrioritized()
+    {
+        return this.prioritized;
+    }
+
+    /**
+     *
+     * @param component system element
+     * @return <code>true</code> if the component has source priorities
+     */
+    private static boolean prioritizes(final Component component)
+    {
+        boolean priorities = false;
+        if (component instanceof Processor || component instanceof Throttle)
+        {
+            final Sequencer sequencer = new Sequencer();
+            component.prioritize(sequencer, false);
+            priorities = sequencer.ranks.length > 0;
+        }
+        return priorities;
+    }
+
+    /**
+     * Find the components whose availability is looked at by a balancer
+     * upstream when it chooses a target
+     *
+     * @param components all the components of a model
+     * @return components whose availability is read elsewhere
+     */
+    private static Set<Component> read(final List<Component> components)
+    {
+        final Set<Component> read = new HashSet<>();
+        final Deque<Component> pending = new ArrayDeque<>();
+        for (final Component component : components)
+        {
+            for (final List<Function> functions
+                    : component.getReferences().values())
+            {
+                for (final Function function : functions)
+                {
+                    if (function instanceof Smart)
+                    {
+                        pending.addAll(Arrays.asList(
+                                ((Smart) function).connections()));
+                    }
+                }
+            }
+        }
+        // Availability of a balancer is that of its targets
+        while (!pending.isEmpty())
+        {
+            final Component component = pending.poll();
+            if (component != null && read.add(component)
+                    && component instanceof Balancer)
+            {
+                for (final List<Function> functions
+                        : component.getReferences().values())
+                {
+                    for (final Function function : functions)
+                    {
+                        pending.addAll(Arrays.asList(
+                                ((Distributor) function).connections()));
+                    }
+                }
+            }
+        }
+        return read;
+    }
+
+    /**
+     * Divide the components of a model into sub-networks that share no
+     * component, so no event or re-prioritization ever passes between them
+     *
+     * @param components all the components of a model
+     * @return components of each sub-network, in label order, with the
+     * sub-networks in the order of their first component
+     */
+    static List<List<Component>> networks(
+            final Collection<Component> components)
+    {
+        final Partitioner partitioner = new Partitioner();
+        partitioner.components.addAll(components);
+        partitioner.components.sort(Comparator.comparing(Component::getLabel));
+        for (final Component component : partitioner.components)
+        {
+            partitioner.parents.put(component, component);
+        }
+        for (final Component component : partitioner.components)
+        {
+            for (final List<Function> functions
+                    : component.getReferences().values())
+            {
+                for (final Function function : functions)
+                {
+                    if (function instanceof Generator generator)
+                    {
+                        partitioner.connect(component, generator.getNext(),
+                                0, true);
+                    }
+                    else if (function instanceof Distributor distributor)
+                    {
+                        for (final Component next : distributor.connections())
+                        {
+                            partitioner.connect(component, next, 0, true);
+                        }
+                    }
+                }
+            }
+        }
+        final Map<Component, List<Component>> networks = new LinkedHashMap<>();
+        for (final Component component : partitioner.components)
+        {
+            networks.computeIfAbsent(partitioner.find(component),
+                    key -> new ArrayList<>()).add(component);
+        }
+        return new ArrayList<>(networks.values());
+    }
+
+    /**
+     *
+     * @param component member of a group
+     * @return representative component of the group
+     */
+    private Component find(final Component component)
+    {
+        Component root = component;
+        while (this.parents.get(root) != root)
+        {
+            root = this.parents.get(root);
+        }
+        // Compress path for later searches
+        Component current = component;
+        while (current != root)
+        {
+            final Component parent = this.parents.get(current);
+            this.parents.put(current, root);
+            current = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Connection between two components
+     */
+    private static class Link
+    {
+
+        private final Component from;
+        private final Component to;
+        private final double delay;
+
+        /**
+         * @param from upstream component
+         * @param to downstream component
+         * @param delay smallest time for an event to pass between them
+         */
+        private Link(final Component from, final Component to,
+                final double delay)
+        {
+            this.from = from;
+            this.to = to;
+            this.delay = delay;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Precision.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Sequential stopping rule for a simulation. Key statistics - the mean,
+ * median and 95th percentile of event lifetime, and the mean wait time at
+ * each processor that records its visits - are collected into batches as the
+ * simulation runs, and the simulation is stopped once the 95% confidence
+ * interval of every one is within a relative half width of its estimate. The
+ * batch size for each statistic is found from a pilot of its first
+ * observations, doubling it until the batch values are close to
+ * uncorrelated. Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Precision
+{
+
+    final static int INTERVAL = 1000;
+    private final static int PILOT = 4096;
+    private final static int SMALLEST = 16;
+    private final static int BATCHES = 20;
+    private final static double CORRELATION = 0.2;
+    private final double start;
+    private final double end;
+    private final double target;
+    private final List<Series> series;
+    private final Series mean;
+    private final Series median;
+    private final Series tail;
+    private final List<Processor> processors;
+    private final int[] positions;
+    private int position;
+    private double stopped;
+    private boolean converged;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Precision()
+    {
+        this.start = 0;
+        this.end = 0;
+        this.target = 0;
+        this.series = new ArrayList<>();
+        this.mean = null;
+        this.median = null;
+        this.tail = null;
+        this.processors = new ArrayList<>();
+        this.positions = new int[0];
+        this.position = 0;
+        this.stopped = 0;
+        this.converged = false;
+    }
+
+    /**
+     * Construct stopping rule for a model
+     *
+     * @param components all the components of the model
+     * @param start beginning of statistics sample in ticks
+     * @param end latest point in ticks the statistics sample can run to
+     * @param target relative half width wanted for every confidence interval
+     */
+    Precision(final Collection<Component> components, final double start,
+            final double end, final double target)
+    {
+        this.start = start;
+        this.end = end;
+        this.target = target;
+        this.series = new ArrayList<>();
+        this.mean = new Series("Event lifetime mean", 0);
+        this.median = new Series("Event lifetime median", 50);
+        this.tail = new Series("Event lifetime 95th percentile", 95);
+        this.series.add(this.mean);
+        this.series.add(this.median);
+        this.series.add(this.tail);
+        // Processors in name order to match the rest of the report
+        final Map<String, Processor> sorted = new TreeMap<>();
+        for (final Component component : components)
+        {
+            // Wait times come from the records of the visits
+            if (component instanceof Processor && component.isRecording())
+            {
+                sorted.put(component.getLabel(), (Processor) component);
+            }
+        }
+        this.processors = new ArrayList<>(sorted.values());
+        for (final Processor processor : this.processors)
+        {
+            this.series.add(new Series(processor.getLabel()
+                    + " wait time mean", 0));
+        }
+        this.positions = new int[this.processors.size()];
+        this.position = 0;
+        this.stopped = end;
+        this.converged = false;
+    }
+
+    /**
+     * Take in the observations made since the last update and decide whether
+     * the simulation can stop
+     *
+     * @param completed events that reached the end of their life so far
+     * @param time current simulation time
+     * @return <code>true</code> if every statistic has reached the precision
+     * wanted, or the sample cannot run any further
+     */
+    boolean update(final List<Event> completed, final double time)
+    {
+        for (; this.position < completed.size(); this.position++)
+        {
+            final Event event = completed.get(this.position);
+            if (event.getCreated() >= this.start)
+            {
+                final double lifetime = event.getLifetime();
+                this.mean.add(lifetime);
+                this.median.add(lifetime);
+                this.tail.add(lifetime);
+            }
+        }
+        for (int index = 0; index < this.processors.size(); index++)
+        {
+            final Visits local = this.processors.get(index).getLocalEvents();
+            final Series waits = this.series.get(index + 3);
+            for (; this.positions[index] < local.size();
+                    this.positions[index]++)
+            {
+                final double arrived = local.getArrived(this.positions[index]);
+                if (arrived >= this.start)
+                {
+                    waits.add(local.getStarted(this.positions[index])
+                            - arrived);
+                }
+            }
+        }
+        boolean precise = time > this.start;
+        for (final Series statistic : this.series)
+        {
+            precise &= statistic.isPrecise(this.target);
+        }
+        this.converged = precise;
+        final boolean done = precise || time >= this.end;
+        if (done)
+        {
+            this.stopped = Math.min(time, this.end);
+        }
+        return done;
+    }
+
+    /**
+     * Forget events taken off the front of the completed list after they
+     * were seen
+     *
+     * @param count number of events taken off
+     */
+    void discard(final int count)
+    {
+        this.position -= count;
+    }
+
+    /**
+     *
+     * @return relative half width wanted for every confidence interval
+     */
+    double getTarget()
+    {
+        return this.target;
+    }
+
+    /**
+     *
+     * @return <code>true</code> if every statistic reached the precision
+     * wanted
+     */
+    boolean isConverged()
+    {
+        return this.converged;
+    }
+
+    /**
+     *
+     * @return point in ticks the statistics sample ended
+     */
+    double getEnd()
+    {
+        return this.stopped;
+    }
+
+    /**
+     *
+     * @return statistics watched, lifetime first and then each processor
+     */
+    List<Series> getSeries()
+    {
+        return this.series;
+    }
+
+    /**
+     * Batch means for one statistic - the value of each batch is the mean or
+     * a percentile of the observations in it
+     */
+    static class Series
+    {
+
+        private final String name;
+        private final double quantile;
+        private final DescriptiveStatistics batches;
+        private double[] pilot;
+        private int observed;
+        private double[] batch;
+        private int filled;
+
+        /**
+         * @param name description of the statistic
+         * @param quantile percentile taken of each batch, or zero for the
+         * mean
+         */
+        Series(final String name, final double quantile)
+        {
+            this.name = name;
+            this.quantile = quantile;
+            this.batches = new DescriptiveStatistics();
+            this.pilot = new double[PILOT];
+            this.observed = 0;
+            this.batch = null;
+            this.filled = 0;
+        }
+
+        /**
+         * Record an observation
+         *
+         * @param value observed value
+         */
+        void add(final double value)
+        {
+            if (this.batch == null)
+            {
+                this.pilot[this.observed++] = value;
+                if (this.observed == PILOT)
+                {
+                    this.size();
+                }
+            }
+            else
+            {
+                this.batch[this.filled++] = value;
+                if (this.filled == this.batch.length)
+                {
+                    this.batches.addValue(this.statistic(this.batch,
+                            0, this.batch.length));
+                    this.filled = 0;
+                }
+            }
+        }
+
+        /**
+         * Choose the batch size from the pilot observations and put them
+         * into batches
+         */
+        private void size()
+        {
+            int size = SMALLEST;
+            while (PILOT / (size * 2) >= BATCHES
+                    && this.correlation(size) > CORRELATION)
+            {
+                size *= 2;
+            }
+            final double[] values = this.pilot;
+            this.pilot = null;
+            this.batch = new double[size];
+            for (final double value : values)
+            {
+                this.add(value);
+            }
+        }
+
+        /**
+         *
+         * @param size number of pilot observations in each batch
+         * @return lag one autocorrelation of the batch values
+         */
+        private double correlation(final int size)
+        {
+            final int count = PILOT / size;
+            final double[] values = new double[count];
+            double total = 0;
+            for (int index = 0; index < count; index++)
+            {
+                values[index] = this.statistic(this.pilot, index * size, size);
+                total += values[index];
+            }
+            final double average = total / count;
+            double covariance = 0;
+            double variance = 0;
+            for (int index = 0; index < count; index++)
+            {
+                final double difference = values[index] - average;
+                variance += difference * difference;
+                if (index > 0)
+                {
+                    covariance += difference * (values[index - 1] - average);
+                }
+            }
+            return variance > 0 ? covariance / variance : 0;
+        }
+
+        /**
+         *
+         * @param values observations
+         * @param begin position of first observation of the batch
+         * @param length number of observations in the batch
+         * @return value of the batch
+         */
+        private double statistic(final double[] values, final int begin,
+                final int length)
+        {
+            final double value;
+            if (this.quantile > 0)
+            {
+                value = new Percentile().evaluate(values, begin, length,
+                        this.quantile);
+            }
+            else
+            {
+                double total = 0;
+                for (int index = begin; index < begin + length; index++)
+                {
+                    total += values[index];
+                }
+                value = total / length;
+            }
+            return value;
+        }
+
+        /**
+         *
+         * @param target relative half width wanted
+         * @return <code>true</code> if the confidence interval is within the
+         * relative half width of the estimate
+         */
+        boolean isPrecise(final double target)
+        {
+            final double width = this.getHalfWidth();
+            return width == 0 || width <= target * FastMath.abs(this.getMean());
+        }
+
+        /**
+         *
+         * @return description of the statistic
+         */
+        String getName()
+        {
+            return this.name;
+        }
+
+        /**
+         *
+         * @return estimate of the statistic from the batches
+         */
+        double getMean()
+        {
+            return this.batches.getMean();
+        }
+
+        /**
+         *
+         * @return half width of the 95% confidence interval of the estimate,
+         * or infinity if there are too few batches for one
+         */
+        double getHalfWidth()
+        {
+            final long count = this.batches.getN();
+            double width = Double.POSITIVE_INFINITY;
+            if (count >= BATCHES)
+            {
+                final TDistribution distribution
+                        = new TDistribution(count - 1);
+                width = distribution.inverseCumulativeProbability(0.975)
+                        * this.batches.getStandardDeviation()
+                        / FastMath.sqrt(count);
+            }
+            return width;
+        }
+
+        /**
+         *
+         * @return number of complete batches
+         */
+        long getBatches()
+        {
+            return this.batches.getN();
+        }
+
+        /**
+         *
+         * @return number of observations in each batch, or zero while the
+         * pilot is still running
+         */
+        int getSize()
+        {
+            return this.batch == null ? 0 : this.batch.length;
+        }
+    }
+}
@@ -19,12 +19,12 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 import org.amity.simulator.data.QueueStatistics;
 import org.amity.simulator.language.NameValue;
 import org.amity.simulator.language.Vocabulary;
@@ -41,13 +41,18 @@ public class Processor implements Component
     private final String label;
     private final Map<String, Generator> generators;
     private final Map<String, List<Function>> references;
-    private final String[] sources;
-    private final Set<String> priorities;
-    private final List<Event> local;
-    private final List<Event> queue;
-    private final List<QueueStatistics> statistics;
+    private final List<String> priorities;
+    private SourceNames names;
+    private Generator[] bySource;
+    private final Generator fallback;
+    private int[] ranks;
+    private final Visits local;
+    private final EventQueue queue;
+    private final QueueStatistics statistics;
     private final boolean monitor;
+    private boolean recording;
     private double available;
+    int index;
 
     /**
      * Hidden default constructor to avoid implicit creation
@@ -57,13 +62,18 @@ public class Processor implements Component
         this.label = "dummy";
         this.generators = new HashMap<>();
         this.references = new HashMap<>();
-        this.local = new ArrayList<>();
+        this.local = new Visits();
         this.monitor = false;
+        this.recording = true;
         this.available = 0;
-        this.sources = new String[0];
-        this.priorities = new HashSet<>();
-        this.queue = new ArrayList<>();
-        this.statistics = new ArrayList<>();
+        this.index = -1;
+        this.priorities = new ArrayList<>();
+        this.names = new SourceNames();
+        this.bySource = new Generator[0];
+        this.fallback = null;
+        this.ranks = new int[0];
+        this.queue = new EventQueue();
+        this.statistics = new QueueStatistics();
     }
 
     /**
@@ -80,10 +90,12 @@ public class Processor implements Component
     {
         this.label = label;
         this.generators = new HashMap<>();
-        this.local = new ArrayList<>();
+        this.local = new Visits();
         this.references = new HashMap<>();
         this.monitor = monitor;
+        this.recording = true;
         this.available = 0;
+        this.index = -1;
         // Put the generators into the source lookup
         if (generators != null && !generators.isEmpty())
         {
@@ -106,28 +118,28 @@ public class Processor implements Component
                 references.putIfAbsent(reference, list);
             }
         }
-        this.sources = priorities == null ? new String[0]
-                : new String[priorities.size()];
-        if (this.sources.length > 0)
-        {
-            int index = 0;
-            // Priority order array
-            for (final String source : priorities)
-            {
-                this.sources[index++] = source;
-            }
-            // Convenience to avoid downstream conversion
-            this.priorities = new HashSet<>(priorities);
-        }
-        else
-        {
-            this.priorities = new HashSet<>();
-        }
+        // Look up generators and priorities by source id while simulating
+        this.priorities = priorities == null ? new ArrayList<>()
+                : new ArrayList<>(priorities);
+        this.names = new SourceNames();
+        this.bySource = this.names.lookup(this.generators);
+        this.fallback = this.generators.get(Vocabulary.DEFAULT);
+        this.ranks = this.names.ranks(this.priorities);
         // Initialize the queue handling
-        this.queue = new ArrayList<>();
-        this.statistics = new ArrayList<>();
-        final QueueStatistics value = new QueueStatistics(0, 0.0, 0.0);
-        this.statistics.add(value);
+        this.queue = new EventQueue();
+        this.statistics = new QueueStatistics();
+    }
+
+    /**
+     * Look up generators and priorities by the source ids of a model
+     *
+     * @param names source ids of the model this component is put into
+     */
+    void setNames(final SourceNames names)
+    {
+        this.names = names;
+        this.bySource = names.lookup(this.generators);
+        this.ranks = names.ranks(this.priorities);
     }
 
     @Override
@@ -144,12 +156,11 @@ public class Processor implements Component
             // Check if processing must be deferred
             boolean defer = false;
             // Generate processing times for this event at this component
-            final Generator generator
-                    = generators.containsKey(event.getSource())
-                    ? generators.get(event.getSource())
-                    : generators.containsKey(Vocabulary.DEFAULT)
-                    ? generators.get(Vocabulary.DEFAULT)
-                    : null;
+            final int origin = this.names.of(event);
+            final Generator generator = origin >= 0
+                    && origin < this.bySource.length
+                    && this.bySource[origin] != null
+                    ? this.bySource[origin] : this.fallback;
             assert generator != null : "Should never be declared with no functions";
             // Event processing has not been calculated
             if (!this.queue.contains(event))
@@ -159,18 +170,10 @@ public class Processor implements Component
                 // The processor is not available to process immediately
                 if (this.available > possible)
                 {
-                    if (this.monitor && !this.statistics.isEmpty())
+                    if (this.monitor)
                     {
-                        // Update previous queue span statistics entry
-                        QueueStatistics stats = this.statistics.getLast();
-                        assert stats != null :
-                                "Unexpected null queue statistics";
-                        final double span = arrived - stats.getTime();
-                        stats.setSpan(span);
-                        // Add new queue span statistics
-                        stats = new QueueStatistics(this.queue.size() + 1,
-                                arrived, 0.0);
-                        statistics.add(stats);
+                        // Queue grows by this event from when it arrived
+                        this.statistics.change(this.queue.size() + 1, arrived);
                     }
                     // Add event to the queue
                     this.queue.add(event);
@@ -193,9 +196,11 @@ public class Processor implements Component
             // Process event
             if (!defer)
             {
-                final Event current = new Event(event);
-                current.setComponent(null);
-                this.local.add(current);
+                // Record values of current event for local stats
+                if (this.recording)
+                {
+                    this.local.add(event);
+                }
                 // Modify global event to next component to pass through
                 event.setComponent(generator.getNext());
                 // Time when event completed being processed here
@@ -209,19 +214,11 @@ public class Processor implements Component
                 {
                     // Remove event from queue as it has been processed
                     this.queue.remove(event);
-                    if (this.monitor && !this.statistics.isEmpty())
+                    if (this.monitor)
                     {
-                        // Update previous queue span statistics entry
-                        QueueStatistics stats = this.statistics.getLast();
-                        assert stats != null :
-                                "Unexpected null queue statistics";
-                        final double start = event.getStarted();
-                        final double span = start - stats.getTime();
-                        stats.setSpan(span);
-                        // Add new queue span statistics
-                        stats = new QueueStatistics(this.queue.size(),
-                                start, 0.0);
-                        statistics.add(stats);
+                        // Queue shrinks by this event from when it started
+                        this.statistics.change(this.queue.size(),
+                                event.getStarted());
                     }
                 }
             }
@@ -230,19 +227,29 @@ public class Processor implements Component
     }
 
     @Override
-    public List<Event> getLocalEvents()
+    public Visits getLocalEvents()
     {
         return this.local;
     }
 
+    @Override
+    public void setRecording(final boolean all)
+    {
+        this.recording = all || this.monitor;
+    }
+
+    @Override
+    public boolean isRecording()
+    {
+        return this.recording;
+    }
+
     @Override
     public void reset()
     {
         this.local.clear();
         this.queue.clear();
         this.statistics.clear();
-        final QueueStatistics value = new QueueStatistics(0, 0.0, 0.0);
-        this.statistics.add(value);
         this.available = 0;
         // Reset downstream components
         for (final Generator generator : this.generators.values())
@@ -261,7 +268,7 @@ public class Processor implements Component
     }
 
     @Override
-    public List<QueueStatistics> getQueueStatistics()
+    public QueueStatistics getQueueStatistics()
     {
         return this.statistics;
     }
@@ -311,12 +318,61 @@ public class Processor implements Component
         return this.references;
     }
 
+    @Override
+    public List<Function> getFunctions()
+    {
+        // Ordered by source name as the lookup has no order of its own
+        return new ArrayList<>(new TreeMap<>(this.generators).values());
+    }
+
     @Override
     public double getAvailable()
     {
         return this.available;
     }
 
+    @Override
+    public Object save(final Event event)
+    {
+        return new Memento(this.available, 0, this.local, this.queue, event,
+                this.monitor ? this.statistics : null, this.generators.values());
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        final Memento memento = (Memento) state;
+        memento.restore(this.local, this.queue, this.statistics,
+                this.generators.values());
+        this.available = memento.value;
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        ((Memento) state).commit(this.generators.values());
+    }
+
+    @Override
+    public void write(final Checkpoint checkpoint) throws IOException
+    {
+        checkpoint.getOutput().writeDouble(this.available);
+        checkpoint.writeRecords(this.local);
+        checkpoint.writeEvents(this.queue);
+        this.statistics.write(checkpoint.getOutput());
+        checkpoint.writeFunctions(this.generators);
+    }
+
+    @Override
+    public void read(final Checkpoint checkpoint) throws IOException
+    {
+        this.available = checkpoint.getInput().readDouble();
+        checkpoint.readRecords(this.local);
+        checkpoint.readEvents(this.queue);
+        this.statistics.read(checkpoint.getInput());
+        checkpoint.readFunctions(this.generators);
+    }
+
     @Override
     public void prioritize(final Sequencer sequencer, final boolean explore)
     {
@@ -342,8 +398,9 @@ public class Processor implements Component
         }
         else
         {
-            sequencer.sources = this.sources;
-            sequencer.priorities = this.priorities;
+            sequencer.ranks = this.ranks;
+            sequencer.names = this.names;
+            sequencer.target = this.index;
             sequencer.paths.add(this);
         }
     }
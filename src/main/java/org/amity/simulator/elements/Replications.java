@@ -0,0 +1,199 @@
+/*
+ * Replications.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent replications of a model on a pool of worker threads and
+ * reports the combined statistics. Each replication has its own copy of the
+ * model components so replications share no simulation state.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class Replications
+{
+
+    private final Supplier<Model> factory;
+    private final int replications;
+    private final int threads;
+    private final String schedule;
+    private final boolean seeded;
+    private final long seed;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Replications()
+    {
+        this.factory = null;
+        this.replications = 0;
+        this.threads = 0;
+        this.schedule = Schedule.HEAP;
+        this.seeded = false;
+        this.seed = 0;
+    }
+
+    /**
+     * Constructs replication runner
+     *
+     * @param factory creates a new compiled copy of the model
+     * @param replications number of independent replications
+     * @param threads number of worker threads
+     * @param schedule future event list implementation for each replication
+     */
+    public Replications(final Supplier<Model> factory, final int replications,
+            final int threads, final String schedule)
+    {
+        this.factory = factory;
+        this.replications = replications;
+        this.threads = threads;
+        this.schedule = schedule;
+        this.seeded = false;
+        this.seed = 0;
+    }
+
+    /**
+     * Constructs replication runner that can be repeated exactly - each
+     * replication is seeded with its own stream split from the seed
+     *
+     * @param factory creates a new compiled copy of the model
+     * @param replications number of independent replications
+     * @param threads number of worker threads
+     * @param schedule future event list implementation for each replication
+     * @param seed starting point for the random values of all replications
+     */
+    public Replications(final Supplier<Model> factory, final int replications,
+            final int threads, final String schedule, final long seed)
+    {
+        this.factory = factory;
+        this.replications = replications;
+        this.threads = threads;
+        this.schedule = schedule;
+        this.seeded = true;
+        this.seed = seed;
+    }
+
+    /**
+     * Run all the replications and display the combined statistics
+     *
+     * @param generate end point in ticks for the simulation
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return simulation and sampling successful if <code>true</code>
+     */
+    public boolean execute(final double generate, final double start,
+            final double end)
+    {
+        final List<Monitor> monitors = this.replicate(generate, start, end);
+        final boolean run = monitors != null;
+        if (run)
+        {
+            System.out.println("Statistics for events that occurred between "
+                    + start + " and " + end);
+            new Monitor(start, end).displayStatistics(monitors);
+        }
+        return run;
+    }
+
+    /**
+     * Run all the replications and collect the statistics of each
+     *
+     * @param generate end point in ticks for the simulation
+     * @param start beginning of statistics sample in ticks
+     * @param end final point in ticks for statistics sample
+     * @return statistics of each replication in order, or <code>null</code>
+     * if any replication could not be run
+     */
+    public List<Monitor> replicate(final double generate, final double start,
+            final double end)
+    {
+        if (this.replications < 1 || this.threads < 1)
+        {
+            return null;
+        }
+        final ExecutorService executor
+                = Executors.newFixedThreadPool(this.threads);
+        final List<Future<Monitor>> futures = new ArrayList<>();
+        List<Monitor> monitors = new ArrayList<>();
+        try
+        {
+            System.out.println("Starting " + this.replications
+                    + " replications on " + this.threads + " threads");
+            // Models are built on this thread and only simulated on workers
+            for (int index = 0; index < this.replications; index++)
+            {
+                final Model model = this.factory.get();
+                if (model == null || !model.isCompiled()
+                        || !model.setSchedule(this.schedule))
+                {
+                    monitors = null;
+                    break;
+                }
+                if (this.seeded)
+                {
+                    model.setSeed(Model.split(this.seed, "replication", index));
+                }
+                futures.add(executor.submit(()
+                        -> model.replicate(generate, start, end)));
+            }
+            for (final Future<Monitor> future : futures)
+            {
+                final Monitor monitor = future.get();
+                if (monitor == null || monitors == null)
+                {
+                    monitors = null;
+                }
+                else
+                {
+                    monitors.add(monitor);
+                }
+            }
+            if (monitors != null)
+            {
+                System.out.println("Completed " + monitors.size()
+                        + " replications");
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            System.err.println("Replications interrupted");
+            monitors = null;
+        }
+        catch (ExecutionException exception)
+        {
+            System.err.println("Replication failed: "
+                    + exception.getCause());
+            monitors = null;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return monitors;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Schedule.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.Iterator;
+
+/**
+ * Future event list for the simulation - holds events waiting for their next
+ * transition, ordered by the time they can start at their current component,
+ * then by arrival time and finally by the order in which they were scheduled.
+ * Not thread safe.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public interface Schedule extends Iterable<Event>
+{
+    String HEAP = "heap";
+    String CALENDAR = "calendar";
+    String LIST = "list";
+
+    /**
+     * Places event into the schedule in time order
+     *
+     * @param event entity waiting for its next transition
+     */
+    void add(Event event);
+
+    /**
+     * Places event at the head of the schedule so that it is taken on the next
+     * transition regardless of its time
+     *
+     * @param event entity to be executed next
+     */
+    void addFirst(Event event);
+
+    /**
+     * Removes the next event to be executed
+     *
+     * @return earliest event or <code>null</code> if schedule is empty
+     */
+    Event poll();
+
+    /**
+     *
+     * @return earliest event without removing it, or <code>null</code> if
+     * schedule is empty
+     */
+    Event peek();
+
+    /**
+     * Takes a specific event out of the schedule
+     *
+     * @param event entity to be removed
+     * @return <code>true</code> if event was in the schedule
+     */
+    boolean remove(Event event);
+
+    /**
+     * Notification that the ordering times of a scheduled event were modified
+     * in place
+     *
+     * @param event entity that has been modified
+     * @param started start time the event was scheduled with
+     */
+    void reorder(Event event, double started);
+
+    /**
+     *
+     * @return number of events in schedule
+     */
+    int size();
+
+    /**
+     *
+     * @return <code>true</code> if there are no events scheduled
+     */
+    boolean isEmpty();
+
+    /**
+     * Remove all events from the schedule
+     */
+    void clear();
+
+    /**
+     * Traverse events in execution order - the schedule must not be modified
+     * during traversal
+     *
+     * @return ordered iterator over scheduled events
+     */
+    @Override
+    Iterator<Event> iterator();
+
+    /**
+     * Visit every scheduled event in no particular order, for searches that
+     * look at every event anyway and where the schedule would have to sort
+     * its events to traverse them in order
+     *
+     * @return events in any order, or <code>null</code> if traversal in
+     * order is just as cheap
+     */
+    default Iterable<Event> unordered()
+    {
+        return null;
+    }
+
+    /**
+     * Create a future event list implementation by name
+     *
+     * @param type name of implementation
+     * @return schedule or <code>null</code> if type is unknown
+     */
+    static Schedule instance(final String type)
+    {
+        final Schedule schedule;
+        if (type == null)
+        {
+            schedule = null;
+        }
+        else
+        {
+            switch (type)
+            {
+                case HEAP:
+                    schedule = new HeapSchedule();
+                    break;
+                case CALENDAR:
+                    schedule = new CalendarSchedule();
+                    break;
+                case LIST:
+                    schedule = new ListSchedule();
+                    break;
+                default:
+                    schedule = null;
+                    break;
+            }
+        }
+        return schedule;
+    }
+}
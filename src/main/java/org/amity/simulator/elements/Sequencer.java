@@ -19,6 +19,12 @@
  */
 package org.amity.simulator.elements;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -26,7 +32,13 @@ import org.amity.simulator.distributors.Distributor;
 
 /**
  * Algorithm to re-prioritize event processing sequence where events are waiting
- * in a queue - this is designed to be a global instance for all events
+ * in a queue - this is designed to be a global instance for all events, so its
+ * working sets are shared by every event of a simulation. The intelligent
+ * distributors found for an event are handed to the event, as their
+ * predictions are cleared once the event leaves the next active component.
+ * Events that cannot reach the next active component are ruled out from the
+ * reachability index built when the model is compiled, rather than by
+ * exploring the balancers they would pass through.
  *
  * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
  */
@@ -38,8 +50,10 @@ public class Sequencer
     final Set<Component> exclusions;
     final Set<Component> participants;
     final Set<Distributor> intelligentFunctions;
-    String[] sources;
-    Set<String> priorities;
+    int[] ranks;
+    SourceNames names;
+    int target;
+    private final List<Event> pending;
 
     /**
      * Default constructor
@@ -51,7 +65,10 @@ public class Sequencer
         this.participants = new HashSet<>();
         this.intelligentFunctions = new HashSet<>();
         this.available = Distributor.UNKNOWN;
-        this.sources = new String[0];
+        this.ranks = new int[0];
+        this.names = new SourceNames();
+        this.target = -1;
+        this.pending = new ArrayList<>();
     }
 
     /**
@@ -63,9 +80,23 @@ public class Sequencer
      * @return selected to be processed after re-prioritization
      */
     Event prioritize(final Event selected, final List<Event> buffer)
+    {
+        return this.prioritize(selected, buffer == null ? null
+                : new ListSchedule(buffer));
+    }
+
+    /**
+     * Trace next active component for the selected that called this, and locate
+     * priority selected that would replace this order of execution.
+     *
+     * @param selected first selected on the schedule
+     * @param buffer working schedule of events not including selected
+     * @return selected to be processed after re-prioritization
+     */
+    Event prioritize(final Event selected, final Schedule buffer)
     {
         assert selected != null : "Only called within event itself";
-        assert this.sources != null : "Should always be defined";
+        assert this.ranks != null : "Should always be defined";
         boolean found = false;
         Event prioritized = null;
         // priority of self
@@ -74,29 +105,25 @@ public class Sequencer
         if (buffer != null && !buffer.isEmpty())
         {
             // Make sure system is ready for new run
-            final int size = buffer.size();
             this.paths.clear();
             this.exclusions.clear();
             this.intelligentFunctions.clear();
+            this.target = -1;
             // Lock in availability path
             this.available = selected.getComponent().getAvailable();
             // find path and priority sources
             selected.getComponent().prioritize(this, false);
             // Only if we have a priority list
-            if (this.sources.length != 0)
+            if (this.ranks.length != 0)
             {
-                // Stores position where prioritized selected is in list
-                final int[] position = new int[this.sources.length];
-                // initialize position storage
-                for (int i = 0; i < this.sources.length; i++)
-                {
-                    position[i] = Distributor.UNKNOWN;
-                }
+                // Stores prioritized event found for each priority level
+                final Event[] candidates = new Event[this.ranks.length];
                 // Move through buffer looking for event that can be
                 // prioritized - expected to be order ascending by completed
-                for (int index = 0; index < size; index++)
+                final Iterable<Event> unordered = buffer.unordered();
+                for (final Event current : unordered == null ? buffer
+                        : this.ranked(selected, unordered))
                 {
-                    final Event current = buffer.get(index);
                     // Finish if we have not found anything in availability
                     // time-frame
                     if (current.getCompleted() > this.available)
@@ -105,38 +132,23 @@ public class Sequencer
                     }
                     // Check whether current is prioritized by active component
                     // and not same source we have
-                    if (!selected.getSource().equals(current.getSource())
-                            && this.priorities.contains(current.getSource())
+                    final int rank = this.rank(current);
+                    if (this.names.of(selected) != this.names.of(current)
+                            && rank != Integer.MAX_VALUE
                             && this.inPath(current))
                     {
-                        for (int i = 0; i < this.sources.length; i++)
+                        priority = this.rank(selected);
+                        // Lock in possible re-sequence if higher priority
+                        // than that of current selected
+                        if (rank < priority && candidates[rank] == null)
                         {
-                            // Otherwise define priority of selection
-                            if (priority == Integer.MAX_VALUE
-                                    && this.sources[i].equals(selected.getSource()))
-                            {
-                                priority = i;
-                            }
-                            // Don't care as priority is equivalent or higher
-                            // than that of current selected
-                            if (i >= priority)
-                            {
-                                break;
-                            }
-                            // Lock in possible re-sequence
-                            if (this.sources[i].equals(current.getSource())
-                                    && position[i] == Distributor.UNKNOWN)
-                            {
-                                position[i] = index;
-                                found = true;
-                                break;
-                            }
+                            candidates[rank] = current;
+                            found = true;
                         }
                     }
                     // If we have filled priority 1 slot we can stop or
                     // selected is highest priority
-                    if (priority == 0
-                            || (found && position[0] != Distributor.UNKNOWN))
+                    if (priority == 0 || (found && candidates[0] != null))
                     {
                         break;
                     }
@@ -144,71 +156,208 @@ public class Sequencer
                 if (found)
                 {
                     // Move through priority selections from highest to lowest
-                    for (int i = 0; i < this.sources.length; i++)
+                    for (int i = 0; i < candidates.length; i++)
                     {
-                        final int index = position[i];
-                        if (index != Distributor.UNKNOWN)
+                        if (candidates[i] != null)
                         {
                             // Remove prioritized selected
-                            prioritized = buffer.remove(index);
+                            prioritized = candidates[i];
+                            buffer.remove(prioritized);
                             // Add current one back to head of list to execute
                             // first next time
-                            buffer.add(0, selected);
+                            buffer.addFirst(selected);
                             break;
                         }
                     }
                 }
             }
+            // Hand over distributors whose predictions the event clears
+            selected.setIntelligent(this.intelligentFunctions.isEmpty()
+                    ? Event.NONE : this.intelligentFunctions.toArray(
+                            new Distributor[0]));
         }
         return found ? prioritized : selected;
     }
 
+    /**
+     * Put in execution order only the events that could be chosen ahead of
+     * the selected event, rather than traversing the whole schedule in order
+     * - the search in order then sees exactly the events it would have seen
+     * before reaching the first event outside the availability time-frame
+     *
+     * @param selected first selected on the schedule
+     * @param unordered events of the schedule in any order
+     * @return events from prioritized sources other than that of the
+     * selected event, in execution order, up to the first event of the
+     * schedule outside the availability time-frame
+     */
+    private List<Event> ranked(final Event selected,
+            final Iterable<Event> unordered)
+    {
+        this.pending.clear();
+        Event outside = null;
+        for (final Event current : unordered)
+        {
+            if (current.getCompleted() > this.available)
+            {
+                if (outside == null || Event.compare(current, outside) < 0)
+                {
+                    outside = current;
+                }
+            }
+            else if (this.names.of(selected) != this.names.of(current)
+                    && this.rank(current) != Integer.MAX_VALUE)
+            {
+                this.pending.add(current);
+            }
+        }
+        this.pending.sort(Event::compare);
+        int count = this.pending.size();
+        while (outside != null && count > 0
+                && Event.compare(this.pending.get(count - 1), outside) > 0)
+        {
+            count--;
+        }
+        return this.pending.subList(0, count);
+    }
+
     /**
      * Determines if current event being tested traverses the path to the
      * next active component or otherwise adds the information for additional
      * checks
      *
      * @param current event checked for pathway match
-     * @return 
+     * @return <code>true</code> if the event leads to the next active
+     * component
      */
     private boolean inPath(final Event current)
     {
-        // test if component is known to lead to active target point
-        boolean connects = this.paths.contains(current.getComponent());
-        // Not in current known path to active delay component
-        if (!connects)
+        final Component component = current.getComponent();
+        boolean connects = false;
+        // Active components only lead to themselves
+        if (this.target >= 0 && Sequencer.indexOf(component) >= 0)
+        {
+            connects = Sequencer.indexOf(component) == this.target;
+        }
+        // Explore only balancers that lead there by some route
+        else if (this.target < 0 || !(component instanceof Balancer balancer)
+                || balancer.leads == null || balancer.leads.get(this.target))
         {
-            final boolean excluded =
-                    this.exclusions.contains(current.getComponent());
-            // Not in known set of excluded components
-            if (!excluded)
+            // test if component is known to lead to active target point
+            connects = this.paths.contains(component);
+            // Not in current known path to active delay component
+            if (!connects)
             {
-                // if not in direct registered path, check for deeper connection
-                this.participants.clear();
-                // Current number of known elements leading to active target
-                // point
-                final int knownPath = this.paths.size();
-                // Lock in path
-                current.getComponent().getAvailable();
-                current.getComponent().prioritize(this, true);
-                // If we've changed path elements, then there is a connection
-                connects = knownPath != this.paths.size();
+                final boolean excluded = this.exclusions.contains(component);
+                // Not in known set of excluded components
+                if (!excluded)
+                {
+                    // if not in direct registered path, check for deeper
+                    // connection
+                    this.participants.clear();
+                    // Current number of known elements leading to active
+                    // target point
+                    final int knownPath = this.paths.size();
+                    // Lock in path
+                    component.getAvailable();
+                    component.prioritize(this, true);
+                    // If we've changed path elements, then there is a
+                    // connection
+                    connects = knownPath != this.paths.size();
+                }
             }
         }
         return connects;
     }
 
     /**
-     * Clears predicted paths on availability for intelligent distributors
+     *
+     * @param event event whose source is checked
+     * @return priority of the source of the event counting from 0 for the
+     * highest, or {@link Integer#MAX_VALUE} if it is not listed
+     */
+    private int rank(final Event event)
+    {
+        final int origin = this.names.of(event);
+        return origin >= 0 && origin < this.ranks.length
+                ? this.ranks[origin] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Number the active components of a compiled model and record for each
+     * balancer the active components it leads to through any choice made by
+     * it or the balancers after it
+     *
+     * @param components all the components of a model
      */
-    void clear()
+    static void reachability(final Collection<Component> components)
     {
-        if (!this.intelligentFunctions.isEmpty())
+        int index = 0;
+        for (final Component component : components)
         {
-            for (final Distributor distributor : this.intelligentFunctions)
+            if (component instanceof Processor processor)
+            {
+                processor.index = index++;
+            }
+            else if (component instanceof Throttle throttle)
             {
-                distributor.reset();
+                throttle.index = index++;
+            }
+        }
+        for (final Component component : components)
+        {
+            if (component instanceof Balancer balancer)
+            {
+                final BitSet leads = new BitSet(index);
+                final Set<Component> visited = new HashSet<>();
+                final Deque<Component> pending = new ArrayDeque<>();
+                pending.add(balancer);
+                while (!pending.isEmpty())
+                {
+                    final Component next = pending.pop();
+                    // Follow balancers on to the components they choose from
+                    if (visited.add(next) && next instanceof Balancer)
+                    {
+                        for (final List<Function> functions
+                                : next.getReferences().values())
+                        {
+                            for (final Function function : functions)
+                            {
+                                if (function instanceof Distributor distributor)
+                                {
+                                    pending.addAll(Arrays.asList(
+                                            distributor.connections()));
+                                }
+                            }
+                        }
+                    }
+                    else if (Sequencer.indexOf(next) >= 0)
+                    {
+                        leads.set(Sequencer.indexOf(next));
+                    }
+                }
+                balancer.leads = leads;
             }
         }
     }
+
+    /**
+     *
+     * @param component system element
+     * @return position of an active component in the reachability index, or
+     * -1 if the component is not active or not indexed
+     */
+    private static int indexOf(final Component component)
+    {
+        int index = -1;
+        if (component instanceof Processor processor)
+        {
+            index = processor.index;
+        }
+        else if (component instanceof Throttle throttle)
+        {
+            index = throttle.index;
+        }
+        return index;
+    }
 }
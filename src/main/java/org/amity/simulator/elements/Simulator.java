@@ -0,0 +1,1041 @@
+/*
+ * Simulator.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+/**
+ * Event loop for running a simulation over a model, or over one partition of
+ * a model when the model is simulated in parallel. Not thread safe.
+ * <p>
+ * For optimistic parallel simulation every transition is journaled with the
+ * state it changed, so the partition can be rolled back when an event from
+ * another partition arrives with an earlier time than transitions already
+ * simulated, or when an event it was sent is cancelled. Events and
+ * cancellations from other partitions are posted to an inbox that is safe to
+ * use from their threads, and picked up between transitions.
+ * <p>
+ * A sequential simulation can write checkpoints of its state as it goes, so
+ * it can be resumed from the last one rather than started again. It can
+ * also be stopped early once its statistics are precise enough, and take in
+ * the statistics of completed events as it goes rather than holding them all.
+ * <p>
+ * For parallel simulation every event is stamped with the transition that
+ * scheduled it, and events of the same time are scheduled by their stamps in
+ * the order one schedule would have, whatever order they reach a partition
+ * in. Roll back undoes transitions that one schedule would have simulated
+ * after a straggler by the same order. For conservative simulation, events
+ * scheduled at or after the end of the time window - sent to another
+ * partition, or kept here when nothing re-prioritizes events - wait in the
+ * outgoing events to be scheduled with the events of all the partitions.
+ * <p>
+ * A sub-network of a model that shares no component with the rest can be
+ * simulated on its own alongside the others, taking in the statistics of its
+ * own completed events, and stops once it passes the earliest time any of
+ * them reached the end of simulation time.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Simulator
+{
+
+    private final static int CYCLES = 50000;
+    private final PriorityQueue<Arrival> arrivals;
+    private final List<Arrival> streams;
+    final Schedule working;
+    final List<Event> completed;
+    final List<Event> outgoing;
+    private final Queue<Notice> inbox;
+    private final Map<Component, Simulator> owners;
+    private final Deque<Transition> journal;
+    private final List<Component> shared;
+    private final Sequencer sequencer;
+    private final boolean prioritized;
+    private final boolean stamped;
+    private final double generate;
+    private final boolean verbose;
+    private Checkpoint checkpoint;
+    private Precision precision;
+    private Completions completions;
+    private DoubleAccumulator stop;
+    private double reached;
+    private double ended;
+    private double horizon;
+    private double limit;
+    private int transitions;
+    private int rollbacks;
+    private int settled;
+    private boolean locked;
+    private boolean finished;
+
+    /**
+     * Default constructor - unused
+     */
+    private Simulator()
+    {
+        this.arrivals = new PriorityQueue<>();
+        this.streams = new ArrayList<>();
+        this.working = new HeapSchedule();
+        this.completed = new ArrayList<>();
+        this.outgoing = new ArrayList<>();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.owners = null;
+        this.journal = null;
+        this.shared = new ArrayList<>();
+        this.sequencer = new Sequencer();
+        this.prioritized = true;
+        this.stamped = false;
+        this.generate = 0;
+        this.verbose = false;
+        this.checkpoint = null;
+        this.precision = null;
+        this.completions = null;
+        this.stop = null;
+        this.reached = Double.NEGATIVE_INFINITY;
+        this.ended = Double.POSITIVE_INFINITY;
+        this.horizon = 0;
+        this.limit = Double.POSITIVE_INFINITY;
+        this.transitions = 0;
+        this.rollbacks = 0;
+        this.settled = 0;
+        this.locked = false;
+        this.finished = false;
+    }
+
+    /**
+     * Constructor for the simulation space of a whole model
+     *
+     * @param sources event generation components
+     * @param generate end-point in ticks for the simulation completion
+     * @param working future event list for the simulation
+     * @param verbose show simulation progress if <code>true</code>
+     */
+    Simulator(final List<Source> sources, final double generate,
+            final Schedule working, final boolean verbose)
+    {
+        this(sources, generate, working, verbose, null, true);
+    }
+
+    /**
+     * Constructor for the simulation space of a partition of a model
+     *
+     * @param sources event generation components feeding this partition
+     * @param generate end-point in ticks for the simulation completion
+     * @param working future event list for the simulation
+     * @param verbose show simulation progress if <code>true</code>
+     * @param owners simulator for each component, shared by all partitions,
+     * or <code>null</code> if this simulates the whole model
+     * @param prioritized <code>true</code> if events need re-prioritization
+     */
+    Simulator(final List<Source> sources, final double generate,
+            final Schedule working, final boolean verbose,
+            final Map<Component, Simulator> owners, final boolean prioritized)
+    {
+        this(sources, generate, working, verbose, owners, null, prioritized);
+    }
+
+    /**
+     * Constructor for the simulation space of a partition of a model that is
+     * simulated optimistically
+     *
+     * @param sources event generation components feeding this partition
+     * @param generate end-point in ticks for the simulation completion
+     * @param working future event list for the simulation
+     * @param owners simulator for each component, shared by all partitions
+     * @param shared components whose state re-prioritization can change,
+     * saved with every transition
+     * @param prioritized <code>true</code> if events need re-prioritization
+     */
+    Simulator(final List<Source> sources, final double generate,
+            final Schedule working, final Map<Component, Simulator> owners,
+            final List<Component> shared, final boolean prioritized)
+    {
+        this(sources, generate, working, false, owners, shared, prioritized);
+    }
+
+    /**
+     * Constructor for the simulation space
+     *
+     * @param sources event generation components feeding this simulation
+     * @param generate end-point in ticks for the simulation completion
+     * @param working future event list for the simulation
+     * @param verbose show simulation progress if <code>true</code>
+     * @param owners simulator for each component, or <code>null</code>
+     * @param shared components saved with every transition, or
+     * <code>null</code> if transitions are not journaled
+     * @param prioritized <code>true</code> if events need re-prioritization
+     */
+    private Simulator(final List<Source> sources, final double generate,
+            final Schedule working, final boolean verbose,
+            final Map<Component, Simulator> owners,
+            final List<Component> shared, final boolean prioritized)
+    {
+        this.arrivals = new PriorityQueue<>();
+        this.streams = new ArrayList<>();
+        this.working = working;
+        this.completed = new ArrayList<>();
+        this.outgoing = new ArrayList<>();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.owners = owners;
+        this.journal = shared == null ? null : new ArrayDeque<>();
+        this.shared = shared == null ? new ArrayList<>() : shared;
+        this.sequencer = new Sequencer();
+        this.prioritized = prioritized;
+        this.stamped = owners != null;
+        this.generate = generate;
+        this.verbose = verbose;
+        this.checkpoint = null;
+        this.precision = null;
+        this.completions = null;
+        this.stop = null;
+        this.reached = Double.NEGATIVE_INFINITY;
+        this.ended = Double.POSITIVE_INFINITY;
+        this.horizon = generate;
+        this.limit = Double.POSITIVE_INFINITY;
+        this.transitions = 0;
+        this.rollbacks = 0;
+        this.settled = 0;
+        this.locked = false;
+        this.finished = false;
+        // Prime the merge with the first arrival from each source
+        for (int index = 0; index < sources.size(); index++)
+        {
+            final Arrival arrival = new Arrival(sources.get(index), index);
+            this.streams.add(arrival);
+            if (arrival.next(generate))
+            {
+                this.arrivals.add(arrival);
+            }
+        }
+    }
+
+    /**
+     * Run the whole simulation
+     */
+    void execute()
+    {
+        if (this.verbose)
+        {
+            System.out.println("  Start simulation");
+        }
+        this.advance(Double.POSITIVE_INFINITY);
+        // Last checkpoint allows the simulation to be continued further
+        if (this.checkpoint != null)
+        {
+            this.checkpoint.save(this);
+        }
+        this.finish();
+    }
+
+    /**
+     * Write checkpoints of the simulation as it goes
+     *
+     * @param checkpoint where and how often checkpoints are written
+     */
+    void setCheckpoint(final Checkpoint checkpoint)
+    {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Stop the simulation as soon as its statistics are precise enough
+     *
+     * @param precision stopping rule checked as the simulation runs
+     */
+    void setPrecision(final Precision precision)
+    {
+        this.precision = precision;
+    }
+
+    /**
+     * Take in completed events as their place in the statistics sample is
+     * decided, rather than holding them all to the end - only while the
+     * simulation is not journaled, which needs them to be undone. The
+     * statistics are written to checkpoints in place of the events
+     *
+     * @param completions statistics of completed events
+     */
+    void setCompletions(final Completions completions)
+    {
+        this.completions = completions;
+    }
+
+    /**
+     * Simulate as one of a set of sub-networks that share no component
+     *
+     * @param stop earliest time any of the sub-networks reached the end of
+     * simulation time, shared by all of them
+     */
+    void setStop(final DoubleAccumulator stop)
+    {
+        this.stop = stop;
+    }
+
+    /**
+     * Step through simulation for events that start before a point in time
+     *
+     * @param limit time at which to pause the simulation
+     */
+    void advance(final double limit)
+    {
+        this.limit = limit;
+        while (!this.finished)
+        {
+            // Event forced to the head must be executed before any new
+            // arrivals are merged in
+            if (!this.locked)
+            {
+                this.deliver();
+                final Event next = this.working.peek();
+                if (next != null)
+                {
+                    this.admit(next.getStarted());
+                }
+                else if (!this.arrivals.isEmpty())
+                {
+                    this.admit(Math.min(limit,
+                            this.arrivals.peek().event.getStarted()));
+                }
+            }
+            if (this.working.isEmpty()
+                    || (!this.locked && this.working.peek().getStarted() >= limit))
+            {
+                break;
+            }
+            // Event forced to the head follows on from the last transition
+            final double reaching = this.locked ? this.reached
+                    : Math.max(this.reached, this.working.peek().getStarted());
+            // Another sub-network has reached the end of simulation time
+            // earlier, so one simulation would have stopped before this
+            if (this.stop != null && reaching > this.stop.get())
+            {
+                this.finished = true;
+                break;
+            }
+            // End of simulation time - the event is left in place so a
+            // checkpoint can continue from it, and optimistic simulation
+            // waits as an earlier event may still arrive and roll it back
+            if (this.working.peek().getCompleted() > this.generate)
+            {
+                this.finished = this.journal == null;
+                if (this.stop != null)
+                {
+                    this.ended = reaching;
+                    this.stop.accumulate(reaching);
+                }
+                break;
+            }
+            this.reached = reaching;
+            final Event event = this.working.poll();
+            // Re-prioritization can change other components so save them
+            // before it starts
+            final Object[] states = this.journal == null ? null
+                    : Transition.save(this.shared);
+            // Re-prioritization looks ahead as far as the availability
+            // of the next component so arrivals up to then are needed
+            if (!this.locked && this.prioritized)
+            {
+                this.admit(event.getComponent().getAvailable());
+            }
+            // Check there is no delay with execution
+            final boolean balancer = event.getComponent() instanceof Balancer;
+            final Event priority = event.prioritize(this.sequencer,
+                    this.working, this.locked || !this.prioritized);
+            final Transition transition = this.journal == null ? null
+                    : new Transition(event, priority, this.locked,
+                            this.shared, states);
+            final Stamp stamp = this.stamped
+                    ? new Stamp(priority, priority.stamp) : null;
+            priority.simulate();
+            priority.stamp = stamp;
+            this.locked = false;
+            this.transitions++;
+            // Event has completed so move it to the completed queue
+            if (priority.getComponent() == null)
+            {
+                // Stamp of the transition that completed it is kept to put
+                // the events of all the partitions in order
+                this.completed.add(priority);
+            }
+            // Event is moving to a component simulated elsewhere
+            else if (this.owners != null
+                    && this.owners.get(priority.getComponent()) != this)
+            {
+                if (transition == null)
+                {
+                    this.outgoing.add(priority);
+                }
+                // Optimistic simulation sends a copy straight away so the
+                // original can still be rolled back here
+                else
+                {
+                    transition.message = new Event(priority);
+                    transition.message.stamp = priority.stamp;
+                    transition.target
+                            = this.owners.get(priority.getComponent());
+                    transition.time = priority.getStarted();
+                    transition.target.post(new Notice(transition.message,
+                            transition.time, false));
+                }
+            }
+            // Load balancer with no execution delay so
+            // continue moving through event system state
+            else if (balancer)
+            {
+                // Put this back on to execute first again on the next
+                // transition as availability may have been calculated
+                // for this event so we need to do it first
+                this.working.addFirst(priority);
+                // Don't re-check priority next iteration as we're
+                // executing on this event
+                this.locked = true;
+            }
+            // Scheduled after the window so waits to be scheduled with the
+            // events of the other partitions
+            else if (this.stamped && this.journal == null
+                    && !this.prioritized && priority.getStarted() >= this.limit)
+            {
+                this.outgoing.add(priority);
+            }
+            // New completion time for current event so re-sort execution
+            // schedule
+            else
+            {
+                // Schedule in time order
+                this.working.add(priority);
+            }
+            if (transition != null)
+            {
+                this.journal.add(transition);
+            }
+            if (this.checkpoint != null && !this.locked
+                    && this.checkpoint.due(this.transitions))
+            {
+                this.checkpoint.save(this);
+            }
+            // Sources stop generating from the point the statistics are
+            // precise enough
+            if (this.precision != null && !this.locked
+                    && this.transitions % Precision.INTERVAL == 0
+                    && this.precision.update(this.completed,
+                            priority.getStarted()))
+            {
+                this.finished = true;
+                this.horizon = priority.getStarted();
+            }
+            if (this.completions != null && this.journal == null
+                    && !this.locked
+                    && this.transitions % Precision.INTERVAL == 0)
+            {
+                this.settle(priority.getStarted());
+            }
+            if (this.verbose && this.transitions % CYCLES == 0)
+            {
+                System.out.println("    Transitions: " + this.transitions);
+                System.out.println("      Time: " + priority.getCompleted());
+                System.out.println("      Events completed: "
+                        + (this.settled + this.completed.size()));
+                System.out.println("      Events in progress: "
+                        + this.working.size());
+            }
+        }
+    }
+
+    /**
+     *
+     * @return latest start time of the transitions simulated
+     */
+    double getReached()
+    {
+        return this.reached;
+    }
+
+    /**
+     *
+     * @return time this sub-network reached the end of simulation time, or
+     * infinity if it ran out of events or was stopped first
+     */
+    double getEnded()
+    {
+        return this.ended;
+    }
+
+    /**
+     * Pass the completed events already decided to the statistics
+     *
+     * @param time point in ticks the simulation has reached
+     */
+    private void settle(final double time)
+    {
+        final int count = this.completions.consume(this.completed, time);
+        this.settled += count;
+        // Stopping rule has already seen them
+        if (this.precision != null)
+        {
+            this.precision.discard(count);
+        }
+    }
+
+    /**
+     * Accept event that has moved to a component simulated here, or was
+     * scheduled here after the end of the time window
+     *
+     * @param event entity waiting for its next transition
+     */
+    void receive(final Event event)
+    {
+        if (!this.finished)
+        {
+            this.working.add(event);
+        }
+    }
+
+    /**
+     * Pass on an event or cancellation from another partition - can be called
+     * from any thread
+     *
+     * @param notice event sent here or cancellation of one
+     */
+    void post(final Notice notice)
+    {
+        this.inbox.add(notice);
+    }
+
+    /**
+     * Act on everything posted so far, rolling back for any event or
+     * cancellation earlier than transitions already simulated
+     *
+     * @return <code>true</code> if anything had been posted
+     */
+    boolean deliver()
+    {
+        boolean delivered = false;
+        Notice notice = this.inbox.poll();
+        while (notice != null)
+        {
+            // Straggler so undo everything simulated from its time on
+            this.rollback(notice.time, notice.cancel ? null : notice.event);
+            if (notice.cancel)
+            {
+                final boolean removed = this.working.remove(notice.event);
+                assert removed : "Cancelled event must be waiting after roll back";
+            }
+            else
+            {
+                this.working.add(notice.event);
+            }
+            delivered = true;
+            notice = this.inbox.poll();
+        }
+        return delivered;
+    }
+
+    /**
+     * Undo transitions that started after a point in time, and those that
+     * started at it that one schedule would have simulated after the
+     * straggler. A straggler arriving at the same time as a transition is
+     * scheduled after it when it was sent on by it, as it would have been in
+     * one schedule, so a chain of balancers that crosses partitions and comes
+     * back does not undo the transition that sent it. Transitions forced to
+     * follow on from another are undone with it.
+     *
+     * @param time earliest time to undo
+     * @param straggler event sent from another partition, or
+     * <code>null</code> to undo everything started at the time
+     */
+    private void rollback(final double time, final Event straggler)
+    {
+        while (this.journal != null && !this.journal.isEmpty()
+                && this.journal.peekLast().after(time, straggler,
+                        this.journal.descendingIterator()))
+        {
+            this.undo(this.journal.pollLast());
+        }
+    }
+
+    /**
+     * Discard journaled transitions that can no longer be rolled back as no
+     * partition has anything left to simulate before a point in time
+     *
+     * @param time global virtual time
+     */
+    void commit(final double time)
+    {
+        while (!this.journal.isEmpty()
+                && this.journal.peekFirst().started < time)
+        {
+            this.journal.pollFirst().commit();
+        }
+    }
+
+    /**
+     * Undo the last transition simulated
+     *
+     * @param transition journaled transition
+     */
+    private void undo(final Transition transition)
+    {
+        final Event priority = transition.priority;
+        // Take the event back from where the transition left it
+        if (transition.message != null)
+        {
+            transition.target.post(new Notice(transition.message,
+                    transition.time, true));
+        }
+        else if (priority.getComponent() == null)
+        {
+            final Event last = this.completed.removeLast();
+            assert last == priority : "Completions are undone in reverse";
+        }
+        else
+        {
+            this.working.remove(priority);
+        }
+        // Re-prioritization left the selected event at the head
+        if (transition.event != priority)
+        {
+            this.working.remove(transition.event);
+        }
+        transition.restore();
+        if (transition.locked)
+        {
+            this.working.addFirst(transition.event);
+        }
+        else
+        {
+            this.working.add(transition.event);
+        }
+        if (transition.event != priority)
+        {
+            this.working.add(priority);
+        }
+        this.locked = transition.locked;
+        this.transitions--;
+        this.rollbacks++;
+    }
+
+    /**
+     *
+     * @return start time of the earliest pending event or arrival, or
+     * infinity if there is nothing left to simulate
+     */
+    double next()
+    {
+        double next = Double.POSITIVE_INFINITY;
+        if (!this.finished)
+        {
+            if (!this.working.isEmpty())
+            {
+                next = this.working.peek().getStarted();
+            }
+            if (!this.arrivals.isEmpty())
+            {
+                next = Math.min(next,
+                        this.arrivals.peek().event.getStarted());
+            }
+            // Nothing more will be simulated if waiting at the end of
+            // simulation time
+            if (this.journal != null && !this.working.isEmpty()
+                    && next == this.working.peek().getStarted()
+                    && this.working.peek().getCompleted() > this.generate)
+            {
+                next = Double.POSITIVE_INFINITY;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Complete the simulation - let sources finish generating so that their
+     * statistics cover the whole generation period, or up to the point the
+     * simulation was stopped early
+     */
+    void finish()
+    {
+        this.finished = true;
+        for (final Arrival arrival : this.arrivals)
+        {
+            while (arrival.next(this.horizon))
+            {
+            }
+        }
+        this.arrivals.clear();
+        if (this.verbose)
+        {
+            System.out.println("  Simulation transitions to complete: "
+                    + this.transitions);
+        }
+    }
+
+    /**
+     *
+     * @return number of transitions simulated
+     */
+    int getTransitions()
+    {
+        return this.transitions;
+    }
+
+    /**
+     *
+     * @return number of transitions undone by roll back
+     */
+    int getRollbacks()
+    {
+        return this.rollbacks;
+    }
+
+    /**
+     * Write the pending events of the simulation to a checkpoint, in the
+     * order they will be simulated, with the completed events not yet taken
+     * into the statistics and the statistics of those that have been
+     *
+     * @param checkpoint stream the state is written to
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void write(final Checkpoint checkpoint) throws IOException
+    {
+        assert !this.locked : "Checkpoint of an event part way through";
+        final DataOutput output = checkpoint.getOutput();
+        output.writeInt(this.transitions);
+        output.writeInt(this.streams.size());
+        for (final Arrival stream : this.streams)
+        {
+            checkpoint.writeEvent(stream.event);
+        }
+        output.writeInt(this.working.size());
+        for (final Event event : this.working)
+        {
+            checkpoint.writeEvent(event);
+        }
+        checkpoint.writeEvents(this.completed);
+        output.writeInt(this.settled);
+        output.writeBoolean(this.completions != null);
+        if (this.completions != null)
+        {
+            this.completions.write(checkpoint);
+        }
+    }
+
+    /**
+     * Replace the state of the simulation, including arrivals drawn from the
+     * sources when it was constructed, with state read from a checkpoint -
+     * the sources must already have been read
+     *
+     * @param checkpoint stream the state is read from
+     * @throws IOException if the checkpoint cannot be read
+     */
+    void read(final Checkpoint checkpoint) throws IOException
+    {
+        final DataInput input = checkpoint.getInput();
+        this.transitions = input.readInt();
+        if (input.readInt() != this.streams.size())
+        {
+            throw new IOException("Checkpoint does not match model");
+        }
+        this.arrivals.clear();
+        for (final Arrival stream : this.streams)
+        {
+            stream.event = checkpoint.readEvent();
+            // Arrivals after the last end time may now be in time
+            if (stream.event != null
+                    && stream.event.getStarted() <= this.generate)
+            {
+                this.arrivals.add(stream);
+            }
+        }
+        this.working.clear();
+        final int size = input.readInt();
+        for (int index = 0; index < size; index++)
+        {
+            this.working.add(checkpoint.readEvent());
+        }
+        checkpoint.readEvents(this.completed);
+        this.settled = input.readInt();
+        if (input.readBoolean())
+        {
+            if (this.completions == null)
+            {
+                throw new IOException("Checkpoint has statistics of "
+                        + "completed events with nowhere to put them");
+            }
+            this.completions.read(checkpoint);
+        }
+        this.locked = false;
+        this.finished = false;
+    }
+
+    /**
+     * Merge new arrivals from the sources into the working schedule up to
+     * a point in time, so only one arrival per source is held back
+     *
+     * @param time latest start time of arrivals to be merged
+     */
+    private void admit(final double time)
+    {
+        while (!this.arrivals.isEmpty()
+                && this.arrivals.peek().event.getStarted() <= time)
+        {
+            final Arrival arrival = this.arrivals.poll();
+            if (!this.stamped)
+            {
+                this.working.add(arrival.event);
+            }
+            else
+            {
+                arrival.event.stamp = new Stamp(arrival.event);
+                if (this.journal == null && !this.prioritized
+                        && arrival.event.getStarted() >= this.limit)
+                {
+                    this.outgoing.add(arrival.event);
+                }
+                else
+                {
+                    this.working.add(arrival.event);
+                }
+            }
+            if (arrival.next(this.generate))
+            {
+                this.arrivals.add(arrival);
+            }
+        }
+    }
+
+    /**
+     * Journal entry for one transition, holding what it changed so that it
+     * can be undone
+     */
+    private static class Transition
+    {
+
+        private final double started;
+        private final double arrived;
+        private final Stamp scheduled;
+        private final Event event;
+        private final Event priority;
+        private final Event saved;
+        private final Stamp stamp;
+        private final boolean locked;
+        private final Component component;
+        private final Object state;
+        private final List<Component> shared;
+        private final Object[] states;
+        private Event message;
+        private Simulator target;
+        private double time;
+
+        /**
+         * Save state before simulating a transition
+         *
+         * @param event entity taken from the head of the schedule
+         * @param priority entity to be simulated in its place
+         * @param locked <code>true</code> if the event was forced to the head
+         * @param shared components re-prioritization can change
+         * @param states saved state of the shared components
+         */
+        private Transition(final Event event, final Event priority,
+                final boolean locked, final List<Component> shared,
+                final Object[] states)
+        {
+            this.started = event.getStarted();
+            this.arrived = event.getArrived();
+            this.scheduled = event.stamp;
+            this.event = event;
+            this.priority = priority;
+            this.saved = new Event(priority);
+            this.stamp = priority.stamp;
+            this.locked = locked;
+            this.component = priority.getComponent();
+            this.state = this.component.save(priority);
+            this.shared = shared;
+            this.states = states;
+            this.message = null;
+            this.target = null;
+            this.time = 0;
+        }
+
+        /**
+         * Check if one schedule would have simulated this transition after a
+         * straggler, going by the first of the transitions forced to follow
+         * on from each other that this is part of
+         *
+         * @param time earliest time to undo
+         * @param straggler event sent from another partition, or
+         * <code>null</code> for everything started at the time
+         * @param journal transitions from this one back to the first
+         * @return <code>true</code> if the transition has to be undone
+         */
+        private boolean after(final double time, final Event straggler,
+                final Iterator<Transition> journal)
+        {
+            Transition first = journal.next();
+            while (first.locked && journal.hasNext())
+            {
+                first = journal.next();
+            }
+            return this.started > time || first.started > time
+                    || (first.started == time && (straggler == null
+                    || first.arrived > straggler.getArrived()
+                    || (first.arrived == straggler.getArrived()
+                    && Stamp.compare(first.scheduled, straggler.stamp) > 0)));
+        }
+
+        /**
+         * Save the state of components that are not simulated in a
+         * transition but can still be changed by it
+         *
+         * @param shared components re-prioritization can change
+         * @return saved state of each component
+         */
+        private static Object[] save(final List<Component> shared)
+        {
+            final Object[] states = new Object[shared.size()];
+            for (int index = 0; index < states.length; index++)
+            {
+                states[index] = shared.get(index).save(null);
+            }
+            return states;
+        }
+
+        /**
+         * Put component and event state back
+         */
+        private void restore()
+        {
+            this.priority.stamp = this.stamp;
+            this.component.restore(this.state);
+            for (int index = 0; index < this.states.length; index++)
+            {
+                this.shared.get(index).restore(this.states[index]);
+            }
+            this.priority.restore(this.saved);
+        }
+
+        /**
+         * Let go of state held for the roll back
+         */
+        private void commit()
+        {
+            this.component.commit(this.state);
+            for (int index = 0; index < this.states.length; index++)
+            {
+                this.shared.get(index).commit(this.states[index]);
+            }
+        }
+    }
+
+    /**
+     * Event sent from another partition, or cancellation of one
+     */
+    private static class Notice
+    {
+
+        private final Event event;
+        private final double time;
+        private final boolean cancel;
+
+        /**
+         * @param event entity sent between partitions
+         * @param time start time the event was sent with
+         * @param cancel <code>true</code> if the event is withdrawn
+         */
+        private Notice(final Event event, final double time,
+                final boolean cancel)
+        {
+            this.event = event;
+            this.time = time;
+            this.cancel = cancel;
+        }
+    }
+
+    /**
+     * Next pending arrival from a source, ordered by time and then by source
+     * position to match generating each source in turn
+     */
+    private static class Arrival implements Comparable<Arrival>
+    {
+
+        private final Source source;
+        private final int index;
+        private Event event;
+
+        /**
+         * Constructor for source arrival stream
+         *
+         * @param source event generation component
+         * @param index position of source in model
+         */
+        private Arrival(final Source source, final int index)
+        {
+            this.source = source;
+            this.index = index;
+            this.event = null;
+        }
+
+        /**
+         * Pull the next event with a component to execute against from the
+         * source - an event after the end-point is kept as it would be the
+         * next arrival if the simulation were continued further
+         *
+         * @param generate end-point in ticks for event generation
+         * @return <code>false</code> if the source is exhausted
+         */
+        private boolean next(final double generate)
+        {
+            do
+            {
+                this.event = this.source.simulate(null);
+            }
+            // Only add event if it has a component to execute against
+            while (this.event != null && this.event.getStarted() <= generate
+                    && this.event.getComponent() == null);
+            return this.event != null && this.event.getStarted() <= generate;
+        }
+
+        @Override
+        public int compareTo(final Arrival other)
+        {
+            int comparison = Double.compare(this.event.getStarted(),
+                    other.event.getStarted());
+            if (comparison == 0)
+            {
+                comparison = Double.compare(this.event.getArrived(),
+                        other.event.getArrived());
+            }
+            if (comparison == 0)
+            {
+                comparison = Integer.compare(this.index, other.index);
+            }
+            return comparison;
+        }
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,9 +37,10 @@ public class Sink implements Component
 {
 
     private final String label;
-    private final List<Event> local;
+    private final Visits local;
     private final Map<String, List<Function>> generators;
     private final boolean monitor;
+    private boolean recording;
     private double time;
 
     /**
@@ -47,8 +49,9 @@ public class Sink implements Component
     private Sink()
     {
         this.label = "dummy";
-        this.local = new ArrayList<>();
+        this.local = new Visits();
         this.monitor = false;
+        this.recording = true;
         this.time = 0;
         this.generators = new HashMap<>();
     }
@@ -63,7 +66,8 @@ public class Sink implements Component
     {
         this.label = label;
         this.monitor = monitor;
-        this.local = new ArrayList<>();
+        this.recording = true;
+        this.local = new Visits();
         this.time = 0;
         this.generators = new HashMap<>();
     }
@@ -73,7 +77,11 @@ public class Sink implements Component
     {
         if (event != null)
         {
-            this.local.add(event);
+            // Record values of the event at the end of its life
+            if (this.recording)
+            {
+                this.local.add(event);
+            }
             this.time = event.getCompleted();
             // No further components to pass through
             event.setComponent(null);
@@ -82,11 +90,23 @@ public class Sink implements Component
     }
 
     @Override
-    public List<Event> getLocalEvents()
+    public Visits getLocalEvents()
     {
         return this.local;
     }
 
+    @Override
+    public void setRecording(final boolean all)
+    {
+        this.recording = all || this.monitor;
+    }
+
+    @Override
+    public boolean isRecording()
+    {
+        return this.recording;
+    }
+
     @Override
     public void reset()
     {
@@ -101,9 +121,9 @@ public class Sink implements Component
     }
 
     @Override
-    public List<QueueStatistics> getQueueStatistics()
+    public QueueStatistics getQueueStatistics()
     {
-        return new ArrayList<>();
+        return new QueueStatistics();
     }
 
     @Override
@@ -129,12 +149,53 @@ public class Sink implements Component
         return this.generators;
     }
 
+    @Override
+    public List<Function> getFunctions()
+    {
+        return new ArrayList<>();
+    }
+
     @Override
     public double getAvailable()
     {
         return this.time;
     }
 
+    @Override
+    public Object save(final Event event)
+    {
+        return new Memento(this.time, 0, this.local, null, event, null,
+                List.of());
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        final Memento memento = (Memento) state;
+        memento.restore(this.local, null, null, List.of());
+        this.time = memento.value;
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+    }
+
+    @Override
+    public void write(final Checkpoint checkpoint) throws IOException
+    {
+        checkpoint.getOutput().writeDouble(this.time);
+        // Completed events are shared with the simulation
+        checkpoint.writeRecords(this.local);
+    }
+
+    @Override
+    public void read(final Checkpoint checkpoint) throws IOException
+    {
+        this.time = checkpoint.getInput().readDouble();
+        checkpoint.readRecords(this.local);
+    }
+
     @Override
     public void prioritize(final Sequencer sequencer, final boolean explore)
     {
@@ -144,7 +205,7 @@ public class Sink implements Component
         }
         else
         {
-            sequencer.sources = new String[0];
+            sequencer.ranks = new int[0];
             sequencer.paths.add(this);
         }
     }
@@ -19,6 +19,7 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -38,10 +39,13 @@ public class Source implements Component
 {
 
     private final String label;
+    private SourceNames names;
+    private int origin;
     private final Generator generator;
     private final Map<String, List<Function>> generators;
-    private final List<Event> local;
+    private final Visits local;
     private final boolean monitor;
+    private boolean recording;
     private int counter;
     private final Double start;
     private final Double end;
@@ -54,10 +58,13 @@ public class Source implements Component
     private Source()
     {
         this.label = "dummy";
-        this.local = new ArrayList<>();
+        this.names = new SourceNames();
+        this.origin = -1;
+        this.local = new Visits();
         this.generator = null;
         this.generators = new HashMap<>();
         this.monitor = false;
+        this.recording = true;
         this.counter = 0;
         this.start = null;
         this.end = null;
@@ -79,6 +86,8 @@ public class Source implements Component
             final Double start, final Double end, final boolean monitor)
     {
         this.label = label;
+        this.names = new SourceNames();
+        this.origin = this.names.id(label);
         this.generator = generator;
         this.generators = new HashMap<>();
         if (this.generator != null)
@@ -87,20 +96,32 @@ public class Source implements Component
             list.add(this.generator);
             this.generators.put(generator.getReference(), list);
         }
-        this.local = new ArrayList<>();
+        this.local = new Visits();
         this.start = start;
         this.end = end;
         this.monitor = monitor;
+        this.recording = true;
         this.counter = 0;
         // Set the start time for generation
         this.time = start == null ? 0 : start ;
         this.noLimit = this.end == null;
     }
 
+    /**
+     * Take the id of this source in the source ids of a model
+     *
+     * @param names source ids of the model this component is put into
+     */
+    void setNames(final SourceNames names)
+    {
+        this.names = names;
+        this.origin = names.id(this.label);
+    }
+
     @Override
     public Event simulate(final Event injectedEvent)
     {
-        boolean generated = true;
+        final Event global;
         if (injectedEvent == null)
         {
             // Cumulative injectedEvent timeline
@@ -109,41 +130,54 @@ public class Source implements Component
             // Only generate an event if it is within the time limit
             if (this.noLimit || this.end > this.time)
             {
-                final Event event = new Event(this.label,
+                global = new Event(this.names, this.origin,
                         Integer.toString(this.counter++), this.time);
-                event.setValues(this.time, this.time, this.time);
-                this.local.add(event);
+                global.setValues(this.time, this.time, this.time);
+                if (this.recording)
+                {
+                    this.local.add(global);
+                }
             }
             else
             {
-                generated = false;
+                global = null;
             }
         }
-        // Pass through an injected event
+        // Pass through a copy of an injected event
         else
         {
-            this.local.add(injectedEvent);
-        }
-        // Make a global copy to pass on
-        final Event global;
-        if (generated)
-        {
-                global = new Event(this.local.get(this.local.size() - 1));
-                global.setComponent(this.generator.getNext());
+            if (this.recording)
+            {
+                this.local.add(injectedEvent);
+            }
+            global = new Event(injectedEvent);
         }
-        else
+        // Only the values are recorded so the event itself can be passed on
+        if (global != null)
         {
-            global = null;
+            global.setComponent(this.generator.getNext());
         }
         return global;
     }
 
     @Override
-    public List<Event> getLocalEvents()
+    public Visits getLocalEvents()
     {
         return this.local;
     }
 
+    @Override
+    public void setRecording(final boolean all)
+    {
+        this.recording = all || this.monitor;
+    }
+
+    @Override
+    public boolean isRecording()
+    {
+        return this.recording;
+    }
+
     @Override
     public void reset()
     {
@@ -163,9 +197,9 @@ public class Source implements Component
     }
 
     @Override
-    public List<QueueStatistics> getQueueStatistics()
+    public QueueStatistics getQueueStatistics()
     {
-        return new ArrayList<>();
+        return new QueueStatistics();
     }
 
     @Override
@@ -200,12 +234,63 @@ public class Source implements Component
         return this.generators;
     }
 
+    @Override
+    public List<Function> getFunctions()
+    {
+        final List<Function> functions = new ArrayList<>();
+        if (this.generator != null)
+        {
+            functions.add(this.generator);
+        }
+        return functions;
+    }
+
     @Override
     public double getAvailable()
     {
         return this.time;
     }
 
+    @Override
+    public Object save(final Event event)
+    {
+        return new Memento(this.time, this.counter, this.local, null, event,
+                null, List.of(this.generator));
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        final Memento memento = (Memento) state;
+        memento.restore(this.local, null, null, List.of(this.generator));
+        this.time = memento.value;
+        this.counter = memento.count;
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        ((Memento) state).commit(List.of(this.generator));
+    }
+
+    @Override
+    public void write(final Checkpoint checkpoint) throws IOException
+    {
+        checkpoint.getOutput().writeDouble(this.time);
+        checkpoint.getOutput().writeInt(this.counter);
+        checkpoint.writeRecords(this.local);
+        checkpoint.writeState(this.generator);
+    }
+
+    @Override
+    public void read(final Checkpoint checkpoint) throws IOException
+    {
+        this.time = checkpoint.getInput().readDouble();
+        this.counter = checkpoint.getInput().readInt();
+        checkpoint.readRecords(this.local);
+        checkpoint.readState(this.generator);
+    }
+
     @Override
     public void prioritize(final Sequencer sequencer, final boolean explore)
     {
@@ -215,7 +300,7 @@ public class Source implements Component
         }
         else
         {
-            sequencer.sources = new String[0];
+            sequencer.ranks = new int[0];
             sequencer.paths.add(this);
         }
     }
@@ -0,0 +1,193 @@
+/*
+ * SourceNames.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.amity.simulator.generators.Generator;
+
+/**
+ * Dense integer ids for the names of the event sources of one model. A
+ * component interns the names it mentions when it is built, and again in the
+ * table of the model it is put into, so while simulating anything kept per
+ * source can be looked up by position rather than by name. Events from the
+ * sources of a model carry the id in its table - events built by name are
+ * looked up by name. Visits are recorded by id. Ids are never written out -
+ * checkpoints keep the names.
+ * Names are only added while the model is built, or for events built by
+ * name, so the table can be read from many threads at once.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+final class SourceNames
+{
+
+    private final Map<String, Integer> ids;
+    private String[] names;
+
+    /**
+     * Construct an empty table
+     */
+    SourceNames()
+    {
+        this.ids = new HashMap<>();
+        this.names = new String[0];
+    }
+
+    /**
+     * Find the id of a source name, adding it if it has not been seen before
+     *
+     * @param name name of the source
+     * @return id of the source, or -1 if there is no name
+     */
+    int id(final String name)
+    {
+        int id = -1;
+        if (name != null)
+        {
+            final Integer known = this.ids.get(name);
+            if (known == null)
+            {
+                id = this.names.length;
+                this.ids.put(name, id);
+                this.names = Arrays.copyOf(this.names, id + 1);
+                this.names[id] = name;
+            }
+            else
+            {
+                id = known;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Find the id of the source of an event in this table
+     *
+     * @param event event whose source is looked up
+     * @return id of the source, or -1 if the event has no source
+     */
+    int of(final Event event)
+    {
+        return event.names == this ? event.origin
+                : this.id(event.getSource());
+    }
+
+    /**
+     *
+     * @param id id of a source
+     * @return name of the source
+     */
+    String name(final int id)
+    {
+        return this.names[id];
+    }
+
+    /**
+     * Arrange generators by the id of their source
+     *
+     * @param generators generators by source name
+     * @return generators at the id of their source, <code>null</code> where
+     * there is none
+     */
+    Generator[] lookup(final Map<String, Generator> generators)
+    {
+        final Map<Integer, Generator> ids = new HashMap<>();
+        int length = 0;
+        for (final Map.Entry<String, Generator> entry : generators.entrySet())
+        {
+            final int id = this.id(entry.getKey());
+            ids.put(id, entry.getValue());
+            length = Math.max(length, id + 1);
+        }
+        final Generator[] lookup = new Generator[length];
+        for (final Map.Entry<Integer, Generator> entry : ids.entrySet())
+        {
+            lookup[entry.getKey()] = entry.getValue();
+        }
+        return lookup;
+    }
+
+    /**
+     * Convert a priority list of source names to the rank of each source id
+     *
+     * @param priorities source names from highest to lowest priority, or
+     * <code>null</code>
+     * @return priority by source id counting from 0 for the highest, or
+     * {@link Integer#MAX_VALUE} for a source that is not listed
+     */
+    int[] ranks(final List<String> priorities)
+    {
+        int length = 0;
+        final int[] ids = new int[priorities == null ? 0 : priorities.size()];
+        for (int index = 0; index < ids.length; index++)
+        {
+            ids[index] = this.id(priorities.get(index));
+            length = Math.max(length, ids[index] + 1);
+        }
+        final int[] ranks = new int[length];
+        Arrays.fill(ranks, Integer.MAX_VALUE);
+        int rank = 0;
+        for (final int id : ids)
+        {
+            // A source listed twice keeps its first place
+            if (ranks[id] == Integer.MAX_VALUE)
+            {
+                ranks[id] = rank++;
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * Give the sources and components of a model this table, with the
+     * sources first so their ids follow the order of the model
+     *
+     * @param sources event generation components in model order
+     * @param components all the components of the model
+     */
+    void bind(final Collection<Source> sources,
+            final Collection<Component> components)
+    {
+        for (final Source source : sources)
+        {
+            source.setNames(this);
+        }
+        for (final Component component : components)
+        {
+            component.getLocalEvents().setNames(this);
+            if (component instanceof Source source)
+            {
+                source.setNames(this);
+            }
+            else if (component instanceof Processor processor)
+            {
+                processor.setNames(this);
+            }
+            else if (component instanceof Throttle throttle)
+            {
+                throttle.setNames(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Stamp.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.List;
+
+/**
+ * Place of an event in the order one schedule for the whole model would have
+ * scheduled it, for partitions that each have their own schedule. One
+ * schedule breaks a tie of start and arrival times by the order events were
+ * scheduled, which is the order of the transitions that scheduled them, so
+ * a stamp holds the start and arrival times of that transition with the stamp
+ * the event had then. An event from a source is stamped with its own times
+ * and the position of the source in the model, as one schedule takes in
+ * arrivals before any transition at the same time. Events only keep their
+ * own history, so the chain is no longer than the path through the model.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+final class Stamp
+{
+
+    private final double started;
+    private final double arrived;
+    private final int origin;
+    private final Stamp previous;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Stamp()
+    {
+        this.started = 0;
+        this.arrived = 0;
+        this.origin = -1;
+        this.previous = null;
+    }
+
+    /**
+     * Stamp an event arriving from a source
+     *
+     * @param event entity generated by a source
+     */
+    Stamp(final Event event)
+    {
+        this.started = event.getStarted();
+        this.arrived = event.getArrived();
+        this.origin = event.origin;
+        this.previous = null;
+    }
+
+    /**
+     * Stamp an event with the transition about to be simulated for it
+     *
+     * @param event entity taken for its next transition
+     * @param previous stamp of the event when it was scheduled, or
+     * <code>null</code> if it has none
+     */
+    Stamp(final Event event, final Stamp previous)
+    {
+        this.started = event.getStarted();
+        this.arrived = event.getArrived();
+        this.origin = -1;
+        this.previous = previous;
+    }
+
+    /**
+     * Order events by when one schedule would have scheduled them
+     *
+     * @param first event to compare
+     * @param second event to compare with
+     * @return negative, zero or positive as the first was scheduled before,
+     * at the same time as or after the second
+     */
+    static int compare(final Event first, final Event second)
+    {
+        return Stamp.compare(first.stamp, second.stamp);
+    }
+
+    /**
+     * Put the completed events of all the partitions in the order one
+     * schedule would have completed them, by the stamps of the transitions
+     * that completed them, and let go of the stamps
+     *
+     * @param completed events that reached the end of their life
+     */
+    static void sort(final List<Event> completed)
+    {
+        completed.sort(Stamp::compare);
+        for (final Event event : completed)
+        {
+            event.stamp = null;
+        }
+    }
+
+    /**
+     * Order stamps by when one schedule would have scheduled the events that
+     * had them
+     *
+     * @param first stamp to compare, or <code>null</code>
+     * @param second stamp to compare with, or <code>null</code>
+     * @return negative, zero or positive as the first was scheduled before,
+     * at the same time as or after the second - zero if either is missing
+     */
+    static int compare(final Stamp first, final Stamp second)
+    {
+        Stamp one = first;
+        Stamp other = second;
+        int result = 0;
+        while (result == 0 && one != null && other != null)
+        {
+            result = Double.compare(one.started, other.started);
+            if (result == 0)
+            {
+                // Arrivals are taken in before transitions at the same time
+                result = Boolean.compare(one.origin < 0, other.origin < 0);
+            }
+            if (result == 0)
+            {
+                result = Double.compare(one.arrived, other.arrived);
+            }
+            if (result == 0)
+            {
+                result = Integer.compare(one.origin, other.origin);
+            }
+            one = one.previous;
+            other = other.previous;
+        }
+        return result;
+    }
+}
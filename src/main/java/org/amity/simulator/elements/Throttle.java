@@ -15,12 +15,12 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 import org.amity.simulator.data.QueueStatistics;
 import org.amity.simulator.generators.Generator;
 import org.amity.simulator.language.NameValue;
@@ -36,13 +36,22 @@ public class Throttle implements Component
     private final String label;
     private final Map<String, Generator> generators;
     private final Map<String, List<Function>> references;
-    private final String[] sources;
-    private final Set<String> priorities;
-    private final List<Event> local;
+    private final List<String> priorities;
+    private SourceNames names;
+    private Generator[] bySource;
+    private final Generator fallback;
+    private int[] ranks;
+    private final Visits local;
     private final boolean monitor;
+    private boolean recording;
     private double available;
-    private final List<Event> queue;
-    private final List<QueueStatistics> statistics;
+    int index;
+    private double released;
+    private long releases;
+    private int deferred;
+    private long moved;
+    private final EventQueue queue;
+    private final QueueStatistics statistics;
 
     /**
      * Hidden default constructor to avoid implicit creation
@@ -52,13 +61,22 @@ public class Throttle implements Component
         this.label = "dummy";
         this.generators = new HashMap<>();
         this.references = new HashMap<>();
-        this.local = new ArrayList<>();
+        this.local = new Visits();
         this.monitor = false;
+        this.recording = true;
         this.available = 0;
-        this.queue = new ArrayList<>();
-        this.statistics = new ArrayList<>();
-        this.sources = new String[0];
-        this.priorities = new HashSet<>();
+        this.index = -1;
+        this.released = 0;
+        this.releases = 0;
+        this.deferred = 0;
+        this.moved = 0;
+        this.queue = new EventQueue();
+        this.statistics = new QueueStatistics();
+        this.priorities = new ArrayList<>();
+        this.names = new SourceNames();
+        this.bySource = new Generator[0];
+        this.fallback = null;
+        this.ranks = new int[0];
     }
 
     public Throttle(final String label, final List<Generator> generators,
@@ -66,10 +84,12 @@ public class Throttle implements Component
     {
         this.label = label;
         this.generators = new HashMap<>();
-        this.local = new ArrayList<>();
+        this.local = new Visits();
         this.references = new HashMap<>();
         this.monitor = monitor;
+        this.recording = true;
         this.available = 0;
+        this.index = -1;
         // Put the generators into the source lookup
         if (generators != null && !generators.isEmpty())
         {
@@ -92,28 +112,32 @@ public class Throttle implements Component
                 references.putIfAbsent(reference, list);
             }
         }
-        this.sources = priorities == null ? new String[0]
-                : new String[priorities.size()];
-        if (this.sources.length > 0)
-        {
-            int index = 0;
-            // Priority order array
-            for (final String source : priorities)
-            {
-                this.sources[index++] = source;
-            }
-            // Convenience to avoid downstream conversion
-            this.priorities = new HashSet<>(priorities);
-        }
-        else
-        {
-            this.priorities = new HashSet<>();
-        }
+        // Look up generators and priorities by source id while simulating
+        this.priorities = priorities == null ? new ArrayList<>()
+                : new ArrayList<>(priorities);
+        this.names = new SourceNames();
+        this.bySource = this.names.lookup(this.generators);
+        this.fallback = this.generators.get(Vocabulary.DEFAULT);
+        this.ranks = this.names.ranks(this.priorities);
         // Initialize the queue handling
-        this.queue = new ArrayList<>();
-        this.statistics = new ArrayList<>();
-        final QueueStatistics value = new QueueStatistics(0, 0.0, 0.0);
-        this.statistics.add(value);
+        this.released = 0;
+        this.releases = 0;
+        this.deferred = 0;
+        this.moved = 0;
+        this.queue = new EventQueue();
+        this.statistics = new QueueStatistics();
+    }
+
+    /**
+     * Look up generators and priorities by the source ids of a model
+     *
+     * @param names source ids of the model this component is put into
+     */
+    void setNames(final SourceNames names)
+    {
+        this.names = names;
+        this.bySource = names.lookup(this.generators);
+        this.ranks = names.ranks(this.priorities);
     }
 
     @Override
@@ -135,31 +159,28 @@ public class Throttle implements Component
                 // Event not already noted to be in queue
                 if (!this.queue.contains(event))
                 {
-                    if (this.monitor && !this.statistics.isEmpty())
+                    if (this.monitor)
                     {
-                        // Update previous queue span statistics entry
-                        QueueStatistics stats = this.statistics.getLast();
-                        assert stats != null :
-                                "Unexpected null queue statistics";
-                        final double span = arrived - stats.getTime();
-                        stats.setSpan(span);
-                        // Add new queue span statistics
-                        stats = new QueueStatistics(this.queue.size() + 1,
-                                arrived, 0.0);
-                        statistics.add(stats);
+                        // Queue grows by this event from when it arrived
+                        this.statistics.change(this.queue.size() + 1, arrived);
                     }
                     this.queue.add(event);
+                    this.deferred++;
+                }
+                else if (event.deferral != this.releases)
+                {
+                    this.deferred++;
                 }
+                event.deferral = this.releases;
             }
             else
             {
                 // Generate processing times for this event at this component
-                final Generator generator
-                        = generators.containsKey(event.getSource())
-                        ? generators.get(event.getSource())
-                        : generators.containsKey(Vocabulary.DEFAULT)
-                        ? generators.get(Vocabulary.DEFAULT)
-                        : null;
+                final int origin = this.names.of(event);
+                final Generator generator = origin >= 0
+                        && origin < this.bySource.length
+                        && this.bySource[origin] != null
+                        ? this.bySource[origin] : this.fallback;
                 assert generator != null : "Should never be declared with no functions";
                 // Cool down time that is the throttle
                 final double value = generator.generate();
@@ -170,40 +191,49 @@ public class Throttle implements Component
                 final double start = this.available < arrived
                         ? arrived : this.available;
                 event.setValues(arrived, start, start);
+                // Events deferred since the last release wait until now
+                final double waiting = this.available;
                 // Availability is set for after the cooldown time
                 this.available += value;
-                // Copy current event to local stats
-                final Event current = new Event(event);
-                current.setComponent(null);
-                this.local.add(current);
+                // Record values of current event for local stats
+                if (this.recording)
+                {
+                    this.local.add(event);
+                }
                 // Modify global event to next component to pass through
                 event.setComponent(generator.getNext());
                 // Remove event from queue as it has been processed
                 if (!this.queue.isEmpty())
                 {
+                    if (this.queue.contains(event)
+                            && event.deferral == this.releases)
+                    {
+                        this.deferred--;
+                    }
                     this.queue.remove(event);
-                    if (this.monitor && !this.statistics.isEmpty())
+                    if (this.monitor)
                     {
-                        // Update previous queue span statistics entry
-                        QueueStatistics stats = this.statistics.getLast();
-                        assert stats != null :
-                                "Unexpected null queue statistics";
-                        final double span = start - stats.getTime();
-                        stats.setSpan(span);
-                        // Add new queue span statistics
-                        stats = new QueueStatistics(this.queue.size(),
-                                start, 0.0);
-                        statistics.add(stats);
+                        // Queue shrinks by this event from when it started
+                        this.statistics.change(this.queue.size(), start);
                     }
                 }
-                // Adjust queued events to possible available execution time
-                if (!this.queue.isEmpty())
+                // Queued events can start from this release - those deferred
+                // since the last one wait from then and the rest from the
+                // last release, so only events released out of time order
+                // mean any have to be moved
+                if ((this.deferred > 0 && waiting != start)
+                        || (this.deferred < this.queue.size()
+                        && this.released != start))
                 {
-                    for (final Event queuedEvent : queue)
+                    for (final Event queuedEvent : this.queue)
                     {
                         queuedEvent.setStarted(start);
                     }
+                    this.moved++;
                 }
+                this.released = start;
+                this.releases++;
+                this.deferred = 0;
             }
         }
         return event;
@@ -211,11 +241,23 @@ public class Throttle implements Component
 
 
     @Override
-    public List<Event> getLocalEvents()
+    public Visits getLocalEvents()
     {
         return this.local;
     }
 
+    @Override
+    public void setRecording(final boolean all)
+    {
+        this.recording = all || this.monitor;
+    }
+
+    @Override
+    public boolean isRecording()
+    {
+        return this.recording;
+    }
+
     @Override
     public void reset()
     {
@@ -238,7 +280,7 @@ public class Throttle implements Component
     }
 
     @Override
-    public List<QueueStatistics> getQueueStatistics()
+    public QueueStatistics getQueueStatistics()
     {
         return this.statistics;
     }
@@ -288,12 +330,97 @@ public class Throttle implements Component
         return this.references;
     }
 
+    @Override
+    public List<Function> getFunctions()
+    {
+        // Ordered by source name as the lookup has no order of its own
+        return new ArrayList<>(new TreeMap<>(this.generators).values());
+    }
+
     @Override
     public double getAvailable()
     {
         return this.available;
     }
 
+    @Override
+    public Object save(final Event event)
+    {
+        return new Saved(new Memento(this.available, 0, this.local,
+                this.queue, event, this.monitor ? this.statistics : null,
+                this.generators.values()), this, event);
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        final Saved saved = (Saved) state;
+        saved.memento.restore(this.local, this.queue, this.statistics,
+                this.generators.values());
+        this.available = saved.memento.value;
+        // Queued events were moved by a release so put them back to when
+        // they waited from before it
+        if (this.moved != saved.moved)
+        {
+            for (final Event queuedEvent : this.queue)
+            {
+                queuedEvent.setStarted(queuedEvent.deferral == saved.releases
+                        ? this.available : saved.released);
+            }
+        }
+        this.released = saved.released;
+        this.releases = saved.releases;
+        this.deferred = saved.deferred;
+        this.moved = saved.moved;
+        if (saved.event != null)
+        {
+            saved.event.deferral = saved.deferral;
+        }
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        ((Saved) state).memento.commit(this.generators.values());
+    }
+
+    @Override
+    public void write(final Checkpoint checkpoint) throws IOException
+    {
+        checkpoint.getOutput().writeDouble(this.available);
+        checkpoint.writeRecords(this.local);
+        checkpoint.writeEvents(this.queue);
+        checkpoint.getOutput().writeDouble(this.released);
+        checkpoint.getOutput().writeLong(this.releases);
+        for (final Event queuedEvent : this.queue)
+        {
+            checkpoint.getOutput().writeLong(queuedEvent.deferral);
+        }
+        this.statistics.write(checkpoint.getOutput());
+        checkpoint.writeFunctions(this.generators);
+    }
+
+    @Override
+    public void read(final Checkpoint checkpoint) throws IOException
+    {
+        this.available = checkpoint.getInput().readDouble();
+        checkpoint.readRecords(this.local);
+        checkpoint.readEvents(this.queue);
+        this.released = checkpoint.getInput().readDouble();
+        this.releases = checkpoint.getInput().readLong();
+        this.deferred = 0;
+        for (final Event queuedEvent : this.queue)
+        {
+            queuedEvent.deferral = checkpoint.getInput().readLong();
+            if (queuedEvent.deferral == this.releases)
+            {
+                this.deferred++;
+            }
+        }
+        this.statistics.read(checkpoint.getInput());
+        checkpoint.readFunctions(this.generators);
+    }
+
     @Override
     public void prioritize(final Sequencer sequencer, final boolean explore)
     {
@@ -319,8 +446,9 @@ public class Throttle implements Component
         }
         else
         {
-            sequencer.sources = this.sources;
-            sequencer.priorities = this.priorities;
+            sequencer.ranks = this.ranks;
+            sequencer.names = this.names;
+            sequencer.target = this.index;
             sequencer.paths.add(this);
         }
     }
@@ -359,4 +487,39 @@ public class Throttle implements Component
                 = new Throttle(label, generators, priorities, monitor);
         return throttle;
     }
+
+    /**
+     * Throttle state saved before an event passes through - the common
+     * component state along with when queued events wait from
+     */
+    private static class Saved
+    {
+
+        private final Memento memento;
+        private final double released;
+        private final long releases;
+        private final int deferred;
+        private final long moved;
+        private final Event event;
+        private final long deferral;
+
+        /**
+         * Save throttle state
+         *
+         * @param memento common component state
+         * @param throttle component being saved
+         * @param event entity about to pass through the component
+         */
+        private Saved(final Memento memento, final Throttle throttle,
+                final Event event)
+        {
+            this.memento = memento;
+            this.released = throttle.released;
+            this.releases = throttle.releases;
+            this.deferred = throttle.deferred;
+            this.moved = throttle.moved;
+            this.event = event;
+            this.deferral = event == null ? 0 : event.deferral;
+        }
+    }
 }
@@ -0,0 +1,270 @@
+/*
+ * TimeWarp.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Optimistic parallel simulation of a partitioned model. Partitions do not
+ * wait for each other - each simulates ahead on its own thread within a time
+ * window, sending events to other partitions as it goes and, when an event
+ * from another partition turns out to be earlier than transitions it has
+ * already simulated, it rolls back and cancels any events it sent in error.
+ * At the end of each window the last events are delivered and the global
+ * virtual time - the earliest time any partition still has to simulate - is
+ * found. Nothing before it can be rolled back, so the journals are cut back
+ * to it to bound memory. The window widens while roll backs are rare and
+ * narrows when they are not. Events of the same time are scheduled, rolled
+ * back and completed in the order of their stamps, so the result is exactly
+ * that of one simulation whatever order the partitions exchange events in.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class TimeWarp
+{
+
+    private final static double WINDOW = 1.0;
+    private final List<Simulator> partitions;
+    private final Map<Component, Simulator> owners;
+    private final boolean verbose;
+    final List<Event> completed;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private TimeWarp()
+    {
+        this.partitions = new ArrayList<>();
+        this.owners = new HashMap<>();
+        this.verbose = false;
+        this.completed = new ArrayList<>();
+    }
+
+    /**
+     * Construct optimistic partitioned simulation
+     *
+     * @param components all the components of the model
+     * @param sources event generation components in model order
+     * @param generate end-point in ticks for the simulation completion
+     * @param schedule future event list implementation for each partition
+     * @param count number of partitions wanted
+     * @param verbose show simulation progress if <code>true</code>
+     */
+    TimeWarp(final Collection<Component> components,
+            final List<Source> sources, final double generate,
+            final String schedule, final int count, final boolean verbose)
+    {
+        final Partitioner partitioner = new Partitioner(components, true);
+        final Map<Component, Integer> assignment = partitioner.assign(count);
+        int size = 0;
+        for (final Integer index : assignment.values())
+        {
+            size = Math.max(size, index + 1);
+        }
+        // Sources feed the partition they belong to
+        final List<List<Source>> feeds = new ArrayList<>();
+        // Re-prioritization can change any balancer in the partition
+        final List<List<Component>> shared = new ArrayList<>();
+        for (int index = 0; index < size; index++)
+        {
+            feeds.add(new ArrayList<>());
+            shared.add(new ArrayList<>());
+        }
+        for (final Source source : sources)
+        {
+            feeds.get(assignment.get(source)).add(source);
+        }
+        final boolean prioritized = partitioner.isPrioritized();
+        if (prioritized)
+        {
+            for (final Component component : components)
+            {
+                if (component instanceof Balancer)
+                {
+                    shared.get(assignment.get(component)).add(component);
+                }
+            }
+        }
+        this.owners = new HashMap<>();
+        this.partitions = new ArrayList<>();
+        for (int index = 0; index < size; index++)
+        {
+            this.partitions.add(new Simulator(feeds.get(index), generate,
+                    Schedule.instance(schedule), this.owners,
+                    shared.get(index), prioritized));
+        }
+        for (final Map.Entry<Component, Integer> entry : assignment.entrySet())
+        {
+            this.owners.put(entry.getKey(),
+                    this.partitions.get(entry.getValue()));
+        }
+        this.verbose = verbose;
+        this.completed = new ArrayList<>();
+    }
+
+    /**
+     *
+     * @return number of partitions being simulated
+     */
+    int size()
+    {
+        return this.partitions.size();
+    }
+
+    /**
+     * Run the simulation
+     *
+     * @return <code>true</code> if simulation completed
+     */
+    boolean execute()
+    {
+        if (this.verbose)
+        {
+            System.out.println("  Start optimistic simulation of "
+                    + this.partitions.size() + " partitions");
+        }
+        final ExecutorService executor
+                = Executors.newFixedThreadPool(this.partitions.size());
+        boolean success = true;
+        long windows = 0;
+        double window = WINDOW;
+        try
+        {
+            while (true)
+            {
+                // Global virtual time - nothing earlier can be rolled back
+                double floor = Double.POSITIVE_INFINITY;
+                for (final Simulator partition : this.partitions)
+                {
+                    floor = Math.min(floor, partition.next());
+                }
+                if (floor == Double.POSITIVE_INFINITY)
+                {
+                    break;
+                }
+                // Transitions kept count those undone again, so totals
+                // before the window are taken to count all those simulated
+                int simulated = 0;
+                int undone = 0;
+                for (final Simulator partition : this.partitions)
+                {
+                    partition.commit(floor);
+                    simulated -= partition.getTransitions()
+                            + partition.getRollbacks();
+                    undone -= partition.getRollbacks();
+                }
+                // Never narrower than the gap to the next representable
+                // time, so the partition holding the global virtual time
+                // always simulates its earliest event
+                window = Math.max(window, Math.ulp(floor));
+                final double limit = floor + window;
+                final List<Callable<Void>> tasks = new ArrayList<>();
+                for (final Simulator partition : this.partitions)
+                {
+                    tasks.add(() ->
+                    {
+                        partition.advance(limit);
+                        return null;
+                    });
+                }
+                for (final Future<Void> future : executor.invokeAll(tasks))
+                {
+                    future.get();
+                }
+                windows++;
+                this.exchange();
+                for (final Simulator partition : this.partitions)
+                {
+                    simulated += partition.getTransitions()
+                            + partition.getRollbacks();
+                    undone += partition.getRollbacks();
+                }
+                // Widen the window while speculation mostly pays off
+                if (undone * 2 > simulated)
+                {
+                    window /= 2;
+                }
+                else if (undone * 10 < simulated)
+                {
+                    window *= 2;
+                }
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            System.err.println("Optimistic simulation interrupted");
+            success = false;
+        }
+        catch (ExecutionException exception)
+        {
+            System.err.println("Optimistic simulation failed: "
+                    + exception.getCause());
+            success = false;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        int transitions = 0;
+        int rollbacks = 0;
+        for (final Simulator partition : this.partitions)
+        {
+            partition.finish();
+            transitions += partition.getTransitions();
+            rollbacks += partition.getRollbacks();
+            this.completed.addAll(partition.completed);
+        }
+        Stamp.sort(this.completed);
+        if (this.verbose)
+        {
+            System.out.println("  Simulation transitions to complete: "
+                    + transitions + " in " + windows + " windows with "
+                    + rollbacks + " rolled back");
+        }
+        return success;
+    }
+
+    /**
+     * Deliver events and cancellations still waiting to be picked up, in
+     * partition order - cancellation can roll back further partitions in turn
+     */
+    private void exchange()
+    {
+        boolean delivering = true;
+        while (delivering)
+        {
+            delivering = false;
+            for (final Simulator partition : this.partitions)
+            {
+                delivering |= partition.deliver();
+            }
+        }
+    }
+}
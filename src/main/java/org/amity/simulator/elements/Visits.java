@@ -0,0 +1,445 @@
+/*
+ * Visits.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Columnar record of the events that passed through a component. Adding an
+ * event copies its times into fixed size pages of primitive arrays, with the
+ * id of its source name in the source ids of the model and a reference to
+ * its label, so recording a visit
+ * does not allocate apart from a new page now and again, and pages are never
+ * copied to grow. Statistics are read straight
+ * from the columns. Reading a record back as an event gives a detached event
+ * holding the recorded values, which shares nothing with the event it came
+ * from.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class Visits extends AbstractList<Event> implements RandomAccess
+{
+
+    private final static int SHIFT = 10;
+    private final static int PAGE = 1 << SHIFT;
+    private final static int MASK = PAGE - 1;
+    private SourceNames names;
+    private int[][] sources;
+    private String[][] labels;
+    private double[][] created;
+    private double[][] arrived;
+    private double[][] started;
+    private double[][] completed;
+    private double[][] executed;
+    private int pages;
+    private int size;
+
+    /**
+     * Construct empty record of visits
+     */
+    public Visits()
+    {
+        this.names = new SourceNames();
+        this.sources = new int[1][];
+        this.labels = new String[1][];
+        this.created = new double[1][];
+        this.arrived = new double[1][];
+        this.started = new double[1][];
+        this.completed = new double[1][];
+        this.executed = new double[1][];
+        this.pages = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Record sources by their ids in the source ids of a model - only before
+     * anything is recorded
+     *
+     * @param names source ids of the model the component is put into
+     */
+    void setNames(final SourceNames names)
+    {
+        assert this.size == 0 : "Ids already recorded in another table";
+        this.names = names;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public Event get(final int index)
+    {
+        this.check(index);
+        final int page = index >>> SHIFT;
+        final int slot = index & MASK;
+        return new Event(this.names, this.sources[page][slot],
+                this.labels[page][slot], this.created[page][slot],
+                this.arrived[page][slot], this.started[page][slot],
+                this.completed[page][slot], this.executed[page][slot]);
+    }
+
+    @Override
+    public Event set(final int index, final Event event)
+    {
+        final Event previous = this.get(index);
+        this.put(index, event);
+        return previous;
+    }
+
+    @Override
+    public boolean add(final Event event)
+    {
+        if (this.size == this.pages << SHIFT)
+        {
+            this.grow();
+        }
+        this.put(this.size++, event);
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public Event remove(final int index)
+    {
+        final Event previous = this.get(index);
+        this.removeRange(index, index + 1);
+        return previous;
+    }
+
+    @Override
+    public void clear()
+    {
+        this.removeRange(0, this.size);
+    }
+
+    @Override
+    protected void removeRange(final int from, final int to)
+    {
+        // Records are normally only dropped from the end, so moving one at a
+        // time is fine
+        for (int index = to; index < this.size; index++)
+        {
+            this.move(index, index - (to - from));
+        }
+        final int size = this.size - (to - from);
+        for (int index = size; index < this.size; index++)
+        {
+            // Let go of the labels so they are not held past their records
+            this.sources[index >>> SHIFT][index & MASK] = -1;
+            this.labels[index >>> SHIFT][index & MASK] = null;
+        }
+        this.size = size;
+        // Let go of pages that are no longer needed
+        final int pages = (size + MASK) >>> SHIFT;
+        for (int page = pages; page < this.pages; page++)
+        {
+            this.sources[page] = null;
+            this.labels[page] = null;
+            this.created[page] = null;
+            this.arrived[page] = null;
+            this.started[page] = null;
+            this.completed[page] = null;
+            this.executed[page] = null;
+        }
+        this.pages = pages;
+        this.modCount++;
+    }
+
+    /**
+     *
+     * @param index position of the record
+     * @return id of the source of the event, named by {@link #getName(int)}
+     */
+    public int getSource(final int index)
+    {
+        this.check(index);
+        return this.sources[index >>> SHIFT][index & MASK];
+    }
+
+    /**
+     *
+     * @param source id of a source
+     * @return name of the source
+     */
+    public String getName(final int source)
+    {
+        return this.names.name(source);
+    }
+
+    /**
+     *
+     * @param index position of the record
+     * @return time the event was created
+     */
+    public double getCreated(final int index)
+    {
+        this.check(index);
+        return this.created[index >>> SHIFT][index & MASK];
+    }
+
+    /**
+     *
+     * @param index position of the record
+     * @return time the event arrived at the component
+     */
+    public double getArrived(final int index)
+    {
+        this.check(index);
+        return this.arrived[index >>> SHIFT][index & MASK];
+    }
+
+    /**
+     *
+     * @param index position of the record
+     * @return time the component began processing the event
+     */
+    public double getStarted(final int index)
+    {
+        this.check(index);
+        return this.started[index >>> SHIFT][index & MASK];
+    }
+
+    /**
+     *
+     * @param index position of the record
+     * @return time the event finished at the component
+     */
+    public double getCompleted(final int index)
+    {
+        this.check(index);
+        return this.completed[index >>> SHIFT][index & MASK];
+    }
+
+    /**
+     * Put the records in order of arrival time, keeping the order of records
+     * that arrived at the same time
+     */
+    public void sortByArrival()
+    {
+        this.sort(this.arrived);
+    }
+
+    /**
+     * Put the records in order of creation time, keeping the order of records
+     * created at the same time
+     */
+    public void sortByCreation()
+    {
+        this.sort(this.created);
+    }
+
+    /**
+     * Stable sort of the records on a column, skipped if they are already in
+     * order as they mostly are
+     *
+     * @param keys column to sort on
+     */
+    private void sort(final double[][] keys)
+    {
+        boolean sorted = true;
+        for (int index = 1; sorted && index < this.size; index++)
+        {
+            sorted = Double.compare(this.value(keys, index - 1),
+                    this.value(keys, index)) <= 0;
+        }
+        if (!sorted)
+        {
+            int[] order = new int[this.size];
+            int[] merged = new int[this.size];
+            for (int index = 0; index < this.size; index++)
+            {
+                order[index] = index;
+            }
+            // Bottom up merge sort of record positions
+            for (int width = 1; width < this.size; width *= 2)
+            {
+                for (int low = 0; low < this.size; low += 2 * width)
+                {
+                    final int middle = Math.min(low + width, this.size);
+                    final int high = Math.min(low + 2 * width, this.size);
+                    int left = low;
+                    int right = middle;
+                    for (int index = low; index < high; index++)
+                    {
+                        if (left < middle && (right >= high
+                                || Double.compare(this.value(keys,
+                                        order[left]), this.value(keys,
+                                                order[right])) <= 0))
+                        {
+                            merged[index] = order[left++];
+                        }
+                        else
+                        {
+                            merged[index] = order[right++];
+                        }
+                    }
+                }
+                final int[] swap = order;
+                order = merged;
+                merged = swap;
+            }
+            this.reorder(order);
+            this.modCount++;
+        }
+    }
+
+    /**
+     * Rearrange every column into a new order
+     *
+     * @param order position of the record to put at each position
+     */
+    private void reorder(final int[] order)
+    {
+        final int[][] sources = new int[this.sources.length][];
+        final String[][] labels = new String[this.labels.length][];
+        final double[][] created = new double[this.created.length][];
+        final double[][] arrived = new double[this.arrived.length][];
+        final double[][] started = new double[this.started.length][];
+        final double[][] completed = new double[this.completed.length][];
+        final double[][] executed = new double[this.executed.length][];
+        for (int page = 0; page < this.pages; page++)
+        {
+            sources[page] = new int[PAGE];
+            labels[page] = new String[PAGE];
+            created[page] = new double[PAGE];
+            arrived[page] = new double[PAGE];
+            started[page] = new double[PAGE];
+            completed[page] = new double[PAGE];
+            executed[page] = new double[PAGE];
+        }
+        for (int index = 0; index < this.size; index++)
+        {
+            final int page = index >>> SHIFT;
+            final int slot = index & MASK;
+            final int from = order[index];
+            final int origin = from >>> SHIFT;
+            final int position = from & MASK;
+            sources[page][slot] = this.sources[origin][position];
+            labels[page][slot] = this.labels[origin][position];
+            created[page][slot] = this.created[origin][position];
+            arrived[page][slot] = this.arrived[origin][position];
+            started[page][slot] = this.started[origin][position];
+            completed[page][slot] = this.completed[origin][position];
+            executed[page][slot] = this.executed[origin][position];
+        }
+        this.sources = sources;
+        this.labels = labels;
+        this.created = created;
+        this.arrived = arrived;
+        this.started = started;
+        this.completed = completed;
+        this.executed = executed;
+    }
+
+    /**
+     *
+     * @param column column of times
+     * @param index position of the record
+     * @return value in the column for the record
+     */
+    private double value(final double[][] column, final int index)
+    {
+        return column[index >>> SHIFT][index & MASK];
+    }
+
+    /**
+     * Copy the values of an event into a record
+     *
+     * @param index position of the record
+     * @param event event passing through the component
+     */
+    private void put(final int index, final Event event)
+    {
+        final int page = index >>> SHIFT;
+        final int slot = index & MASK;
+        this.sources[page][slot] = this.names.of(event);
+        this.labels[page][slot] = event.getLabel();
+        this.created[page][slot] = event.getCreated();
+        this.arrived[page][slot] = event.getArrived();
+        this.started[page][slot] = event.getStarted();
+        this.completed[page][slot] = event.getCompleted();
+        this.executed[page][slot] = event.getExecuted();
+    }
+
+    /**
+     * Copy one record over another
+     *
+     * @param from position of the record to copy
+     * @param to position of the record to overwrite
+     */
+    private void move(final int from, final int to)
+    {
+        final int page = from >>> SHIFT;
+        final int slot = from & MASK;
+        final int target = to >>> SHIFT;
+        final int position = to & MASK;
+        this.sources[target][position] = this.sources[page][slot];
+        this.labels[target][position] = this.labels[page][slot];
+        this.created[target][position] = this.created[page][slot];
+        this.arrived[target][position] = this.arrived[page][slot];
+        this.started[target][position] = this.started[page][slot];
+        this.completed[target][position] = this.completed[page][slot];
+        this.executed[target][position] = this.executed[page][slot];
+    }
+
+    /**
+     * Add a page of room for records
+     */
+    private void grow()
+    {
+        if (this.pages == this.created.length)
+        {
+            final int capacity = this.pages * 2;
+            this.sources = Arrays.copyOf(this.sources, capacity);
+            this.labels = Arrays.copyOf(this.labels, capacity);
+            this.created = Arrays.copyOf(this.created, capacity);
+            this.arrived = Arrays.copyOf(this.arrived, capacity);
+            this.started = Arrays.copyOf(this.started, capacity);
+            this.completed = Arrays.copyOf(this.completed, capacity);
+            this.executed = Arrays.copyOf(this.executed, capacity);
+        }
+        this.sources[this.pages] = new int[PAGE];
+        this.labels[this.pages] = new String[PAGE];
+        this.created[this.pages] = new double[PAGE];
+        this.arrived[this.pages] = new double[PAGE];
+        this.started[this.pages] = new double[PAGE];
+        this.completed[this.pages] = new double[PAGE];
+        this.executed[this.pages] = new double[PAGE];
+        this.pages++;
+    }
+
+    /**
+     *
+     * @param index position of a record
+     */
+    private void check(final int index)
+    {
+        if (index < 0 || index >= this.size)
+        {
+            throw new IndexOutOfBoundsException("Index " + index
+                    + " out of bounds for length " + this.size);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Algorithm.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.generators;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.random.RandomGeneratorFactory;
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Random number engine backed by one of the algorithms of the Java platform,
+ * such as the LXM and Xoroshiro families. Every value is derived from the
+ * 64-bit output of the algorithm, so the number of values drawn is enough to
+ * put the engine back where it was - the state of the algorithms cannot be
+ * read, so it is serialized as its seed and the number drawn, and wound
+ * forward to the same point when it is read back.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Algorithm implements RandomGenerator,
+        java.util.random.RandomGenerator, Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+    private final String name;
+    private long seed;
+    private long draws;
+    private transient java.util.random.RandomGenerator engine;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Algorithm()
+    {
+        this.name = null;
+        this.seed = 0;
+        this.draws = 0;
+        this.engine = null;
+    }
+
+    /**
+     * Construct engine for a named algorithm
+     *
+     * @param name name of the algorithm of the Java platform
+     * @param seed starting point for random values
+     */
+    Algorithm(final String name, final long seed)
+    {
+        this.name = name;
+        this.setSeed(seed);
+    }
+
+    /**
+     *
+     * @return name of the algorithm
+     */
+    String getName()
+    {
+        return this.name;
+    }
+
+    @Override
+    public void setSeed(final long seed)
+    {
+        this.seed = seed;
+        this.draws = 0;
+        this.engine = RandomGeneratorFactory.of(this.name).create(seed);
+    }
+
+    @Override
+    public void setSeed(final int seed)
+    {
+        this.setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(final int[] seed)
+    {
+        long combined = 0;
+        for (final int value : seed)
+        {
+            combined = combined * 31 + value;
+        }
+        this.setSeed(combined);
+    }
+
+    @Override
+    public long nextLong()
+    {
+        this.draws++;
+        return this.engine.nextLong();
+    }
+
+    // Everything else comes from nextLong through the platform defaults
+
+    @Override
+    public int nextInt()
+    {
+        return java.util.random.RandomGenerator.super.nextInt();
+    }
+
+    @Override
+    public int nextInt(final int bound)
+    {
+        return java.util.random.RandomGenerator.super.nextInt(bound);
+    }
+
+    @Override
+    public boolean nextBoolean()
+    {
+        return java.util.random.RandomGenerator.super.nextBoolean();
+    }
+
+    @Override
+    public float nextFloat()
+    {
+        return java.util.random.RandomGenerator.super.nextFloat();
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        return java.util.random.RandomGenerator.super.nextDouble();
+    }
+
+    @Override
+    public double nextGaussian()
+    {
+        return java.util.random.RandomGenerator.super.nextGaussian();
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes)
+    {
+        java.util.random.RandomGenerator.super.nextBytes(bytes);
+    }
+
+    /**
+     * Re-create the algorithm and wind it forward to where it was
+     *
+     * @param stream serialization stream
+     * @throws IOException if the stream cannot be read
+     * @throws ClassNotFoundException if the stream holds an unknown class
+     */
+    private void readObject(final ObjectInputStream stream)
+            throws IOException, ClassNotFoundException
+    {
+        stream.defaultReadObject();
+        final long count = this.draws;
+        try
+        {
+            this.engine = RandomGeneratorFactory.of(this.name)
+                    .create(this.seed);
+        }
+        catch (IllegalArgumentException exception)
+        {
+            throw new IOException("Unknown random number algorithm "
+                    + this.name, exception);
+        }
+        for (long draw = 0; draw < count; draw++)
+        {
+            this.engine.nextLong();
+        }
+    }
+}
@@ -20,6 +20,9 @@
 
 package org.amity.simulator.generators;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import org.amity.simulator.language.NameValue;
 import org.amity.simulator.language.Vocabulary;
@@ -71,6 +74,12 @@ public class Constant implements Generator
         return this.period;
     }    
 
+    @Override
+    public double minimum()
+    {
+        return this.period;
+    }
+
     @Override
     public String characteristics()
     {
@@ -80,6 +89,38 @@ public class Constant implements Generator
         return string.toString();
     }
 
+    @Override
+    public Object save()
+    {
+        return null;
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+    }
+
+    @Override
+    public void write(final DataOutput output)
+    {
+    }
+
+    @Override
+    public void read(final DataInput input)
+    {
+    }
+
+    @Override
+    public void seed(final String engine, final long seed)
+    {
+        // Nothing random to seed
+    }
+
     @Override
     public String getSource()
     {
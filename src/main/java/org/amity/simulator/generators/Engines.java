@@ -0,0 +1,120 @@
+/*
+ * Engines.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.generators;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGeneratorFactory;
+import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Random number engines that generators and distributors can draw from, by
+ * name. Besides the original JDK engine and the Mersenne Twister, any
+ * repeatable algorithm of the Java platform can be used - the LXM family,
+ * Xoroshiro128PlusPlus, Xoshiro256PlusPlus and so on. The platform
+ * algorithms do not synchronize on every value drawn so are much faster.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public final class Engines
+{
+
+    public final static String JDK = "jdk";
+    public final static String MERSENNE = "mersenne";
+    public final static String DEFAULT = "L64X128MixRandom";
+
+    /**
+     * Hidden default constructor - only static methods
+     */
+    private Engines()
+    {
+    }
+
+    /**
+     *
+     * @return names of all the engines that can be used
+     */
+    public static Set<String> names()
+    {
+        final Set<String> names = new TreeSet<>();
+        names.add(JDK);
+        names.add(MERSENNE);
+        RandomGeneratorFactory.all()
+                .filter(factory -> !factory.isDeprecated()
+                        && !factory.isStochastic())
+                .forEach(factory -> names.add(factory.name()));
+        return names;
+    }
+
+    /**
+     *
+     * @param name name of engine
+     * @return <code>true</code> if the engine can be used
+     */
+    public static boolean isAvailable(final String name)
+    {
+        return name != null && Engines.names().contains(name);
+    }
+
+    /**
+     * Create an engine starting from a seed
+     *
+     * @param name name of engine
+     * @param seed starting point for random values
+     * @return engine, or <code>null</code> if there is no engine with the
+     * name
+     */
+    public static RandomGenerator create(final String name, final long seed)
+    {
+        final RandomGenerator engine;
+        if (JDK.equals(name))
+        {
+            engine = new JDKRandomGenerator();
+            engine.setSeed(seed);
+        }
+        else if (MERSENNE.equals(name))
+        {
+            engine = new MersenneTwister(seed);
+        }
+        else if (Engines.isAvailable(name))
+        {
+            engine = new Algorithm(name, seed);
+        }
+        else
+        {
+            engine = null;
+        }
+        return engine;
+    }
+
+    /**
+     * Create the default engine with a seed picked at random, for functions
+     * that have not been seeded
+     *
+     * @return engine
+     */
+    public static RandomGenerator create()
+    {
+        return Engines.create(DEFAULT, ThreadLocalRandom.current().nextLong());
+    }
+}
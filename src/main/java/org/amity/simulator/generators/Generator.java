@@ -40,6 +40,12 @@ public interface Generator extends Function
      */
     double generate();
 
+    /**
+     * 
+     * @return smallest value that can be generated
+     */
+    double minimum();
+
     /**
      * 
      * @return name of associated event source
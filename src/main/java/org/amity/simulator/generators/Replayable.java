@@ -0,0 +1,375 @@
+/*
+ * Replayable.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.generators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Random number source that can be wound back to repeat values it has already
+ * produced, so a simulation that is rolled back draws the same values again.
+ * Values are only kept once a position has been marked, and only until that
+ * position is released, so there is no cost when no rollback is possible.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class Replayable implements RandomGenerator
+{
+
+    private final static int CAPACITY = 64;
+    private RandomGenerator generator;
+    private long[] history;
+    private int first;
+    private int size;
+    private long base;
+    private long position;
+    private boolean recording;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Replayable()
+    {
+        this.generator = null;
+        this.history = new long[0];
+        this.first = 0;
+        this.size = 0;
+        this.base = 0;
+        this.position = 0;
+        this.recording = false;
+    }
+
+    /**
+     * Construct replayable source over a random number generator
+     *
+     * @param generator source of new random values
+     */
+    public Replayable(final RandomGenerator generator)
+    {
+        this.generator = generator;
+        this.history = new long[0];
+        this.first = 0;
+        this.size = 0;
+        this.base = 0;
+        this.position = 0;
+        this.recording = false;
+    }
+
+    /**
+     * Start keeping values from the current position so they can be repeated
+     *
+     * @return number of values drawn so far
+     */
+    public long mark()
+    {
+        if (!this.recording)
+        {
+            this.recording = true;
+            this.base = this.position;
+            this.history = new long[CAPACITY];
+        }
+        return this.position;
+    }
+
+    /**
+     * Wind back so that the next values drawn repeat those drawn from a
+     * marked position onwards
+     *
+     * @param position number of values drawn at the marked position
+     */
+    public void rewind(final long position)
+    {
+        assert position >= this.base && position <= this.position :
+                "Values before the position have been released";
+        this.position = position;
+    }
+
+    /**
+     * Discard kept values before a position that will not be rewound to again
+     *
+     * @param position number of values drawn at the released position
+     */
+    public void release(final long position)
+    {
+        final long limit = Math.min(position, this.position);
+        if (limit > this.base)
+        {
+            final int count = (int) (limit - this.base);
+            this.first = (this.first + count) % this.history.length;
+            this.size -= count;
+            this.base = limit;
+        }
+    }
+
+    /**
+     * Replace the underlying generator, discarding any values kept for
+     * repeating
+     *
+     * @param generator source of new random values
+     */
+    public void replace(final RandomGenerator generator)
+    {
+        this.generator = generator;
+        this.history = new long[0];
+        this.first = 0;
+        this.size = 0;
+        this.base = this.position;
+        this.recording = false;
+    }
+
+    /**
+     * Write the state of the underlying generator to a checkpoint - the
+     * generator must be serializable
+     *
+     * @param output checkpoint stream
+     * @throws IOException if the generator state cannot be written
+     */
+    public void write(final DataOutput output) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes))
+        {
+            stream.writeObject(this.generator);
+        }
+        output.writeInt(bytes.size());
+        output.write(bytes.toByteArray());
+    }
+
+    /**
+     * Replace the underlying generator with one read from a checkpoint,
+     * discarding any values kept for repeating
+     *
+     * @param input checkpoint stream
+     * @throws IOException if the generator state cannot be read
+     */
+    public void read(final DataInput input) throws IOException
+    {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        try (ObjectInputStream stream
+                = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+        {
+            this.replace((RandomGenerator) stream.readObject());
+        }
+        catch (ClassNotFoundException | ClassCastException exception)
+        {
+            throw new IOException("Unknown random generator", exception);
+        }
+    }
+
+    /**
+     *
+     * @return <code>true</code> if the next value is repeated from history
+     */
+    private boolean replaying()
+    {
+        return this.position < this.base + this.size;
+    }
+
+    /**
+     * Repeat value from history
+     *
+     * @return raw bits of value at the current position
+     */
+    private long replay()
+    {
+        final long bits = this.history[(this.first
+                + (int) (this.position - this.base)) % this.history.length];
+        this.position++;
+        return bits;
+    }
+
+    /**
+     * Keep newly drawn value if values are being kept
+     *
+     * @param bits raw bits of value at the current position
+     */
+    private void record(final long bits)
+    {
+        if (this.recording)
+        {
+            if (this.size == this.history.length)
+            {
+                // Unroll into larger buffer
+                final long[] larger = new long[this.history.length * 2];
+                for (int index = 0; index < this.size; index++)
+                {
+                    larger[index] = this.history[(this.first + index)
+                            % this.history.length];
+                }
+                this.history = larger;
+                this.first = 0;
+            }
+            this.history[(this.first + this.size) % this.history.length]
+                    = bits;
+            this.size++;
+        }
+        else
+        {
+            this.base++;
+        }
+        this.position++;
+    }
+
+    @Override
+    public void setSeed(final int seed)
+    {
+        this.generator.setSeed(seed);
+    }
+
+    @Override
+    public void setSeed(final int[] seed)
+    {
+        this.generator.setSeed(seed);
+    }
+
+    @Override
+    public void setSeed(final long seed)
+    {
+        this.generator.setSeed(seed);
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes)
+    {
+        for (int index = 0; index < bytes.length; index++)
+        {
+            bytes[index] = (byte) this.nextInt();
+        }
+    }
+
+    @Override
+    public int nextInt()
+    {
+        final int value;
+        if (this.replaying())
+        {
+            value = (int) this.replay();
+        }
+        else
+        {
+            value = this.generator.nextInt();
+            this.record(value);
+        }
+        return value;
+    }
+
+    @Override
+    public int nextInt(final int bound)
+    {
+        final int value;
+        if (this.replaying())
+        {
+            value = (int) this.replay();
+        }
+        else
+        {
+            value = this.generator.nextInt(bound);
+            this.record(value);
+        }
+        return value;
+    }
+
+    @Override
+    public long nextLong()
+    {
+        final long value;
+        if (this.replaying())
+        {
+            value = this.replay();
+        }
+        else
+        {
+            value = this.generator.nextLong();
+            this.record(value);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean()
+    {
+        final boolean value;
+        if (this.replaying())
+        {
+            value = this.replay() != 0;
+        }
+        else
+        {
+            value = this.generator.nextBoolean();
+            this.record(value ? 1 : 0);
+        }
+        return value;
+    }
+
+    @Override
+    public float nextFloat()
+    {
+        final float value;
+        if (this.replaying())
+        {
+            value = Float.intBitsToFloat((int) this.replay());
+        }
+        else
+        {
+            value = this.generator.nextFloat();
+            this.record(Float.floatToRawIntBits(value));
+        }
+        return value;
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        final double value;
+        if (this.replaying())
+        {
+            value = Double.longBitsToDouble(this.replay());
+        }
+        else
+        {
+            value = this.generator.nextDouble();
+            this.record(Double.doubleToRawLongBits(value));
+        }
+        return value;
+    }
+
+    @Override
+    public double nextGaussian()
+    {
+        final double value;
+        if (this.replaying())
+        {
+            value = Double.longBitsToDouble(this.replay());
+        }
+        else
+        {
+            value = this.generator.nextGaussian();
+            this.record(Double.doubleToRawLongBits(value));
+        }
+        return value;
+    }
+}
@@ -19,12 +19,13 @@
  */
 package org.amity.simulator.generators;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import org.amity.simulator.language.NameValue;
 import org.amity.simulator.language.Vocabulary;
 import org.apache.commons.math3.random.GaussianRandomGenerator;
-import org.apache.commons.math3.random.JDKRandomGenerator;
-import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.util.FastMath;
 import org.amity.simulator.elements.Component;
 
@@ -46,7 +47,8 @@ public class Skewed implements Generator
     private final String source;
     private final String reference;
     private Component next;
-    private final RandomGenerator generator = new JDKRandomGenerator();
+    private final Replayable generator
+            = new Replayable(Engines.create());
     private final GaussianRandomGenerator gaussian
             = new GaussianRandomGenerator(generator);
 
@@ -106,6 +108,12 @@ public class Skewed implements Generator
         return modifiedValue;
     }
 
+    @Override
+    public double minimum()
+    {
+        return this.minimum;
+    }
+
     @Override
     public String characteristics()
     {
@@ -117,6 +125,42 @@ public class Skewed implements Generator
         return string.toString();
     }
 
+    @Override
+    public Object save()
+    {
+        return this.generator.mark();
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        this.generator.rewind((Long) state);
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        this.generator.release((Long) state);
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException
+    {
+        this.generator.write(output);
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException
+    {
+        this.generator.read(input);
+    }
+
+    @Override
+    public void seed(final String engine, final long seed)
+    {
+        this.generator.replace(Engines.create(engine, seed));
+    }
+
     @Override
     public String getSource()
     {
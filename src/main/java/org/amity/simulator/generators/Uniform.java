@@ -19,11 +19,12 @@
  */
 package org.amity.simulator.generators;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import org.amity.simulator.language.NameValue;
 import org.amity.simulator.language.Vocabulary;
-import org.apache.commons.math3.random.JDKRandomGenerator;
-import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.util.FastMath;
 import org.amity.simulator.elements.Component;
 
@@ -40,7 +41,7 @@ public class Uniform implements Generator
     private final String source;
     private final String reference;
     private Component next;
-    private final RandomGenerator generator;
+    private final Replayable generator;
 
     /**
      * Hidden default constructor to avoid implicit creation
@@ -73,7 +74,7 @@ public class Uniform implements Generator
         this.source = source;
         this.reference = reference;
         this.next = null;
-        this.generator = new JDKRandomGenerator();
+        this.generator = new Replayable(Engines.create());
     }
 
     @Override
@@ -83,6 +84,12 @@ public class Uniform implements Generator
         return value;
     }
 
+    @Override
+    public double minimum()
+    {
+        return this.offset;
+    }
+
     @Override
     public String characteristics()
     {
@@ -93,6 +100,42 @@ public class Uniform implements Generator
         return string.toString();
     }
 
+    @Override
+    public Object save()
+    {
+        return this.generator.mark();
+    }
+
+    @Override
+    public void restore(final Object state)
+    {
+        this.generator.rewind((Long) state);
+    }
+
+    @Override
+    public void commit(final Object state)
+    {
+        this.generator.release((Long) state);
+    }
+
+    @Override
+    public void write(final DataOutput output) throws IOException
+    {
+        this.generator.write(output);
+    }
+
+    @Override
+    public void read(final DataInput input) throws IOException
+    {
+        this.generator.read(input);
+    }
+
+    @Override
+    public void seed(final String engine, final long seed)
+    {
+        this.generator.replace(Engines.create(engine, seed));
+    }
+
     @Override
     public String getSource()
     {
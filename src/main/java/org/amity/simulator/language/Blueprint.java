@@ -0,0 +1,235 @@
+/*
+ * Blueprint.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.language;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.amity.simulator.distributors.Distributor;
+import org.amity.simulator.distributors.Random;
+import org.amity.simulator.distributors.RoundRobin;
+import org.amity.simulator.distributors.Smart;
+import org.amity.simulator.elements.Balancer;
+import org.amity.simulator.elements.Component;
+import org.amity.simulator.elements.Function;
+import org.amity.simulator.elements.Model;
+import org.amity.simulator.elements.Processor;
+import org.amity.simulator.elements.Sink;
+import org.amity.simulator.elements.Source;
+import org.amity.simulator.elements.Throttle;
+import org.amity.simulator.generators.Constant;
+import org.amity.simulator.generators.Gaussian;
+import org.amity.simulator.generators.Generator;
+import org.amity.simulator.generators.Skewed;
+import org.amity.simulator.generators.Uniform;
+
+/**
+ * Immutable description of a compiled model, from which any number of copies
+ * of the model can be built without compiling again. Components are numbered
+ * densely in the order they were declared and references are resolved by
+ * that number. Every copy has its own components, so copies share no
+ * simulation state and can be built and run on different threads at once.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+class Blueprint implements Supplier<Model>
+{
+
+    private final List<Part> parts;
+    private final Map<String, Integer> numbers;
+
+    /**
+     * Hidden default constructor to avoid implicit creation
+     */
+    private Blueprint()
+    {
+        this.parts = List.of();
+        this.numbers = Map.of();
+    }
+
+    /**
+     * Constructs description of a compiled model
+     *
+     * @param parts checked components of the model in declaration order
+     */
+    Blueprint(final List<Part> parts)
+    {
+        this.parts = List.copyOf(parts);
+        final Map<String, Integer> numbers = new HashMap<>();
+        for (int number = 0; number < this.parts.size(); number++)
+        {
+            numbers.put(this.parts.get(number).label, number);
+        }
+        this.numbers = Map.copyOf(numbers);
+    }
+
+    /**
+     * Build a copy of the model with its own components
+     *
+     * @return compiled model ready to simulate
+     */
+    @Override
+    public Model get()
+    {
+        final Component[] components = new Component[this.parts.size()];
+        for (int number = 0; number < components.length; number++)
+        {
+            components[number] = (Component) this.parts.get(number).build();
+        }
+        // Connect each function to the component it refers to
+        for (final Component component : components)
+        {
+            for (final Map.Entry<String, List<Function>> entry
+                    : component.getReferences().entrySet())
+            {
+                final Integer number = entry.getKey() == null ? null
+                        : this.numbers.get(entry.getKey());
+                for (final Function function : entry.getValue())
+                {
+                    if (number != null
+                            && function instanceof Generator generator)
+                    {
+                        generator.setNext(components[number]);
+                    }
+                    else if (number != null
+                            && function instanceof Distributor distributor)
+                    {
+                        distributor.addNext(components[number]);
+                    }
+                }
+            }
+        }
+        // Same containers as compiling so the model runs in the same order
+        final Map<String, Source> sources = new HashMap<>();
+        final Map<String, Component> labels = new HashMap<>();
+        for (final Component component : components)
+        {
+            labels.put(component.getLabel(), component);
+            if (component instanceof Source source)
+            {
+                sources.put(source.getLabel(), source);
+            }
+        }
+        final Model model = new Model();
+        model.addErrors(List.of());
+        model.addComponents(sources.values(), labels);
+        model.setBlueprint(this);
+        return model;
+    }
+
+    /**
+     * Checked declaration of a component or of one of its functions
+     */
+    static class Part
+    {
+
+        private final String type;
+        private final String label;
+        private final List<NameValue> pairs;
+        private final List<Part> functions;
+
+        /**
+         * Constructs declaration
+         *
+         * @param type declared type
+         * @param label name of a component, or <code>null</code> for a
+         * function
+         * @param pairs checked name-value pairs of the declaration
+         * @param functions declarations of the functions of a component
+         */
+        Part(final String type, final String label,
+                final List<NameValue> pairs, final List<Part> functions)
+        {
+            this.type = type;
+            this.label = label;
+            this.pairs = List.copyOf(pairs);
+            this.functions = List.copyOf(functions);
+        }
+
+        /**
+         *
+         * @return new component or function as declared
+         */
+        private Object build()
+        {
+            final List<Generator> generators = new ArrayList<>();
+            final List<Distributor> distributors = new ArrayList<>();
+            for (final Part function : this.functions)
+            {
+                final Object built = function.build();
+                if (built instanceof Generator generator)
+                {
+                    generators.add(generator);
+                }
+                else if (built instanceof Distributor distributor)
+                {
+                    distributors.add(distributor);
+                }
+            }
+            // The pairs are only read, so the same list serves every copy
+            final Object built;
+            switch (this.type)
+            {
+                case Vocabulary.SOURCE:
+                    built = Source.instance(this.pairs, generators);
+                    break;
+                case Vocabulary.SINK:
+                    built = Sink.instance(this.pairs);
+                    break;
+                case Vocabulary.PROCESSOR:
+                    built = Processor.instance(this.pairs, generators);
+                    break;
+                case Vocabulary.THROTTLE:
+                    built = Throttle.instance(this.pairs, generators);
+                    break;
+                case Vocabulary.BALANCER:
+                    built = Balancer.instance(this.pairs, distributors);
+                    break;
+                case Vocabulary.UNIFORM:
+                    built = Uniform.instance(this.pairs);
+                    break;
+                case Vocabulary.GAUSSIAN:
+                    built = Gaussian.instance(this.pairs);
+                    break;
+                case Vocabulary.CONSTANT:
+                    built = Constant.instance(this.pairs);
+                    break;
+                case Vocabulary.SKEWED:
+                    built = Skewed.instance(this.pairs);
+                    break;
+                case Vocabulary.ROUNDROBIN:
+                    built = RoundRobin.instance(this.pairs);
+                    break;
+                case Vocabulary.SMART:
+                    built = Smart.instance(this.pairs);
+                    break;
+                case Vocabulary.RANDOM:
+                    built = Random.instance(this.pairs);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown type "
+                            + this.type);
+            }
+            return built;
+        }
+    }
+}
@@ -170,6 +170,7 @@ class Compiler
         {
             model.addComponents(this.scratch[1].sources.values(),
                     this.scratch[1].components);
+            model.setBlueprint(new Blueprint(this.scratch[1].parts));
         }
         return model;
     }
@@ -394,6 +395,7 @@ class Compiler
         {
             this.scratch[local.depth + 1].generators.clear();
             this.scratch[local.depth + 1].distributors.clear();
+            this.scratch[local.depth + 1].parts.clear();
         }
     }
 
@@ -414,6 +416,9 @@ class Compiler
         List<Distributor> distributors = local.depth == 1
                 ? this.scratch[local.depth + 1].distributors
                 : new ArrayList<>();
+        final int declared = local.components.size();
+        final int functions = local.generators.size()
+                + local.distributors.size();
         switch (type)
         {
             case Vocabulary.SOURCE:
@@ -651,6 +656,27 @@ class Compiler
             default:
                 break;
         }
+        // Keep what was built so the model can be built again without
+        // compiling
+        if (local.components.size() > declared)
+        {
+            String label = null;
+            for (final NameValue pair : pairs)
+            {
+                if (pair.name.equals(Vocabulary.NAME))
+                {
+                    label = pair.value;
+                }
+            }
+            local.parts.add(new Blueprint.Part(type, label, pairs,
+                    this.scratch[local.depth + 1].parts));
+        }
+        else if (local.generators.size() + local.distributors.size()
+                > functions)
+        {
+            local.parts.add(new Blueprint.Part(type, null, pairs,
+                    new ArrayList<>()));
+        }
     }
 
     /**
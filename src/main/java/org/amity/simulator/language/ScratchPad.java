@@ -46,6 +46,7 @@ class ScratchPad
     public final Map<String, Component> components;
     public final List<Generator> generators;
     public final List<Distributor> distributors;
+    public final List<Blueprint.Part> parts;
     private final List<String> errors;
 
     /**
@@ -62,6 +63,7 @@ class ScratchPad
         this.components = new HashMap<>();
         this.generators = new ArrayList<>();
         this.distributors = new ArrayList<>();
+        this.parts = new ArrayList<>();
         this.errors = new ArrayList<>();
     }
 
@@ -81,6 +83,7 @@ class ScratchPad
         this.components = new HashMap<>();
         this.generators = new ArrayList<>();
         this.distributors = new ArrayList<>();
+        this.parts = new ArrayList<>();
         this.errors = new ArrayList<>();
     }
 
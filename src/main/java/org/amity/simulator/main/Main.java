@@ -22,9 +22,16 @@ package org.amity.simulator.main;
 import java.io.File;
 import java.io.PrintWriter;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.amity.simulator.elements.Branches;
 import org.amity.simulator.elements.Model;
+import org.amity.simulator.elements.Replications;
+import org.amity.simulator.elements.Schedule;
+import org.amity.simulator.generators.Engines;
 import org.amity.simulator.language.Lexer;
 import org.amity.simulator.language.Token;
 import org.apache.commons.cli.CommandLine;
@@ -49,6 +56,19 @@ public class Main
     private final static String END = "end";
     private final static String GENERATE = "generate";
     private final static String FILE = "file";
+    private final static String SCHEDULE = "schedule";
+    private final static String REPLICATIONS = "replications";
+    private final static String THREADS = "threads";
+    private final static String PARTITIONS = "partitions";
+    private final static String OPTIMISTIC = "optimistic";
+    private final static String CHECKPOINT = "checkpoint";
+    private final static String INTERVAL = "interval";
+    private final static String RESUME = "resume";
+    private final static String BRANCH = "branch";
+    private final static String PRECISION = "precision";
+    private final static String SEED = "seed";
+    private final static String ENGINE = "engine";
+    private final static String TRANSITIONS = "1000000";
 
     /**
      * Create command line options for use
@@ -81,11 +101,97 @@ public class Main
                 .longOpt(FILE)
                 .desc("System definition file")
                 .build();
+        final Option scheduleOption = Option.builder("q")
+                .required(false)
+                .hasArg(true)
+                .longOpt(SCHEDULE)
+                .desc("Future event list - heap (default), calendar or list")
+                .build();
+        final Option replicationsOption = Option.builder("r")
+                .required(false)
+                .hasArg(true)
+                .longOpt(REPLICATIONS)
+                .desc("Number of independent replications (default 1)")
+                .build();
+        final Option threadsOption = Option.builder("t")
+                .required(false)
+                .hasArg(true)
+                .longOpt(THREADS)
+                .desc("Worker threads for replications (default all processors)")
+                .build();
+        final Option partitionsOption = Option.builder("p")
+                .required(false)
+                .hasArg(true)
+                .longOpt(PARTITIONS)
+                .desc("Model partitions to simulate in parallel (default 1)")
+                .build();
+        final Option optimisticOption = Option.builder("o")
+                .required(false)
+                .hasArg(false)
+                .longOpt(OPTIMISTIC)
+                .desc("Partitions simulate ahead and roll back instead of waiting")
+                .build();
+        final Option checkpointOption = Option.builder("c")
+                .required(false)
+                .hasArg(true)
+                .longOpt(CHECKPOINT)
+                .desc("File to write simulation checkpoints to")
+                .build();
+        final Option intervalOption = Option.builder("n")
+                .required(false)
+                .hasArg(true)
+                .longOpt(INTERVAL)
+                .desc("Transitions between checkpoints (default "
+                        + TRANSITIONS + ")")
+                .build();
+        final Option resumeOption = Option.builder("u")
+                .required(false)
+                .hasArg(true)
+                .longOpt(RESUME)
+                .desc("Checkpoint file to resume simulation from")
+                .build();
+        final Option branchOption = Option.builder("b")
+                .required(false)
+                .hasArg(true)
+                .longOpt(BRANCH)
+                .desc("Model variant to run on from the warmed-up state of the model - can be repeated")
+                .build();
+        final Option precisionOption = Option.builder("a")
+                .required(false)
+                .hasArg(true)
+                .longOpt(PRECISION)
+                .desc("Stop once the confidence intervals of key statistics are within this fraction of their estimates - the end time becomes the latest the sample can run to")
+                .build();
+        final Option seedOption = Option.builder("d")
+                .required(false)
+                .hasArg(true)
+                .longOpt(SEED)
+                .desc("Seed for all random values so a run can be repeated exactly (default chosen at random and shown)")
+                .build();
+        final Option engineOption = Option.builder("x")
+                .required(false)
+                .hasArg(true)
+                .longOpt(ENGINE)
+                .desc("Random number engine - one of " + Engines.names()
+                        + " (default " + Engines.DEFAULT + ")")
+                .build();
         final Options options = new Options();
         options.addOption(generateOption);
         options.addOption(startOption);
         options.addOption(endOption);
         options.addOption(fileOption);
+        options.addOption(scheduleOption);
+        options.addOption(replicationsOption);
+        options.addOption(threadsOption);
+        options.addOption(partitionsOption);
+        options.addOption(optimisticOption);
+        options.addOption(checkpointOption);
+        options.addOption(intervalOption);
+        options.addOption(resumeOption);
+        options.addOption(branchOption);
+        options.addOption(precisionOption);
+        options.addOption(seedOption);
+        options.addOption(engineOption);
         return options;
     }
 
@@ -156,6 +262,7 @@ public class Main
     static int simulate(String[] arguments)
     {
         final Pattern pattern = Pattern.compile("^\\+?\\d*\\.?\\d+$");
+        final Pattern count = Pattern.compile("^\\+?0*[1-9]\\d{0,8}$");
         final Options options = generateOptions();
         if (arguments.length < 8)
         {
@@ -176,6 +283,28 @@ public class Main
                     = commandLine.getOptionValue(END);
             final String filename
                     = commandLine.getOptionValue(FILE);
+            final String schedule
+                    = commandLine.getOptionValue(SCHEDULE, Schedule.HEAP);
+            final String replicationsText
+                    = commandLine.getOptionValue(REPLICATIONS, "1");
+            final String threadsText
+                    = commandLine.getOptionValue(THREADS, Integer.toString(
+                            Runtime.getRuntime().availableProcessors()));
+            final String partitionsText
+                    = commandLine.getOptionValue(PARTITIONS, "1");
+            final boolean optimistic = commandLine.hasOption(OPTIMISTIC);
+            final String checkpoint = commandLine.getOptionValue(CHECKPOINT);
+            final String intervalText
+                    = commandLine.getOptionValue(INTERVAL, TRANSITIONS);
+            final String resume = commandLine.getOptionValue(RESUME);
+            final String[] branches = commandLine.hasOption(BRANCH)
+                    ? commandLine.getOptionValues(BRANCH) : new String[0];
+            final String precisionText
+                    = commandLine.getOptionValue(PRECISION, "0");
+            final String engine
+                    = commandLine.getOptionValue(ENGINE, Engines.DEFAULT);
+            final String seedText = commandLine.getOptionValue(SEED,
+                    Long.toString(new Random().nextLong()));
             Matcher matcher = pattern.matcher(generateText);
             if (!matcher.find())
             {
@@ -200,12 +329,83 @@ public class Main
                 System.err.println("File does not exist");
                 error = true;
             }
+            if (Schedule.instance(schedule) == null)
+            {
+                System.err.println("Schedule must be one of heap, calendar or list");
+                error = true;
+            }
+            matcher = count.matcher(replicationsText);
+            if (!matcher.find())
+            {
+                System.err.println("Replications must be a positive integer");
+                error = true;
+            }
+            matcher = count.matcher(threadsText);
+            if (!matcher.find())
+            {
+                System.err.println("Threads must be a positive integer");
+                error = true;
+            }
+            matcher = count.matcher(partitionsText);
+            if (!matcher.find())
+            {
+                System.err.println("Partitions must be a positive integer");
+                error = true;
+            }
+            matcher = count.matcher(intervalText);
+            if (!matcher.find())
+            {
+                System.err.println("Checkpoint interval must be a positive integer");
+                error = true;
+            }
+            if (resume != null && !new File(resume).isFile())
+            {
+                System.err.println("Checkpoint file to resume from does not exist");
+                error = true;
+            }
+            matcher = pattern.matcher(precisionText);
+            if (!matcher.find() || Double.parseDouble(precisionText) >= 1)
+            {
+                System.err.println("Precision must be a decimal value below 1");
+                error = true;
+            }
+            long seed = 0;
+            try
+            {
+                seed = Long.parseLong(seedText);
+            }
+            catch (NumberFormatException exception)
+            {
+                System.err.println("Seed must be an integer");
+                error = true;
+            }
+            if (!Engines.isAvailable(engine))
+            {
+                System.err.println("Engine must be one of " + Engines.names());
+                error = true;
+            }
+            for (final String branch : branches)
+            {
+                if (!new File(branch).isFile())
+                {
+                    System.err.println("Branch file " + branch + " does not exist");
+                    error = true;
+                }
+            }
             if (!error)
             {
                 double generate = Double.parseDouble(generateText);
                 double start = Double.parseDouble(startText);
                 double end = Double.parseDouble(endText);
-                error = run(file, generate, start, end);
+                int replications = Integer.parseInt(replicationsText);
+                int threads = Integer.parseInt(threadsText);
+                int partitions = Integer.parseInt(partitionsText);
+                int interval = Integer.parseInt(intervalText);
+                double precision = Double.parseDouble(precisionText);
+                error = run(file, generate, start, end, schedule,
+                        replications, threads, partitions, optimistic,
+                        checkpoint, interval, resume, branches, precision,
+                        engine, seed);
             }
         }
         return error ? BAD_EXIT : GOOD_EXIT;
@@ -226,10 +426,29 @@ public class Main
      * @param generate time span of event generation
      * @param start low time limit for statistics sample
      * @param end high time limit for statistics sample
+     * @param schedule future event list implementation
+     * @param replications number of independent replications
+     * @param threads worker threads for replications
+     * @param partitions model partitions to simulate in parallel
+     * @param optimistic partitions simulate ahead and roll back if
+     * <code>true</code>
+     * @param checkpoint file to write checkpoints to, or <code>null</code>
+     * @param interval transitions between checkpoints
+     * @param resume checkpoint file to resume from, or <code>null</code>
+     * @param branches specifications for variants of the model to run on
+     * from its warmed-up state
+     * @param precision relative half width wanted for key statistics before
+     * stopping, or zero to run to the generation time
+     * @param engine random number engine
+     * @param seed starting point for all random values
      * @return error result if any of the steps fail
      */
     private static boolean run(final File file, final double generate,
-            final double start, final double end)
+            final double start, final double end, final String schedule,
+            final int replications, final int threads, final int partitions,
+            final boolean optimistic, final String checkpoint,
+            final int interval, final String resume, final String[] branches,
+            final double precision, final String engine, final long seed)
     {
         boolean error = false;
         if (start >= end)
@@ -242,6 +461,24 @@ public class Main
             System.err.println("Sample end time must be less than the generate time");
             error =true;
         }
+        if ((checkpoint != null || resume != null)
+                && (replications > 1 || partitions > 1))
+        {
+            System.err.println("Checkpoints are only supported for a single sequential simulation");
+            error = true;
+        }
+        if (branches.length > 0 && (replications > 1 || partitions > 1
+                || checkpoint != null || resume != null))
+        {
+            System.err.println("Branches are only supported for a single sequential simulation");
+            error = true;
+        }
+        if (precision > 0 && (partitions > 1 || branches.length > 0
+                || resume != null))
+        {
+            System.err.println("Precision is only supported for simulations that are not partitioned, branched or resumed");
+            error = true;
+        }
         if (!error)
         {
             final Lexer lexer = new Lexer();
@@ -249,9 +486,62 @@ public class Main
             if (token != null)
             {
                 System.out.println("Completed syntax parsing");
+                System.out.println("Random seed: " + seed);
                 final Model model = token.parse();
-                if (model.isCompiled())
+                final Map<String, Model> variants = new LinkedHashMap<>();
+                for (final String branch : branches)
+                {
+                    final Token variant = lexer.analyze(new File(branch));
+                    final Model copy = variant == null ? null : variant.parse();
+                    if (copy == null || !copy.isCompiled())
+                    {
+                        System.err.println("Unable to compile branch " + branch);
+                        error = true;
+                    }
+                    else
+                    {
+                        copy.setEngine(engine);
+                        copy.setSeed(seed);
+                    }
+                    variants.put(branch, copy);
+                }
+                if (error)
+                {
+                    System.err.println("Unable to compile all branches");
+                }
+                else if (model.isCompiled() && branches.length > 0)
+                {
+                    System.out.println("Completed compilation");
+                    model.setEngine(engine);
+                    model.setSeed(seed);
+                    final Branches runner = new Branches(model, threads,
+                            schedule);
+                    error = !runner.execute(variants, generate, start, end);
+                }
+                else if (model.isCompiled() && replications > 1)
+                {
+                    System.out.println("Completed compilation");
+                    final Replications runner = new Replications(() ->
+                    {
+                        final Model copy = model.copy();
+                        copy.setPartitions(partitions);
+                        copy.setOptimistic(optimistic);
+                        copy.setPrecision(precision);
+                        copy.setEngine(engine);
+                        return copy;
+                    }, replications, threads, schedule, seed);
+                    error = !runner.execute(generate, start, end);
+                }
+                else if (model.isCompiled())
                 {
+                    model.setSchedule(schedule);
+                    model.setPartitions(partitions);
+                    model.setOptimistic(optimistic);
+                    model.setCheckpoint(checkpoint, interval);
+                    model.setResume(resume);
+                    model.setPrecision(precision);
+                    model.setEngine(engine);
+                    model.setSeed(seed);
                     error = !model.execute(generate, start, end);
                 }
                 else
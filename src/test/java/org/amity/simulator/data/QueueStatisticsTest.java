@@ -0,0 +1,213 @@
+/*
+ * QueueStatisticsTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the time weighted queue depth statistics.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class QueueStatisticsTest
+{
+
+    private final static double DELTA = 0.0000001;
+
+    public QueueStatisticsTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of change method, of class QueueStatistics.
+     */
+    @Test
+    public void testChange()
+    {
+        System.out.println("change");
+        final QueueStatistics instance = new QueueStatistics();
+        instance.setWindow(10, 50);
+        System.out.println("  nothing in the sample");
+        assertEquals(0, instance.getMean(), 0.0);
+        assertEquals(0, instance.getStandardDeviation(), 0.0);
+        assertEquals(0, instance.getMedian());
+        assertEquals(0, instance.getMaximum());
+        assertEquals(0, instance.getMinimum());
+        System.out.println("  periods cut to the sample");
+        // Depth 0 for 0-5 is before the sample, depth 1 for 5-20 is cut to
+        // 10-20, then depth 2 for 20-30, depth 1 for 30-40, and depth 3 from
+        // 40 is still open so is left out
+        instance.change(1, 5);
+        instance.change(2, 20);
+        instance.change(1, 30);
+        instance.change(3, 40);
+        assertEquals(4, instance.getChanges());
+        assertEquals(3, instance.getDepth());
+        final double mean = (10.0 * 1 + 10.0 * 2 + 10.0 * 1) / 40;
+        assertEquals(mean, instance.getMean(), DELTA);
+        final double variance = (10 * (1 - mean) * (1 - mean)
+                + 10 * (2 - mean) * (2 - mean)
+                + 10 * (1 - mean) * (1 - mean)) / 40;
+        assertEquals(Math.sqrt(variance), instance.getStandardDeviation(),
+                DELTA);
+        assertEquals(2, instance.getMaximum());
+        assertEquals(1, instance.getMinimum());
+        // Depth 1 last ended at 40, after half the sample length of 20
+        assertEquals(1, instance.getMedian());
+        System.out.println("  sample cut short");
+        instance.setEnd(35);
+        assertEquals(40.0 / 25, instance.getMean(), DELTA);
+        System.out.println("  periods after the sample");
+        instance.setWindow(10, 50);
+        instance.change(4, 60);
+        instance.change(0, 70);
+        assertEquals(0, instance.getMaximum());
+        assertEquals(0, instance.getMean(), 0.0);
+    }
+
+    /**
+     * Test of save and restore methods, of class QueueStatistics.
+     */
+    @Test
+    public void testRestore()
+    {
+        System.out.println("restore");
+        final QueueStatistics instance = new QueueStatistics();
+        instance.setWindow(0, 100);
+        instance.change(1, 5);
+        instance.change(2, 10);
+        final double mean = instance.getMean();
+        final int median = instance.getMedian();
+        final Object state = instance.save();
+        instance.change(5, 90);
+        assertEquals(5, instance.getDepth());
+        assertEquals(2, instance.getMaximum());
+        instance.restore(state);
+        assertEquals(2, instance.getChanges());
+        assertEquals(2, instance.getDepth());
+        assertEquals(1, instance.getMaximum());
+        assertEquals(mean, instance.getMean(), 0.0);
+        assertEquals(median, instance.getMedian());
+        System.out.println("  repeat gives same result");
+        instance.change(5, 90);
+        assertEquals(2, instance.getMaximum());
+        assertEquals(2, instance.getMedian());
+    }
+
+    /**
+     * Test of write and read methods, of class QueueStatistics.
+     *
+     * @throws IOException if the statistics cannot be copied
+     */
+    @Test
+    public void testWrite() throws IOException
+    {
+        System.out.println("write");
+        final QueueStatistics instance = new QueueStatistics();
+        instance.setWindow(0, 100);
+        for (int index = 1; index < 40; index++)
+        {
+            instance.change(index % 7, index * 2.5);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        instance.write(new DataOutputStream(bytes));
+        final QueueStatistics copy = new QueueStatistics();
+        copy.read(new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(instance.getChanges(), copy.getChanges());
+        assertEquals(instance.getDepth(), copy.getDepth());
+        assertEquals(instance.getMean(), copy.getMean(), 0.0);
+        assertEquals(instance.getStandardDeviation(),
+                copy.getStandardDeviation(), 0.0);
+        assertEquals(instance.getMedian(), copy.getMedian());
+        assertEquals(instance.getMaximum(), copy.getMaximum());
+        assertEquals(instance.getMinimum(), copy.getMinimum());
+    }
+
+    /**
+     * Test of setKept method, of class QueueStatistics.
+     *
+     * @throws IOException if the statistics cannot be copied
+     */
+    @Test
+    public void testSetKept() throws IOException
+    {
+        System.out.println("setKept");
+        final QueueStatistics expected = new QueueStatistics();
+        expected.setWindow(10, 120);
+        final QueueStatistics instance = new QueueStatistics();
+        instance.setKept(true);
+        instance.setWindow(10, 40);
+        for (int index = 1; index < 40; index++)
+        {
+            expected.change(index % 7, index * 2.5);
+            instance.change(index % 7, index * 2.5);
+        }
+        System.out.println("  sample moved after a checkpoint is read");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        instance.write(new DataOutputStream(bytes));
+        final QueueStatistics copy = new QueueStatistics();
+        copy.read(new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())));
+        assertTrue(copy.resample(10, 120));
+        assertEquals(expected.getChanges(), copy.getChanges());
+        assertEquals(expected.getDepth(), copy.getDepth());
+        assertEquals(expected.getMean(), copy.getMean(), DELTA);
+        assertEquals(expected.getStandardDeviation(),
+                copy.getStandardDeviation(), DELTA);
+        assertEquals(expected.getMedian(), copy.getMedian());
+        assertEquals(expected.getMaximum(), copy.getMaximum());
+        assertEquals(expected.getMinimum(), copy.getMinimum());
+        System.out.println("  sample not moved to another start");
+        assertFalse(copy.resample(20, 120));
+        System.out.println("  sample not moved before the last change");
+        assertFalse(copy.resample(10, 90));
+    }
+}
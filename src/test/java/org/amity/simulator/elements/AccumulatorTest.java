@@ -0,0 +1,239 @@
+/*
+ * AccumulatorTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the streaming statistics used by monitoring.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class AccumulatorTest
+{
+
+    public AccumulatorTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of getN, getMean, getStandardDeviation, getMin and getMax methods,
+     * of class Accumulator.
+     */
+    @Test
+    public void testMoments()
+    {
+        System.out.println("testMoments");
+        final Accumulator accumulator = new Accumulator();
+        System.out.println("  no values");
+        assertEquals(0, accumulator.getN());
+        assertTrue(Double.isNaN(accumulator.getMean()));
+        assertTrue(Double.isNaN(accumulator.getStandardDeviation()));
+        assertTrue(Double.isNaN(accumulator.getMin()));
+        assertTrue(Double.isNaN(accumulator.getMax()));
+        assertTrue(Double.isNaN(accumulator.getPercentile(50)));
+        System.out.println("  one value");
+        accumulator.add(3.5);
+        assertEquals(3.5, accumulator.getMean(), 0);
+        assertEquals(0, accumulator.getStandardDeviation(), 0);
+        assertEquals(3.5, accumulator.getMin(), 0);
+        assertEquals(3.5, accumulator.getMax(), 0);
+        System.out.println("  agrees with stored values");
+        final RandomGenerator random = new MersenneTwister(7);
+        final DescriptiveStatistics statistics = new DescriptiveStatistics();
+        accumulator.clear();
+        for (int index = 0; index < 100000; index++)
+        {
+            final double value = 1000 + random.nextGaussian() * 5;
+            accumulator.add(value);
+            statistics.addValue(value);
+        }
+        assertEquals(statistics.getN(), accumulator.getN());
+        assertEquals(statistics.getMean(), accumulator.getMean(), 1e-9);
+        assertEquals(statistics.getStandardDeviation(),
+                accumulator.getStandardDeviation(), 1e-9);
+        assertEquals(statistics.getMin(), accumulator.getMin(), 0);
+        assertEquals(statistics.getMax(), accumulator.getMax(), 0);
+    }
+
+    /**
+     * Test of getPercentile method, of class Accumulator.
+     */
+    @Test
+    public void testGetPercentile()
+    {
+        System.out.println("testGetPercentile");
+        final RandomGenerator random = new MersenneTwister(11);
+        final Accumulator accumulator = new Accumulator();
+        final DescriptiveStatistics statistics = new DescriptiveStatistics();
+        System.out.println("  exact while every value is kept");
+        for (int index = 0; index < 1000; index++)
+        {
+            final double value = random.nextDouble();
+            accumulator.add(value);
+            statistics.addValue(value);
+        }
+        for (final double percentile : new double[]{1, 25, 50, 90, 99, 99.9})
+        {
+            assertEquals(statistics.getPercentile(percentile),
+                    accumulator.getPercentile(percentile), 0);
+        }
+        System.out.println("  close once values are summarized");
+        accumulator.clear();
+        final int count = 1000000;
+        for (int index = 0; index < count; index++)
+        {
+            accumulator.add(random.nextDouble());
+        }
+        assertEquals(count, accumulator.getN());
+        // Uniform values so the percentile is also the rank
+        assertEquals(0.5, accumulator.getPercentile(50), 0.01);
+        assertEquals(0.9, accumulator.getPercentile(90), 0.01);
+        assertEquals(0.99, accumulator.getPercentile(99), 0.01);
+        System.out.println("  repeatable");
+        final Accumulator repeat = new Accumulator();
+        final RandomGenerator again = new MersenneTwister(11);
+        for (int index = 0; index < 1000; index++)
+        {
+            again.nextDouble();
+        }
+        for (int index = 0; index < count; index++)
+        {
+            repeat.add(again.nextDouble());
+        }
+        assertEquals(accumulator.getPercentile(50), repeat.getPercentile(50),
+                0);
+    }
+
+    /**
+     * Test of merge method, of class Accumulator.
+     */
+    @Test
+    public void testMerge()
+    {
+        System.out.println("testMerge");
+        final RandomGenerator random = new MersenneTwister(13);
+        final Accumulator first = new Accumulator();
+        final Accumulator second = new Accumulator();
+        final Accumulator all = new Accumulator();
+        for (int index = 0; index < 50000; index++)
+        {
+            final double value = random.nextDouble() * 10;
+            (index % 3 == 0 ? first : second).add(value);
+            all.add(value);
+        }
+        System.out.println("  merge into empty");
+        final Accumulator merged = new Accumulator();
+        merged.merge(first);
+        assertEquals(first.getN(), merged.getN());
+        assertEquals(first.getMean(), merged.getMean(), 0);
+        System.out.println("  merge both parts");
+        merged.merge(second);
+        assertEquals(all.getN(), merged.getN());
+        assertEquals(all.getMean(), merged.getMean(), 1e-9);
+        assertEquals(all.getStandardDeviation(),
+                merged.getStandardDeviation(), 1e-9);
+        assertEquals(all.getMin(), merged.getMin(), 0);
+        assertEquals(all.getMax(), merged.getMax(), 0);
+        assertEquals(all.getPercentile(50), merged.getPercentile(50), 0.1);
+        assertEquals(all.getPercentile(99), merged.getPercentile(99), 0.1);
+    }
+
+    /**
+     * Test of write, read and copy methods, of class Accumulator.
+     *
+     * @throws IOException if the accumulator cannot be copied
+     */
+    @Test
+    public void testWrite() throws IOException
+    {
+        System.out.println("testWrite");
+        final RandomGenerator random = new MersenneTwister(17);
+        final Accumulator instance = new Accumulator();
+        for (int index = 0; index < 20000; index++)
+        {
+            instance.add(random.nextDouble() * 10);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        instance.write(new DataOutputStream(bytes));
+        final Accumulator read = new Accumulator();
+        read.read(new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())));
+        final Accumulator copy = new Accumulator();
+        copy.copy(instance);
+        System.out.println("  same values added after");
+        for (int index = 0; index < 20000; index++)
+        {
+            final double value = random.nextDouble() * 10;
+            instance.add(value);
+            read.add(value);
+            copy.add(value);
+        }
+        for (final Accumulator other : new Accumulator[]
+        {
+            read, copy
+        })
+        {
+            assertEquals(instance.getN(), other.getN());
+            assertEquals(instance.getMean(), other.getMean(), 0);
+            assertEquals(instance.getStandardDeviation(),
+                    other.getStandardDeviation(), 0);
+            assertEquals(instance.getMin(), other.getMin(), 0);
+            assertEquals(instance.getMax(), other.getMax(), 0);
+            assertEquals(instance.getPercentile(50),
+                    other.getPercentile(50), 0);
+            assertEquals(instance.getPercentile(99),
+                    other.getPercentile(99), 0);
+        }
+    }
+}
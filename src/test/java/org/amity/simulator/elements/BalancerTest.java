@@ -19,13 +19,16 @@
  */
 package org.amity.simulator.elements;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import org.amity.simulator.distributors.RoundRobin;
 import org.amity.simulator.generators.Constant;
+import org.amity.simulator.language.Lexer;
 import org.amity.simulator.language.NameValue;
+import org.amity.simulator.language.Token;
 import org.amity.simulator.language.Vocabulary;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -441,7 +444,7 @@ public class BalancerTest
         assertEquals(eventTotal / 2, processor2.getLocalEvents().size());
         // No way to adequately test this except under load
         assertTrue(instance.getQueueStatistics() != null);
-        assertEquals(0, instance.getQueueStatistics().size());
+        assertEquals(0, instance.getQueueStatistics().getChanges());
     }
 
     /**
@@ -630,5 +633,59 @@ public class BalancerTest
         assertTrue(instance.description().endsWith("]"));
         assertTrue(instance.description().startsWith("["));
     }
-    
+
+    /**
+     * Test of flatten method, of class Balancer.
+     */
+    @Test
+    public void testFlatten()
+    {
+        System.out.println("flatten");
+        final Token token = new Lexer().analyze(
+                new File("src/test/data/nested.balancer.txt"));
+        final Model flat = token.parse();
+        final Model nested = token.parse();
+        System.out.println("  Only balancers that choose between balancers");
+        assertTrue(((Balancer) flat.components.get("region")).chained);
+        assertFalse(((Balancer) flat.components.get("zone east")).chained);
+        assertFalse(((Balancer) flat.components.get("zone west")).chained);
+        System.out.println("  Same events through fewer transitions");
+        final List<Simulator> simulators = new ArrayList<>();
+        for (final Model model : List.of(flat, nested))
+        {
+            model.setSeed(42);
+            model.prepare(100, 1900);
+            for (final Component component : model.components.values())
+            {
+                if (component instanceof Balancer balancer)
+                {
+                    balancer.setFlattened(model == flat);
+                }
+            }
+            final Simulator simulator = new Simulator(model.sources, 2000,
+                    new HeapSchedule(), false);
+            simulator.execute();
+            simulators.add(simulator);
+        }
+        final List<Event> flattened = simulators.get(0).completed;
+        final List<Event> stepped = simulators.get(1).completed;
+        assertEquals(stepped.size(), flattened.size());
+        for (int index = 0; index < stepped.size(); index++)
+        {
+            assertEquals(stepped.get(index).getCompleted(),
+                    flattened.get(index).getCompleted(), 0);
+            assertEquals(stepped.get(index).getLifetime(),
+                    flattened.get(index).getLifetime(), 0);
+        }
+        assertTrue(simulators.get(0).getTransitions()
+                < simulators.get(1).getTransitions());
+        System.out.println("  Each balancer keeps its own records");
+        for (final String label : List.of("region", "zone east", "zone west"))
+        {
+            assertEquals(nested.components.get(label).getLocalEvents().size(),
+                    flat.components.get(label).getLocalEvents().size());
+        }
+        assertFalse(flat.components.get("zone east").getLocalEvents()
+                .isEmpty());
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * BranchesTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test what-if branches from the warmed-up state of a model
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class BranchesTest
+{
+
+    private final static String BASE = "src/test/data/balancer.example.txt";
+    private final static String VARIANT = "src/test/data/balancer.variant.txt";
+
+    public BranchesTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of branch method, of class Branches.
+     */
+    @Test
+    public void testBranch()
+    {
+        System.out.println("branch");
+        final Map<String, Model> variants = new LinkedHashMap<>();
+        variants.put("same", this.model(BASE));
+        variants.put("extra server", this.model(VARIANT));
+        final Branches instance
+                = new Branches(this.model(BASE), 2, Schedule.HEAP);
+        final Map<String, Monitor> monitors
+                = instance.branch(variants, 2000, 500, 1900);
+        assertNotNull(monitors);
+        assertArrayEquals(new String[]
+        {
+            Branches.BASE, "same", "extra server"
+        }, monitors.keySet().toArray());
+        System.out.println("  Unchanged variant carries on like the model");
+        final Map<String, Map<String, Double>> base
+                = monitors.get(Branches.BASE).getResults();
+        final Map<String, Map<String, Double>> same
+                = monitors.get("same").getResults();
+        assertEquals(base, same);
+        System.out.println("  Extra server takes load from the others");
+        final Map<String, Map<String, Double>> extra
+                = monitors.get("extra server").getResults();
+        assertFalse(base.containsKey("Component: web server 4"));
+        assertTrue(extra.get("Component: web server 4")
+                .get("Events processed") > 0);
+        assertTrue(extra.get("Component: web server 1").get("Utilization")
+                < base.get("Component: web server 1").get("Utilization"));
+        assertEquals(base.get("General event information")
+                .get("Events completed"), extra.get("General event information")
+                        .get("Events completed"), 5.0);
+    }
+
+    /**
+     * Test of execute method, of class Branches.
+     */
+    @Test
+    public void testExecute()
+    {
+        System.out.println("execute");
+        final Map<String, Model> variants = new LinkedHashMap<>();
+        variants.put("extra server", this.model(VARIANT));
+        Branches instance = new Branches(this.model(BASE), 1,
+                Schedule.CALENDAR);
+        assertTrue(instance.execute(variants, 1000, 100, 900));
+        System.out.println("  Invalid sample period");
+        instance = new Branches(this.model(BASE), 1, Schedule.HEAP);
+        assertFalse(instance.execute(variants, 1000, 900, 100));
+        System.out.println("  Unknown schedule");
+        instance = new Branches(this.model(BASE), 1, "unknown");
+        assertFalse(instance.execute(variants, 1000, 100, 900));
+        System.out.println("  Variant missing a component of the model");
+        variants.clear();
+        variants.put("fewer servers", this.model(VARIANT));
+        instance = new Branches(this.model(VARIANT), 1, Schedule.HEAP);
+        final Map<String, Model> fewer = new LinkedHashMap<>();
+        fewer.put("fewer servers", this.model(BASE));
+        assertFalse(instance.execute(fewer, 1000, 100, 900));
+    }
+
+    /**
+     *
+     * @param path model definition file
+     * @return compiled model
+     */
+    private Model model(final String path)
+    {
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(new File(path));
+        return token.parse();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * CheckpointTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test writing and resuming simulation checkpoints
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class CheckpointTest
+{
+
+    private final static File FILE = new File("target/test.checkpoint");
+
+    public CheckpointTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+        FILE.delete();
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of save and load methods, of class Checkpoint.
+     */
+    @Test
+    public void testSaveLoad() throws IOException
+    {
+        System.out.println("saveLoad");
+        System.out.println("  Random distributor with throttle");
+        this.check("src/test/data/test.example.txt", 200, 90);
+        System.out.println("  Smart balancers");
+        this.check("src/test/data/fun.example.txt", 2000, 1000);
+        System.out.println("  Priorities");
+        this.check("src/test/data/multi-source.model.txt", 2000, 1000);
+    }
+
+    /**
+     * Test of resuming with a later generation end point, of class
+     * Checkpoint.
+     */
+    @Test
+    public void testResume() throws IOException
+    {
+        System.out.println("resume");
+        final Model first = this.model("src/test/data/fun.example.txt");
+        assertTrue(first.setCheckpoint(FILE.getPath(), 1000));
+        assertFalse(first.setCheckpoint(FILE.getPath(), 0));
+        final Simulator original = new Simulator(first.sources, 1000,
+                new HeapSchedule(), false);
+        original.setCheckpoint(new Checkpoint(first.components, FILE, 1000));
+        original.execute();
+        assertTrue(FILE.isFile());
+        final Model second = this.model("src/test/data/fun.example.txt");
+        final Simulator resumed = new Simulator(second.sources, 2000,
+                new HeapSchedule(), false);
+        new Checkpoint(second.components, null, 0).load(FILE, resumed);
+        assertEquals(original.getTransitions(), resumed.getTransitions());
+        resumed.execute();
+        System.out.println("  Continues past the first end point");
+        assertTrue(resumed.completed.size() > original.completed.size() * 3 / 2);
+        final Set<String> names = new HashSet<>();
+        double latest = 0;
+        for (final Event event : resumed.completed)
+        {
+            assertTrue(names.add(event.getSource() + event.getLabel()));
+            latest = Math.max(latest, event.getCreated());
+        }
+        assertTrue(latest > 1900);
+        System.out.println("  Same records up to the first end point");
+        for (int index = 0; index < original.completed.size() / 2; index++)
+        {
+            assertEquals(original.completed.get(index).getLifetime(),
+                    resumed.completed.get(index).getLifetime(), 0.0);
+        }
+    }
+
+    /**
+     * Test of resuming with a later sample end point, of class Checkpoint.
+     */
+    @Test
+    public void testResumeSample()
+    {
+        System.out.println("resumeSample");
+        final String path = "src/test/data/multi-source.model.txt";
+        final Model straight = this.model(path);
+        straight.setSeed(5);
+        final Model first = this.model(path);
+        first.setSeed(5);
+        assertTrue(first.setCheckpoint(FILE.getPath(), 1000000));
+        assertNotNull(first.replicate(2000, 100, 1800));
+        assertTrue(FILE.isFile());
+        final Model second = this.model(path);
+        second.setSeed(5);
+        second.setResume(FILE.getPath());
+        System.out.println("  Same statistics as one simulation");
+        assertEquals(straight.replicate(4000, 100, 3800).getResults(),
+                second.replicate(4000, 100, 3800).getResults());
+    }
+
+    /**
+     * Test of loading something that is not a checkpoint, of class
+     * Checkpoint.
+     */
+    @Test
+    public void testBadFile()
+    {
+        System.out.println("badFile");
+        final Model model = this.model("src/test/data/fun.example.txt");
+        final Simulator simulator = new Simulator(model.sources, 1000,
+                new HeapSchedule(), false);
+        try
+        {
+            new Checkpoint(model.components, null, 0).load(
+                    new File("src/test/data/fun.example.txt"), simulator);
+            fail("Model file is not a checkpoint");
+        }
+        catch (IOException exception)
+        {
+            assertEquals("Not a checkpoint file", exception.getMessage());
+        }
+        System.out.println("  Checkpoint of another model");
+        final Model other = this.model("src/test/data/balancer.example.txt");
+        final Simulator writer = new Simulator(other.sources, 100,
+                new HeapSchedule(), false);
+        assertTrue(new Checkpoint(other.components, FILE, 1).save(writer));
+        try
+        {
+            new Checkpoint(model.components, null, 0).load(FILE, simulator);
+            fail("Checkpoint is for a different model");
+        }
+        catch (IOException exception)
+        {
+            assertEquals("Checkpoint does not match model",
+                    exception.getMessage());
+        }
+    }
+
+    /**
+     * Compare a simulation that is checkpointed part way through and carries
+     * on with a copy of the model resumed from the checkpoint
+     *
+     * @param path model definition file
+     * @param generate end point in ticks for the simulation
+     * @param pause point in ticks the checkpoint is taken
+     * @throws IOException if the checkpoint cannot be read
+     */
+    private void check(final String path, final double generate,
+            final double pause) throws IOException
+    {
+        final Model first = this.model(path);
+        final Simulator original = new Simulator(first.sources, generate,
+                new HeapSchedule(), false);
+        original.advance(pause);
+        final Checkpoint checkpoint
+                = new Checkpoint(first.components, FILE, 1);
+        assertTrue(checkpoint.due(original.getTransitions()));
+        assertTrue(checkpoint.save(original));
+        assertFalse(checkpoint.due(original.getTransitions()));
+        original.execute();
+        final Model second = this.model(path);
+        final Simulator resumed = new Simulator(second.sources, generate,
+                new CalendarSchedule(), false);
+        new Checkpoint(second.components, null, 0).load(FILE, resumed);
+        resumed.execute();
+        assertEquals(original.getTransitions(), resumed.getTransitions());
+        assertEquals(original.completed.size(), resumed.completed.size());
+        for (int index = 0; index < original.completed.size(); index++)
+        {
+            final Event expected = original.completed.get(index);
+            final Event actual = resumed.completed.get(index);
+            assertEquals(expected.getSource(), actual.getSource());
+            assertEquals(expected.getLabel(), actual.getLabel());
+            assertEquals(expected.getLast(), actual.getLast());
+            assertEquals(expected.getLifetime(), actual.getLifetime(), 0.0);
+        }
+        for (final Component component : first.components.values())
+        {
+            final Component copy = second.components.get(component.getLabel());
+            final List<Event> local = component.getLocalEvents();
+            assertEquals(local.size(), copy.getLocalEvents().size());
+            if (!local.isEmpty())
+            {
+                assertEquals(local.getLast().getStarted(),
+                        copy.getLocalEvents().getLast().getStarted(), 0.0);
+            }
+            assertEquals(component.getQueueStatistics().getChanges(),
+                    copy.getQueueStatistics().getChanges());
+            assertEquals(component.getQueueStatistics().getMean(),
+                    copy.getQueueStatistics().getMean(), 0.0);
+        }
+    }
+
+    /**
+     *
+     * @param path model definition file
+     * @return compiled model
+     */
+    private Model model(final String path)
+    {
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(new File(path));
+        return token.parse();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * CoordinatorTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.Map;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test conservative parallel simulation of partitioned models
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class CoordinatorTest
+{
+
+    public CoordinatorTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of execute method, of class Coordinator.
+     */
+    @Test
+    public void testExecute()
+    {
+        System.out.println("execute");
+        final File file = new File("src/test/data/balancer.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model model = token.parse();
+        final Coordinator instance = new Coordinator(model.components.values(),
+                model.sources, 5000, Schedule.HEAP, 3, false);
+        assertEquals(3, instance.size());
+        assertEquals(0.2, instance.getLookahead(), 0.0000001);
+        assertTrue(instance.execute());
+        // Constant source generating every 0.8 ticks
+        assertTrue(instance.completed.size() > 6000);
+        for (final Event event : instance.completed)
+        {
+            assertNull(event.getComponent());
+            assertEquals("database", event.getLast());
+        }
+    }
+
+    /**
+     * Check partitioned simulation agrees with sequential simulation
+     */
+    @Test
+    public void testEquivalence()
+    {
+        System.out.println("equivalence");
+        final File file = new File("src/test/data/balancer.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model sequential = token.parse();
+        final Model parallel = token.parse();
+        assertTrue(parallel.setPartitions(3));
+        assertFalse(parallel.setPartitions(0));
+        final Map<String, Map<String, Double>> expected
+                = sequential.replicate(20000, 1000, 19000).getResults();
+        final Map<String, Map<String, Double>> actual
+                = parallel.replicate(20000, 1000, 19000).getResults();
+        final String[] sections = {"General event information",
+            "Component: network", "Component: web server 1",
+            "Component: database"};
+        for (final String section : sections)
+        {
+            System.out.println("  " + section);
+            for (final Map.Entry<String, Double> entry
+                    : expected.get(section).entrySet())
+            {
+                final String name = entry.getKey();
+                if (name.endsWith("mean") && !name.startsWith("Wait")
+                        && !name.startsWith("Queued"))
+                {
+                    final double value = entry.getValue();
+                    assertEquals(name, value, actual.get(section).get(name),
+                            Math.abs(value) * 0.05);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check events that tie across partitions are taken in the order
+     * sequential simulation takes them
+     */
+    @Test
+    public void testTies()
+    {
+        System.out.println("ties");
+        final File file = new File("src/test/data/complex.constant.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model sequential = token.parse();
+        final Model parallel = token.parse();
+        assertTrue(parallel.setPartitions(2));
+        final Map<String, Map<String, Double>> expected
+                = sequential.replicate(1000, 100, 900).getResults();
+        final Map<String, Map<String, Double>> actual
+                = parallel.replicate(1000, 100, 900).getResults();
+        final String[] sections = {"'source 1' event information",
+            "'source 2' event information", "Component: database"};
+        for (final String section : sections)
+        {
+            System.out.println("  " + section);
+            assertEquals(expected.get(section), actual.get(section));
+        }
+    }
+}
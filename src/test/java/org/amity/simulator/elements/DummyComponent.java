@@ -19,10 +19,8 @@
  */
 package org.amity.simulator.elements;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import org.amity.simulator.data.QueueStatistics;
 
 /**
@@ -47,7 +45,19 @@ public class DummyComponent implements Component
     }
 
     @Override
-    public List<Event> getLocalEvents()
+    public Visits getLocalEvents()
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public void setRecording(boolean all)
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public boolean isRecording()
     {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
@@ -77,7 +87,13 @@ public class DummyComponent implements Component
     }
 
     @Override
-    public List<QueueStatistics> getQueueStatistics()
+    public List<Function> getFunctions()
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public QueueStatistics getQueueStatistics()
     {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
     }
@@ -100,12 +116,39 @@ public class DummyComponent implements Component
         return this.available;
     }
 
+    @Override
+    public Object save(Event event)
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public void restore(Object state)
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public void commit(Object state)
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public void write(Checkpoint checkpoint)
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
+    @Override
+    public void read(Checkpoint checkpoint)
+    {
+        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+    }
+
     @Override
     public void prioritize(final Sequencer sequencer, final boolean explore)
     {
-        final String[] sources = new String[]{"source 1", "source 2",
-            "source 3"};
-        final Set<String> priorities = new HashSet<>();
         if (explore)
         {
             // If matched to path, add collected information
@@ -128,11 +171,8 @@ public class DummyComponent implements Component
         }
         else
         {
-            priorities.add("source 1");
-            priorities.add("source 2");
-            priorities.add("source 3");
-            sequencer.sources = sources;
-            sequencer.priorities = priorities;
+            sequencer.ranks = sequencer.names.ranks(List.of("source 1",
+                    "source 2", "source 3"));
             sequencer.paths.add(this);
         }
     }
@@ -0,0 +1,119 @@
+/*
+ * EventQueueTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the queue of events waiting at a component.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class EventQueueTest
+{
+
+    public EventQueueTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of add, contains, indexOf and remove methods, of class EventQueue.
+     */
+    @Test
+    public void testMembership()
+    {
+        System.out.println("membership");
+        final EventQueue queue = new EventQueue();
+        final List<Event> expected = new ArrayList<>();
+        final Event outside = new Event("source", "outside", 0);
+        System.out.println("  agrees with a list through the ring wrapping");
+        for (int count = 0; count < 200; count++)
+        {
+            final Event event = new Event("source", "" + count, count);
+            queue.add(event);
+            expected.add(event);
+            // Leave from the front, middle and back in turn
+            if (count % 3 == 2)
+            {
+                final int index = count % 2 == 0 ? 0 : expected.size() / 2;
+                final Event leaving = expected.remove(index);
+                assertTrue(queue.remove(leaving));
+                assertFalse(queue.contains(leaving));
+            }
+            assertEquals(expected, queue);
+        }
+        for (int index = 0; index < expected.size(); index++)
+        {
+            assertTrue(queue.contains(expected.get(index)));
+            assertEquals(index, queue.indexOf(expected.get(index)));
+        }
+        assertFalse(queue.contains(outside));
+        assertEquals(-1, queue.indexOf(outside));
+        assertFalse(queue.remove(outside));
+        System.out.println("  put back where it was");
+        final Event middle = queue.remove(40);
+        final Event front = queue.remove(0);
+        queue.add(0, front);
+        queue.add(40, middle);
+        assertEquals(expected, queue);
+        System.out.println("  cut back from the end");
+        while (queue.size() > 10)
+        {
+            final Event last = queue.removeLast();
+            assertEquals(expected.removeLast(), last);
+            assertFalse(queue.contains(last));
+        }
+        assertEquals(expected, queue);
+        System.out.println("  clear");
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        for (final Event event : expected)
+        {
+            assertFalse(queue.contains(event));
+        }
+    }
+}
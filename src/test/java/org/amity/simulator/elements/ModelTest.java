@@ -22,6 +22,8 @@ package org.amity.simulator.elements;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.amity.simulator.language.Lexer;
 import org.amity.simulator.language.Token;
 import org.junit.After;
@@ -150,4 +152,156 @@ public class ModelTest
         assertTrue(model.isCompiled());
         assertTrue(model.execute(generate, start, end));
     }
+
+    /**
+     * Test of setSeed method, of class Model.
+     */
+    @Test
+    public void testSetSeed()
+    {
+        System.out.println("setSeed");
+        final File file = new File("src/test/data/balancer.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        Model model = token.parse();
+        model.setSeed(42);
+        final Monitor first = model.replicate(2000, 100, 1900);
+        model = token.parse();
+        model.setSeed(42);
+        final Monitor second = model.replicate(2000, 100, 1900);
+        assertEquals(first.getResults(), second.getResults());
+        System.out.println("  Partitions draw the same values");
+        model = token.parse();
+        model.setSeed(42);
+        model.setPartitions(3);
+        final Monitor partitioned = model.replicate(2000, 100, 1900);
+        assertEquals(first.getResults().get("General event information"),
+                partitioned.getResults().get("General event information"));
+        System.out.println("  Different seed");
+        model = token.parse();
+        model.setSeed(43);
+        final Monitor other = model.replicate(2000, 100, 1900);
+        assertNotEquals(first.getResults().get("General event information"),
+                other.getResults().get("General event information"));
+    }
+
+    /**
+     * Test of split method, of class Model.
+     */
+    @Test
+    public void testSplit()
+    {
+        System.out.println("split");
+        assertEquals(Model.split(42, "web server 1", 0),
+                Model.split(42, "web server 1", 0));
+        assertNotEquals(Model.split(42, "web server 1", 0),
+                Model.split(42, "web server 1", 1));
+        assertNotEquals(Model.split(42, "web server 1", 0),
+                Model.split(42, "web server 2", 0));
+        assertNotEquals(Model.split(42, "web server 1", 0),
+                Model.split(43, "web server 1", 0));
+    }
+
+    /**
+     * Test of copy method, of class Model.
+     */
+    @Test
+    public void testCopy()
+    {
+        System.out.println("copy");
+        final File file = new File("src/test/data/multi-source.model.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model model = token.parse();
+        System.out.println("  Copy has its own components");
+        final Model copy = model.copy();
+        assertTrue(copy.isCompiled());
+        assertEquals(model.components.keySet(), copy.components.keySet());
+        assertEquals(model.sources.size(), copy.sources.size());
+        for (final String label : model.components.keySet())
+        {
+            assertTrue(model.components.get(label)
+                    != copy.components.get(label));
+            assertEquals(model.components.get(label).description(),
+                    copy.components.get(label).description());
+        }
+        System.out.println("  Copy runs as if compiled again");
+        model.setSeed(42);
+        final Monitor compiled = model.replicate(2000, 100, 1900);
+        copy.setSeed(42);
+        assertEquals(compiled.getResults(),
+                copy.replicate(2000, 100, 1900).getResults());
+        System.out.println("  Copies run at the same time");
+        final List<CompletableFuture<Monitor>> runs = new ArrayList<>();
+        for (int index = 0; index < 3; index++)
+        {
+            final Model concurrent = model.copy();
+            concurrent.setSeed(42);
+            runs.add(CompletableFuture.supplyAsync(()
+                    -> concurrent.replicate(2000, 100, 1900)));
+        }
+        for (final CompletableFuture<Monitor> run : runs)
+        {
+            assertEquals(compiled.getResults(), run.join().getResults());
+        }
+        System.out.println("  No copy of a model that is not compiled");
+        assertNull(new Model().copy());
+    }
+
+    /**
+     * Test of simulating sub-networks in parallel, of class Model.
+     */
+    @Test
+    public void testNetworks()
+    {
+        System.out.println("networks");
+        System.out.println("  Same results as simulating as a whole");
+        this.compare("src/test/data/disjoint.model.txt");
+        System.out.println("  Sub-networks reaching the same time");
+        this.compare("src/test/data/disjoint.constant.txt");
+    }
+
+    /**
+     * Check a model gives the same results with and without its sub-networks
+     * simulated apart
+     *
+     * @param name path of model file
+     */
+    private void compare(final String name)
+    {
+        final Lexer lexer = new Lexer();
+        final Model model = lexer.analyze(new File(name)).parse();
+        assertEquals(2, model.networks.size());
+        final Model whole = model.copy();
+        whole.setSplit(false);
+        model.setSeed(42);
+        whole.setSeed(42);
+        final Map<String, Map<String, Double>> expected
+                = whole.replicate(2000, 100, 1900).getResults();
+        final Map<String, Map<String, Double>> actual
+                = model.replicate(2000, 100, 1900).getResults();
+        assertEquals(expected.keySet(), actual.keySet());
+        for (final String section : expected.keySet())
+        {
+            if (section.equals("General event information"))
+            {
+                // Merged from the sub-networks, so the moments may differ
+                // in rounding and the percentiles within the sketch error
+                for (final Map.Entry<String, Double> entry
+                        : expected.get(section).entrySet())
+                {
+                    final double value = entry.getValue();
+                    final boolean rank = entry.getKey().contains("percentile")
+                            || entry.getKey().contains("median");
+                    assertEquals(entry.getKey(), value,
+                            actual.get(section).get(entry.getKey()),
+                            Math.abs(value) * (rank ? 0.02 : 1e-9));
+                }
+            }
+            else
+            {
+                assertEquals(expected.get(section), actual.get(section));
+            }
+        }
+    }
 }
@@ -78,6 +78,10 @@ public class MonitorTest
         final double sampleEnd = 10000;
         final double end = 10100;
         final Monitor instance = new Monitor(sampleStart, sampleEnd);
+        for (final Component component : model.components.values())
+        {
+            component.getQueueStatistics().setWindow(sampleStart, sampleEnd);
+        }
         final LinkedList<Event> events = new LinkedList<>();
         for (final Component source : model.sources)
         {
@@ -0,0 +1,207 @@
+/*
+ * PartitionerTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test division of models into partitions
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class PartitionerTest
+{
+
+    public PartitionerTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of assign method, of class Partitioner.
+     */
+    @Test
+    public void testAssign()
+    {
+        System.out.println("assign");
+        final Model model = this.model("src/test/data/balancer.example.txt");
+        final Partitioner instance
+                = new Partitioner(model.components.values());
+        final Map<Component, Integer> assignment = instance.assign(3);
+        assertEquals(model.components.size(), assignment.size());
+        System.out.println("  Source stays with its first component");
+        assertEquals(this.partition(model, assignment, "source"),
+                this.partition(model, assignment, "network"));
+        System.out.println("  Balancer stays with its targets");
+        final int balancer
+                = this.partition(model, assignment, "load balancer");
+        assertEquals(balancer,
+                this.partition(model, assignment, "web server 1"));
+        assertEquals(balancer,
+                this.partition(model, assignment, "web server 2"));
+        assertEquals(balancer,
+                this.partition(model, assignment, "web server 3"));
+        System.out.println("  Delayed connections can be separated");
+        final Set<Integer> partitions = new HashSet<>(assignment.values());
+        assertEquals(3, partitions.size());
+        System.out.println("  Cannot divide further than groups allow");
+        assertEquals(3, new HashSet<>(instance.assign(10).values()).size());
+        System.out.println("  Single partition");
+        assertEquals(1, new HashSet<>(instance.assign(1).values()).size());
+    }
+
+    /**
+     * Test of assign method for optimistic simulation, of class Partitioner.
+     */
+    @Test
+    public void testAssignOptimistic()
+    {
+        System.out.println("assignOptimistic");
+        final Model model = this.model("src/test/data/fun.example.txt");
+        System.out.println("  Feedback through balancers cannot be divided");
+        Partitioner instance = new Partitioner(model.components.values());
+        assertEquals(1, new HashSet<>(instance.assign(4).values()).size());
+        System.out.println("  Divided where there is no shared state");
+        instance = new Partitioner(model.components.values(), true);
+        assertFalse(instance.isPrioritized());
+        final Map<Component, Integer> assignment = instance.assign(4);
+        assertEquals(4, new HashSet<>(assignment.values()).size());
+        assertEquals(this.partition(model, assignment, "source 1"),
+                this.partition(model, assignment, "balancer"));
+        assertEquals(this.partition(model, assignment, "smart balancer 2"),
+                this.partition(model, assignment, "box 2e"));
+        assertNotEquals(this.partition(model, assignment, "balancer"),
+                this.partition(model, assignment, "smart balancer 1"));
+        assertEquals(0, instance.lookahead(assignment), 0.0);
+        System.out.println("  Re-prioritization keeps balancers together");
+        final Model prioritized
+                = this.model("src/test/data/multi-source.model.txt");
+        instance = new Partitioner(prioritized.components.values(), true);
+        assertTrue(instance.isPrioritized());
+    }
+
+    /**
+     * Test of lookahead method, of class Partitioner.
+     */
+    @Test
+    public void testLookahead()
+    {
+        System.out.println("lookahead");
+        final Model model = this.model("src/test/data/balancer.example.txt");
+        final Partitioner instance
+                = new Partitioner(model.components.values());
+        assertEquals(0.2, instance.lookahead(instance.assign(3)), 0.0000001);
+        assertEquals(Double.POSITIVE_INFINITY,
+                instance.lookahead(instance.assign(1)), 0.0);
+    }
+
+    /**
+     * Test of networks method, of class Partitioner.
+     */
+    @Test
+    public void testNetworks()
+    {
+        System.out.println("networks");
+        System.out.println("  Connected model is one sub-network");
+        Model model = this.model("src/test/data/balancer.example.txt");
+        List<List<Component>> networks
+                = Partitioner.networks(model.components.values());
+        assertEquals(1, networks.size());
+        assertEquals(model.components.size(), networks.get(0).size());
+        System.out.println("  Pipelines that share nothing are apart");
+        model = this.model("src/test/data/disjoint.model.txt");
+        networks = Partitioner.networks(model.components.values());
+        assertEquals(2, networks.size());
+        assertEquals(networks.get(0).size(), networks.get(1).size());
+        for (final List<Component> network : networks)
+        {
+            final boolean east = network.get(0).getLabel().startsWith("east ");
+            for (final Component component : network)
+            {
+                assertEquals(east, component.getLabel().startsWith("east "));
+            }
+        }
+        assertEquals(2, model.networks.size());
+        System.out.println("  Components no source leads to are left out");
+        model = this.model("src/test/data/test.example.txt");
+        networks = Partitioner.networks(model.components.values());
+        assertTrue(networks.size() > model.networks.size());
+        assertEquals(1, model.networks.size());
+    }
+
+    /**
+     * Compile model
+     *
+     * @param name location of model definition
+     * @return compiled model
+     */
+    private Model model(final String name)
+    {
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(new File(name));
+        final Model model = token.parse();
+        assertTrue(model.isCompiled());
+        return model;
+    }
+
+    /**
+     *
+     * @param model compiled model
+     * @param assignment partition index for each component
+     * @param label name of component
+     * @return partition index of component
+     */
+    private int partition(final Model model,
+            final Map<Component, Integer> assignment, final String label)
+    {
+        return assignment.get(model.components.get(label));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * PrecisionTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.Map;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.apache.commons.math3.random.MersenneTwister;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test sequential stopping rule
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class PrecisionTest
+{
+
+    public PrecisionTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of batching observations, of class Precision.Series.
+     */
+    @Test
+    public void testSeries()
+    {
+        System.out.println("series");
+        final MersenneTwister random = new MersenneTwister(42);
+        Precision.Series instance = new Precision.Series("independent", 0);
+        assertFalse(instance.isPrecise(0.5));
+        assertEquals(0, instance.getSize());
+        for (int index = 0; index < 100000; index++)
+        {
+            instance.add(random.nextDouble());
+        }
+        assertEquals(16, instance.getSize());
+        assertEquals(100000 / 16, instance.getBatches());
+        assertEquals(0.5, instance.getMean(), 0.01);
+        assertTrue(instance.getHalfWidth() < 0.005);
+        assertTrue(instance.isPrecise(0.01));
+        assertFalse(instance.isPrecise(0.001));
+        System.out.println("  Correlated observations need bigger batches");
+        instance = new Precision.Series("correlated", 0);
+        double value = 0;
+        for (int index = 0; index < 100000; index++)
+        {
+            value = 0.95 * value + random.nextGaussian();
+            instance.add(value + 10);
+        }
+        assertTrue(instance.getSize() > 16);
+        assertEquals(10, instance.getMean(), 0.5);
+        System.out.println("  Percentile of each batch");
+        instance = new Precision.Series("median", 50);
+        for (int index = 0; index < 100000; index++)
+        {
+            instance.add(random.nextDouble());
+        }
+        assertEquals(0.5, instance.getMean(), 0.01);
+        System.out.println("  Constant observations");
+        instance = new Precision.Series("constant", 0);
+        for (int index = 0; index < 10000; index++)
+        {
+            instance.add(0);
+        }
+        assertEquals(0, instance.getHalfWidth(), 0.0);
+        assertTrue(instance.isPrecise(0.01));
+    }
+
+    /**
+     * Test of update method, of class Precision.
+     */
+    @Test
+    public void testUpdate()
+    {
+        System.out.println("update");
+        final Model model = this.model("src/test/data/monitoring.example.txt");
+        final Simulator simulator = new Simulator(model.sources, 1000000,
+                new HeapSchedule(), false);
+        final Precision instance = new Precision(model.components.values(),
+                500, 900000, 0.1);
+        assertEquals(900000, instance.getEnd(), 0.0);
+        simulator.setPrecision(instance);
+        simulator.execute();
+        assertTrue(instance.isConverged());
+        assertTrue(instance.getEnd() > 500);
+        assertTrue(instance.getEnd() < 900000);
+        for (final Precision.Series series : instance.getSeries())
+        {
+            assertTrue(series.getName(), series.isPrecise(0.1));
+        }
+        for (final Event event : model.sources.get(0).getLocalEvents())
+        {
+            assertTrue(event.getCreated()
+                    <= instance.getEnd() + Precision.INTERVAL);
+        }
+        System.out.println("  Sample end reached first");
+        final Model other = this.model("src/test/data/monitoring.example.txt");
+        final Simulator capped = new Simulator(other.sources, 3000,
+                new HeapSchedule(), false);
+        final Precision limited = new Precision(other.components.values(),
+                500, 2000, 0.001);
+        capped.setPrecision(limited);
+        capped.execute();
+        assertFalse(limited.isConverged());
+        assertEquals(2000, limited.getEnd(), 0.0);
+    }
+
+    /**
+     * Test of reporting precision through the model, of class Precision.
+     */
+    @Test
+    public void testReport()
+    {
+        System.out.println("report");
+        final Model model = this.model("src/test/data/monitoring.example.txt");
+        assertFalse(model.setPrecision(1));
+        assertFalse(model.setPrecision(-0.1));
+        assertTrue(model.setPrecision(0.1));
+        assertEquals(0.1, model.getPrecision(), 0.0);
+        final Monitor monitor = model.replicate(1000000, 500, 900000);
+        assertNotNull(monitor);
+        assertTrue(monitor.getEnd() < 900000);
+        final Map<String, Double> precision
+                = monitor.getResults().get("Precision of statistics");
+        assertNotNull(precision);
+        assertEquals(1, precision.get("Converged"), 0.0);
+        assertTrue(precision.get("Event lifetime mean relative half width")
+                <= 10);
+        assertEquals(monitor.getResults().get("General event information")
+                .get("Event lifetime mean"),
+                precision.get("Event lifetime mean estimate"), 0.1);
+    }
+
+    /**
+     *
+     * @param path model definition file
+     * @return compiled model
+     */
+    private Model model(final String path)
+    {
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(new File(path));
+        return token.parse();
+    }
+}
@@ -20,9 +20,11 @@
 package org.amity.simulator.elements;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedList;
 import org.amity.simulator.generators.Constant;
+import org.amity.simulator.generators.Uniform;
 import java.util.List;
 import java.util.Map;
 import org.junit.After;
@@ -346,7 +348,7 @@ public class ProcessorTest
         System.out.println("  Check depth");
         // No way to adequately test this except under load
         assertTrue(instance.getQueueStatistics() != null);
-        assertEquals(1, instance.getQueueStatistics().size());
+        assertEquals(0, instance.getQueueStatistics().getChanges());
     }
 
     /**
@@ -460,9 +462,10 @@ public class ProcessorTest
         assertFalse(sequencer.paths.isEmpty());
         assertTrue(sequencer.paths.contains(instance));
         assertTrue(sequencer.participants.isEmpty());
-        assertFalse(sequencer.priorities.isEmpty());
-        assertTrue(sequencer.priorities.contains(label));
-        assertTrue(sequencer.sources.length == 1);
+        assertTrue(sequencer.ranks.length > sequencer.names.id(label));
+        assertTrue(sequencer.ranks[sequencer.names.id(label)] == 0);
+        assertTrue(Arrays.stream(sequencer.ranks)
+                .filter(rank -> rank != Integer.MAX_VALUE).count() == 1);
         System.out.println("  Try explore with different end component");
         sequencer.participants.clear();
         sequencer.paths.clear();
@@ -572,4 +575,64 @@ public class ProcessorTest
             assertTrue(instance.getAvailable() == state[index++]);
         }
     }
+
+    /**
+     * Test of save and restore methods, of class Processor.
+     */
+    @Test
+    public void testRestore()
+    {
+        System.out.println("restore");
+        final String sourceLabel = "source";
+        final String label = "delay";
+        final int eventTotal = 4;
+        final Generator sourceGenerator = new Constant(1, sourceLabel, label);
+        final Generator generator = new Uniform(2, 3, sourceLabel, null);
+        final List<Generator> generators = new ArrayList<>();
+        generators.add(generator);
+        final Component instance = new Processor(label, generators,
+                new ArrayList<>(), true);
+        final Component source
+                = new Source(sourceLabel, sourceGenerator, null, null, false);
+        sourceGenerator.setNext(instance);
+        final List<Event> events = new ArrayList<>();
+        for (int count = 0; count < eventTotal; count++)
+        {
+            events.add(source.simulate(null));
+        }
+        // Each event arrives while the processor is busy with the last
+        final List<Object> states = new ArrayList<>();
+        final List<Event> saved = new ArrayList<>();
+        for (final Event event : events)
+        {
+            states.add(instance.save(event));
+            saved.add(new Event(event));
+            event.simulate();
+        }
+        final double available = instance.getAvailable();
+        final int depth = instance.getQueueStatistics().getChanges();
+        assertEquals(1, instance.getLocalEvents().size());
+        System.out.println("  roll back to start");
+        for (int index = events.size() - 1; index >= 0; index--)
+        {
+            instance.restore(states.get(index));
+            events.get(index).restore(saved.get(index));
+        }
+        assertEquals(0, instance.getAvailable(), DELTA);
+        assertTrue(instance.getLocalEvents().isEmpty());
+        assertEquals(0, instance.getQueueStatistics().getChanges());
+        assertEquals(0, instance.getQueueStatistics().getDepth());
+        System.out.println("  repeat gives same result");
+        for (final Event event : events)
+        {
+            event.simulate();
+        }
+        assertEquals(available, instance.getAvailable(), DELTA);
+        assertEquals(depth, instance.getQueueStatistics().getChanges());
+        assertEquals(1, instance.getLocalEvents().size());
+        for (final Object state : states)
+        {
+            instance.commit(state);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * QueueBenchmark.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.amity.simulator.generators.Constant;
+import org.amity.simulator.generators.Generator;
+
+/**
+ * Measures the time for each transition through an overloaded processor as
+ * its queue grows deeper. A burst of events arrives faster than they can be
+ * processed, so all but the first wait, and then each is processed in turn
+ * until the queue is empty. The time per transition should stay flat as the
+ * burst grows. Not run as part of the tests - run the main method against
+ * the test classpath with optionally the largest burst.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class QueueBenchmark
+{
+
+    private final static String SOURCE = "source";
+    private final static int LARGEST = 100000;
+    private final static int ROUNDS = 3;
+
+    /**
+     * Hidden default constructor - only static methods
+     */
+    private QueueBenchmark()
+    {
+    }
+
+    /**
+     * @param args optional largest number of events in a burst
+     */
+    public static void main(final String[] args)
+    {
+        final int largest = args.length > 0 ? Integer.parseInt(args[0])
+                : LARGEST;
+        System.out.println(String.format("%-6s %12s %12s %12s", "Round",
+                "Depth", "Transitions", "ns/trans"));
+        // First round warms up the code paths
+        for (int round = 0; round <= ROUNDS; round++)
+        {
+            for (int depth = 1000; depth <= largest; depth *= 10)
+            {
+                final long started = System.nanoTime();
+                final int transitions = QueueBenchmark.burst(depth);
+                final long elapsed = System.nanoTime() - started;
+                System.out.println(String.format("%-6s %12d %12d %12.1f",
+                        round == 0 ? "warm" : Integer.toString(round), depth,
+                        transitions, (double) elapsed / transitions));
+            }
+        }
+    }
+
+    /**
+     * Run a burst of events through a processor
+     *
+     * @param depth number of events in the burst
+     * @return number of transitions through the processor
+     */
+    private static int burst(final int depth)
+    {
+        final List<Generator> generators = new ArrayList<>();
+        generators.add(new Constant(1, SOURCE, null));
+        final Component processor = new Processor("processor", generators,
+                new ArrayList<>(), true);
+        int transitions = 0;
+        final List<Event> waiting = new ArrayList<>(depth);
+        for (int count = 0; count < depth; count++)
+        {
+            final double created = count * 0.001;
+            final Event event = new Event(SOURCE, Integer.toString(count),
+                    created);
+            event.setValues(created, created, created);
+            event.setComponent(processor);
+            processor.simulate(event);
+            transitions++;
+            // Deferred events are still at the processor
+            if (event.getComponent() == processor)
+            {
+                waiting.add(event);
+            }
+        }
+        // Queued events start in the order they arrived
+        for (final Event event : waiting)
+        {
+            processor.simulate(event);
+            transitions++;
+        }
+        return transitions;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * RecordingBenchmark.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+
+/**
+ * Measures the bytes allocated for each transition of a simulation, which is
+ * mostly the cost of recording events as they pass through components, and
+ * the heap held by the records of each visit once the simulation ends. Not
+ * run as part of the tests - run the main method against the test classpath
+ * with a model file and optionally the generation period in ticks.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class RecordingBenchmark
+{
+
+    private final static String MODEL = "src/test/data/balancer.example.txt";
+    private final static double GENERATE = 1000000;
+    private final static int ROUNDS = 3;
+
+    /**
+     * Hidden default constructor - only static methods
+     */
+    private RecordingBenchmark()
+    {
+    }
+
+    /**
+     * @param args optional model file and generation period in ticks
+     */
+    public static void main(final String[] args)
+    {
+        final String path = args.length > 0 ? args[0] : MODEL;
+        final double generate = args.length > 1 ? Double.parseDouble(args[1])
+                : GENERATE;
+        final com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) ManagementFactory
+                        .getThreadMXBean();
+        final long thread = Thread.currentThread().threadId();
+        System.out.println(String.format("%-6s %12s %15s %15s %12s",
+                "Round", "Transitions", "Bytes/trans", "Bytes/visit",
+                "Seconds"));
+        // First round warms up the code paths
+        for (int round = 0; round <= ROUNDS; round++)
+        {
+            final Token token = new Lexer().analyze(new File(path));
+            final Model model = token.parse();
+            if (!model.isCompiled())
+            {
+                System.err.println("Unable to compile " + path);
+                break;
+            }
+            model.setSeed(round);
+            final Simulator simulator = new Simulator(model.sources, generate,
+                    new HeapSchedule(), false);
+            final long allocated = threads.getThreadAllocatedBytes(thread);
+            final long started = System.nanoTime();
+            simulator.execute();
+            final long elapsed = System.nanoTime() - started;
+            final long bytes = threads.getThreadAllocatedBytes(thread)
+                    - allocated;
+            final int transitions = simulator.getTransitions();
+            // Heap given back by dropping the visit records
+            long visits = 0;
+            for (final Component component : model.components.values())
+            {
+                visits += component.getLocalEvents().size();
+            }
+            final long held = RecordingBenchmark.used();
+            for (final Component component : model.components.values())
+            {
+                component.getLocalEvents().clear();
+            }
+            final long released = held - RecordingBenchmark.used();
+            System.out.println(String.format("%-6s %12d %15.1f %15.1f %12.3f",
+                    round == 0 ? "warm" : Integer.toString(round),
+                    transitions, (double) bytes / transitions,
+                    (double) released / visits, elapsed / 1e9));
+        }
+    }
+
+    /**
+     *
+     * @return heap in use after garbage collection
+     */
+    private static long used()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int collection = 0; collection < 3; collection++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * ReplicationsTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test independent replications of a model
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class ReplicationsTest
+{
+
+    public ReplicationsTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of replicate method, of class Replications.
+     */
+    @Test
+    public void testReplicate()
+    {
+        System.out.println("replicate");
+        final File file = new File("src/test/data/monitoring.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Replications instance
+                = new Replications(token::parse, 4, 2, Schedule.HEAP);
+        final List<Monitor> monitors = instance.replicate(2000, 100, 1900);
+        assertNotNull(monitors);
+        assertEquals(4, monitors.size());
+        for (final Monitor monitor : monitors)
+        {
+            final Map<String, Map<String, Double>> results
+                    = monitor.getResults();
+            assertTrue(results.containsKey("General event information"));
+            assertTrue(results.containsKey("Component: network"));
+            final Map<String, Double> network
+                    = results.get("Component: network");
+            assertTrue(network.get("Events processed") > 0);
+            assertTrue(network.get("Wait time mean") >= 0);
+            assertTrue(network.get("Utilization") > 0);
+        }
+        System.out.println("  Replications are independent");
+        final double first = monitors.get(0).getResults()
+                .get("General event information").get("Event lifetime mean");
+        boolean different = false;
+        for (final Monitor monitor : monitors)
+        {
+            different |= monitor.getResults().get("General event information")
+                    .get("Event lifetime mean") != first;
+        }
+        assertTrue(different);
+        System.out.println("  Combined statistics");
+        new Monitor(100, 1900).displayStatistics(monitors);
+    }
+
+    /**
+     * Test of execute method, of class Replications.
+     */
+    @Test
+    public void testExecute()
+    {
+        System.out.println("execute");
+        final File file = new File("src/test/data/monitoring.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        Replications instance
+                = new Replications(token::parse, 2, 1, Schedule.CALENDAR);
+        assertTrue(instance.execute(1000, 100, 900));
+        System.out.println("  Invalid sample period");
+        assertFalse(instance.execute(1000, 900, 100));
+        System.out.println("  Unknown schedule");
+        instance = new Replications(token::parse, 2, 1, "unknown");
+        assertFalse(instance.execute(1000, 100, 900));
+        System.out.println("  No threads");
+        instance = new Replications(token::parse, 2, 0, Schedule.HEAP);
+        assertFalse(instance.execute(1000, 100, 900));
+    }
+
+    /**
+     * Test of repeating seeded replications, of class Replications.
+     */
+    @Test
+    public void testSeed()
+    {
+        System.out.println("seed");
+        final File file = new File("src/test/data/monitoring.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final List<Monitor> first = new Replications(token::parse, 3, 2,
+                Schedule.HEAP, 7).replicate(2000, 100, 1900);
+        final List<Monitor> second = new Replications(token::parse, 3, 3,
+                Schedule.CALENDAR, 7).replicate(2000, 100, 1900);
+        assertEquals(3, first.size());
+        assertEquals(3, second.size());
+        for (int index = 0; index < first.size(); index++)
+        {
+            assertEquals(first.get(index).getResults(),
+                    second.get(index).getResults());
+        }
+        System.out.println("  Replications still differ from each other");
+        assertNotEquals(first.get(0).getResults(), first.get(1).getResults());
+    }
+}
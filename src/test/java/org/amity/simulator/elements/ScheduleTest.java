@@ -0,0 +1,321 @@
+/*
+ * ScheduleTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the future event list implementations against the original sorted
+ * list behavior
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class ScheduleTest
+{
+
+    private final static String[] TYPES = {Schedule.HEAP, Schedule.CALENDAR};
+
+    public ScheduleTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of instance method, of interface Schedule.
+     */
+    @Test
+    public void testInstance()
+    {
+        System.out.println("instance");
+        assertTrue(Schedule.instance(Schedule.HEAP) instanceof HeapSchedule);
+        assertTrue(Schedule.instance(Schedule.CALENDAR)
+                instanceof CalendarSchedule);
+        assertTrue(Schedule.instance(Schedule.LIST) instanceof ListSchedule);
+        assertNull(Schedule.instance("unknown"));
+        assertNull(Schedule.instance(null));
+    }
+
+    /**
+     * Test of add and poll methods, of interface Schedule.
+     */
+    @Test
+    public void testOrder()
+    {
+        System.out.println("add, poll");
+        for (final String type : TYPES)
+        {
+            System.out.println("  " + type);
+            final Schedule schedule = Schedule.instance(type);
+            assertTrue(schedule.isEmpty());
+            assertNull(schedule.poll());
+            assertNull(schedule.peek());
+            final Event late = this.event("late", 5.0, 5.0);
+            final Event early = this.event("early", 1.0, 1.0);
+            final Event tieFirst = this.event("tie first", 3.0, 2.0);
+            final Event tieSecond = this.event("tie second", 3.0, 2.0);
+            final Event tieArrived = this.event("tie arrived", 3.0, 1.5);
+            schedule.add(late);
+            schedule.add(early);
+            schedule.add(tieFirst);
+            schedule.add(tieSecond);
+            schedule.add(tieArrived);
+            assertEquals(5, schedule.size());
+            assertTrue(schedule.peek() == early);
+            assertTrue(schedule.poll() == early);
+            assertTrue(schedule.poll() == tieArrived);
+            assertTrue(schedule.poll() == tieFirst);
+            assertTrue(schedule.poll() == tieSecond);
+            assertTrue(schedule.poll() == late);
+            assertTrue(schedule.isEmpty());
+        }
+    }
+
+    /**
+     * Test of addFirst method, of interface Schedule.
+     */
+    @Test
+    public void testAddFirst()
+    {
+        System.out.println("addFirst");
+        for (final String type : TYPES)
+        {
+            System.out.println("  " + type);
+            final Schedule schedule = Schedule.instance(type);
+            final Event first = this.event("first", 1.0, 1.0);
+            final Event second = this.event("second", 2.0, 2.0);
+            final Event forced = this.event("forced", 4.0, 4.0);
+            schedule.add(first);
+            schedule.add(second);
+            schedule.addFirst(forced);
+            assertTrue(schedule.peek() == forced);
+            final Iterator<Event> iterator = schedule.iterator();
+            assertTrue(iterator.next() == forced);
+            assertTrue(iterator.next() == first);
+            System.out.println("  Forced event is taken next");
+            assertTrue(schedule.poll() == forced);
+            System.out.println("  Forced event is merged on next addition");
+            final Event tie = this.event("tie", 1.0, 1.0);
+            schedule.addFirst(tie);
+            schedule.add(this.event("third", 3.0, 3.0));
+            assertTrue(schedule.poll() == tie);
+            assertTrue(schedule.poll() == first);
+            assertTrue(schedule.poll() == second);
+        }
+    }
+
+    /**
+     * Test of remove and reorder methods, of interface Schedule.
+     */
+    @Test
+    public void testRemoveReorder()
+    {
+        System.out.println("remove, reorder");
+        for (final String type : TYPES)
+        {
+            System.out.println("  " + type);
+            final Schedule schedule = Schedule.instance(type);
+            final List<Event> events = new ArrayList<>();
+            for (int index = 0; index < 10; index++)
+            {
+                final Event event = this.event(Integer.toString(index),
+                        index, index);
+                events.add(event);
+                schedule.add(event);
+            }
+            assertTrue(schedule.remove(events.get(4)));
+            assertFalse(schedule.remove(events.get(4)));
+            assertEquals(9, schedule.size());
+            System.out.println("  Modified event is re-ordered");
+            events.get(8).setStarted(0.5);
+            assertTrue(schedule.poll() == events.get(0));
+            assertTrue(schedule.poll() == events.get(8));
+            assertTrue(schedule.poll() == events.get(1));
+            System.out.println("  Removed events are no longer tracked");
+            events.get(0).setStarted(100);
+            assertEquals(6, schedule.size());
+            schedule.clear();
+            assertTrue(schedule.isEmpty());
+        }
+    }
+
+    /**
+     * Test of iterator method, of interface Schedule.
+     */
+    @Test
+    public void testIterator()
+    {
+        System.out.println("iterator");
+        for (final String type : TYPES)
+        {
+            System.out.println("  " + type);
+            final Random random = new Random(17);
+            final Schedule schedule = Schedule.instance(type);
+            final Schedule reference = Schedule.instance(Schedule.LIST);
+            for (int index = 0; index < 500; index++)
+            {
+                final double time = Math.floor(random.nextDouble() * 1000) / 4;
+                final Event event = this.event(Integer.toString(index),
+                        time, time);
+                schedule.add(event);
+                reference.add(event);
+            }
+            final Iterator<Event> expected = reference.iterator();
+            int count = 0;
+            for (final Event event : schedule)
+            {
+                assertTrue(expected.next() == event);
+                count++;
+            }
+            assertEquals(reference.size(), count);
+            assertFalse(expected.hasNext());
+        }
+    }
+
+    /**
+     * Check that a mixed workload is executed in the same order as the
+     * original sorted list.
+     */
+    @Test
+    public void testEquivalence()
+    {
+        System.out.println("equivalence");
+        for (final String type : TYPES)
+        {
+            System.out.println("  " + type);
+            final Random random = new Random(31);
+            final Schedule schedule = Schedule.instance(type);
+            final Schedule reference = Schedule.instance(Schedule.LIST);
+            final List<Event> events = new ArrayList<>();
+            for (int index = 0; index < 200; index++)
+            {
+                final double time = random.nextInt(400) / 2.0;
+                events.add(this.event(Integer.toString(index), time, time));
+            }
+            for (final Event event : events)
+            {
+                schedule.add(event);
+                reference.add(event);
+            }
+            int transitions = 0;
+            while (!reference.isEmpty())
+            {
+                final Event expected = reference.poll();
+                final Event actual = schedule.poll();
+                assertTrue(expected == actual);
+                transitions++;
+                // Re-schedule some events later, some at the head
+                final int choice = random.nextInt(4);
+                if (transitions < 2000 && choice > 0)
+                {
+                    final double time = actual.getStarted()
+                            + random.nextInt(20) / 2.0;
+                    actual.setValues(time, time, time);
+                    if (choice == 1)
+                    {
+                        schedule.addFirst(actual);
+                        reference.addFirst(actual);
+                    }
+                    else
+                    {
+                        schedule.add(actual);
+                        reference.add(actual);
+                    }
+                }
+                assertEquals(reference.size(), schedule.size());
+            }
+            assertTrue(schedule.isEmpty());
+        }
+    }
+
+    /**
+     * Check that the heap keeps models with priority lists as quick as the
+     * original sorted list, which re-prioritization used to walk in order.
+     */
+    @Test(timeout = 120000)
+    public void testPrioritized()
+    {
+        System.out.println("prioritized");
+        final File file = new File("src/test/data/test.example.txt");
+        final Token token = new Lexer().analyze(file);
+        final long[] elapsed = new long[2];
+        final String[] types = {Schedule.LIST, Schedule.HEAP};
+        for (int index = 0; index < types.length; index++)
+        {
+            System.out.println("  " + types[index]);
+            final Model model = token.parse();
+            assertTrue(model.isCompiled());
+            assertTrue(model.setSchedule(types[index]));
+            model.setSeed(3);
+            final long started = System.nanoTime();
+            assertNotNull(model.replicate(20000, 1000, 19000));
+            elapsed[index] = System.nanoTime() - started;
+        }
+        // Generous margin for noise, but an order of magnitude below the
+        // cost of an ordered walk of the heap
+        assertTrue(elapsed[1] < 2 * elapsed[0] + 2000000000L);
+    }
+
+    /**
+     * Create an event at a time
+     *
+     * @param label name of event
+     * @param started time event can start
+     * @param arrived time event arrived
+     * @return new event
+     */
+    private Event event(final String label, final double started,
+            final double arrived)
+    {
+        final Event event = new Event("source", label, arrived);
+        event.setValues(arrived, started, started);
+        return event;
+    }
+}
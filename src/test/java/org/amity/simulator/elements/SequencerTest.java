@@ -186,4 +186,81 @@ public class SequencerTest
         event = sequencer.prioritize(priority2, buffer);
         assertTrue(event == priority2);
     }
+
+    /**
+     * Test of reachability method, of class Sequencer.
+     */
+    @Test
+    public void testReachability()
+    {
+        System.out.println("reachability");
+        final List<String> priorities = new ArrayList<>();
+        priorities.add("source 1");
+        priorities.add("source 2");
+        final Component target = new Processor("target", new ArrayList<>(),
+                priorities, false);
+        final Component other = new Processor("other", new ArrayList<>(),
+                priorities, false);
+        // Leads to the target through a second balancer
+        final List<String> references = new ArrayList<>();
+        references.add("inner");
+        references.add("other");
+        final Distributor outerDistributor = new Smart(references);
+        final List<String> innerReferences = new ArrayList<>();
+        innerReferences.add("target");
+        final Distributor innerDistributor = new Smart(innerReferences);
+        innerDistributor.addNext(target);
+        final Component inner = new Balancer("inner", innerDistributor,
+                false);
+        outerDistributor.addNext(inner);
+        outerDistributor.addNext(other);
+        final Component outer = new Balancer("outer", outerDistributor,
+                false);
+        // Leads only to the other processor
+        final List<String> asideReferences = new ArrayList<>();
+        asideReferences.add("other");
+        final Distributor asideDistributor = new Smart(asideReferences);
+        asideDistributor.addNext(other);
+        final Component aside = new Balancer("aside", asideDistributor,
+                false);
+        Sequencer.reachability(List.of(target, other, inner, outer, aside));
+        System.out.println("  Test balancers lead through other balancers");
+        final int index = ((Processor) target).index;
+        assertTrue(index >= 0);
+        assertTrue(((Processor) other).index >= 0);
+        assertTrue(((Processor) other).index != index);
+        assertTrue(((Balancer) inner).leads.get(index));
+        assertTrue(((Balancer) outer).leads.get(index));
+        assertTrue(((Balancer) outer).leads.get(((Processor) other).index));
+        assertFalse(((Balancer) aside).leads.get(index));
+        System.out.println("  Test unreachable balancer is not explored");
+        final Sequencer sequencer = new Sequencer();
+        final Event current = new Event("test", "123", 0);
+        current.setComponent(target);
+        final Event asideEvent = new Event("source 1", "234", 0);
+        asideEvent.setComponent(aside);
+        final Event otherEvent = new Event("source 1", "345", 0);
+        otherEvent.setComponent(other);
+        final Event outerEvent = new Event("source 2", "456", 0);
+        outerEvent.setComponent(outer);
+        final List<Event> buffer = new ArrayList<>();
+        buffer.add(asideEvent);
+        buffer.add(otherEvent);
+        buffer.add(outerEvent);
+        Event event = sequencer.prioritize(current, buffer);
+        assertTrue(event == outerEvent);
+        assertTrue(buffer.get(0) == current);
+        assertFalse(sequencer.exclusions.contains(aside));
+        assertFalse(sequencer.exclusions.contains(other));
+        assertTrue(sequencer.paths.contains(outer));
+        assertTrue(sequencer.paths.contains(inner));
+        System.out.println("  Test event at next active component");
+        final Event targetEvent = new Event("source 1", "567", 0);
+        targetEvent.setComponent(target);
+        buffer.clear();
+        buffer.add(asideEvent);
+        buffer.add(targetEvent);
+        event = sequencer.prioritize(current, buffer);
+        assertTrue(event == targetEvent);
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * SourceNamesTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.amity.simulator.generators.Constant;
+import org.amity.simulator.generators.Generator;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the ids given to the names of event sources.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class SourceNamesTest
+{
+
+    public SourceNamesTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of id and name methods, of class SourceNames.
+     */
+    @Test
+    public void testId()
+    {
+        System.out.println("id");
+        final SourceNames names = new SourceNames();
+        final int first = names.id("names first");
+        final int second = names.id("names second");
+        System.out.println("  ids are dense");
+        assertEquals(0, first);
+        assertEquals(1, second);
+        System.out.println("  same name gives same id");
+        assertEquals(first, names.id("names " + "first"));
+        assertEquals(second, names.id("names second"));
+        System.out.println("  different names give different ids");
+        assertTrue(first != second);
+        System.out.println("  id names the source");
+        assertEquals("names first", names.name(first));
+        assertEquals("names second", names.name(second));
+        System.out.println("  no name");
+        assertEquals(-1, names.id(null));
+        System.out.println("  event from the table or by name");
+        final Event event = new Event(names, second, "1", 0);
+        assertEquals("names second", event.getSource());
+        assertEquals(second, names.of(event));
+        assertEquals(second, names.of(new Event("names second", "2", 0)));
+        assertEquals(0, new SourceNames().of(event));
+    }
+
+    /**
+     * Test of lookup method, of class SourceNames.
+     */
+    @Test
+    public void testLookup()
+    {
+        System.out.println("lookup");
+        final Map<String, Generator> generators = new HashMap<>();
+        final Generator first = new Constant(1, "lookup first", null);
+        final Generator second = new Constant(2, "lookup second", null);
+        generators.put("lookup first", first);
+        generators.put("lookup second", second);
+        final SourceNames names = new SourceNames();
+        final Generator[] lookup = names.lookup(generators);
+        assertTrue(lookup[names.id("lookup first")] == first);
+        assertTrue(lookup[names.id("lookup second")] == second);
+        int found = 0;
+        for (final Generator generator : lookup)
+        {
+            found += generator == null ? 0 : 1;
+        }
+        assertEquals(2, found);
+    }
+
+    /**
+     * Test of ranks method, of class SourceNames.
+     */
+    @Test
+    public void testRanks()
+    {
+        System.out.println("ranks");
+        final SourceNames names = new SourceNames();
+        final int[] ranks = names.ranks(List.of("ranks high", "ranks low",
+                "ranks high", "ranks lowest"));
+        System.out.println("  Test ranks follow the priority list");
+        assertTrue(ranks[names.id("ranks high")] == 0);
+        assertTrue(ranks[names.id("ranks low")] == 1);
+        System.out.println("  Test source listed twice keeps its first place");
+        assertTrue(ranks[names.id("ranks lowest")] == 2);
+        System.out.println("  Test unlisted source");
+        final int unlisted = names.id("ranks unlisted");
+        assertTrue(unlisted >= ranks.length
+                || ranks[unlisted] == Integer.MAX_VALUE);
+        System.out.println("  Test no priorities");
+        assertTrue(names.ranks(null).length == 0);
+    }
+
+    /**
+     * Test of bind method, of class SourceNames.
+     */
+    @Test
+    public void testBind()
+    {
+        System.out.println("bind");
+        final SourceNames first = new SourceNames();
+        final SourceNames second = new SourceNames();
+        final Source alpha = new Source("bind alpha",
+                new Constant(1, null, null), null, null, false);
+        final Source beta = new Source("bind beta",
+                new Constant(1, null, null), null, null, false);
+        final Source gamma = new Source("bind gamma",
+                new Constant(1, null, null), null, null, false);
+        final Processor processor = new Processor("bind processor",
+                List.of(new Constant(1, "bind gamma", null)),
+                List.of("bind beta"), false);
+        first.bind(List.of(alpha, beta), List.of(alpha, beta));
+        second.bind(List.of(gamma), List.of(gamma, processor));
+        System.out.println("  sources are numbered from 0 in each model");
+        assertEquals(0, first.id("bind alpha"));
+        assertEquals(1, first.id("bind beta"));
+        assertEquals(0, second.id("bind gamma"));
+        System.out.println("  events carry the id of their model");
+        final Event event = gamma.simulate(null);
+        assertTrue(event.names == second);
+        assertEquals(0, event.origin);
+        System.out.println("  visits are recorded by the ids of their model");
+        final Visits visits = gamma.getLocalEvents();
+        assertEquals(0, visits.getSource(0));
+        assertEquals("bind gamma", visits.getName(visits.getSource(0)));
+        assertEquals("bind gamma", visits.get(0).getSource());
+        System.out.println("  components rank by the ids of their model");
+        final Sequencer sequencer = new Sequencer();
+        processor.prioritize(sequencer, false);
+        assertTrue(sequencer.names == second);
+        assertEquals(0, sequencer.ranks[second.id("bind beta")]);
+        System.out.println("  names of one model are unknown to another");
+        assertEquals(2, second.id("bind alpha"));
+    }
+}
@@ -224,7 +224,7 @@ public class SourceTest
                 new Source(label, generator, null, null, false);
         // This is invariant as a source never has any wait times
         assertTrue(instance.getQueueStatistics() != null);
-        assertEquals(0, instance.getQueueStatistics().size());
+        assertEquals(0, instance.getQueueStatistics().getChanges());
     }
 
     /**
@@ -280,7 +280,7 @@ public class SourceTest
         instance.prioritize(sequencer, false);
         assertTrue(sequencer.exclusions.isEmpty());
         assertFalse(sequencer.paths.isEmpty());
-        assertTrue(sequencer.sources.length == 0);
+        assertTrue(sequencer.ranks.length == 0);
         assertTrue(sequencer.paths.contains(instance));
         System.out.println("  Try explore");
         sequencer.paths.clear();
@@ -20,6 +20,7 @@
 package org.amity.simulator.elements;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedList;
 import org.amity.simulator.generators.Constant;
@@ -394,7 +395,7 @@ public class ThrottleTest
         System.out.println("  Check depth");
         // No way to adequately test this except under load
         assertTrue(instance.getQueueStatistics() != null);
-        assertEquals(1, instance.getQueueStatistics().size());
+        assertEquals(0, instance.getQueueStatistics().getChanges());
     }
 
     /**
@@ -512,9 +513,10 @@ public class ThrottleTest
         assertFalse(sequencer.paths.isEmpty());
         assertTrue(sequencer.paths.contains(instance));
         assertTrue(sequencer.participants.isEmpty());
-        assertFalse(sequencer.priorities.isEmpty());
-        assertTrue(sequencer.priorities.contains(label));
-        assertTrue(sequencer.sources.length == 1);
+        assertTrue(sequencer.ranks.length > sequencer.names.id(label));
+        assertTrue(sequencer.ranks[sequencer.names.id(label)] == 0);
+        assertTrue(Arrays.stream(sequencer.ranks)
+                .filter(rank -> rank != Integer.MAX_VALUE).count() == 1);
         System.out.println("  Try explore with different end component");
         sequencer.participants.clear();
         sequencer.paths.clear();
@@ -624,4 +626,73 @@ public class ThrottleTest
             assertTrue(instance.getAvailable() == state[index++]);
         }
     }
+
+    /**
+     * Test of save and restore methods, of class Throttle.
+     */
+    @Test
+    public void testRestore()
+    {
+        System.out.println("restore");
+        final String sourceLabel = "source";
+        final Generator generator = new Constant(2, sourceLabel, null);
+        final List<Generator> generators = new ArrayList<>();
+        generators.add(generator);
+        final Component instance = new Throttle("delay", generators,
+                new ArrayList<>(), true);
+        // Last event is released out of time order, as re-prioritization can
+        final double[] times = {0, 0.5, 1, 5};
+        final List<Event> events = new ArrayList<>();
+        for (final double time : times)
+        {
+            final Event event = new Event(sourceLabel, "" + time, time);
+            event.setValues(time, time, time);
+            event.setComponent(instance);
+            events.add(event);
+        }
+        final List<Object> states = new ArrayList<>();
+        final List<Event> saved = new ArrayList<>();
+        for (final Event event : events)
+        {
+            states.add(instance.save(event));
+            saved.add(new Event(event));
+            event.simulate();
+        }
+        System.out.println("  queued events wait from the release");
+        assertEquals(4, instance.getAvailable(), DELTA);
+        assertEquals(5, events.get(1).getStarted(), DELTA);
+        assertEquals(5, events.get(2).getStarted(), DELTA);
+        System.out.println("  roll back the release");
+        instance.restore(states.get(3));
+        events.get(3).restore(saved.get(3));
+        assertEquals(2, instance.getAvailable(), DELTA);
+        assertEquals(2, events.get(1).getStarted(), DELTA);
+        assertEquals(2, events.get(2).getStarted(), DELTA);
+        System.out.println("  repeat gives same result");
+        states.set(3, instance.save(events.get(3)));
+        events.get(3).simulate();
+        assertEquals(5, events.get(1).getStarted(), DELTA);
+        assertEquals(5, events.get(2).getStarted(), DELTA);
+        System.out.println("  roll back to start");
+        for (int index = events.size() - 1; index >= 0; index--)
+        {
+            instance.restore(states.get(index));
+            events.get(index).restore(saved.get(index));
+        }
+        assertEquals(0, instance.getAvailable(), DELTA);
+        assertTrue(instance.getLocalEvents().isEmpty());
+        assertEquals(0, instance.getQueueStatistics().getChanges());
+        System.out.println("  released in time order");
+        for (final int index : new int[]{0, 1, 2, 1, 2, 2})
+        {
+            events.get(index).simulate();
+        }
+        assertEquals(6, instance.getAvailable(), DELTA);
+        assertEquals(4, events.get(2).getStarted(), DELTA);
+        assertEquals(3, instance.getLocalEvents().size());
+        for (final Object state : states)
+        {
+            instance.commit(state);
+        }
+    }
 }
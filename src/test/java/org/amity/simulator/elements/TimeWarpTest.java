@@ -0,0 +1,174 @@
+/*
+ * TimeWarpTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.elements;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.amity.simulator.language.Lexer;
+import org.amity.simulator.language.Token;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test optimistic parallel simulation of partitioned models
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class TimeWarpTest
+{
+
+    public TimeWarpTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of execute method, of class TimeWarp.
+     */
+    @Test
+    public void testExecute()
+    {
+        System.out.println("execute");
+        final File file = new File("src/test/data/fun.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model model = token.parse();
+        final TimeWarp instance = new TimeWarp(model.components.values(),
+                model.sources, 5000, Schedule.HEAP, 4, false);
+        assertEquals(4, instance.size());
+        assertTrue(instance.execute());
+        // Three constant sources generating every 5 ticks
+        assertTrue(instance.completed.size() > 2900);
+        System.out.println("  No event is lost or duplicated by roll back");
+        final Set<String> names = new HashSet<>();
+        for (final Event event : instance.completed)
+        {
+            assertNull(event.getComponent());
+            assertTrue(event.getLast().startsWith("box"));
+            assertTrue(names.add(event.getSource() + event.getLabel()));
+        }
+        System.out.println("  Rolled back processing is undone");
+        for (final Component component : model.components.values())
+        {
+            if (component instanceof Processor)
+            {
+                final List<Event> local = component.getLocalEvents();
+                for (int index = 1; index < local.size(); index++)
+                {
+                    assertTrue(local.get(index).getStarted()
+                            >= local.get(index - 1).getCompleted());
+                }
+            }
+        }
+    }
+
+    /**
+     * Check optimistic simulation agrees with sequential simulation
+     */
+    @Test
+    public void testEquivalence()
+    {
+        System.out.println("equivalence");
+        final File file = new File("src/test/data/fun.example.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model sequential = token.parse();
+        final Model parallel = token.parse();
+        assertTrue(parallel.setPartitions(4));
+        parallel.setOptimistic(true);
+        assertTrue(parallel.isOptimistic());
+        final Map<String, Map<String, Double>> expected
+                = sequential.replicate(20000, 1000, 19000).getResults();
+        final Map<String, Map<String, Double>> actual
+                = parallel.replicate(20000, 1000, 19000).getResults();
+        final String[] sections = {"General event information",
+            "Component: balancer", "Component: box 3e"};
+        for (final String section : sections)
+        {
+            System.out.println("  " + section);
+            for (final Map.Entry<String, Double> entry
+                    : expected.get(section).entrySet())
+            {
+                final String name = entry.getKey();
+                if (name.endsWith("mean") && !name.startsWith("Wait")
+                        && !name.startsWith("Queued"))
+                {
+                    final double value = entry.getValue();
+                    assertEquals(name, value, actual.get(section).get(name),
+                            Math.abs(value) * 0.05);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check a chain of balancers that crosses partitions and comes back does
+     * not roll itself back for ever, and gives exactly the result of a
+     * sequential simulation
+     */
+    @Test(timeout = 60000)
+    public void testNestedBalancers()
+    {
+        System.out.println("nested balancers");
+        final File file = new File("src/test/data/nested.balancer.txt");
+        final Lexer lexer = new Lexer();
+        final Token token = lexer.analyze(file);
+        final Model sequential = token.parse();
+        sequential.setSeed(19);
+        final Map<String, Map<String, Double>> expected
+                = sequential.replicate(2000, 100, 1900).getResults();
+        for (int count = 2; count <= 3; count++)
+        {
+            System.out.println("  " + count + " partitions");
+            final Model parallel = token.parse();
+            assertTrue(parallel.setPartitions(count));
+            parallel.setOptimistic(true);
+            parallel.setSeed(19);
+            assertEquals(expected,
+                    parallel.replicate(2000, 100, 1900).getResults());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * EnginesBenchmark.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.generators;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.amity.simulator.language.Vocabulary;
+
+/**
+ * Measures variates drawn per second for each random number engine and
+ * distribution. Not run as part of the tests - run the main method against
+ * the test classpath, optionally with the number of variates per measurement.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class EnginesBenchmark
+{
+
+    private final static int VARIATES = 5000000;
+    private final static int ROUNDS = 3;
+
+    /**
+     * Hidden default constructor - only static methods
+     */
+    private EnginesBenchmark()
+    {
+    }
+
+    /**
+     * @param args optional number of variates per measurement
+     */
+    public static void main(final String[] args)
+    {
+        final int variates = args.length > 0 ? Integer.parseInt(args[0])
+                : VARIATES;
+        System.out.println(String.format("%-24s %-10s %15s", "Engine",
+                "Generator", "Variates/s"));
+        for (final String engine : Engines.names())
+        {
+            final Map<String, Generator> generators = new LinkedHashMap<>();
+            generators.put("uniform", new Uniform(5, 10, Vocabulary.DEFAULT,
+                    null));
+            generators.put("gaussian", new Gaussian(5, 10,
+                    Vocabulary.DEFAULT, null));
+            generators.put("skewed", new Skewed(5, 10, 1, 0.5,
+                    Vocabulary.DEFAULT, null));
+            for (final Map.Entry<String, Generator> entry
+                    : generators.entrySet())
+            {
+                final Generator generator = entry.getValue();
+                generator.seed(engine, 1);
+                // Warm up once, then keep the best of the timed rounds
+                EnginesBenchmark.draw(generator, variates);
+                double best = 0;
+                for (int round = 0; round < ROUNDS; round++)
+                {
+                    final long started = System.nanoTime();
+                    EnginesBenchmark.draw(generator, variates);
+                    final long elapsed = System.nanoTime() - started;
+                    best = Math.max(best, variates * 1e9 / elapsed);
+                }
+                System.out.println(String.format("%-24s %-10s %15.0f",
+                        engine, entry.getKey(), best));
+            }
+        }
+    }
+
+    /**
+     * Draw values from a generator
+     *
+     * @param generator generator to draw from
+     * @param variates number of values
+     * @return total of values, so the work is not optimized away
+     */
+    private static double draw(final Generator generator, final int variates)
+    {
+        double total = 0;
+        for (int count = 0; count < variates; count++)
+        {
+            total += generator.generate();
+        }
+        if (total < 0)
+        {
+            System.out.println(total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * EnginesTest.java
+ *
+ * (C) Copyright 2026 Jon Barnett.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Created on October 17, 2026
+ */
+package org.amity.simulator.generators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import org.amity.simulator.language.Vocabulary;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests the selectable random number engines.
+ *
+ * @author <a href="mailto:jonb@ieee.org">Jon Barnett</a>
+ */
+public class EnginesTest
+{
+
+    public EnginesTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+    }
+
+    @Before
+    public void setUp()
+    {
+    }
+
+    @After
+    public void tearDown()
+    {
+    }
+
+    /**
+     * Test of names and isAvailable methods, of class Engines.
+     */
+    @Test
+    public void testNames()
+    {
+        System.out.println("names");
+        final Set<String> names = Engines.names();
+        assertTrue(names.contains(Engines.JDK));
+        assertTrue(names.contains(Engines.MERSENNE));
+        assertTrue(names.contains(Engines.DEFAULT));
+        assertTrue(names.contains("Xoroshiro128PlusPlus"));
+        assertTrue(Engines.isAvailable(Engines.DEFAULT));
+        assertFalse(Engines.isAvailable("nonsense"));
+        assertFalse(Engines.isAvailable(null));
+        assertNull(Engines.create("nonsense", 1));
+    }
+
+    /**
+     * Test of create method, of class Engines.
+     */
+    @Test
+    public void testCreate()
+    {
+        System.out.println("create");
+        for (final String name : Engines.names())
+        {
+            final RandomGenerator first = Engines.create(name, 42);
+            final RandomGenerator second = Engines.create(name, 42);
+            final RandomGenerator other = Engines.create(name, 43);
+            boolean different = false;
+            for (int count = 0; count < 100; count++)
+            {
+                final double value = first.nextDouble();
+                assertEquals(value, second.nextDouble(), 0);
+                assertTrue(value >= 0 && value < 1);
+                different |= value != other.nextDouble();
+            }
+            assertTrue(name, different);
+        }
+    }
+
+    /**
+     * Test of engine state surviving a checkpoint, of class Algorithm.
+     *
+     * @throws IOException if the checkpoint fails
+     */
+    @Test
+    public void testCheckpoint() throws IOException
+    {
+        System.out.println("checkpoint");
+        for (final String name : Engines.names())
+        {
+            final Replayable original
+                    = new Replayable(Engines.create(name, 7));
+            for (int count = 0; count < 1001; count++)
+            {
+                original.nextGaussian();
+                original.nextInt(10);
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            original.write(new DataOutputStream(bytes));
+            final Replayable copy = new Replayable(Engines.create(name, 0));
+            copy.read(new DataInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray())));
+            for (int count = 0; count < 100; count++)
+            {
+                assertEquals(name, original.nextGaussian(),
+                        copy.nextGaussian(), 0);
+                assertEquals(name, original.nextLong(), copy.nextLong());
+            }
+        }
+    }
+
+    /**
+     * Test of seed method, of class Uniform, with each engine.
+     */
+    @Test
+    public void testSeed()
+    {
+        System.out.println("seed");
+        for (final String name : Engines.names())
+        {
+            final Generator first = new Uniform(5, 6, Vocabulary.DEFAULT,
+                    null);
+            final Generator second = new Uniform(5, 6, Vocabulary.DEFAULT,
+                    null);
+            first.seed(name, 11);
+            second.seed(name, 11);
+            final DescriptiveStatistics statistics
+                    = new DescriptiveStatistics();
+            for (int count = 0; count < 10000; count++)
+            {
+                final double value = first.generate();
+                assertEquals(value, second.generate(), 0);
+                statistics.addValue(value);
+            }
+            assertEquals(name, 5.5, statistics.getMean(), 0.02);
+        }
+    }
+}
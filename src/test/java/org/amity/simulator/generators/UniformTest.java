@@ -99,6 +99,40 @@ public class UniformTest
         assertTrue(max <= maximum);
     }
 
+    /**
+     * Test of save, restore and commit methods, of class Uniform.
+     */
+    @Test
+    public void testRestore()
+    {
+        System.out.println("restore");
+        final Generator instance = new Uniform(5, 6, Vocabulary.DEFAULT,
+                null);
+        instance.generate();
+        final Object state = instance.save();
+        final double[] values = new double[100];
+        for (int index = 0; index < values.length; index++)
+        {
+            values[index] = instance.generate();
+        }
+        System.out.println("  values repeat after roll back");
+        instance.restore(state);
+        for (int index = 0; index < values.length / 2; index++)
+        {
+            assertEquals(values[index], instance.generate(), 0.0);
+        }
+        final Object middle = instance.save();
+        instance.commit(state);
+        for (int index = values.length / 2; index < values.length; index++)
+        {
+            assertEquals(values[index], instance.generate(), 0.0);
+        }
+        System.out.println("  roll back to a later point");
+        instance.restore(middle);
+        assertEquals(values[values.length / 2], instance.generate(), 0.0);
+        instance.commit(middle);
+    }
+
     /**
      * Test of characteristics method, of class Uniform.
      */
@@ -202,4 +202,191 @@ public class MainTest
         final int statusCode = Main.simulate(arguments);
         assertEquals(Main.GOOD_EXIT, statusCode);
     }
+
+    /**
+     * Test with unknown future event list.
+     */
+    @Test
+    public void testIllegalSchedule()
+    {
+        System.out.println("  Execute with unknown schedule");
+        final String[] arguments
+            = new String[]{"-g", "20", "-s", "5", "-e", "15", "-q", "tree",
+                "-f", "src/test/data/test.example.txt"};
+        final int statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
+
+    /**
+     * Test with calendar queue future event list.
+     */
+    @Test
+    public void testCalendarSchedule()
+    {
+        System.out.println("  Execute with calendar schedule");
+        final String[] arguments
+            = new String[]{"-g", "20", "-s", "5", "-e", "15", "-q",
+                "calendar", "-f", "src/test/data/test.example.txt"};
+        final int statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+    }
+
+    /**
+     * Test with illegal number of replications.
+     */
+    @Test
+    public void testIllegalReplications()
+    {
+        System.out.println("  Execute with zero replications");
+        final String[] arguments
+            = new String[]{"-g", "20", "-s", "5", "-e", "15", "-r", "0",
+                "-f", "src/test/data/test.example.txt"};
+        final int statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
+
+    /**
+     * Test with replications on worker threads.
+     */
+    @Test
+    public void testReplications()
+    {
+        System.out.println("  Execute with replications");
+        final String[] arguments
+            = new String[]{"-g", "20", "-s", "5", "-e", "15", "-r", "3",
+                "-t", "2", "-f", "src/test/data/test.example.txt"};
+        final int statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+    }
+
+    /**
+     * Test with checkpoint written and then resumed further.
+     */
+    @Test
+    public void testCheckpoint()
+    {
+        System.out.println("  Execute with checkpoint");
+        String[] arguments
+            = new String[]{"-g", "20", "-s", "5", "-e", "15", "-c",
+                "target/main.checkpoint", "-n", "10", "-f",
+                "src/test/data/test.example.txt"};
+        int statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+        System.out.println("  Execute resumed from checkpoint");
+        arguments
+            = new String[]{"-g", "40", "-s", "5", "-e", "35", "-u",
+                "target/main.checkpoint", "-f",
+                "src/test/data/test.example.txt"};
+        statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+    }
+
+    /**
+     * Test with checkpoint of replications.
+     */
+    @Test
+    public void testIllegalCheckpoint()
+    {
+        System.out.println("  Execute with checkpoint of replications");
+        final String[] arguments
+            = new String[]{"-g", "20", "-s", "5", "-e", "15", "-r", "3",
+                "-c", "target/main.checkpoint", "-f",
+                "src/test/data/test.example.txt"};
+        final int statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
+
+    /**
+     * Test of simulate method with what-if branches, of class Main.
+     */
+    @Test
+    public void testBranch()
+    {
+        System.out.println("  Execute with a branch");
+        String[] arguments
+            = new String[]{"-g", "200", "-s", "50", "-e", "150", "-b",
+                "src/test/data/balancer.variant.txt", "-f",
+                "src/test/data/balancer.example.txt"};
+        int statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+        System.out.println("  Execute with a missing branch");
+        arguments = new String[]{"-g", "200", "-s", "50", "-e", "150", "-b",
+                "src/test/data/missing.txt", "-f",
+                "src/test/data/balancer.example.txt"};
+        statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+        System.out.println("  Execute with a branch of replications");
+        arguments = new String[]{"-g", "200", "-s", "50", "-e", "150", "-r",
+                "2", "-b", "src/test/data/balancer.variant.txt", "-f",
+                "src/test/data/balancer.example.txt"};
+        statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
+
+    /**
+     * Test of simulate method with a stopping rule, of class Main.
+     */
+    @Test
+    public void testPrecision()
+    {
+        System.out.println("  Execute until statistics are precise");
+        String[] arguments
+            = new String[]{"-g", "1000000", "-s", "500", "-e", "900000",
+                "-a", "0.1", "-f", "src/test/data/monitoring.example.txt"};
+        int statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+        System.out.println("  Execute with precision out of range");
+        arguments = new String[]{"-g", "200", "-s", "50", "-e", "150", "-a",
+                "1.5", "-f", "src/test/data/monitoring.example.txt"};
+        statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+        System.out.println("  Execute with precision of partitions");
+        arguments = new String[]{"-g", "200", "-s", "50", "-e", "150", "-a",
+                "0.1", "-p", "2", "-f", "src/test/data/monitoring.example.txt"};
+        statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
+
+    /**
+     * Test of simulate method with a seed, of class Main.
+     */
+    @Test
+    public void testSeed()
+    {
+        System.out.println("  Execute with a seed");
+        String[] arguments
+            = new String[]{"-g", "200", "-s", "50", "-e", "150", "-d",
+                "-12345", "-f", "src/test/data/balancer.example.txt"};
+        int statusCode = Main.simulate(arguments);
+        assertEquals(Main.GOOD_EXIT, statusCode);
+        System.out.println("  Execute with a seed that is not an integer");
+        arguments = new String[]{"-g", "200", "-s", "50", "-e", "150", "-d",
+                "1.5", "-f", "src/test/data/balancer.example.txt"};
+        statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
+
+    /**
+     * Test of selecting the random number engine, of class Main.
+     */
+    @Test
+    public void testEngine()
+    {
+        System.out.println("  Execute with each engine");
+        for (final String engine : new String[]{"jdk", "mersenne",
+            "Xoroshiro128PlusPlus"})
+        {
+            final String[] arguments = new String[]{"-g", "200", "-s", "50",
+                "-e", "150", "-d", "7", "-x", engine, "-f",
+                "src/test/data/balancer.example.txt"};
+            final int statusCode = Main.simulate(arguments);
+            assertEquals(Main.GOOD_EXIT, statusCode);
+        }
+        System.out.println("  Execute with an unknown engine");
+        final String[] arguments = new String[]{"-g", "200", "-s", "50", "-e",
+            "150", "-x", "nonsense", "-f",
+            "src/test/data/balancer.example.txt"};
+        final int statusCode = Main.simulate(arguments);
+        assertEquals(Main.BAD_EXIT, statusCode);
+    }
 }